@@ -63,13 +63,11 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // 유효하지 않으면 인증 세팅 없이 통과 (로그인 필요 엔드포인트는 결국 401을 주게 됨)
-            if (!tokenProvider.validToken(token)) {
-                filterChain.doFilter(request, response);
-                return;
+            // 토큰은 한 번만 파싱. 유효하지 않으면 인증 세팅 없이 통과 (로그인 필요 엔드포인트는 결국 401을 주게 됨)
+            Authentication authentication = tokenProvider.authenticate(token);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
-            Authentication authentication = tokenProvider.getAuthentication(token);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (Exception e) {
             // 필요시 디버그 로그만
             // log.debug("JWT processing failed: {}", e.getMessage());
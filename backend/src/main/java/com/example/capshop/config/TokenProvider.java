@@ -1,31 +1,49 @@
 package com.example.capshop.config;
 
 import com.example.capshop.domain.User;
+import com.example.capshop.dto.UserSecurityState;
+import com.example.capshop.service.UserSecurityCache;
 
-import com.example.capshop.repository.UserRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Collections;
 import java.util.Date;
-import java.util.Set;
+import java.util.List;
 
-@RequiredArgsConstructor
 @Service
 public class TokenProvider {
-    private final JwtProperties jwtProperties;
-    private final UserRepository userRepository;
+    private static final List<SimpleGrantedAuthority> USER_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<SimpleGrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    private final UserSecurityCache userSecurityCache;
+    // 서명 키와 파서는 한 번만 만들어서 재사용 (JwtParser 는 스레드 안전)
+    private final SecretKey secretKey;
+    private final JwtParser parser;
+
+    public TokenProvider(JwtProperties jwtProperties, UserSecurityCache userSecurityCache) {
+        this.userSecurityCache = userSecurityCache;
+        this.secretKey = new SecretKeySpec(
+                jwtProperties.getSecretKey().getBytes(StandardCharsets.UTF_8),
+                SignatureAlgorithm.HS256.getJcaName()
+        );
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
+    }
+
     public String generateToken(User user, Duration expiredAt){
         Date now = new Date();
         return makeToken(new Date(now.getTime()+expiredAt.toMillis()), user);
@@ -33,11 +51,6 @@ public class TokenProvider {
 
     private String makeToken(Date expiry, User user) {
         Date now = new Date();
-        SecretKey secretKey = new SecretKeySpec(
-                jwtProperties.getSecretKey().getBytes(StandardCharsets.UTF_8),
-                SignatureAlgorithm.HS256.getJcaName()
-        );
-
         return Jwts.builder()
                 .setHeaderParam("typ", "JWT")
                 .setIssuedAt(now)
@@ -50,44 +63,50 @@ public class TokenProvider {
 
     public boolean validToken(String token){
         try{
-            SecretKey secretKey = new SecretKeySpec(
-                    jwtProperties.getSecretKey().getBytes(StandardCharsets.UTF_8),
-                    SignatureAlgorithm.HS256.getJcaName()
-            );
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
-    public Authentication getAuthentication(String token){
-        Claims claims = getClaims(token);
-        String email = claims.getSubject();
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("사용자 없음"));
-
-        Set<SimpleGrantedAuthority> authorities = Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"));
-
-        return new UsernamePasswordAuthenticationToken(user, token, authorities);
+    /**
+     * 토큰을 한 번만 파싱해서 인증 객체 생성 (서명/만료가 잘못되었거나 탈퇴한 사용자면 null)
+     * principal 은 토큰의 id/email 과 캐시된 사용자 상태로 만든 User (DB 조회 없음)
+     */
+    public Authentication authenticate(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        UserSecurityState state = userSecurityCache.get(claims.get("id", Long.class));
+        if (state == null || state.isDeleted() || !state.getEmail().equals(claims.getSubject())) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(toPrincipal(state), token,
+                state.isAdmin() ? ADMIN_AUTHORITIES : USER_AUTHORITIES);
     }
+
     public Long getUserId(String token){
      Claims claims = getClaims(token);
      return claims.get("id", Long.class);
     }
+
     private Claims getClaims(String token) {
-        SecretKey secretKey = new SecretKeySpec(
-                jwtProperties.getSecretKey().getBytes(StandardCharsets.UTF_8),
-                SignatureAlgorithm.HS256.getJcaName()
-        );
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // 컨트롤러의 @AuthenticationPrincipal User 가 그대로 동작하도록 id 가 채워진 User 로 만든다 (영속 상태 아님)
+    private User toPrincipal(UserSecurityState state) {
+        User user = User.builder()
+                .email(state.getEmail())
+                .name(state.getName())
+                .isAdmin(state.isAdmin())
+                .deleted(state.isDeleted())
+                .build();
+        user.setId(state.getId());
+        return user;
     }
-}
\ No newline at end of file
+}
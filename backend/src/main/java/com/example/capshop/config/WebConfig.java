@@ -6,6 +6,7 @@ import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 
@@ -13,9 +14,12 @@ import java.util.List;
 public class WebConfig implements WebMvcConfigurer {
 
     private final List<String> allowedOrigins;
+    private final String imageDir;
 
-    public WebConfig(@Value("${app.cors.allowed-origins}") String allowedOrigins) {
+    public WebConfig(@Value("${app.cors.allowed-origins}") String allowedOrigins,
+                     @Value("${app.media.image-dir:./uploads/images}") String imageDir) {
         this.allowedOrigins = Arrays.asList(allowedOrigins.split("\s*,\s*"));
+        this.imageDir = imageDir;
     }
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -28,8 +32,10 @@ public class WebConfig implements WebMvcConfigurer {
     
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // 디렉터리가 아직 없으면 toUri() 끝에 "/" 가 붙지 않으므로 직접 붙인다
+        String location = Paths.get(imageDir).toAbsolutePath().normalize().toUri().toString();
         registry.addResourceHandler("/images/**")
-                .addResourceLocations("file:/Users/kimchanho/Desktop/project/capshopimage/");
+                .addResourceLocations(location.endsWith("/") ? location : location + "/");
     }
 
 }
@@ -0,0 +1,53 @@
+package com.example.capshop.controller;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.capshop.service.BatchJobRunner;
+import com.example.capshop.service.CapReviewStatsService;
+import com.example.capshop.service.SchedulerLockService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/batch")
+public class AdminBatchController {
+
+    private final BatchJobRunner batchJobRunner;
+    private final SchedulerLockService schedulerLockService;
+    private final CapReviewStatsService capReviewStatsService;
+
+    // 배치 작업별 진행 상황과 직전 실행 결과 (건수, 묶음 수, 소요 시간)
+    @GetMapping("/stats")
+    public ResponseEntity<List<Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(batchJobRunner.stats());
+    }
+
+    // 스케줄 작업별 잠금 보유 서버, 만료 시각, 펜싱 토큰
+    @GetMapping("/locks")
+    public ResponseEntity<List<Map<String, Object>>> getLocks() {
+        return ResponseEntity.ok(schedulerLockService.stats());
+    }
+
+    // 상품별 리뷰 통계 재계산 (스케줄 작업과 같은 잠금을 써서 동시에 두 번 돌지 않게)
+    @PostMapping("/review-stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildReviewStats() {
+        AtomicLong rebuilt = new AtomicLong();
+        boolean ran = schedulerLockService.runExclusively("rebuildReviewStats", Duration.ofMinutes(5), Duration.ZERO,
+                () -> rebuilt.set(capReviewStatsService.rebuildAll()));
+        if (!ran) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "리뷰 통계를 이미 재계산하고 있습니다."));
+        }
+        return ResponseEntity.ok(Map.of("rebuiltCaps", rebuilt.get()));
+    }
+}
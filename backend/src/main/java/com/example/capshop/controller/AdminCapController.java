@@ -0,0 +1,34 @@
+package com.example.capshop.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.capshop.service.CapService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/caps")
+public class AdminCapController {
+
+    private final CapService capService;
+
+    // 상품 조회 캐시 통계 (히트/미스/제거 수)
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<Map<String, Object>>> getCacheStats() {
+        return ResponseEntity.ok(capService.cacheStats());
+    }
+
+    // 재고 편집용 사이즈별 실재고 (홀드 수량 포함, 캐시 없음)
+    @GetMapping("/{id}/stocks/physical")
+    public ResponseEntity<Map<String, Long>> getPhysicalStocks(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(capService.getPhysicalStockMap(id));
+    }
+}
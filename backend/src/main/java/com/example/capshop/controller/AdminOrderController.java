@@ -1,9 +1,9 @@
 package com.example.capshop.controller;
 
-import java.util.List;
+import java.time.LocalDate;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,9 +13,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.capshop.domain.Status;
-import com.example.capshop.domain.order.Order;
-import com.example.capshop.dto.OrderResponse;
+import com.example.capshop.dto.AdminOrderPageResponse;
 import com.example.capshop.service.OrderService;
+import com.example.capshop.service.TossPaymentsClient;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,32 +25,30 @@ import lombok.RequiredArgsConstructor;
 public class AdminOrderController {
 
     private final OrderService orderService;
+    private final TossPaymentsClient tossPaymentsClient;
 
-    // 전체 주문 목록 조회
+    // 주문 목록 조회 (최신순, 키셋 페이지네이션)
+    // 필터: 상태, 주문일 기간(from~to, yyyy-MM-dd, 양 끝 포함), 회원, 주문번호 앞부분
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders(
-        @RequestParam(name = "status", required = false) String status) {
+    public ResponseEntity<AdminOrderPageResponse> getAllOrders(
+        @RequestParam(name = "status", required = false) String status,
+        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(name = "userId", required = false) Long userId,
+        @RequestParam(name = "orderId", required = false) String orderIdPrefix,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", defaultValue = "20") int size) {
         
-        List<Order> orders;
-        
-        if (status != null && !status.isEmpty()) {
-            // 상태별 필터 (잘못된 값 방지)
-            try {
-                Status orderStatus = Status.valueOf(status.toUpperCase());
-                orders = orderService.getOrdersByStatus(orderStatus);
-            } catch (IllegalArgumentException e) {
-                return ResponseEntity.badRequest().build();
-            }
-        } else {
-            // 전체 조회
-            orders = orderService.getAllOrders();
+        try {
+            // 상태 필터 (잘못된 값 방지)
+            Status orderStatus = status != null && !status.isEmpty() ? Status.valueOf(status.toUpperCase()) : null;
+            return ResponseEntity.ok(orderService.searchAdminOrders(orderStatus,
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null,
+                    userId, orderIdPrefix, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        List<OrderResponse> response = orders.stream()
-                .map(OrderResponse::new)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(response);
     }
 
     // 배송 시작
@@ -121,4 +119,10 @@ public class AdminOrderController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    // 토스 API 호출 지표 (서킷 상태, 응답 시간 분포)
+    @GetMapping("/payments/stats")
+    public ResponseEntity<Map<String, Object>> getPaymentStats() {
+        return ResponseEntity.ok(tossPaymentsClient.stats());
+    }
 }
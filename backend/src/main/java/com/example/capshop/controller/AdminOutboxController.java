@@ -0,0 +1,60 @@
+package com.example.capshop.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.capshop.service.OutboxDispatcher;
+import com.example.capshop.service.OutboxService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/outbox")
+public class AdminOutboxController {
+
+    private final OutboxService outboxService;
+    private final OutboxDispatcher outboxDispatcher;
+
+    // 대기/실패 건수와 처리 지연
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(outboxDispatcher.stats());
+    }
+
+    // 재시도 한도를 넘긴 이벤트 목록
+    @GetMapping("/dead")
+    public ResponseEntity<List<Map<String, Object>>> getDeadEvents(
+        @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        List<Map<String, Object>> events = outboxService.findDead(Math.min(Math.max(limit, 1), 200)).stream()
+                .map(event -> Map.<String, Object>of(
+                        "id", event.getId(),
+                        "type", event.getType(),
+                        "eventKey", event.getEventKey(),
+                        "attempts", event.getAttempts(),
+                        "lastError", event.getLastError() != null ? event.getLastError() : "",
+                        "createdAt", event.getCreatedAt()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(events);
+    }
+
+    // 원인 해결 후 재처리
+    @PostMapping("/{eventId}/retry")
+    public ResponseEntity<Map<String, String>> retry(@PathVariable("eventId") Long eventId) {
+        try {
+            outboxService.requeue(eventId);
+            return ResponseEntity.ok(Map.of("message", "재처리 대기열에 추가되었습니다."));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -3,14 +3,20 @@ package com.example.capshop.controller;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.capshop.domain.Cap;
+import com.example.capshop.dto.CapDetailResponse;
+import com.example.capshop.dto.CapPageResponse;
+import com.example.capshop.dto.CapSearchResponse;
+import com.example.capshop.service.CapSearchService;
 import com.example.capshop.service.CapService;
 
 import lombok.RequiredArgsConstructor;
@@ -20,6 +26,7 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/cap")
 public class CapController {
     private final CapService capService;
+    private final CapSearchService capSearchService;
     @PostMapping("/save")
     public void saveCap(@RequestBody java.util.Map<String, Object> requestData){
         System.out.println("받은 데이터: " + requestData);
@@ -67,16 +74,48 @@ public class CapController {
         // 삭제완료
     }
     @GetMapping("/{id}")
-    public Cap capDetail(@PathVariable("id") Long id){
-        return capService.findById(id);
+    public CapDetailResponse capDetail(@PathVariable("id") Long id){
+        return capService.getCapDetail(id);
     }
     @GetMapping("/findAll")
-    public List<Cap> findAll(){
+    public List<CapDetailResponse> findAll(){
         return capService.findAll();
     }
     
+    // 상품 목록 페이지 조회 (카드 정보만, 키셋 페이지네이션)
+    @GetMapping
+    public ResponseEntity<CapPageResponse> list(
+            @RequestParam(name = "sort", defaultValue = "newest") String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "40") int size) {
+        try {
+            return ResponseEntity.ok(capService.findCatalogPage(sort, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // 상품 검색 (이름/색상/설명/사이즈 정보, 관련도 순) + 색상/사이즈/가격대 패싯
+    @GetMapping("/search")
+    public CapSearchResponse search(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "color", required = false) String color,
+            @RequestParam(name = "size", required = false) String size,
+            @RequestParam(name = "price", required = false) String priceBucket,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return capSearchService.search(query, color, size, priceBucket, limit);
+    }
+    
+    // 검색어 자동완성 (접두어로 시작하는 상품 이름)
+    @GetMapping("/search/suggest")
+    public List<String> suggest(
+            @RequestParam(name = "q") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return capSearchService.suggest(prefix, limit);
+    }
+    
     @GetMapping("/new")
-    public List<Cap> findNewCaps(){
+    public List<CapDetailResponse> findNewCaps(){
         return capService.findNewCaps();
     }
     
@@ -108,19 +147,10 @@ public class CapController {
         // 사이즈별 재고 변경 처리 완료
     }
     
-    // 특정 상품의 모든 사이즈별 재고 조회
+    // 특정 상품의 사이즈별 구매 가능 재고 조회 (홀드 수량 제외)
     @GetMapping("/stocks/{id}")
     public java.util.Map<String, Long> getStocksByCapId(@PathVariable("id") Long id) {
-        Cap cap = capService.findById(id);
-        java.util.Map<String, Long> stockMap = new java.util.HashMap<>();
-        
-        if (cap != null && cap.getStocks() != null) {
-            for (com.example.capshop.domain.CapStock stock : cap.getStocks()) {
-                stockMap.put(stock.getSize(), stock.getStock());
-            }
-        }
-        
-        return stockMap;
+        return capService.getStockMap(id);
     }
     
     @GetMapping("/getImages/{id}")
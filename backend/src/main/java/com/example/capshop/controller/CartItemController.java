@@ -1,7 +1,9 @@
 package com.example.capshop.controller;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -10,12 +12,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.capshop.domain.Cap;
-import com.example.capshop.domain.User;
 import com.example.capshop.dto.AddCartItemRequest;
-import com.example.capshop.service.CapService;
+import com.example.capshop.dto.CartBatchRequest;
+import com.example.capshop.dto.CartItemResponse;
 import com.example.capshop.service.CartItemService;
-import com.example.capshop.service.UserService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,50 +24,44 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @RequestMapping("/cart")
 public class CartItemController {
-    private final UserService userService;
-    private final CapService capService;
     private final CartItemService cartItemService;
+    // 담기/수량 변경은 id 만으로 조건부 UPDATE 한 번 (회원/상품 엔티티를 먼저 읽지 않는다)
     @PostMapping("/save")
-    public void cartIn(@RequestBody AddCartItemRequest request){
-        
-        User user = userService.findById(request.getUserId());
-        Cap cap = capService.findById(request.getCapId());
-        int quantity = request.getQuantity();
-        String size = request.getSize();
-        cartItemService.addToCart(user, cap, quantity, size);
+    public ResponseEntity<?> cartIn(@RequestBody AddCartItemRequest request){
+        return apply(() -> cartItemService.addToCart(
+                request.getUserId(), request.getCapId(), request.getQuantity(), request.getSize()));
     }
     @PostMapping("/increase")
-    public ResponseEntity<Integer> increase(@RequestBody AddCartItemRequest request) {
-        User user = userService.findById(request.getUserId());
-        Cap  cap  = capService.findById(request.getCapId());
-        String size = request.getSize();
-        int qty   = cartItemService.increaseQuantity(user, cap, size);
-        return ResponseEntity.ok(qty);
+    public ResponseEntity<?> increase(@RequestBody AddCartItemRequest request) {
+        return apply(() -> cartItemService.increaseQuantity(request.getUserId(), request.getCapId(), request.getSize()));
     }
 
-    // - 버튼: quantity 만큼 감소 (0 이하되면 삭제하고 0 반환)
+    // - 버튼: 1개 감소 (1개에서는 그대로)
     @PostMapping("/decrease")
-    public ResponseEntity<Integer> decrease(@RequestBody AddCartItemRequest request) {
-        User user = userService.findById(request.getUserId());
-        Cap  cap  = capService.findById(request.getCapId());
-        String size = request.getSize();
-        int qty   = cartItemService.decreaseQuantity(user, cap, size);
-        return ResponseEntity.ok(qty);
+    public ResponseEntity<?> decrease(@RequestBody AddCartItemRequest request) {
+        return apply(() -> cartItemService.decreaseQuantity(request.getUserId(), request.getCapId(), request.getSize()));
+    }
+
+    // 여러 줄 수량 변경을 한 번에 (하나라도 실패하면 전체 취소)
+    @PostMapping("/batch")
+    public ResponseEntity<?> batch(@RequestBody CartBatchRequest request) {
+        return apply(() -> cartItemService.applyChanges(request.getUserId(), request.getChanges()));
     }
 
     // 휴지통: 해당 아이템 전체 삭제 (quantity는 무시)
     @PostMapping("/delete")
-    public ResponseEntity<Void> delete(@RequestBody AddCartItemRequest request) {
-        User user = userService.findById(request.getUserId());
-        Cap  cap  = capService.findById(request.getCapId());
-        String size = request.getSize();
-        cartItemService.deleteCartItem(user, cap, size);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<?> delete(@RequestBody AddCartItemRequest request) {
+        try {
+            cartItemService.deleteCartItem(request.getUserId(), request.getCapId(), request.getSize());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
+    // 장바구니 화면: 가격/이미지/사이즈 재고/소계까지 한 번에 (회원 조회 없이 쿼리 한 번)
     @GetMapping("/findAll")
-        public List<com.example.capshop.dto.CartItemResponse> findAllCartItem(@RequestParam("userId") Long userId) {
-            User user = userService.findById(userId);
-            return cartItemService.allCartItemResponse(user);
+    public List<CartItemResponse> findAllCartItem(@RequestParam("userId") Long userId) {
+        return cartItemService.findCartLines(userId);
     }
     
     // 특정 상품의 특정 사이즈가 장바구니에 몇 개 담겨있는지 확인
@@ -76,11 +70,20 @@ public class CartItemController {
             @RequestParam(name = "userId") Long userId, 
             @RequestParam(name = "capId") Long capId,
             @RequestParam(name = "size") String size) {
-        User user = userService.findById(userId);
-        Cap cap = capService.findById(capId);
-        
-        int quantity = cartItemService.getCartItemQuantity(user, cap, size);
+        int quantity = cartItemService.getCartItemQuantity(userId, capId, size);
         return ResponseEntity.ok(quantity);
     }
 
+    // 재고 초과는 409, 잘못된 요청은 400
+    private ResponseEntity<?> apply(Runnable mutation) {
+        try {
+            mutation.run();
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
 }
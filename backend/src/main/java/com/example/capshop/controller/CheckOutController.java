@@ -15,8 +15,11 @@ import lombok.RequiredArgsConstructor;
 
 import com.example.capshop.domain.User;
 import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.dto.CheckoutQuoteRequest;
 import com.example.capshop.service.CheckOutService;
+import com.example.capshop.service.CheckoutQuoteService;
 import java.net.URI;
+import java.util.Map;
 
 
 @RestController
@@ -25,6 +28,7 @@ import java.net.URI;
 public class CheckOutController {
 
     private final CheckOutService checkOutService;
+    private final CheckoutQuoteService checkoutQuoteService;
 
     // 호환: 기존 프론트가 사용하는 /order/save와 REST 스타일 /api/checkout 둘 다 지원
     @PostMapping
@@ -42,6 +46,21 @@ public class CheckOutController {
     }
 
 
+    // 결제 금액 견적 (쿠폰/적립금 적용, 서명 포함) - 결제 승인 시 discountInfo 로 그대로 전달
+    @PostMapping("/quote")
+    public ResponseEntity<?> quote(
+            @AuthenticationPrincipal User user,
+            @RequestBody CheckoutQuoteRequest request) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "인증이 필요합니다."));
+        }
+        try {
+            return ResponseEntity.ok(checkoutQuoteService.quote(user.getId(), request));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CheckOutResponse> getCheckout(@PathVariable("id") Long id) {
         CheckOut checkOut = checkOutService.findById(id)
@@ -49,7 +68,7 @@ public class CheckOutController {
         if (checkOut == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
             }
-            CheckOutResponse dto = new CheckOutResponse(checkOut);
+            CheckOutResponse dto = new CheckOutResponse(checkOut, checkOutService.toItemsJson(checkOut));
             return ResponseEntity.ok(dto);
         }
         
@@ -63,13 +82,13 @@ public class CheckOutController {
             private String itemsJson;
             private Integer amount; // null 가능
             
-            public CheckOutResponse(CheckOut c) {
+            public CheckOutResponse(CheckOut c, String itemsJson) {
                 this.id = c.getId();
                 this.orderId = c.getOrderId();
                 this.name = c.getName();
                 this.address = c.getAddress();
                 this.phone = c.getPhone();
-                this.itemsJson = c.getItemsJson();
+                this.itemsJson = itemsJson;
                 // amount는 예시로 null, 추후 Order/OrderItem에서 계산해 넣을 수 있음
                 this.amount = null;
             }
@@ -1,9 +1,5 @@
 package com.example.capshop.controller;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,17 +8,25 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
+import com.example.capshop.dto.StoredMedia;
+import com.example.capshop.service.MediaService;
+import com.example.capshop.service.MediaStorage;
+import com.example.capshop.util.ImageVariants;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Paths;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
+@RequiredArgsConstructor
 public class ImageController {
+    private final MediaService mediaService;
     private String currentBackground = "mainvideo.mp4"; // 기본값
     private String logoImage = "homelogo.png"; // 로고 이미지 기본값
     
@@ -62,51 +66,19 @@ public class ImageController {
     }
 
     // 이미지 파일 조회 - 업로드된 이미지를 브라우저에 표시하기 위한 엔드포인트
+    // ?w= 를 주면 가장 가까운 너비의 변형 이미지 전송 (없으면 생성)
     @GetMapping("/images/{filename}")
-    public ResponseEntity<Resource> getImage(@PathVariable("filename") String filename) throws MalformedURLException {
-        Path imagePath = Paths.get("/Users/kimchanho/Desktop/project/capshopimage").resolve(filename);
-        Resource resource = new UrlResource(imagePath.toUri());
-
-        if (!resource.exists()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        // 파일 확장자에 따라 Content-Type 결정
-        String contentType = "application/octet-stream"; // 기본값
-        String fileName = filename.toLowerCase();
-        
-        if (fileName.endsWith(".jpg") || fileName.endsWith(".jpeg")) {
-            contentType = "image/jpeg";
-        } else if (fileName.endsWith(".png")) {
-            contentType = "image/png";
-        } else if (fileName.endsWith(".gif")) {
-            contentType = "image/gif";
-        } else if (fileName.endsWith(".webp")) {
-            contentType = "image/webp";
-        }
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_TYPE, contentType)
-                .body(resource);
+    public void getImage(@PathVariable("filename") String filename,
+                         @RequestParam(name = "w", required = false) Integer width,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        mediaService.serve(MediaStorage.IMAGES, filename, width, request, response);
     }
 
     // 단일 파일 업로드 - 이미지/비디오 파일을 서버에 저장하고 URL 반환
     @PostMapping("/api/upload")
     public Map<String, String> upload(@RequestParam("file") MultipartFile file) throws IOException {
-        String savePath = "/Users/kimchanho/Desktop/project/capshopimage/" + file.getOriginalFilename();
-        file.transferTo(new File(savePath));
-
-        String ext = "";
-        int idx = file.getOriginalFilename().lastIndexOf('.');
-        if (idx > 0) ext = file.getOriginalFilename().substring(idx + 1).toLowerCase();
-
-        String url;
-        if (ext.equals("mp4") || ext.equals("mov") || ext.equals("avi")) {
-            url = "http://localhost:8080/videos/" + file.getOriginalFilename();
-        } else {
-            url = "http://localhost:8080/images/" + file.getOriginalFilename();
-        }
-        return Map.of("url", url);
+        StoredMedia stored = mediaService.upload(MediaStorage.IMAGES, file);
+        return Map.of("url", stored.getUrl());
     }
 
     // 상품 이미지 일괄 업로드 - 메인 이미지 1개 + 추가 이미지 여러 개를 한 번에 처리
@@ -115,170 +87,82 @@ public class ImageController {
             @RequestParam("mainImage") MultipartFile mainImage,
             @RequestParam("images") List<MultipartFile> images
     ) throws IOException {
-        // uploadCapImages: received mainImage and images
-
-        String mainExt = "";
-        int mainIdx = mainImage.getOriginalFilename().lastIndexOf('.');
-        if (mainIdx > 0) mainExt = mainImage.getOriginalFilename().substring(mainIdx + 1).toLowerCase();
-
-        String mainFilename = System.currentTimeMillis() + "_" + mainImage.getOriginalFilename();
-        String mainSavePath = "/Users/kimchanho/Desktop/project/capshopimage/" + mainFilename;
-        mainImage.transferTo(new File(mainSavePath));
-
-        String mainUrl;
-        if (mainExt.equals("mp4") || mainExt.equals("mov") || mainExt.equals("avi")) {
-            mainUrl = "http://localhost:8080/videos/" + mainFilename;
-        } else {
-            mainUrl = "http://localhost:8080/images/" + mainFilename;
-        }
+        // 같은 내용의 파일은 한 번만 저장되고 같은 URL 을 받는다
+        String mainUrl = mediaService.upload(MediaStorage.IMAGES, mainImage).getUrl();
 
         List<String> imageUrls = new ArrayList<>();
         for (MultipartFile file : images) {
-            String ext = "";
-            int idx = file.getOriginalFilename().lastIndexOf('.');
-            if (idx > 0) ext = file.getOriginalFilename().substring(idx + 1).toLowerCase();
-
-            String filename = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-            String savePath = "/Users/kimchanho/Desktop/project/capshopimage/" + filename;
-            file.transferTo(new File(savePath));
-
-            String url;
-            if (ext.equals("mp4") || ext.equals("mov") || ext.equals("avi")) {
-                url = "http://localhost:8080/videos/" + filename;
-            } else {
-                url = "http://localhost:8080/images/" + filename;
-            }
-            imageUrls.add(url);
+            imageUrls.add(mediaService.upload(MediaStorage.IMAGES, file).getUrl());
         }
 
-        // uploadCapImages: mainImageUrl and imageUrls prepared
-
-        return Map.of(
-                "mainImageUrl", mainUrl,
-                "imageUrls", imageUrls
-        );
+        // 너비별 변형 URL (srcset) - 변형을 만들 수 없는 파일(동영상 등)은 제외
+        Map<String, String> srcsets = new LinkedHashMap<>();
+        for (String url : imageUrls) {
+            String srcset = ImageVariants.srcset(url);
+            if (srcset != null) srcsets.put(url, srcset);
+        }
+        String mainSrcset = ImageVariants.srcset(mainUrl);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mainImageUrl", mainUrl);
+        result.put("imageUrls", imageUrls);
+        result.put("mainImageSrcset", mainSrcset != null ? mainSrcset : "");
+        result.put("imageSrcsets", srcsets);
+        return result;
     }
 
-    // 비디오 파일 조회 - 업로드된 비디오를 브라우저에서 재생하기 위한 엔드포인트
+    // 비디오 파일 조회 - 업로드된 비디오를 브라우저에서 재생하기 위한 엔드포인트 (Range 요청으로 탐색 가능)
     @GetMapping("/videos/{filename}")
-    public ResponseEntity<Resource> getVideo(@PathVariable("filename") String filename) throws MalformedURLException {
-        Path videoPath = Paths.get("/Users/kimchanho/Desktop/project/capshopimage").resolve(filename);
-        Resource resource = new UrlResource(videoPath.toUri());
-
-        if (!resource.exists()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_TYPE, "video/mp4") // 필요시 확장자별로 변경
-                .body(resource);
+    public void getVideo(@PathVariable("filename") String filename,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        mediaService.serve(MediaStorage.IMAGES, filename, null, request, response);
     }
 
     // 이미지 삭제 - 여러 개의 이미지 파일을 서버에서 삭제 (상품 삭제 시 사용)
     @PostMapping("/image/delete")
     public Map<String, Object> deleteImages(@RequestBody List<String> filenames) {
-        List<String> success = new ArrayList<>();
-        List<String> fail = new ArrayList<>();
-
-        for (String filename : filenames) {
-            String filePath = "/Users/kimchanho/Desktop/project/capshopimage/" + filename;
-            File file = new File(filePath);
-
-            if (file.exists() && file.delete()) {
-                success.add(filename);
-            } else {
-                fail.add(filename);
-            }
-        }
-
-        return Map.of(
-                "success", success,
-                "fail", fail
-        );
+        return delete(MediaStorage.IMAGES, filenames);
     }
 
     // 리뷰 이미지 업로드 - 리뷰 작성 시 이미지를 업로드하고 URL 목록 반환
     @PostMapping("/api/review/upload")
     public Map<String, Object> uploadReviewImages(@RequestParam("images") List<MultipartFile> images) throws IOException {
-        // uploadReviewImages: images received
-        
         List<String> imageUrls = new ArrayList<>();
+        Map<String, String> srcsets = new LinkedHashMap<>();
         
         for (MultipartFile file : images) {
-            if (file.isEmpty()) {
-                continue;
-            }
-            
-            // processing review image file
-            
-            // 타임스탬프를 포함한 고유 파일명 생성
-            String originalFilename = file.getOriginalFilename();
-            if (originalFilename == null) {
+            if (file.isEmpty() || file.getOriginalFilename() == null) {
                 continue;
             }
-            
-            String filename = System.currentTimeMillis() + "_" + originalFilename;
-            String savePath = "/Users/kimchanho/Desktop/project/reviewimage/" + filename;
-            
-            // 디렉토리가 없으면 생성
-            File directory = new File("/Users/kimchanho/Desktop/project/reviewimage/");
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-            
-            // 파일 저장
-            file.transferTo(new File(savePath));
-            
-            // URL 생성
-            String url = "http://localhost:8080/review-images/" + filename;
+            String url = mediaService.upload(MediaStorage.REVIEW_IMAGES, file).getUrl();
             imageUrls.add(url);
+            String srcset = ImageVariants.srcset(url);
+            if (srcset != null) srcsets.put(url, srcset);
         }
         
-        // uploaded imageUrls prepared
-        
-        return Map.of("imageUrls", imageUrls);
+        return Map.of("imageUrls", imageUrls, "imageSrcsets", srcsets);
     }
 
     // 리뷰 이미지 조회 - 업로드된 리뷰 이미지를 브라우저에 표시
     @GetMapping("/review-images/{filename}")
-    public ResponseEntity<Resource> getReviewImage(@PathVariable("filename") String filename) throws MalformedURLException {
-        Path imagePath = Paths.get("/Users/kimchanho/Desktop/project/reviewimage").resolve(filename);
-        Resource resource = new UrlResource(imagePath.toUri());
-
-        if (!resource.exists()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        // 파일 확장자에 따라 Content-Type 결정
-        String contentType = "application/octet-stream";
-        String fileName = filename.toLowerCase();
-        
-        if (fileName.endsWith(".jpg") || fileName.endsWith(".jpeg")) {
-            contentType = "image/jpeg";
-        } else if (fileName.endsWith(".png")) {
-            contentType = "image/png";
-        } else if (fileName.endsWith(".gif")) {
-            contentType = "image/gif";
-        } else if (fileName.endsWith(".webp")) {
-            contentType = "image/webp";
-        }
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_TYPE, contentType)
-                .body(resource);
+    public void getReviewImage(@PathVariable("filename") String filename,
+                               @RequestParam(name = "w", required = false) Integer width,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        mediaService.serve(MediaStorage.REVIEW_IMAGES, filename, width, request, response);
     }
 
     // 리뷰 이미지 삭제 - 여러 개의 리뷰 이미지 파일을 서버에서 삭제
     @PostMapping("/api/review/image/delete")
     public Map<String, Object> deleteReviewImages(@RequestBody List<String> filenames) {
+        return delete(MediaStorage.REVIEW_IMAGES, filenames);
+    }
+
+    private Map<String, Object> delete(String namespace, List<String> filenames) {
         List<String> success = new ArrayList<>();
         List<String> fail = new ArrayList<>();
 
         for (String filename : filenames) {
-            String filePath = "/Users/kimchanho/Desktop/project/reviewimage/" + filename;
-            File file = new File(filePath);
-
-            if (file.exists() && file.delete()) {
+            if (mediaService.delete(namespace, filename)) {
                 success.add(filename);
             } else {
                 fail.add(filename);
@@ -17,6 +17,7 @@ import com.example.capshop.domain.User;
 import com.example.capshop.domain.order.Order;
 import com.example.capshop.dto.OrderResponse;
 import com.example.capshop.service.OrderService;
+import com.example.capshop.service.PaymentConfirmService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,6 +27,7 @@ import lombok.RequiredArgsConstructor;
 public class OrderController {
 
     private final OrderService orderService;
+    private final PaymentConfirmService paymentConfirmService;
 
     // 결제 승인 + 주문 생성 (토스 결제 성공 후 호출)
     @PostMapping("/confirm")
@@ -48,7 +50,7 @@ public class OrderController {
             Map<String, Object> discountInfo = (Map<String, Object>) request.get("discountInfo");
             
             // 서버에서 토스에 최종 승인 요청 + Order 생성 (할인 정보 포함)
-            Order order = orderService.confirmPaymentAndCreateOrderWithDiscount(user, paymentKey, orderId, amount, discountInfo);
+            Order order = paymentConfirmService.confirm(user, paymentKey, orderId, amount, discountInfo);
             
             return ResponseEntity.ok(Map.of(
                 "orderId", order.getId(),
@@ -6,8 +6,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.capshop.dto.PointsHistoryPageResponse;
 import com.example.capshop.service.PointsService;
 
 import lombok.RequiredArgsConstructor;
@@ -29,4 +31,17 @@ public class PointsController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+    
+    // 적립금 내역 (최신순, cursor: 이전 응답의 nextCursor)
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<?> getHistory(@PathVariable("userId") Long userId,
+                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                        @RequestParam(name = "size", defaultValue = "20") int size) {
+        try {
+            PointsHistoryPageResponse history = pointsService.getHistory(userId, cursor, size);
+            return ResponseEntity.ok(history);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
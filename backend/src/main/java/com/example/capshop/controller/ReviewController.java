@@ -1,6 +1,5 @@
 package com.example.capshop.controller;
 
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
@@ -15,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.capshop.dto.ReviewCreateRequest;
+import com.example.capshop.dto.ReviewPageResponse;
 import com.example.capshop.dto.ReviewResponse;
 import com.example.capshop.dto.ReviewStatistics;
 import com.example.capshop.dto.ReviewUpdateRequest;
@@ -94,13 +94,15 @@ public class ReviewController {
         }
     }
     
-    // 특정 상품의 모든 리뷰 조회
+    // 특정 상품의 리뷰 조회 (cursor: 이전 응답의 nextCursor)
     @GetMapping("/reviews/cap/{capId}")
     public ResponseEntity<?> getReviewsByCap(
             @PathVariable("capId") Long capId,
-            @RequestParam(name = "sortBy", required = false, defaultValue = "recent") String sortBy) {
+            @RequestParam(name = "sortBy", required = false, defaultValue = "recent") String sortBy,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
         try {
-            List<ReviewResponse> reviews = reviewService.getReviewsByCap(capId, sortBy);
+            ReviewPageResponse reviews = reviewService.getReviewsByCap(capId, sortBy, cursor, size);
             return ResponseEntity.ok(reviews);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -109,9 +111,11 @@ public class ReviewController {
     
     // 모든 리뷰 조회 (상품 구분 없이, 비로그인 접근 허용)
     @GetMapping("/reviews")
-    public ResponseEntity<?> getAllReviews() {
+    public ResponseEntity<?> getAllReviews(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
         try {
-            List<ReviewResponse> reviews = reviewService.getAllReviews();
+            ReviewPageResponse reviews = reviewService.getAllReviews(cursor, size);
             return ResponseEntity.ok(reviews);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -119,9 +123,12 @@ public class ReviewController {
     }
     // 특정 상품의 포토 리뷰 조회
     @GetMapping("/api/reviews/cap/{capId}/photos")
-    public ResponseEntity<?> getPhotoReviewsByCap(@PathVariable("capId") Long capId) {
+    public ResponseEntity<?> getPhotoReviewsByCap(
+            @PathVariable("capId") Long capId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
         try {
-            List<ReviewResponse> reviews = reviewService.getPhotoReviewsByCap(capId);
+            ReviewPageResponse reviews = reviewService.getPhotoReviewsByCap(capId, cursor, size);
             return ResponseEntity.ok(reviews);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -139,11 +146,14 @@ public class ReviewController {
         }
     }
     
-    // 특정 사용자의 모든 리뷰 조회
+    // 특정 사용자의 리뷰 조회
     @GetMapping("/api/reviews/user/{userId}")
-    public ResponseEntity<?> getReviewsByUser(@PathVariable("userId") Long userId) {
+    public ResponseEntity<?> getReviewsByUser(
+            @PathVariable("userId") Long userId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
         try {
-            List<ReviewResponse> reviews = reviewService.getReviewsByUser(userId);
+            ReviewPageResponse reviews = reviewService.getReviewsByUser(userId, cursor, size);
             return ResponseEntity.ok(reviews);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
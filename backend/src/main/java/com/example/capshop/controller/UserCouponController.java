@@ -25,6 +25,12 @@ public class UserCouponController {
     
     private final UserCouponService userCouponService;
     
+    // 쿠폰 만료 작업 진행 상황 (관리자)
+    @GetMapping("/admin/expiry-stats")
+    public ResponseEntity<Map<String, Object>> getExpiryStats() {
+        return ResponseEntity.ok(userCouponService.expiryStats());
+    }
+    
     // 사용자에게 쿠폰 지급 (관리자 - 쿠폰 ID로)
     @PostMapping("/admin/issue/{couponId}")
     public ResponseEntity<?> issueCouponToUserById(
@@ -0,0 +1,71 @@
+package com.example.capshop.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 배치 작업 진행 기록 (작업당 1행)
+ * 묶음을 처리한 트랜잭션에서 lastId 를 같이 커밋하므로, 중간에 죽으면 다음 실행이 lastId 다음부터 이어서 처리한다.
+ */
+@Entity
+@Table(name = "batch_checkpoint")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BatchCheckpoint {
+
+    @Id
+    @Column(length = 50)
+    private String jobName;
+
+    private boolean running;            // true 인 채로 남아 있으면 이전 실행이 중간에 멈춘 것
+    private Long lastId;                // 마지막으로 처리한 묶음의 마지막 id
+    private LocalDateTime runStartedAt;
+    private long runProcessed;          // 이번 실행에서 반영한 행 수
+    private int runChunks;
+
+    // 직전 완료 실행 지표
+    private LocalDateTime lastFinishedAt;
+    private long lastRunRows;
+    private int lastRunChunks;
+    private long lastRunDurationMs;
+
+    public BatchCheckpoint(String jobName) {
+        this.jobName = jobName;
+        this.lastId = 0L;
+    }
+
+    /** 새 실행 시작. 이전 실행이 멈춘 상태면 그 위치에서 이어간다. */
+    public boolean start(LocalDateTime now) {
+        if (running) {
+            return true;
+        }
+        this.running = true;
+        this.lastId = 0L;
+        this.runStartedAt = now;
+        this.runProcessed = 0;
+        this.runChunks = 0;
+        return false;
+    }
+
+    public void advance(Long lastId, int processed) {
+        this.lastId = lastId;
+        this.runProcessed += processed;
+        this.runChunks++;
+    }
+
+    public void finish(LocalDateTime now) {
+        this.running = false;
+        this.lastFinishedAt = now;
+        this.lastRunRows = runProcessed;
+        this.lastRunChunks = runChunks;
+        this.lastRunDurationMs = Duration.between(runStartedAt, now).toMillis();
+    }
+}
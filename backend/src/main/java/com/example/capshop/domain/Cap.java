@@ -1,14 +1,24 @@
 package com.example.capshop.domain;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.example.capshop.util.ImageVariants;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_cap_price_id", columnList = "price, id"),
+        @Index(name = "idx_cap_is_new_id", columnList = "is_new, id")
+})
 @Getter
 @Setter
 public class Cap {
@@ -23,8 +33,17 @@ public class Cap {
     private String color; // 색상
     
     @OneToMany(mappedBy = "cap", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @MapKey(name = "size")
+    @OrderBy("id")
     @JsonManagedReference
-    private List<CapStock> stocks; // 사이즈별 재고
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<String, CapStock> stocks = new LinkedHashMap<>(); // 사이즈별 재고 (size → CapStock)
+    
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Long stockTotal; // 사이즈별 재고 합계 캐시 (null이면 아직 계산 전)
     
     @ElementCollection
     private List<String> size; // 사이즈 목록 (예: ["S", "M", "L"] 또는 ["FREE"])
@@ -40,14 +59,30 @@ public class Cap {
     @Column(nullable = false)
     private Boolean isNew = false; // 신상품 여부 (관리자가 설정)
     
-    // 특정 사이즈의 재고 조회
+    // 사이즈별 재고 목록 (JSON 응답은 기존처럼 배열 형태 유지, 변경은 addStock/setStocks 로)
+    public List<CapStock> getStocks() {
+        if (stocks == null) return Collections.emptyList();
+        return Collections.unmodifiableList(new ArrayList<>(stocks.values()));
+    }
+    
+    // 사이즈별 재고 목록 교체 (사이즈가 같으면 뒤의 것이 남는다)
+    public void setStocks(List<CapStock> capStocks) {
+        stocks = new LinkedHashMap<>();
+        stockTotal = null;
+        if (capStocks != null) {
+            capStocks.forEach(this::addStock);
+        }
+    }
+    
+    // 대표 이미지 너비별 변형 URL (img srcset 용, 변형을 만들 수 없는 파일이면 null)
+    public String getMainImageSrcset() {
+        return ImageVariants.srcset(mainImageUrl);
+    }
+    
+    // 특정 사이즈의 구매 가능 재고 조회 (체크아웃 홀드 제외)
     public Long getStockBySize(String size) {
-        if (stocks == null) return 0L;
-        return stocks.stream()
-                .filter(stock -> stock.getSize().equals(size))
-                .findFirst()
-                .map(CapStock::getStock)
-                .orElse(0L);
+        CapStock capStock = getCapStockBySize(size);
+        return capStock != null ? capStock.getAvailableStock() : 0L;
     }
     
     // 전체 재고 합계 (하위 호환성을 위한 오버라이드)
@@ -55,18 +90,37 @@ public class Cap {
         if (stocks == null || stocks.isEmpty()) {
             return this.stock; // 기존 stock 필드 반환
         }
-        return stocks.stream()
-                .mapToLong(CapStock::getStock)
-                .sum();
+        if (stockTotal == null) {
+            long total = 0L;
+            for (CapStock capStock : stocks.values()) {
+                total += capStock.getStock() != null ? capStock.getStock() : 0L;
+            }
+            stockTotal = total;
+        }
+        return stockTotal;
     }
     
     // 특정 사이즈의 CapStock 객체 조회
     public CapStock getCapStockBySize(String size) {
-        if (stocks == null) return null;
-        return stocks.stream()
-                .filter(stock -> stock.getSize().equals(size))
-                .findFirst()
-                .orElse(null);
+        if (stocks == null || size == null) return null;
+        return stocks.get(size);
+    }
+    
+    // 사이즈별 재고 추가
+    public void addStock(CapStock capStock) {
+        if (stocks == null) {
+            stocks = new LinkedHashMap<>();
+        }
+        capStock.setCap(this);
+        stocks.put(capStock.getSize(), capStock);
+        stockTotal = null;
+    }
+    
+    // CapStock 수량 변경 시 합계 캐시 동기화
+    public void onStockChanged(long delta) {
+        if (stockTotal != null) {
+            stockTotal += delta;
+        }
     }
     
 }
@@ -0,0 +1,65 @@
+package com.example.capshop.domain;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 상품별 리뷰 통계 (상품당 1행)
+ * 리뷰 작성/수정/삭제 트랜잭션에서 증감 UPDATE 로 같이 갱신하고, 재계산 작업이 리뷰 테이블 기준으로 다시 맞춘다.
+ */
+@Entity
+@Table(name = "cap_review_stats")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CapReviewStats {
+
+    @Id
+    @Column(name = "cap_id")
+    private Long capId;
+
+    private long reviewCount;
+    private long ratingSum;
+
+    // 별점별 리뷰 수
+    private long rating1;
+    private long rating2;
+    private long rating3;
+    private long rating4;
+    private long rating5;
+
+    private long photoCount;        // 이미지가 있는 리뷰 수
+
+    public double getAverageRating() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+    }
+
+    public Map<Integer, Long> getRatingDistribution() {
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        distribution.put(1, rating1);
+        distribution.put(2, rating2);
+        distribution.put(3, rating3);
+        distribution.put(4, rating4);
+        distribution.put(5, rating5);
+        return distribution;
+    }
+
+    // 재계산 결과로 덮어쓰기 (buckets: 1~5점 순서)
+    public void overwrite(long reviewCount, long ratingSum, long[] buckets, long photoCount) {
+        this.reviewCount = reviewCount;
+        this.ratingSum = ratingSum;
+        this.rating1 = buckets[0];
+        this.rating2 = buckets[1];
+        this.rating3 = buckets[2];
+        this.rating4 = buckets[3];
+        this.rating5 = buckets[4];
+        this.photoCount = photoCount;
+    }
+}
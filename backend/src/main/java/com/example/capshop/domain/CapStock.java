@@ -1,5 +1,7 @@
 package com.example.capshop.domain;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.*;
@@ -11,6 +13,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
+@DynamicUpdate // 관리자 재고 수정이 reserved 값을 덮어쓰지 않도록 변경된 컬럼만 UPDATE
 public class CapStock {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,6 +27,9 @@ public class CapStock {
     private String size;  // 사이즈 (예: "S", "M", "L", "XL", "FREE")
     
     private Long stock;   // 해당 사이즈의 재고 수량
+    
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long reserved = 0L; // 체크아웃 홀드로 잡혀 있는 수량 (StockHold 합계)
 
     public CapStock(Cap cap, String size, Long stock) {
         this.cap = cap;
@@ -31,16 +37,38 @@ public class CapStock {
         this.stock = stock;
     }
     
+    // 구매 가능한 재고 (실재고 - 홀드)
+    public Long getAvailableStock() {
+        long physical = stock != null ? stock : 0L;
+        long held = reserved != null ? reserved : 0L;
+        return Math.max(0L, physical - held);
+    }
+    
+    // 재고 수량 변경 (Cap의 합계 캐시도 함께 갱신)
+    public void setStock(Long stock) {
+        long before = this.stock != null ? this.stock : 0L;
+        this.stock = stock;
+        notifyCap((stock != null ? stock : 0L) - before);
+    }
+    
     // 재고 감소
     public void decreaseStock(int quantity) {
         if (this.stock < quantity) {
             throw new IllegalStateException("재고가 부족합니다. (현재 재고: " + this.stock + ")");
         }
         this.stock -= quantity;
+        notifyCap(-quantity);
     }
     
     // 재고 증가
     public void increaseStock(int quantity) {
         this.stock += quantity;
+        notifyCap(quantity);
+    }
+    
+    private void notifyCap(long delta) {
+        if (cap != null && delta != 0) {
+            cap.onStockChanged(delta);
+        }
     }
 }
\ No newline at end of file
@@ -6,10 +6,14 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(name = "cart_item",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cart_item_user_cap_size", columnNames = { "user_id", "cap_id", "size" }))
 @Getter
 @Setter
 public class CartItem {
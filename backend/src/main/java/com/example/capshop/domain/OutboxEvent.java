@@ -0,0 +1,100 @@
+package com.example.capshop.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 아웃박스 이벤트 - 주문/리뷰와 같은 트랜잭션에서 저장되고, 커밋된 뒤 디스패처가 꺼내서 처리한다.
+ * eventKey 는 같은 후속 작업이 두 번 쌓이지 않게 하는 업무 키 (예: order-points:123)
+ */
+@Entity
+@Table(name = "outbox_event",
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbox_event_key", columnNames = "event_key"),
+        indexes = @Index(name = "idx_outbox_status_next", columnList = "status, next_attempt_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_key", nullable = false, length = 100)
+    private String eventKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private OutboxEventType type;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
+
+    public OutboxEvent(String eventKey, OutboxEventType type, String payload) {
+        this.eventKey = eventKey;
+        this.type = type;
+        this.payload = payload;
+        this.status = OutboxStatus.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public void markDone() {
+        this.status = OutboxStatus.DONE;
+        this.attempts++;
+        this.processedAt = LocalDateTime.now();
+        this.lastError = null;
+    }
+
+    /**
+     * 처리 실패 기록. 재시도 가능하면 backoff 후 다시 PENDING, 한도를 넘거나 재시도 불가면 DEAD
+     */
+    public void markFailed(String error, boolean retryable, int maxAttempts, long backoffSeconds) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        if (!retryable || attempts >= maxAttempts) {
+            this.status = OutboxStatus.DEAD;
+            this.processedAt = LocalDateTime.now();
+        } else {
+            this.nextAttemptAt = LocalDateTime.now().plusSeconds(backoffSeconds);
+        }
+    }
+
+    // 관리자가 원인을 고친 뒤 죽은 이벤트를 다시 처리
+    public void requeue() {
+        if (status != OutboxStatus.DEAD) {
+            throw new IllegalStateException("재처리 대기열로 되돌릴 수 없는 상태입니다: " + status);
+        }
+        this.status = OutboxStatus.PENDING;
+        this.attempts = 0;
+        this.nextAttemptAt = LocalDateTime.now();
+        this.processedAt = null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.capshop.domain;
+
+// 트랜잭션 커밋 후 비동기로 처리하는 후속 작업 종류
+public enum OutboxEventType {
+    ORDER_POINTS,               // 주문 적립금 지급 (userId, amount)
+    CHECKOUT_CLEANUP,           // 결제 완료 후 체크아웃 삭제 + 결제한 줄만 장바구니에서 제거 (userId, checkOutId)
+    REVIEW_CONFIRM_PURCHASE,    // 리뷰 작성 시 자동 구매확정 (userId, orderId)
+    REVIEW_POINTS               // 리뷰 작성 보너스 적립금 (userId)
+}
@@ -0,0 +1,7 @@
+package com.example.capshop.domain;
+
+public enum OutboxStatus {
+    PENDING,    // 처리 대기 (실패 후 재시도 대기 포함)
+    DONE,       // 처리 완료
+    DEAD        // 재시도 한도 초과 또는 재시도해도 안 되는 실패 (관리자 확인 필요)
+}
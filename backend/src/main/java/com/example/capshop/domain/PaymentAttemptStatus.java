@@ -0,0 +1,10 @@
+package com.example.capshop.domain;
+
+// 결제 승인 단계 상태 (재시작 시 어느 단계부터 이어서 할지 판단하는 기준)
+public enum PaymentAttemptStatus {
+    CONFIRMING,     // 재고/포인트 확보 완료, 토스 승인 요청 중 (결과 모름)
+    APPROVED,       // 토스 승인 완료, 주문 생성 전
+    COMPLETED,      // 주문/결제 저장 완료
+    COMPENSATING,   // 실패 → 토스 취소/재고·포인트 복구 진행 중
+    FAILED          // 보정까지 끝난 실패
+}
@@ -0,0 +1,53 @@
+package com.example.capshop.domain;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 적립금 원장 (변경 1건당 1행, 추가만 하고 수정/삭제하지 않는다)
+ * User.points 는 원장 합계를 캐시한 값이고, 두 값은 같은 트랜잭션에서 함께 바뀐다.
+ */
+@Entity
+@Immutable
+@Table(name = "points_ledger", indexes = {
+        @Index(name = "idx_points_ledger_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_points_ledger_user_created", columnList = "user_id, created_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PointsLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long amount;            // 적립 +, 사용 -
+
+    private String reason;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public PointsLedgerEntry(Long userId, Long amount, String reason, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.amount = amount;
+        this.reason = reason;
+        this.createdAt = createdAt;
+    }
+}
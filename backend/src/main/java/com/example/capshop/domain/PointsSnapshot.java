@@ -0,0 +1,49 @@
+package com.example.capshop.domain;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 월말 적립금 잔액 (사용자 x 월 1행)
+ * 특정 시점 잔액 = 그 이전 달 스냅샷 + 그 달 원장 합계, 원장 전체를 다시 더하지 않는다.
+ */
+@Entity
+@Table(name = "points_snapshot", uniqueConstraints = @UniqueConstraint(
+        name = "uk_points_snapshot_user_period", columnNames = { "user_id", "period_start" }))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PointsSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;  // 해당 월 1일 (잔액은 그 달 말일 기준)
+
+    @Column(nullable = false)
+    private Long balance;
+
+    private LocalDateTime createdAt;
+
+    public PointsSnapshot(Long userId, LocalDate periodStart, Long balance, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.periodStart = periodStart;
+        this.balance = balance;
+        this.createdAt = createdAt;
+    }
+}
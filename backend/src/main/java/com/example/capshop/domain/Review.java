@@ -12,14 +12,21 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_review_cap_created_id", columnList = "cap_id, created_at, id"),                // 상품 리뷰 최신순
+        @Index(name = "idx_review_cap_rating_created_id", columnList = "cap_id, rating, created_at, id"), // 상품 리뷰 별점순
+        @Index(name = "idx_review_user_created_id", columnList = "user_id, created_at, id"),              // 내 리뷰
+        @Index(name = "idx_review_created_id", columnList = "created_at, id") })                         // 전체 리뷰
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
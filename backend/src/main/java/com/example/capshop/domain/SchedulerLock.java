@@ -0,0 +1,34 @@
+package com.example.capshop.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 스케줄 작업 잠금 (작업당 1행)
+ * lockedUntil 이 지난 행만 조건부 UPDATE 로 가져갈 수 있고, 가져갈 때마다 fencingToken 이 1씩 오른다.
+ * 잠금을 잃은 서버는 토큰이 맞지 않아 더 이상 쓰기를 커밋하지 못한다.
+ */
+@Entity
+@Table(name = "scheduler_lock")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SchedulerLock {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(length = 100)
+    private String owner;               // 잠금을 가진 서버 (instance id)
+
+    private LocalDateTime lockedUntil;  // 이 시각이 지나면 다른 서버가 가져갈 수 있음
+    private LocalDateTime acquiredAt;
+    private long fencingToken;
+}
@@ -0,0 +1,45 @@
+package com.example.capshop.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 체크아웃 생성 시 잡아두는 사이즈별 재고 홀드 (결제 승인 시 판매로 전환, 만료 시 해제)
+@Entity
+@Table(name = "stock_hold", indexes = {
+        @Index(name = "idx_stock_hold_checkout", columnList = "checkout_id"),
+        @Index(name = "idx_stock_hold_expires", columnList = "expires_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "checkout_id", nullable = false)
+    private Long checkOutId;
+
+    @Column(name = "cap_id", nullable = false)
+    private Long capId;
+
+    @Column(nullable = false)
+    private String size;
+
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public StockHold(Long checkOutId, Long capId, String size, int quantity, LocalDateTime expiresAt) {
+        this.checkOutId = checkOutId;
+        this.capId = capId;
+        this.size = size;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+}
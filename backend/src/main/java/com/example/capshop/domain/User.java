@@ -2,6 +2,7 @@ package com.example.capshop.domain;
 
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,6 +18,8 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
+@Table(name = "`user`") // H2 2.x 에서 user 는 예약어라 따옴표로 감싼다 (MySQL 테이블 이름은 그대로 user)
+@DynamicUpdate // 회원 정보 수정이 points 를 읽은 시점 값으로 덮어쓰지 않도록 변경된 컬럼만 UPDATE
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -86,23 +89,7 @@ public class User implements UserDetails {
         return this;
     }
     
-    // 적립금 관련 메서드들
-    public void addPoints(Long amount) {
-        if (amount > 0) {
-            this.points = (this.points != null ? this.points : 0L) + amount;
-        }
-    }
-    
-    public void usePoints(Long amount) {
-        if (amount <= 0) {
-            throw new IllegalArgumentException("사용할 적립금은 0보다 커야 합니다.");
-        }
-        if (this.points == null || this.points < amount) {
-            throw new IllegalArgumentException("보유 적립금이 부족합니다.");
-        }
-        this.points -= amount;
-    }
-    
+    // 적립금 증감은 PointsService 가 조건부 UPDATE + 원장 기록으로만 한다
     public Long getAvailablePoints() {
         return this.points != null ? this.points : 0L;
     }
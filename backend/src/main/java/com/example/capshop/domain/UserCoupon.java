@@ -4,20 +4,25 @@ import java.time.LocalDateTime;
 
 import com.example.capshop.domain.order.Order;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(name = "user_coupon",
+        indexes = @Index(name = "idx_user_coupon_status_valid_until", columnList = "status, valid_until"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -41,6 +46,7 @@ public class UserCoupon {
     private LocalDateTime obtainedAt;  // 쿠폰 획득일
     private LocalDateTime usedAt;      // 쿠폰 사용일
     private LocalDateTime validFrom;   // 유효 시작일
+    @Column(name = "valid_until")
     private LocalDateTime validUntil;  // 유효 만료일
     
     @ManyToOne
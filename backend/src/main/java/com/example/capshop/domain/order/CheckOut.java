@@ -1,12 +1,17 @@
 package com.example.capshop.domain.order;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.Getter;
@@ -30,9 +35,15 @@ public class CheckOut {
 	private String address;   // 배송지 주소
 	private String phone;     // 연락처
 	
+	@OneToMany(mappedBy = "checkOut", cascade = CascadeType.ALL, orphanRemoval = true)
+	@OrderBy("id")
+	private List<CheckOutItem> items = new ArrayList<>(); // 주문 상품 (상품, 사이즈, 수량)
+
+	// 요청 호환용: 프론트가 보내는 [{"capId":1,"quantity":2,"size":"M"}] 문자열
+	// 저장할 때 items 로 옮기고 비운다. (이 컬럼에만 상품이 있는 건 이전에 만든 체크아웃)
 	@Column(columnDefinition = "TEXT")
-    private String itemsJson;  // [{"capId":1,"quantity":2},{"capId":3,"quantity":1}]
-   
+	private String itemsJson;
+
 
 	private LocalDateTime createdAt;
 
@@ -45,6 +56,11 @@ public class CheckOut {
 		this.itemsJson = itemsJson;
 	}
 
+	public void addItem(CheckOutItem item) {
+		item.setCheckOut(this);
+		items.add(item);
+	}
+
 	@PrePersist
 	protected void onCreate() {
 		if (this.createdAt == null) {
@@ -0,0 +1,57 @@
+package com.example.capshop.domain.order;
+
+import com.example.capshop.dto.StockLine;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 체크아웃 상품 한 줄 (상품, 사이즈, 수량)
+ * 가격은 저장하지 않고 결제 승인 시점의 상품 가격으로 계산한다.
+ */
+@Entity
+@Table(name = "checkout_item", indexes = @Index(name = "idx_checkout_item_checkout", columnList = "checkout_id"))
+@Getter
+@Setter
+public class CheckOutItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "checkout_id", nullable = false)
+    private CheckOut checkOut;
+
+    @Column(nullable = false)
+    private Long capId;
+
+    @Column(length = 20)
+    private String size;     // 사이즈 없는 상품이면 null
+
+    private int quantity;
+
+    public CheckOutItem() {}
+
+    public CheckOutItem(Long capId, String size, int quantity) {
+        this.capId = capId;
+        this.size = size;
+        this.quantity = quantity;
+    }
+
+    public StockLine toStockLine() {
+        return new StockLine(capId, size, quantity);
+    }
+}
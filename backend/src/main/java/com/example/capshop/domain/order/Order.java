@@ -16,6 +16,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -24,7 +25,11 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_confirmed_id", columnList = "status, confirmed, id"),
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),         // 관리자 목록 상태 필터
+        @Index(name = "idx_orders_order_id", columnList = "order_id"),           // 주문번호 조회/접두어 검색
+        @Index(name = "idx_orders_order_date", columnList = "order_date") })    // 관리자 목록 기간 필터
 @Getter 
 @Setter
 public class Order {
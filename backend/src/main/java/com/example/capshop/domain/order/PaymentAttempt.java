@@ -0,0 +1,151 @@
+package com.example.capshop.domain.order;
+
+import java.time.LocalDateTime;
+
+import com.example.capshop.domain.PaymentAttemptStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 결제 승인 진행 기록 (체크아웃 주문번호당 1건, 결제키당 1건)
+ * 중복 승인 요청은 이 기록으로 걸러내고, 완료된 경우 createdOrderId 의 주문을 그대로 돌려준다.
+ * 토스 호출 전후로 상태를 커밋해 두므로, 서버가 중간에 죽어도 복구 작업이 이어서 처리하거나 보정할 수 있다.
+ */
+@Entity
+@Table(name = "payment_attempt",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_payment_attempt_order_id", columnNames = "order_id"),
+                @UniqueConstraint(name = "uk_payment_attempt_payment_key", columnNames = "payment_key")
+        },
+        indexes = @Index(name = "idx_payment_attempt_status_updated", columnList = "status, updated_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PaymentAttempt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, length = 64)
+    private String orderId;         // CheckOut 주문번호 (토스 orderId)
+
+    private Long checkOutId;
+    private Long userId;
+
+    @Column(name = "payment_key", nullable = false, length = 200)
+    private String paymentKey;
+    private Long amount;            // 토스 승인 금액 (최종 결제액)
+
+    // 서명 확인된 견적의 할인 정보 (주문 생성 단계에서 실제 적용 금액과 대조)
+    private Long originalAmount;
+    private Long pointsUsed;
+    private Long userCouponId;
+    private Long couponDiscount;    // 견적의 쿠폰 할인액 (도입 전 기록은 null)
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private PaymentAttemptStatus status;
+
+    private String paymentMethod;
+    private LocalDateTime approvedAt;   // 토스 승인 시각 (있으면 보정 시 토스 취소 필요)
+    private Long createdOrderId;        // 생성된 Order PK
+
+    @Column(length = 500)
+    private String failReason;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public PaymentAttempt(String orderId, Long checkOutId, Long userId, String paymentKey, Long amount,
+                          Long originalAmount, Long pointsUsed, Long userCouponId, Long couponDiscount) {
+        this.orderId = orderId;
+        this.checkOutId = checkOutId;
+        start(userId, paymentKey, amount, originalAmount, pointsUsed, userCouponId, couponDiscount);
+    }
+
+    // 실패로 끝난 주문번호를 새 결제로 다시 시도
+    public void restart(Long userId, String paymentKey, Long amount,
+                        Long originalAmount, Long pointsUsed, Long userCouponId, Long couponDiscount) {
+        if (status != PaymentAttemptStatus.FAILED) {
+            throw new IllegalStateException("이미 처리 중이거나 완료된 결제입니다.");
+        }
+        start(userId, paymentKey, amount, originalAmount, pointsUsed, userCouponId, couponDiscount);
+    }
+
+    private void start(Long userId, String paymentKey, Long amount,
+                       Long originalAmount, Long pointsUsed, Long userCouponId, Long couponDiscount) {
+        this.userId = userId;
+        this.paymentKey = paymentKey;
+        this.amount = amount;
+        this.originalAmount = originalAmount;
+        this.pointsUsed = pointsUsed;
+        this.userCouponId = userCouponId;
+        this.couponDiscount = couponDiscount;
+        this.status = PaymentAttemptStatus.CONFIRMING;
+        this.paymentMethod = null;
+        this.approvedAt = null;
+        this.failReason = null;
+    }
+
+    public void approve(String paymentMethod) {
+        if (status != PaymentAttemptStatus.CONFIRMING) {
+            throw new IllegalStateException("승인 대기 상태가 아닙니다: " + status);
+        }
+        this.status = PaymentAttemptStatus.APPROVED;
+        this.paymentMethod = paymentMethod;
+        this.approvedAt = LocalDateTime.now();
+    }
+
+    public void complete(Long createdOrderId) {
+        if (status != PaymentAttemptStatus.APPROVED) {
+            throw new IllegalStateException("승인 완료 상태가 아닙니다: " + status);
+        }
+        this.status = PaymentAttemptStatus.COMPLETED;
+        this.createdOrderId = createdOrderId;
+    }
+
+    public void startCompensation(String reason) {
+        this.status = PaymentAttemptStatus.COMPENSATING;
+        this.failReason = reason != null && reason.length() > 500 ? reason.substring(0, 500) : reason;
+    }
+
+    public void fail() {
+        this.status = PaymentAttemptStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == PaymentAttemptStatus.COMPLETED || status == PaymentAttemptStatus.FAILED;
+    }
+
+    // 복구 작업이 상태 변화 없이 재시도만 했을 때도 다음 재시도 시점을 미루기 위해
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.capshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+
+// 관리자 주문 목록의 상품 한 줄 (페이지의 주문 id 들로 한 번에 조회하는 JPQL 프로젝션)
+@Getter
+public class AdminOrderItemResponse {
+    @JsonIgnore
+    private Long orderPk;       // 어느 주문의 상품인지 (orders.id)
+    private Long id;
+    private Long capId;
+    private String capName;
+    private int quantity;
+    private Long orderPrice;
+    private String selectedSize;
+
+    public AdminOrderItemResponse(Long orderPk, Long id, Long capId, String capName,
+                                  int quantity, Long orderPrice, String selectedSize) {
+        this.orderPk = orderPk;
+        this.id = id;
+        this.capId = capId;
+        this.capName = capName;
+        this.quantity = quantity;
+        this.orderPrice = orderPrice;
+        this.selectedSize = selectedSize;
+    }
+
+    public Long getSubTotal() {
+        return orderPrice * quantity;
+    }
+}
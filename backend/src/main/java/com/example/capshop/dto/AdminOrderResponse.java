@@ -0,0 +1,56 @@
+package com.example.capshop.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.capshop.domain.Status;
+
+import lombok.Getter;
+
+// 관리자 주문 목록 행 (엔티티 로딩 없이 JPQL 생성자 프로젝션으로 바로 생성, 상품은 따로 한 번에 채움)
+@Getter
+public class AdminOrderResponse {
+    private Long id;
+    private String orderId;         // 주문번호 (예: ORD20250131-1)
+    private String status;
+    private String receiverName;
+    private String address;
+    private String phone;
+    private Long totalPrice;
+    private Long finalPrice;
+    private LocalDateTime orderDate;
+    private String trackingNumber;
+    private String returnTrackingNumber;
+    private String returnReason;
+    private boolean confirmed;
+    private LocalDateTime deliveredAt;
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private List<AdminOrderItemResponse> orderItems = new ArrayList<>();
+
+    public AdminOrderResponse(Long id, String orderId, Status status, String receiverName, String address,
+                              String phone, Long totalPrice, Long finalPrice, LocalDateTime orderDate,
+                              String trackingNumber, String returnTrackingNumber, String returnReason,
+                              boolean confirmed, LocalDateTime deliveredAt,
+                              Long userId, String userName, String userEmail) {
+        this.id = id;
+        this.orderId = orderId;
+        this.status = status != null ? status.name() : null;
+        this.receiverName = receiverName;
+        this.address = address;
+        this.phone = phone;
+        this.totalPrice = totalPrice;
+        this.finalPrice = finalPrice;
+        this.orderDate = orderDate;
+        this.trackingNumber = trackingNumber;
+        this.returnTrackingNumber = returnTrackingNumber;
+        this.returnReason = returnReason;
+        this.confirmed = confirmed;
+        this.deliveredAt = deliveredAt;
+        this.userId = userId;
+        this.userName = userName;
+        this.userEmail = userEmail;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.capshop.dto;
+
+import com.example.capshop.util.ImageVariants;
+
+import lombok.Getter;
+
+// 상품 목록 카드용 경량 DTO (엔티티 로딩 없이 JPQL 생성자 프로젝션으로 바로 생성)
+@Getter
+public class CapCardResponse {
+    private Long id;
+    private String name;
+    private Long price;
+    private String color;
+    private String mainImageUrl;
+    private Boolean isNew;
+    private Long stock; // 사이즈별 재고 합계 (없으면 기존 stock)
+
+    public CapCardResponse(Long id, String name, Long price, String color,
+                           String mainImageUrl, Boolean isNew, Long stock) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.color = color;
+        this.mainImageUrl = mainImageUrl;
+        this.isNew = isNew;
+        this.stock = stock;
+    }
+
+    // 목록 카드는 작은 변형 이미지를 쓰도록 srcset 제공
+    public String getMainImageSrcset() {
+        return ImageVariants.srcset(mainImageUrl);
+    }
+}
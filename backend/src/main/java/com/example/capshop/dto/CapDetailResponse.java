@@ -0,0 +1,74 @@
+package com.example.capshop.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.CapStock;
+
+import lombok.Getter;
+
+/**
+ * 상품 상세/목록 응답 (조회 캐시에 그대로 담아 여러 요청이 공유하므로 불변)
+ * JSON 모양은 기존 Cap 엔티티 응답과 같다.
+ */
+@Getter
+public class CapDetailResponse {
+    private final Long id;
+    private final String name;
+    private final Long price;
+    private final String description;
+    private final Long stock;            // 사이즈별 재고 합계 (없으면 기존 stock)
+    private final String color;
+    private final List<Stock> stocks;
+    private final List<String> size;
+    private final String sizeInfo;
+    private final String mainImageUrl;
+    private final List<String> imageUrls;
+    private final Boolean isNew;
+    private final String mainImageSrcset;
+
+    // 세션 안에서 호출할 것 (지연 로딩 컬렉션을 여기서 모두 읽는다)
+    public CapDetailResponse(Cap cap) {
+        this.id = cap.getId();
+        this.name = cap.getName();
+        this.price = cap.getPrice();
+        this.description = cap.getDescription();
+        this.stock = cap.getStock();
+        this.color = cap.getColor();
+        List<Stock> stocks = new ArrayList<>();
+        for (CapStock capStock : cap.getStocks()) {
+            stocks.add(new Stock(capStock));
+        }
+        this.stocks = Collections.unmodifiableList(stocks);
+        this.size = copyOf(cap.getSize());
+        this.sizeInfo = cap.getSizeInfo();
+        this.mainImageUrl = cap.getMainImageUrl();
+        this.imageUrls = copyOf(cap.getImageUrls());
+        this.isNew = cap.getIsNew();
+        this.mainImageSrcset = cap.getMainImageSrcset();
+    }
+
+    // 사이즈별 재고 (캐시 시점 값, 구매 가능 재고는 /cap/stocks/{id} 로 따로 조회)
+    @Getter
+    public static class Stock {
+        private final Long id;
+        private final String size;
+        private final Long stock;
+        private final Long reserved;
+        private final Long availableStock;
+
+        private Stock(CapStock capStock) {
+            this.id = capStock.getId();
+            this.size = capStock.getSize();
+            this.stock = capStock.getStock();
+            this.reserved = capStock.getReserved();
+            this.availableStock = capStock.getAvailableStock();
+        }
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values != null ? Collections.unmodifiableList(new ArrayList<>(values)) : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.capshop.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+// 상품 검색 결과 (관련도 순 카드 목록 + 전체 일치 개수 + 패싯 개수)
+@Getter
+public class CapSearchResponse {
+    private List<CapCardResponse> items;
+    private int total;
+    private Map<String, Map<String, Integer>> facets; // color / size / price → (값 → 상품 수)
+
+    public CapSearchResponse(List<CapCardResponse> items, int total, Map<String, Map<String, Integer>> facets) {
+        this.items = items;
+        this.total = total;
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.capshop.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartBatchRequest {
+    private Long userId;
+    private List<CartQuantityChange> changes;  // 장바구니에 담긴 줄들의 수량 변경
+}
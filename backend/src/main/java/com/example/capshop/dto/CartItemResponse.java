@@ -13,6 +13,16 @@ public class CartItemResponse {
     private Long price;
     private String mainImageUrl;
     private String size;  // 선택된 사이즈 추가
+    private Long availableStock; // 선택한 사이즈의 구매 가능 재고 (사이즈 재고가 없으면 null)
+    private Long subTotal;       // 현재 가격 x 수량
+
+    // 장바구니 화면용 (JPQL 생성자 projection, 가격/이미지/재고를 한 행으로)
+    public CartItemResponse(Long id, Integer quantity, Long capId, String capName, Long price, String mainImageUrl,
+                            String size, Long availableStock, Long subTotal) {
+        this(id, quantity, capId, capName, price, mainImageUrl, size);
+        this.availableStock = availableStock != null ? Math.max(0L, availableStock) : null;
+        this.subTotal = subTotal;
+    }
 
     public CartItemResponse(Long id, int quantity, Long capId, String capName, Long price, String mainImageUrl, String size) {
         this.id = id;
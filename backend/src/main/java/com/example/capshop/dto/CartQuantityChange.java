@@ -0,0 +1,15 @@
+package com.example.capshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartQuantityChange {
+    private Long capId;
+    private String size;
+    private int delta;  // +면 증가, -면 감소
+}
@@ -0,0 +1,38 @@
+package com.example.capshop.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 서버가 계산한 결제 금액 견적
+ * signature 는 금액 필드에 대한 서명이라 결제 승인 시 다시 계산하지 않고 서명만 확인한다.
+ */
+@Getter
+@Builder
+public class CheckoutQuote {
+    private final String orderId;
+    private final Long userId;
+    private final List<Line> lines;
+    private final Long originalAmount;   // 할인 전 원가
+    private final Long userCouponId;     // 적용된 쿠폰 (없으면 null)
+    private final String couponName;
+    private final Long couponDiscount;
+    private final Long pointsUsed;
+    private final Long finalAmount;      // 토스 결제 금액
+    private final long expiresAt;        // epoch millis
+    private final String signature;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Line {
+        private final Long capId;
+        private final String capName;
+        private final String size;
+        private final int quantity;
+        private final Long unitPrice;
+        private final Long lineTotal;
+    }
+}
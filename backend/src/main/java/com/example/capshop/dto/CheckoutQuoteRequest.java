@@ -0,0 +1,15 @@
+package com.example.capshop.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CheckoutQuoteRequest {
+    private String orderId;          // 체크아웃 주문번호
+    private Long userCouponId;       // 선택한 쿠폰 (null 이면 bestCoupon 에 따라)
+    private boolean bestCoupon;      // 쿠폰 미선택 시 할인액이 가장 큰 쿠폰 자동 적용
+    private Long pointsToUse;        // 사용할 적립금 (보유액/결제액 한도로 잘림)
+}
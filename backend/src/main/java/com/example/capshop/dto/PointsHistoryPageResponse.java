@@ -0,0 +1,18 @@
+package com.example.capshop.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+
+@Getter
+public class PointsHistoryPageResponse {
+    private List<PointsHistoryResponse> items;
+    private String nextCursor; // 다음 페이지 요청 시 그대로 넘기는 값 (마지막 페이지면 null)
+    private boolean hasNext;
+
+    public PointsHistoryPageResponse(List<PointsHistoryResponse> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
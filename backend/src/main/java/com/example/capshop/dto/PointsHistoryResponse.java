@@ -0,0 +1,20 @@
+package com.example.capshop.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+
+@Getter
+public class PointsHistoryResponse {
+    private Long id;
+    private Long amount;            // 적립 +, 사용 -
+    private String reason;
+    private LocalDateTime createdAt;
+
+    public PointsHistoryResponse(Long id, Long amount, String reason, LocalDateTime createdAt) {
+        this.id = id;
+        this.amount = amount;
+        this.reason = reason;
+        this.createdAt = createdAt;
+    }
+}
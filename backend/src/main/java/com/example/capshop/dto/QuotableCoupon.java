@@ -0,0 +1,39 @@
+package com.example.capshop.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.capshop.domain.Coupon;
+import com.example.capshop.domain.UserCoupon;
+
+import lombok.Getter;
+
+/**
+ * 견적 계산용 사용자 쿠폰 스냅샷 (엔티티 대신 캐시에 보관)
+ */
+@Getter
+public class QuotableCoupon {
+    private final Long userCouponId;
+    private final String couponName;
+    private final Coupon coupon;
+    private final LocalDateTime validFrom;
+    private final LocalDateTime validUntil;
+
+    public QuotableCoupon(UserCoupon userCoupon) {
+        this.userCouponId = userCoupon.getId();
+        this.couponName = userCoupon.getCoupon().getName();
+        this.coupon = userCoupon.getCoupon();
+        this.validFrom = userCoupon.getValidFrom();
+        this.validUntil = userCoupon.getValidUntil();
+    }
+
+    /** 주문 금액에 적용했을 때의 할인액, 기간 밖이거나 최소 주문금액 미달이면 null */
+    public Long discountFor(Long orderAmount, LocalDateTime now) {
+        if (!validFrom.isBefore(now) || !validUntil.isAfter(now)) {
+            return null;
+        }
+        if (coupon.getMinOrderAmount() != null && orderAmount < coupon.getMinOrderAmount()) {
+            return null;
+        }
+        return coupon.calculateDiscount(orderAmount);
+    }
+}
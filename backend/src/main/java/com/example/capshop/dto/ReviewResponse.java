@@ -24,6 +24,26 @@ public class ReviewResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // 목록 조회용 (JPQL 생성자 projection) - 이미지와 사이즈는 fillDetails 로 채운다
+    public ReviewResponse(Long id, Long userId, String userName, Long capId, String capName, Long orderId,
+                          Integer rating, String content, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.capId = capId;
+        this.capName = capName;
+        this.orderId = orderId;
+        this.rating = rating;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public void fillDetails(List<String> imageUrls, String selectedSize) {
+        this.imageUrls = imageUrls;
+        this.selectedSize = selectedSize != null ? selectedSize : "사이즈 정보 없음";
+    }
+    
     public ReviewResponse(Review review) {
         this.id = review.getId();
         this.userId = review.getUser().getId();
@@ -0,0 +1,23 @@
+package com.example.capshop.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StockLine {
+    private Long capId;
+    private String size;      // null 또는 빈 문자열이면 사이즈 없는 상품 (Cap.stock 사용)
+    private int quantity;
+    private boolean reserved; // 차감 성공 여부 (예약 후 채워짐)
+
+    public StockLine(Long capId, String size, int quantity) {
+        this.capId = capId;
+        this.size = (size == null || size.isBlank()) ? null : size;
+        this.quantity = quantity;
+    }
+
+    public boolean hasSize() {
+        return size != null;
+    }
+}
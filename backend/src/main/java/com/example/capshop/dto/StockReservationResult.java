@@ -0,0 +1,27 @@
+package com.example.capshop.dto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+
+@Getter
+public class StockReservationResult {
+    private final List<StockLine> lines; // 라인별 성공/실패 결과
+
+    public StockReservationResult(List<StockLine> lines) {
+        this.lines = lines;
+    }
+
+    // 모든 라인이 차감되었는지
+    public boolean isAllReserved() {
+        return lines.stream().allMatch(StockLine::isReserved);
+    }
+
+    // 재고 부족으로 차감되지 않은 라인들
+    public List<StockLine> getFailedLines() {
+        return lines.stream()
+                .filter(line -> !line.isReserved())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.capshop.dto;
+
+import lombok.Getter;
+
+// 저장소에 저장된 업로드 파일 정보
+@Getter
+public class StoredMedia {
+    private final String key;           // 내용 해시 + 확장자 (예: 3f2a...c9.jpg)
+    private final String url;
+    private final long size;
+    private final boolean deduplicated; // 같은 내용이 이미 있어서 새로 저장하지 않았는지
+
+    public StoredMedia(String key, String url, long size, boolean deduplicated) {
+        this.key = key;
+        this.url = url;
+        this.size = size;
+        this.deduplicated = deduplicated;
+    }
+}
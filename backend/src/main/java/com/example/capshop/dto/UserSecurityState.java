@@ -0,0 +1,23 @@
+package com.example.capshop.dto;
+
+import com.example.capshop.domain.User;
+
+import lombok.Getter;
+
+// 인증 시 필요한 사용자 상태만 담은 불변 스냅샷 (토큰 인증 캐시용)
+@Getter
+public class UserSecurityState {
+    private final Long id;
+    private final String email;
+    private final String name;
+    private final boolean admin;
+    private final boolean deleted;
+
+    public UserSecurityState(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.name = user.getName();
+        this.admin = user.isAdmin();
+        this.deleted = user.isDeleted();
+    }
+}
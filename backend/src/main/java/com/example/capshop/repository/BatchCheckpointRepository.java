@@ -0,0 +1,8 @@
+package com.example.capshop.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.capshop.domain.BatchCheckpoint;
+
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, String> {
+}
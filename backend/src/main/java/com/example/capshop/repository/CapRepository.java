@@ -1,16 +1,76 @@
 package com.example.capshop.repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.capshop.domain.Cap;
+import com.example.capshop.dto.CapCardResponse;
 
 public interface CapRepository extends JpaRepository<Cap, Long>{
-    List<Cap> findByNameContaining(String keyword);
+    @EntityGraph(attributePaths = "stocks") // 사이즈별 재고까지 한 번의 조인으로 로딩
     Optional<Cap> findById(Long id);
     List<Cap> findByIsNewTrue(); // NEW 상품만 조회
 
-}
-    
+    // 여러 상품을 사이즈별 재고까지 한 번에 로딩 (결제 승인 시 주문 라인 검증/생성)
+    @EntityGraph(attributePaths = "stocks")
+    List<Cap> findByIdIn(Collection<Long> ids);
+
+    // ===== 상품 목록 (카드 프로젝션 + 키셋 페이지네이션) =====
+    String CARD_SELECT = "SELECT new com.example.capshop.dto.CapCardResponse("
+            + "c.id, c.name, c.price, c.color, c.mainImageUrl, c.isNew, "
+            + "COALESCE((SELECT SUM(s.stock) FROM CapStock s WHERE s.cap = c), c.stock)) FROM Cap c ";
+    String NEW_RANK = "(CASE WHEN c.isNew = true THEN 1 ELSE 0 END)";
+
+    // 최신순 (id 역순)
+    @Query(CARD_SELECT
+            + "WHERE (:cursorId IS NULL OR c.id < :cursorId) "
+            + "ORDER BY c.id DESC")
+    List<CapCardResponse> findCardsNewest(@Param("cursorId") Long cursorId, Pageable pageable);
+
+    // 가격 낮은순
+    @Query(CARD_SELECT
+            + "WHERE (:cursorId IS NULL OR c.price > :cursorPrice "
+            + "OR (c.price = :cursorPrice AND c.id > :cursorId)) "
+            + "ORDER BY c.price ASC, c.id ASC")
+    List<CapCardResponse> findCardsPriceAsc(@Param("cursorPrice") Long cursorPrice,
+                                            @Param("cursorId") Long cursorId, Pageable pageable);
+
+    // 가격 높은순
+    @Query(CARD_SELECT
+            + "WHERE (:cursorId IS NULL OR c.price < :cursorPrice "
+            + "OR (c.price = :cursorPrice AND c.id < :cursorId)) "
+            + "ORDER BY c.price DESC, c.id DESC")
+    List<CapCardResponse> findCardsPriceDesc(@Param("cursorPrice") Long cursorPrice,
+                                             @Param("cursorId") Long cursorId, Pageable pageable);
 
+    // NEW 상품 우선, 같은 그룹 안에서는 최신순
+    @Query(CARD_SELECT
+            + "WHERE (:cursorId IS NULL OR " + NEW_RANK + " < :cursorRank "
+            + "OR (" + NEW_RANK + " = :cursorRank AND c.id < :cursorId)) "
+            + "ORDER BY " + NEW_RANK + " DESC, c.id DESC")
+    List<CapCardResponse> findCardsNewFirst(@Param("cursorRank") Integer cursorRank,
+                                            @Param("cursorId") Long cursorId, Pageable pageable);
+
+    // 대표/추가 이미지 중 하나라도 해당 URL 패턴을 쓰는 상품 수 (공유 파일 삭제 방지용)
+    @Query("SELECT COUNT(DISTINCT c) FROM Cap c LEFT JOIN c.imageUrls u "
+            + "WHERE c.mainImageUrl LIKE :pattern OR u LIKE :pattern")
+    long countByImageUrlLike(@Param("pattern") String pattern);
+
+    // ===== 검색 색인 적재 (id 키셋으로 나눠 읽기) =====
+    @Query("SELECT c FROM Cap c WHERE c.id > :afterId ORDER BY c.id")
+    List<Cap> findIndexBatch(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 상품 id 만 키셋으로 (리뷰 통계 재계산 등 배치용)
+    @Query("SELECT c.id FROM Cap c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 여러 상품의 사이즈 목록을 한 번에 조회 ([capId, size])
+    @Query("SELECT c.id, s FROM Cap c JOIN c.size s WHERE c.id IN :ids")
+    List<Object[]> findSizesByCapIds(@Param("ids") Collection<Long> ids);
+}
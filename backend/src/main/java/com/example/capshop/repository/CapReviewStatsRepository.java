@@ -0,0 +1,43 @@
+package com.example.capshop.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.capshop.domain.CapReviewStats;
+
+import jakarta.persistence.LockModeType;
+
+public interface CapReviewStatsRepository extends JpaRepository<CapReviewStats, Long> {
+
+    // save() 는 merge 라 동시에 만들면 남의 증감을 덮어쓸 수 있어 INSERT 만 한다 (이미 있으면 기본키 충돌)
+    @Modifying
+    @Query(value = "INSERT INTO cap_review_stats (cap_id, review_count, rating_sum, "
+            + "rating1, rating2, rating3, rating4, rating5, photo_count) "
+            + "VALUES (:capId, 0, 0, 0, 0, 0, 0, 0, 0)", nativeQuery = true)
+    int insertEmpty(@Param("capId") Long capId);
+
+    // 리뷰 작성/수정/삭제 증감 (행 잠금 안에서 더하므로 동시에 써도 정확)
+    @Modifying
+    @Query("UPDATE CapReviewStats s SET s.reviewCount = s.reviewCount + :count, "
+            + "s.ratingSum = s.ratingSum + :ratingSum, "
+            + "s.rating1 = s.rating1 + :r1, s.rating2 = s.rating2 + :r2, s.rating3 = s.rating3 + :r3, "
+            + "s.rating4 = s.rating4 + :r4, s.rating5 = s.rating5 + :r5, "
+            + "s.photoCount = s.photoCount + :photo WHERE s.capId = :capId")
+    int applyDelta(@Param("capId") Long capId, @Param("count") long count, @Param("ratingSum") long ratingSum,
+                   @Param("r1") long r1, @Param("r2") long r2, @Param("r3") long r3,
+                   @Param("r4") long r4, @Param("r5") long r5, @Param("photo") long photo);
+
+    @Query("SELECT s.capId FROM CapReviewStats s WHERE s.capId IN :capIds")
+    List<Long> findExistingCapIds(@Param("capIds") Collection<Long> capIds);
+
+    // 재계산: 묶음의 통계 행을 잠가 그 사이 증감이 끼어들지 않게 한다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CapReviewStats s WHERE s.capId IN :capIds")
+    List<CapReviewStats> lockByCapIds(@Param("capIds") Collection<Long> capIds);
+}
@@ -8,15 +8,57 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import com.example.capshop.domain.Cap;
 import com.example.capshop.domain.CartItem;
 import com.example.capshop.domain.User;
+import com.example.capshop.dto.CartItemResponse;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long>{
     List<CartItem> findByUser(User user);
-    Optional<CartItem> findByUserAndCap(User user, Cap cap);
-    List<CartItem> findAllByUserAndCap(User user, Cap cap);  // 리스트 반환용 메서드 추가
-    Optional<CartItem> findByUserAndCapAndSize(User user, Cap cap, String size);
+
+    // 장바구니 화면: 줄마다 현재 가격/대표 이미지/선택 사이즈 재고/소계를 쿼리 한 번으로
+    @Query("SELECT new com.example.capshop.dto.CartItemResponse("
+            + "ci.id, ci.quantity, c.id, c.name, c.price, c.mainImageUrl, ci.size, "
+            + "s.stock - s.reserved, c.price * ci.quantity) "
+            + "FROM CartItem ci JOIN ci.cap c LEFT JOIN CapStock s ON s.cap = c AND s.size = ci.size "
+            + "WHERE ci.user.id = :userId ORDER BY ci.id")
+    List<CartItemResponse> findCartLines(@Param("userId") Long userId);
+
+    // ===== 장바구니 수량 변경 (조회 없이 문장 하나로, (user_id, cap_id, size) 유니크 키 기준) =====
+    // 증가: 결과 수량이 해당 사이즈의 구매 가능 재고(실재고 - 홀드) 이하일 때만 반영
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.quantity = ci.quantity + :amount "
+            + "WHERE ci.user.id = :userId AND ci.cap.id = :capId AND ci.size = :size "
+            + "AND ci.quantity + :amount <= (SELECT s.stock - s.reserved FROM CapStock s "
+            + "WHERE s.cap.id = :capId AND s.size = :size)")
+    int increaseQuantity(@Param("userId") Long userId, @Param("capId") Long capId,
+                         @Param("size") String size, @Param("amount") int amount);
+
+    // 감소: 1개 아래로는 내려가지 않는다 (삭제는 휴지통 버튼)
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.quantity = ci.quantity - :amount "
+            + "WHERE ci.user.id = :userId AND ci.cap.id = :capId AND ci.size = :size "
+            + "AND ci.quantity - :amount >= 1")
+    int decreaseQuantity(@Param("userId") Long userId, @Param("capId") Long capId,
+                         @Param("size") String size, @Param("amount") int amount);
+
+    // 처음 담는 상품: 빈 줄을 만든다 (save() 는 merge 라 동시에 담으면 줄이 중복되므로 INSERT 만, 이미 있으면 유니크 키 충돌)
+    @Modifying
+    @Query(value = "INSERT INTO cart_item (user_id, cap_id, size, quantity) VALUES (:userId, :capId, :size, 0)",
+            nativeQuery = true)
+    int insertLine(@Param("userId") Long userId, @Param("capId") Long capId, @Param("size") String size);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.user.id = :userId AND ci.cap.id = :capId AND ci.size = :size")
+    int deleteLine(@Param("userId") Long userId, @Param("capId") Long capId, @Param("size") String size);
+
+    // 사이즈 도입 전에 담긴 줄 (사이즈 없음)
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.user.id = :userId AND ci.cap.id = :capId AND ci.size IS NULL")
+    int deleteUnsizedLine(@Param("userId") Long userId, @Param("capId") Long capId);
+
+    @Query("SELECT ci.quantity FROM CartItem ci WHERE ci.user.id = :userId AND ci.cap.id = :capId AND ci.size = :size")
+    Optional<Integer> findQuantity(@Param("userId") Long userId, @Param("capId") Long capId, @Param("size") String size);
+
     @Modifying
     @Query("delete from CartItem ci where ci.user = :user")
     void deleteByUser(@Param("user") User user);
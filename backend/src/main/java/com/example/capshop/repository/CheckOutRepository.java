@@ -4,16 +4,35 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.capshop.domain.order.CheckOut;
 
 @Repository
 public interface CheckOutRepository extends JpaRepository<CheckOut, Long> {
+    // 상품 목록까지 한 번의 조인으로 로딩
+    @EntityGraph(attributePaths = "items")
+    Optional<CheckOut> findById(Long id);
+
+    @EntityGraph(attributePaths = "items")
     Optional<CheckOut> findByOrderId(String orderId);
     
-    // 오래된 CheckOut 데이터 정리를 위한 메서드들
-    List<CheckOut> findByCreatedAtBefore(LocalDateTime createdAt);
-    long countByCreatedAtBefore(LocalDateTime createdAt);
+    // 오래된 CheckOut 데이터 정리를 위한 메서드들 (키셋 묶음 + 벌크 삭제)
+    @Query("SELECT c.id FROM CheckOut c WHERE c.id > :afterId AND c.createdAt < :before ORDER BY c.id")
+    List<Long> findIdsCreatedBefore(@Param("before") LocalDateTime before, @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM CheckOutItem i WHERE i.checkOut.id IN :ids")
+    int deleteItemsByCheckOutIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM CheckOut c WHERE c.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
@@ -12,4 +12,6 @@ public interface LogbookRepository extends JpaRepository<Logbook, Long> {
 
 @Query("SELECT MAX(l.sortOrder) FROM Logbook l")
 Integer findMaxSortOrder();
+
+    long countByImageUrlLike(String pattern); // 공유 파일 삭제 방지용
 }
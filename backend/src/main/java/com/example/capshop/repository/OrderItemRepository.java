@@ -2,12 +2,26 @@ package com.example.capshop.repository;
 
 import com.example.capshop.domain.order.Order;
 import com.example.capshop.domain.order.OrderItem;
+import com.example.capshop.dto.AdminOrderItemResponse;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrder(Order order);
     List<OrderItem> findByOrderId(Long orderId);
+
+    // 관리자 주문 목록: 한 페이지 주문들의 상품과 상품명을 쿼리 한 번으로
+    @Query("SELECT new com.example.capshop.dto.AdminOrderItemResponse("
+            + "i.order.id, i.id, c.id, c.name, i.quantity, i.orderPrice, i.selectedSize) "
+            + "FROM OrderItem i JOIN i.cap c WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<AdminOrderItemResponse> findAdminItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // 리뷰 목록: 한 페이지 리뷰들의 구매 사이즈 [orderId, capId, selectedSize]
+    @Query("SELECT i.order.id, i.cap.id, i.selectedSize FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<Object[]> findSizesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -4,11 +4,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.capshop.domain.Status;
 import com.example.capshop.domain.User;
 import com.example.capshop.domain.order.Order;
+import com.example.capshop.dto.AdminOrderResponse;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUser(User user);
@@ -18,5 +23,44 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // 자동 구매확정을 위한 메서드들
     List<Order> findByStatusAndDeliveredAtBeforeAndConfirmedFalse(Status status, LocalDateTime deliveredAt);
     long countByStatusAndDeliveredAtBeforeAndConfirmedFalse(Status status, LocalDateTime deliveredAt);
-}
 
+    // 자동 구매확정 대상 id (키셋, (status, confirmed, id) 인덱스)
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.confirmed = false "
+            + "AND o.id > :afterId AND o.deliveredAt < :before ORDER BY o.id")
+    List<Long> findConfirmableIds(@Param("status") Status status, @Param("before") LocalDateTime before,
+                                  @Param("afterId") Long afterId, Pageable pageable);
+
+    // 묶음 구매확정 (그 사이 상태가 바뀐 주문은 제외)
+    @Modifying
+    @Query("UPDATE Order o SET o.confirmed = true, o.confirmedAt = :now "
+            + "WHERE o.id IN :ids AND o.status = :status AND o.confirmed = false")
+    int confirmByIds(@Param("ids") List<Long> ids, @Param("status") Status status, @Param("now") LocalDateTime now);
+
+    // 상태 전환 (현재 상태가 from 일 때만, 0행이면 이미 다른 요청이 바꾼 것)
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id = :id AND o.status = :from")
+    int changeStatus(@Param("id") Long id, @Param("from") Status from, @Param("to") Status to);
+
+    // ===== 관리자 주문 목록 (행 프로젝션 + 키셋 페이지네이션, 최신 주문부터) =====
+    // 비어 있는 필터는 ":x IS NULL" 로 빠지므로 실제로 건 조건의 인덱스만 탄다
+    String ADMIN_ORDER_SELECT = "SELECT new com.example.capshop.dto.AdminOrderResponse("
+            + "o.id, o.orderId, o.status, o.receiverName, o.address, o.phone, o.total_price, o.final_price, "
+            + "o.orderDate, o.trackingNumber, o.returnTrackingNumber, o.returnReason, o.confirmed, o.deliveredAt, "
+            + "u.id, u.name, u.email) FROM Order o LEFT JOIN o.user u ";
+
+    @Query(ADMIN_ORDER_SELECT
+            + "WHERE (:status IS NULL OR o.status = :status) "
+            + "AND (:from IS NULL OR o.orderDate >= :from) "
+            + "AND (:to IS NULL OR o.orderDate < :to) "
+            + "AND (:userId IS NULL OR o.user.id = :userId) "
+            + "AND (:orderIdPrefix IS NULL OR o.orderId LIKE :orderIdPrefix ESCAPE '!') "
+            + "AND (:cursorId IS NULL OR o.id < :cursorId) "
+            + "ORDER BY o.id DESC")
+    List<AdminOrderResponse> searchAdminOrders(@Param("status") Status status,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("userId") Long userId,
+                                               @Param("orderIdPrefix") String orderIdPrefix,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package com.example.capshop.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.capshop.domain.PaymentAttemptStatus;
+import com.example.capshop.domain.order.PaymentAttempt;
+
+import jakarta.persistence.LockModeType;
+
+public interface PaymentAttemptRepository extends JpaRepository<PaymentAttempt, Long> {
+
+    Optional<PaymentAttempt> findByOrderId(String orderId);
+
+    // 요청 스레드와 복구 작업이 같은 단계를 동시에 진행하지 않도록 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM PaymentAttempt a WHERE a.id = :id")
+    Optional<PaymentAttempt> findForUpdateById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM PaymentAttempt a WHERE a.orderId = :orderId")
+    Optional<PaymentAttempt> findForUpdateByOrderId(@Param("orderId") String orderId);
+
+    // 일정 시간 넘게 진행 중 상태로 멈춰 있는 결제 (서버 중단 등)
+    @Query("SELECT a.id FROM PaymentAttempt a WHERE a.status IN :statuses AND a.updatedAt < :before ORDER BY a.id")
+    List<Long> findStaleIds(@Param("statuses") Collection<PaymentAttemptStatus> statuses,
+                            @Param("before") LocalDateTime before,
+                            Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.example.capshop.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.capshop.domain.PointsLedgerEntry;
+import com.example.capshop.dto.PointsHistoryResponse;
+
+public interface PointsLedgerRepository extends JpaRepository<PointsLedgerEntry, Long> {
+
+    // 적립금 내역 (최신순, id 키셋)
+    @Query("SELECT new com.example.capshop.dto.PointsHistoryResponse(e.id, e.amount, e.reason, e.createdAt) "
+            + "FROM PointsLedgerEntry e WHERE e.userId = :userId "
+            + "AND (:cursorId IS NULL OR e.id < :cursorId) ORDER BY e.id DESC")
+    List<PointsHistoryResponse> findHistory(@Param("userId") Long userId,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    // 기간 합계 (from 이 null 이면 처음부터, to 는 미포함)
+    @Query("SELECT COALESCE(SUM(e.amount), 0L) FROM PointsLedgerEntry e WHERE e.userId = :userId "
+            + "AND (:from IS NULL OR e.createdAt >= :from) AND e.createdAt < :to")
+    long sumBetween(@Param("userId") Long userId,
+                    @Param("from") LocalDateTime from,
+                    @Param("to") LocalDateTime to);
+
+    // 여러 사용자의 기간 합계 ([userId, sum], 내역이 없는 사용자는 빠짐)
+    @Query("SELECT e.userId, SUM(e.amount) FROM PointsLedgerEntry e WHERE e.userId IN :userIds "
+            + "AND (:from IS NULL OR e.createdAt >= :from) AND e.createdAt < :to GROUP BY e.userId")
+    List<Object[]> sumByUserIds(@Param("userIds") Collection<Long> userIds,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    // 여러 사용자의 원장 전체 합계 ([userId, sum])
+    @Query("SELECT e.userId, SUM(e.amount) FROM PointsLedgerEntry e WHERE e.userId IN :userIds GROUP BY e.userId")
+    List<Object[]> sumAllByUserIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,29 @@
+package com.example.capshop.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.capshop.domain.PointsSnapshot;
+
+public interface PointsSnapshotRepository extends JpaRepository<PointsSnapshot, Long> {
+
+    // 기준 월보다 앞선 가장 최근 스냅샷
+    Optional<PointsSnapshot> findFirstByUserIdAndPeriodStartBeforeOrderByPeriodStartDesc(Long userId, LocalDate periodStart);
+
+    @Query("SELECT s FROM PointsSnapshot s WHERE s.userId IN :userIds AND s.periodStart = :periodStart")
+    List<PointsSnapshot> findByUserIdsAndPeriod(@Param("userIds") Collection<Long> userIds,
+                                                @Param("periodStart") LocalDate periodStart);
+
+    // 같은 달을 다시 만들 때 기존 행을 지우고 새로 넣는다
+    @Modifying
+    @Query("DELETE FROM PointsSnapshot s WHERE s.userId IN :userIds AND s.periodStart = :periodStart")
+    int deleteByUserIdsAndPeriod(@Param("userIds") Collection<Long> userIds,
+                                 @Param("periodStart") LocalDate periodStart);
+}
@@ -1,8 +1,11 @@
 package com.example.capshop.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,18 +14,62 @@ import com.example.capshop.domain.Cap;
 import com.example.capshop.domain.Review;
 import com.example.capshop.domain.User;
 import com.example.capshop.domain.order.Order;
+import com.example.capshop.dto.ReviewResponse;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    // ===== 리뷰 목록 (키셋 페이지) =====
+    // 작성자/상품명은 조인해서 한 행으로, 이미지와 구매 사이즈는 페이지 단위로 따로 한 번씩 읽는다
+    String FEED_SELECT = "SELECT new com.example.capshop.dto.ReviewResponse("
+            + "r.id, u.id, u.name, c.id, c.name, r.order.id, r.rating, r.content, r.createdAt, r.updatedAt) "
+            + "FROM Review r JOIN r.user u JOIN r.cap c ";
+
+    // (createdAt, id) 내림차순에서 커서 다음 행
+    String AFTER_RECENT = "(:cursorId IS NULL OR r.createdAt < :cursorCreatedAt "
+            + "OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId)) ";
+    String ORDER_RECENT = "ORDER BY r.createdAt DESC, r.id DESC";
+
+    // 특정 상품 리뷰 (최신순)
+    @Query(FEED_SELECT + "WHERE r.cap.id = :capId AND " + AFTER_RECENT + ORDER_RECENT)
+    List<ReviewResponse> findCapFeedRecent(@Param("capId") Long capId,
+                                           @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                           @Param("cursorId") Long cursorId, Pageable pageable);
+
+    // 특정 상품 리뷰 (별점 높은 순, 같은 별점은 최신순)
+    @Query(FEED_SELECT + "WHERE r.cap.id = :capId AND (:cursorId IS NULL OR r.rating < :cursorRating "
+            + "OR (r.rating = :cursorRating AND (r.createdAt < :cursorCreatedAt "
+            + "OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId)))) "
+            + "ORDER BY r.rating DESC, r.createdAt DESC, r.id DESC")
+    List<ReviewResponse> findCapFeedRating(@Param("capId") Long capId,
+                                           @Param("cursorRating") Integer cursorRating,
+                                           @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                           @Param("cursorId") Long cursorId, Pageable pageable);
+
+    // 특정 상품의 포토 리뷰 (이미지가 있는 리뷰, 최신순)
+    @Query(FEED_SELECT + "WHERE r.cap.id = :capId AND SIZE(r.imageUrls) > 0 AND " + AFTER_RECENT + ORDER_RECENT)
+    List<ReviewResponse> findCapPhotoFeed(@Param("capId") Long capId,
+                                          @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                          @Param("cursorId") Long cursorId, Pageable pageable);
+
+    // 특정 사용자의 리뷰 (최신순)
+    @Query(FEED_SELECT + "WHERE r.user.id = :userId AND " + AFTER_RECENT + ORDER_RECENT)
+    List<ReviewResponse> findUserFeed(@Param("userId") Long userId,
+                                      @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                      @Param("cursorId") Long cursorId, Pageable pageable);
+
+    // 전체 리뷰 (최신순)
+    @Query(FEED_SELECT + "WHERE " + AFTER_RECENT + ORDER_RECENT)
+    List<ReviewResponse> findFeed(@Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                  @Param("cursorId") Long cursorId, Pageable pageable);
+
+    // 한 페이지 리뷰들의 이미지 [reviewId, imageUrl]
+    @Query("SELECT r.id, u FROM Review r JOIN r.imageUrls u WHERE r.id IN :reviewIds")
+    List<Object[]> findImageUrlsByReviewIds(@Param("reviewIds") Collection<Long> reviewIds);
     
+
     // 특정 상품의 모든 리뷰 조회 (최신순)
     List<Review> findByCapOrderByCreatedAtDesc(Cap cap);
     
-    // 특정 상품의 리뷰 조회 (별점 높은 순)
-    List<Review> findByCapOrderByRatingDescCreatedAtDesc(Cap cap);
-    
-    // 특정 사용자의 모든 리뷰 조회
-    List<Review> findByUserOrderByCreatedAtDesc(User user);
-    
     // 특정 주문에 대한 리뷰가 이미 있는지 확인
     Optional<Review> findByOrder(Order order);
     
@@ -43,7 +90,21 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.cap = :cap GROUP BY r.rating")
     List<Object[]> countByRatingGroupByCap(@Param("cap") Cap cap);
     
-    // 포토 리뷰만 조회 (이미지가 있는 리뷰)
-    @Query("SELECT r FROM Review r WHERE r.cap = :cap AND SIZE(r.imageUrls) > 0 ORDER BY r.createdAt DESC")
-    List<Review> findPhotoReviewsByCap(@Param("cap") Cap cap);
+    // 해당 URL 패턴의 이미지를 쓰는 리뷰 수 (공유 파일 삭제 방지용)
+    @Query("SELECT COUNT(DISTINCT r) FROM Review r JOIN r.imageUrls u WHERE u LIKE :pattern")
+    long countByImageUrlLike(@Param("pattern") String pattern);
+
+    // ===== 리뷰 통계 재계산 (상품 묶음 단위) =====
+    // [capId, 리뷰 수, 별점 합, 1점 수, 2점 수, 3점 수, 4점 수, 5점 수]
+    @Query("SELECT r.cap.id, COUNT(r), SUM(r.rating), "
+            + "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) "
+            + "FROM Review r WHERE r.cap.id IN :capIds GROUP BY r.cap.id")
+    List<Object[]> aggregateByCapIds(@Param("capIds") Collection<Long> capIds);
+
+    // [capId, 포토 리뷰 수]
+    @Query("SELECT r.cap.id, COUNT(DISTINCT r.id) FROM Review r JOIN r.imageUrls u "
+            + "WHERE r.cap.id IN :capIds GROUP BY r.cap.id")
+    List<Object[]> countPhotoReviewsByCapIds(@Param("capIds") Collection<Long> capIds);
 }
@@ -0,0 +1,42 @@
+package com.example.capshop.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.capshop.domain.SchedulerLock;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // save() 는 merge 라 동시에 만들면 남의 잠금을 덮어쓸 수 있어 INSERT 만 한다 (이미 있으면 기본키 충돌)
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lock (name, fencing_token) VALUES (:name, 0)", nativeQuery = true)
+    int insertLock(@Param("name") String name);
+
+    // 만료된 잠금만 가져가면서 토큰 증가 (동시에 시도해도 한 서버만 1행 반영)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.owner = :owner, l.lockedUntil = :until, l.acquiredAt = :now, "
+            + "l.fencingToken = l.fencingToken + 1 "
+            + "WHERE l.name = :name AND (l.lockedUntil IS NULL OR l.lockedUntil <= :now)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Query("SELECT l.fencingToken FROM SchedulerLock l WHERE l.name = :name")
+    long findFencingToken(@Param("name") String name);
+
+    // 연장: 그 사이 다른 서버가 가져가지 않았을 때만 (가져갔으면 토큰이 올라가 있음)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until "
+            + "WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :token")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("token") long token,
+              @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until "
+            + "WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :token")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("token") long token,
+                @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,26 @@
+package com.example.capshop.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.capshop.domain.StockHold;
+
+import jakarta.persistence.LockModeType;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    // 결제 승인과 만료 스위퍼가 같은 홀드를 동시에 처리하지 않도록 행 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.checkOutId = :checkOutId")
+    List<StockHold> findForUpdateByCheckOutId(@Param("checkOutId") Long checkOutId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.expiresAt < :now ORDER BY h.id")
+    List<StockHold> findExpiredForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+}
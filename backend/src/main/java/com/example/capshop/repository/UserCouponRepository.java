@@ -1,8 +1,11 @@
 package com.example.capshop.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -31,6 +34,21 @@ public interface UserCouponRepository extends JpaRepository<UserCoupon, Long> {
            "AND (uc.coupon.minOrderAmount IS NULL OR uc.coupon.minOrderAmount <= :orderAmount)")
     List<UserCoupon> findAvailableCouponsForOrder(@Param("user") User user, @Param("orderAmount") Long orderAmount);
     
+    // 견적용: 사용자의 사용 가능 쿠폰 (쿠폰 정보까지 한 번에)
+    @Query("SELECT uc FROM UserCoupon uc JOIN FETCH uc.coupon c " +
+           "WHERE uc.user.id = :userId AND uc.status = 'AVAILABLE' AND c.isActive = true")
+    List<UserCoupon> findQuotableByUserId(@Param("userId") Long userId);
+    
     // 스케줄러용 status available -> expired용
     List<UserCoupon> findByStatus(CouponStatus status);
+    
+    // 만료 대상 id 한 묶음 ((status, valid_until) 인덱스 순서대로 읽어 정렬 비용 없음)
+    @Query("SELECT uc.id FROM UserCoupon uc WHERE uc.status = 'AVAILABLE' AND uc.validUntil < :now " +
+           "ORDER BY uc.validUntil")
+    List<Long> findExpirableIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // 묶음 단위 만료 처리 (그 사이 사용된 쿠폰은 status 조건으로 제외)
+    @Modifying
+    @Query("UPDATE UserCoupon uc SET uc.status = 'EXPIRED' WHERE uc.id IN :ids AND uc.status = 'AVAILABLE'")
+    int expireByIds(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
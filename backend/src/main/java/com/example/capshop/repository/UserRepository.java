@@ -1,14 +1,41 @@
 package com.example.capshop.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.capshop.domain.AuthProvider;
 import com.example.capshop.domain.User;
 
+import jakarta.persistence.LockModeType;
+
 public interface UserRepository extends JpaRepository<User, Long>{
     Optional<User> findByEmail(String email);
     boolean existsByPhone(String phone);
     Optional<User> findByOauthProviderAndProviderUserId(AuthProvider oauthProvider, String providerUserId);
+
+    // 적립금 증감: 잔액이 음수가 되는 변경은 0행 (확인과 차감이 한 문장이라 동시에 써도 음수가 되지 않음)
+    @Modifying
+    @Query("UPDATE User u SET u.points = COALESCE(u.points, 0L) + :delta "
+            + "WHERE u.id = :userId AND COALESCE(u.points, 0L) + :delta >= 0")
+    int addPoints(@Param("userId") Long userId, @Param("delta") Long delta);
+
+    @Query("SELECT COALESCE(u.points, 0L) FROM User u WHERE u.id = :userId")
+    Optional<Long> findPointsById(@Param("userId") Long userId);
+
+    // 사용자 id 만 키셋으로 (적립금 스냅샷 등 배치용)
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 원장 이월: 묶음의 사용자 행을 잠가 그 사이 적립금 증감이 끼어들지 않게 한다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :userIds")
+    List<User> lockByIds(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,103 @@
+package com.example.capshop.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.BatchCheckpoint;
+import com.example.capshop.repository.BatchCheckpointRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 묶음 단위 배치 실행기
+ * - 대상 id 를 키셋(id > lastId ORDER BY id)으로 한 묶음씩 읽고, 묶음마다 트랜잭션 하나로 처리 + 체크포인트 커밋
+ * - 메모리에는 한 묶음의 id 만 올라오므로 대상 건수와 상관없이 메모리 사용량이 일정하다
+ * - 처리는 벌크 JPQL 로 하고, 반영 행 수와 소요 시간을 batch_checkpoint 에 남긴다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchJobRunner {
+
+    private final BatchCheckpointRepository batchCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+
+    /**
+     * @param nextIds lastId 다음 대상 id 들 (id 오름차순, 최대 pageable 크기)
+     * @param chunk   한 묶음 처리, 반영한 행 수 반환
+     * @return 이번 실행(이어서 실행한 경우 멈추기 전 포함)에서 반영한 행 수
+     */
+    public long run(String jobName, int chunkSize,
+                    BiFunction<Long, Pageable, List<Long>> nextIds,
+                    Function<List<Long>, Integer> chunk) {
+        Long startId = transactionTemplate.execute(status -> {
+            BatchCheckpoint checkpoint = batchCheckpointRepository.findById(jobName)
+                    .orElseGet(() -> batchCheckpointRepository.save(new BatchCheckpoint(jobName)));
+            if (checkpoint.start(LocalDateTime.now())) {
+                log.warn("[{}] 이전 실행이 중간에 멈춤 - id {} 이후부터 이어서 처리", jobName, checkpoint.getLastId());
+            }
+            return checkpoint.getLastId();
+        });
+
+        Pageable page = PageRequest.of(0, chunkSize);
+        long lastId = startId;
+        while (true) {
+            List<Long> ids = nextIds.apply(lastId, page);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Long chunkLastId = ids.get(ids.size() - 1);
+            transactionTemplate.executeWithoutResult(status -> {
+                schedulerLockService.checkFence(); // 잠금을 잃었으면 이 묶음은 커밋하지 않음
+                Integer processed = chunk.apply(ids);
+                batchCheckpointRepository.findById(jobName).orElseThrow()
+                        .advance(chunkLastId, processed != null ? processed : 0);
+            });
+            lastId = chunkLastId;
+        }
+
+        BatchCheckpoint finished = transactionTemplate.execute(status -> {
+            BatchCheckpoint checkpoint = batchCheckpointRepository.findById(jobName).orElseThrow();
+            checkpoint.finish(LocalDateTime.now());
+            return checkpoint;
+        });
+        log.info("[{}] 완료 - {}건, {}묶음, {}ms", jobName,
+                finished.getLastRunRows(), finished.getLastRunChunks(), finished.getLastRunDurationMs());
+        return finished.getLastRunRows();
+    }
+
+    // 한 번이라도 끝까지 실행된 적 있는지
+    public boolean hasCompleted(String jobName) {
+        return batchCheckpointRepository.findById(jobName)
+                .map(checkpoint -> checkpoint.getLastFinishedAt() != null)
+                .orElse(false);
+    }
+
+    // 관리용: 작업별 진행/직전 실행 지표
+    public List<Map<String, Object>> stats() {
+        return batchCheckpointRepository.findAll().stream().map(checkpoint -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("job", checkpoint.getJobName());
+            stats.put("running", checkpoint.isRunning());
+            stats.put("lastId", checkpoint.getLastId());
+            stats.put("runProcessed", checkpoint.getRunProcessed());
+            stats.put("lastFinishedAt", checkpoint.getLastFinishedAt());
+            stats.put("lastRunRows", checkpoint.getLastRunRows());
+            stats.put("lastRunChunks", checkpoint.getLastRunChunks());
+            stats.put("lastRunDurationMs", checkpoint.getLastRunDurationMs());
+            return stats;
+        }).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.capshop.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+import lombok.Getter;
+
+// 상품/재고가 바뀌었음을 알리는 이벤트 (커밋 후 CapService 캐시 무효화, 검색 색인 갱신용)
+@Getter
+public class CapChangedEvent {
+    private final Set<Long> capIds;
+    private final boolean stockOnly; // 재고만 바뀐 경우 (검색 색인은 다시 만들 필요 없음)
+
+    public CapChangedEvent(Collection<Long> capIds) {
+        this(capIds, false);
+    }
+
+    private CapChangedEvent(Collection<Long> capIds, boolean stockOnly) {
+        this.capIds = Set.copyOf(capIds);
+        this.stockOnly = stockOnly;
+    }
+
+    public static CapChangedEvent stockOnly(Collection<Long> capIds) {
+        return new CapChangedEvent(capIds, true);
+    }
+}
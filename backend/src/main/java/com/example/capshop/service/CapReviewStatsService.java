@@ -0,0 +1,167 @@
+package com.example.capshop.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.CapReviewStats;
+import com.example.capshop.domain.Review;
+import com.example.capshop.dto.ReviewStatistics;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.CapReviewStatsRepository;
+import com.example.capshop.repository.ReviewRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 상품별 리뷰 통계 (cap_review_stats)
+ * - 리뷰 작성/수정/삭제는 같은 트랜잭션에서 증감 UPDATE 한 번으로 반영한다.
+ * - 상품 페이지는 기본키 조회 한 번으로 평균/개수/분포/포토 수를 읽는다.
+ * - 재계산은 상품 id 묶음마다 통계 행을 잠그고 리뷰 테이블에서 다시 집계해 덮어쓴다.
+ */
+@Slf4j
+@Service
+public class CapReviewStatsService {
+
+    private static final int REBUILD_CHUNK_SIZE = 500;
+    private static final String REBUILD_JOB = "rebuildReviewStats";
+
+    private final CapReviewStatsRepository capReviewStatsRepository;
+    private final ReviewRepository reviewRepository;
+    private final CapRepository capRepository;
+    private final BatchJobRunner batchJobRunner;
+    private final TransactionTemplate requiresNew;
+
+    public CapReviewStatsService(CapReviewStatsRepository capReviewStatsRepository,
+                                 ReviewRepository reviewRepository,
+                                 CapRepository capRepository,
+                                 BatchJobRunner batchJobRunner,
+                                 PlatformTransactionManager transactionManager) {
+        this.capReviewStatsRepository = capReviewStatsRepository;
+        this.reviewRepository = reviewRepository;
+        this.capRepository = capRepository;
+        this.batchJobRunner = batchJobRunner;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void reviewAdded(Review review) {
+        addReview(review.getCap().getId(), 1, review.getRating(), isPhoto(review.getImageUrls()));
+    }
+
+    public void reviewRemoved(Review review) {
+        addReview(review.getCap().getId(), -1, review.getRating(), isPhoto(review.getImageUrls()));
+    }
+
+    // 수정: 이전 별점/포토 여부를 빼고 새 값을 더한다 (리뷰 수는 그대로)
+    public void reviewChanged(Long capId, int oldRating, boolean oldPhoto, int newRating, boolean newPhoto) {
+        if (oldRating == newRating && oldPhoto == newPhoto) {
+            return;
+        }
+        long[] buckets = new long[5];
+        buckets[oldRating - 1]--;
+        buckets[newRating - 1]++;
+        long photo = (newPhoto ? 1 : 0) - (oldPhoto ? 1 : 0);
+        ensureRow(capId);
+        capReviewStatsRepository.applyDelta(capId, 0, newRating - oldRating,
+                buckets[0], buckets[1], buckets[2], buckets[3], buckets[4], photo);
+    }
+
+    /** 통계 행이 없으면 (리뷰가 한 번도 없었던 상품) empty */
+    public Optional<ReviewStatistics> getStatistics(Long capId) {
+        return capReviewStatsRepository.findById(capId).map(stats -> {
+            ReviewStatistics statistics = new ReviewStatistics(
+                    stats.getAverageRating(), stats.getReviewCount(), stats.getPhotoCount());
+            statistics.setRatingDistribution(stats.getRatingDistribution());
+            return statistics;
+        });
+    }
+
+    /**
+     * 전체 상품의 통계를 리뷰 테이블 기준으로 다시 계산 (상품 id 묶음마다 커밋)
+     * @return 다시 계산한 상품 수
+     */
+    public long rebuildAll() {
+        return batchJobRunner.run(REBUILD_JOB, REBUILD_CHUNK_SIZE,
+                (afterId, page) -> capRepository.findIdsAfter(afterId, page),
+                this::rebuild);
+    }
+
+    // 재계산이 한 번도 끝나지 않았으면 통계 테이블을 도입하기 전 리뷰가 빠져 있다
+    public boolean needsBackfill() {
+        return !batchJobRunner.hasCompleted(REBUILD_JOB);
+    }
+
+    // 호출한 트랜잭션 안에서 실행 (BatchJobRunner 의 묶음 트랜잭션)
+    int rebuild(List<Long> capIds) {
+        // 없는 통계 행은 별도 트랜잭션에서 만든다: 이 트랜잭션에서 일반 SELECT 를 먼저 하면
+        // MySQL(REPEATABLE READ) 스냅샷이 그때 고정되어, 잠금을 기다리는 동안 커밋된 리뷰가 집계에서 빠진다
+        ensureRows(capIds);
+        // 잠금 읽기가 이 트랜잭션의 첫 읽기: 진행 중인 리뷰 쓰기는 커밋될 때까지 기다렸다가 반영되고
+        // (집계 스냅샷은 잠금을 얻은 뒤의 첫 일반 읽기에서 만들어짐), 이후 쓰기는 재계산한 값 위에 증감으로 더해진다
+        List<CapReviewStats> locked = capReviewStatsRepository.lockByCapIds(capIds);
+
+        Map<Long, long[]> aggregates = new HashMap<>();
+        for (Object[] row : reviewRepository.aggregateByCapIds(capIds)) {
+            long[] values = new long[7];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = row[i + 1] != null ? ((Number) row[i + 1]).longValue() : 0;
+            }
+            aggregates.put((Long) row[0], values);
+        }
+        Map<Long, Long> photoCounts = new HashMap<>();
+        for (Object[] row : reviewRepository.countPhotoReviewsByCapIds(capIds)) {
+            photoCounts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+
+        for (CapReviewStats stats : locked) {
+            long[] values = aggregates.getOrDefault(stats.getCapId(), new long[7]);
+            long[] buckets = { values[2], values[3], values[4], values[5], values[6] };
+            stats.overwrite(values[0], values[1], buckets, photoCounts.getOrDefault(stats.getCapId(), 0L));
+        }
+        return locked.size();
+    }
+
+    // sign: 작성 +1, 삭제 -1
+    private void addReview(Long capId, int sign, int rating, boolean photo) {
+        long[] buckets = new long[5];
+        buckets[rating - 1] = sign;
+        ensureRow(capId);
+        capReviewStatsRepository.applyDelta(capId, sign, (long) sign * rating,
+                buckets[0], buckets[1], buckets[2], buckets[3], buckets[4], photo ? sign : 0);
+    }
+
+    // 통계 행이 없으면 별도 트랜잭션으로 만든다
+    // (호출한 트랜잭션에서 없는 행을 UPDATE 하면 MySQL 이 갭 잠금을 잡아 새 트랜잭션의 INSERT 와 서로 기다리게 되므로 먼저 확인)
+    private void ensureRow(Long capId) {
+        if (capReviewStatsRepository.existsById(capId)) {
+            return;
+        }
+        insertEmpty(capId);
+    }
+
+    // 재계산용: 확인도 별도 트랜잭션에서 해서 묶음 트랜잭션에는 읽기를 남기지 않는다
+    private void ensureRows(List<Long> capIds) {
+        List<Long> existing = requiresNew.execute(status -> capReviewStatsRepository.findExistingCapIds(capIds));
+        capIds.stream().filter(capId -> !existing.contains(capId)).forEach(this::insertEmpty);
+    }
+
+    private void insertEmpty(Long capId) {
+        try {
+            requiresNew.executeWithoutResult(status -> capReviewStatsRepository.insertEmpty(capId));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("리뷰 통계 행이 이미 생성됨: capId={}", capId);
+        }
+    }
+
+    static boolean isPhoto(List<String> imageUrls) {
+        return imageUrls != null && !imageUrls.isEmpty();
+    }
+}
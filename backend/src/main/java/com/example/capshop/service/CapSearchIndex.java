@@ -0,0 +1,345 @@
+package com.example.capshop.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.dto.CapCardResponse;
+import com.example.capshop.dto.CapSearchResponse;
+
+/**
+ * 상품 검색용 인메모리 역색인
+ * - 띄어쓰기 없는 한글 검색도 되도록 단어를 2글자 단위(bigram)로 잘라 색인한다.
+ *   1글자 검색어("캡")도 찾을 수 있게 글자 단위(unigram)도 낮은 가중치로 함께 색인한다.
+ * - 필드별 가중치(이름 > 색상 > 설명 > 사이즈 정보)를 더해서 점수를 매긴다.
+ * - 이름/색상 단어는 정렬된 맵에 따로 보관해서 접두어 자동완성에 사용한다.
+ * 읽기는 여러 스레드가 동시에, 색인 갱신은 한 번에 하나씩 (ReadWriteLock)
+ */
+public class CapSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float COLOR_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float SIZE_INFO_WEIGHT = 0.5f;
+    private static final float UNIGRAM_RATIO = 0.5f; // 글자 단위 gram 은 필드 가중치의 절반
+    private static final float PHRASE_BONUS = 5.0f; // 이름에 검색어가 그대로 들어있으면 가산점
+    private static final double MIN_MATCH_RATIO = 0.6; // 검색어 조각 중 이 비율 이상 일치해야 결과에 포함 (오타 허용)
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>(); // gram → (capId → 가중치)
+    private final TreeMap<String, Set<Long>> words = new TreeMap<>(); // 자동완성용 단어 → capId
+
+    // ===== 색인 =====
+
+    public void index(Cap cap, Collection<String> sizes) {
+        Doc doc = new Doc(cap, sizes);
+        lock.writeLock().lock();
+        try {
+            removeInternal(doc.id);
+            docs.put(doc.id, doc);
+            doc.grams.forEach((gram, weight) ->
+                    postings.computeIfAbsent(gram, k -> new HashMap<>()).put(doc.id, weight));
+            for (String word : doc.words) {
+                words.computeIfAbsent(word, k -> new HashSet<>()).add(doc.id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long capId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(capId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            postings.clear();
+            words.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long capId) {
+        Doc old = docs.remove(capId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : old.grams.keySet()) {
+            Map<Long, Float> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(capId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        for (String word : old.words) {
+            Set<Long> ids = words.get(word);
+            if (ids != null) {
+                ids.remove(capId);
+                if (ids.isEmpty()) {
+                    words.remove(word);
+                }
+            }
+        }
+    }
+
+    // ===== 검색 =====
+
+    /**
+     * 관련도 순 검색
+     * color/size/priceBucket 는 결과 필터 (null 이면 무시)
+     * 패싯 개수는 필터를 적용하기 전 검색어 일치 전체를 기준으로 센다. (다른 선택지 개수를 보여주기 위해)
+     */
+    public CapSearchResponse search(String query, String color, String size, String priceBucket, int limit) {
+        Map<String, Float> queryGrams = grams(query, 1.0f);
+        if (queryGrams.isEmpty()) {
+            return new CapSearchResponse(List.of(), 0, emptyFacets());
+        }
+        String phrase = normalize(query).replace(" ", "");
+        int minMatches = Math.max(1, (int) Math.ceil(queryGrams.size() * MIN_MATCH_RATIO));
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Score> scores = new HashMap<>();
+            for (String gram : queryGrams.keySet()) {
+                Map<Long, Float> posting = postings.get(gram);
+                if (posting == null) {
+                    continue;
+                }
+                posting.forEach((capId, weight) -> {
+                    Score score = scores.computeIfAbsent(capId, k -> new Score());
+                    score.value += weight;
+                    score.matches++;
+                });
+            }
+
+            Map<String, Map<String, Integer>> facets = emptyFacets();
+            List<Hit> hits = new ArrayList<>();
+            for (Map.Entry<Long, Score> entry : scores.entrySet()) {
+                Score score = entry.getValue();
+                if (score.matches < minMatches) {
+                    continue;
+                }
+                Doc doc = docs.get(entry.getKey());
+                countFacets(facets, doc);
+                if (!doc.matches(color, size, priceBucket)) {
+                    continue;
+                }
+                float value = score.value * score.matches / queryGrams.size();
+                if (!phrase.isEmpty() && doc.compactName.contains(phrase)) {
+                    value += PHRASE_BONUS;
+                }
+                hits.add(new Hit(doc, value));
+            }
+
+            hits.sort((a, b) -> a.score != b.score
+                    ? Float.compare(b.score, a.score)
+                    : Long.compare(b.doc.id, a.doc.id));
+
+            List<CapCardResponse> items = new ArrayList<>();
+            for (int i = 0; i < hits.size() && i < limit; i++) {
+                items.add(hits.get(i).doc.toCard());
+            }
+            return new CapSearchResponse(items, hits.size(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 접두어 자동완성 - 이름/색상 단어가 prefix 로 시작하는 상품 이름 (중복 제거) */
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix).trim();
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<String> names = new LinkedHashSet<>();
+            NavigableMap<String, Set<Long>> matched =
+                    words.subMap(normalized, true, normalized + Character.MAX_VALUE, false);
+            for (Set<Long> ids : matched.values()) {
+                for (Long id : ids) {
+                    names.add(docs.get(id).name);
+                    if (names.size() >= limit) {
+                        return new ArrayList<>(names);
+                    }
+                }
+            }
+            return new ArrayList<>(names);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== 패싯 =====
+
+    public static String priceBucket(Long price) {
+        if (price == null) return null;
+        if (price < 30000) return "~30000";
+        if (price < 50000) return "30000~50000";
+        if (price < 100000) return "50000~100000";
+        return "100000~";
+    }
+
+    private Map<String, Map<String, Integer>> emptyFacets() {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        facets.put("color", new TreeMap<>());
+        facets.put("size", new TreeMap<>());
+        facets.put("price", new LinkedHashMap<>());
+        return facets;
+    }
+
+    private void countFacets(Map<String, Map<String, Integer>> facets, Doc doc) {
+        if (doc.color != null) {
+            facets.get("color").merge(doc.color, 1, Integer::sum);
+        }
+        for (String s : doc.sizes) {
+            facets.get("size").merge(s, 1, Integer::sum);
+        }
+        if (doc.priceBucket != null) {
+            facets.get("price").merge(doc.priceBucket, 1, Integer::sum);
+        }
+    }
+
+    // ===== 토큰화 =====
+
+    // 전각/반각 통일, 소문자, 글자/숫자 외에는 공백으로
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            sb.append(Character.isLetterOrDigit(c) ? c : ' ');
+        }
+        return sb.toString();
+    }
+
+    // 검색어 gram: 단어별 bigram (1글자 단어는 그 글자 자체)
+    static Map<String, Float> grams(String text, float weight) {
+        Map<String, Float> result = new HashMap<>();
+        for (String word : normalize(text).split(" ")) {
+            if (word.length() == 1) {
+                result.put(word, weight);
+            }
+            for (int i = 0; i + 2 <= word.length(); i++) {
+                result.put(word.substring(i, i + 2), weight);
+            }
+        }
+        return result;
+    }
+
+    // 색인 gram: bigram + unigram, 같은 gram 이 여러 필드에 있으면 가장 높은 가중치만 남긴다
+    private static void addGrams(Map<String, Float> target, String text, float weight) {
+        for (String word : normalize(text).split(" ")) {
+            for (int i = 0; i < word.length(); i++) {
+                target.merge(word.substring(i, i + 1), weight * UNIGRAM_RATIO, Math::max);
+                if (i + 2 <= word.length()) {
+                    target.merge(word.substring(i, i + 2), weight, Math::max);
+                }
+            }
+        }
+    }
+
+    private static void addWords(Set<String> target, String text) {
+        for (String word : normalize(text).split(" ")) {
+            if (!word.isEmpty()) {
+                target.add(word);
+            }
+        }
+    }
+
+    // 색인에 보관하는 상품 스냅샷 (엔티티를 들고 있지 않음)
+    private static final class Doc {
+        private final Long id;
+        private final String name;
+        private final String compactName;
+        private final Long price;
+        private final String color;
+        private final String mainImageUrl;
+        private final Boolean isNew;
+        private final List<String> sizes;
+        private final String priceBucket;
+        private final Map<String, Float> grams = new HashMap<>();
+        private final Set<String> words = new HashSet<>();
+
+        private Doc(Cap cap, Collection<String> sizes) {
+            this.id = cap.getId();
+            this.name = cap.getName();
+            this.compactName = normalize(cap.getName()).replace(" ", "");
+            this.price = cap.getPrice();
+            this.color = cap.getColor();
+            this.mainImageUrl = cap.getMainImageUrl();
+            this.isNew = cap.getIsNew();
+            this.sizes = sizes != null ? List.copyOf(sizes) : List.of();
+            this.priceBucket = priceBucket(cap.getPrice());
+
+            addGrams(grams, cap.getName(), NAME_WEIGHT);
+            addGrams(grams, cap.getColor(), COLOR_WEIGHT);
+            addGrams(grams, cap.getDescription(), DESCRIPTION_WEIGHT);
+            addGrams(grams, cap.getSizeInfo(), SIZE_INFO_WEIGHT);
+            addWords(words, cap.getName());
+            addWords(words, cap.getColor());
+        }
+
+        private boolean matches(String color, String size, String priceBucket) {
+            if (color != null && !color.equalsIgnoreCase(this.color)) return false;
+            if (size != null && !sizes.contains(size)) return false;
+            if (priceBucket != null && !priceBucket.equals(this.priceBucket)) return false;
+            return true;
+        }
+
+        // 재고는 색인하지 않으므로 stock 은 비워서 내려준다 (상세/재고 API 에서 확인)
+        private CapCardResponse toCard() {
+            return new CapCardResponse(id, name, price, color, mainImageUrl, isNew, null);
+        }
+    }
+
+    private static final class Score {
+        private float value;
+        private int matches;
+    }
+
+    private static final class Hit {
+        private final Doc doc;
+        private final float score;
+
+        private Hit(Doc doc, float score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+}
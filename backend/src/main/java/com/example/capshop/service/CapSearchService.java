@@ -0,0 +1,101 @@
+package com.example.capshop.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.dto.CapSearchResponse;
+import com.example.capshop.repository.CapRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 상품 검색 (인메모리 색인) - 기동 시 전체 색인, 이후 상품 변경 이벤트로 해당 상품만 다시 색인
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CapSearchService {
+    private static final int INDEX_BATCH_SIZE = 1000;
+    private static final int MAX_LIMIT = 100;
+
+    private final CapRepository capRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CapSearchIndex index = new CapSearchIndex();
+
+    public CapSearchResponse search(String query, String color, String size, String priceBucket, int limit) {
+        return index.search(query, blankToNull(color), blankToNull(size), blankToNull(priceBucket),
+                Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return index.suggest(prefix, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    // 전체 색인 (id 순서로 나눠 읽어서 한 번에 모든 상품을 메모리에 올리지 않음)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        index.clear();
+        long afterId = 0L;
+        while (true) {
+            final long cursor = afterId;
+            Long lastId = transactionTemplate.execute(status -> indexBatch(cursor));
+            if (lastId == null) {
+                break;
+            }
+            afterId = lastId;
+        }
+        log.info("상품 검색 색인 완료: {}건, {}ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    // 커밋된 변경만 반영 (재고만 바뀐 경우는 색인 대상 필드가 없으므로 건너뜀)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCapChanged(CapChangedEvent event) {
+        if (event.isStockOnly()) {
+            return;
+        }
+        for (Long capId : event.getCapIds()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Cap cap = capRepository.findById(capId).orElse(null);
+                if (cap == null) {
+                    index.remove(capId);
+                } else {
+                    index.index(cap, cap.getSize());
+                }
+            });
+        }
+    }
+
+    // 한 묶음 색인 후 마지막 id 반환 (더 없으면 null)
+    private Long indexBatch(long afterId) {
+        List<Cap> caps = capRepository.findIndexBatch(afterId, PageRequest.of(0, INDEX_BATCH_SIZE));
+        if (caps.isEmpty()) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>(caps.size());
+        for (Cap cap : caps) {
+            ids.add(cap.getId());
+        }
+        Map<Long, List<String>> sizes = new HashMap<>();
+        for (Object[] row : capRepository.findSizesByCapIds(ids)) {
+            sizes.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        for (Cap cap : caps) {
+            index.index(cap, sizes.get(cap.getId()));
+        }
+        return caps.get(caps.size() - 1).getId();
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
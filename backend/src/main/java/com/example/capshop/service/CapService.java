@@ -1,13 +1,27 @@
 package com.example.capshop.service;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.CapStock;
+import com.example.capshop.dto.CapCardResponse;
+import com.example.capshop.dto.CapDetailResponse;
+import com.example.capshop.dto.CapPageResponse;
 import com.example.capshop.repository.CapRepository;
 import com.example.capshop.repository.CapStockRepository;
 import com.example.capshop.repository.CartItemRepository;
+import com.example.capshop.util.TtlCache;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -15,32 +29,179 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Service
 public class CapService {
+    public static final int DEFAULT_PAGE_SIZE = 40;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ALL_KEY = "all";
+    private static final String NEW_KEY = "new";
+
     private final CartItemRepository cartItemRepository;
     private final CapRepository capRepository;
     private final CapStockRepository capStockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // ===== 조회 캐시 (관리자 수정/주문 커밋 시 무효화) =====
+    // 같은 값을 여러 요청이 공유하므로 엔티티 대신 불변 응답 객체를 담는다
+    private final TtlCache<Long, CapDetailResponse> detailCache = new TtlCache<>("capDetail", 1000, Duration.ofMinutes(10));
+    private final TtlCache<String, List<CapDetailResponse>> listCache = new TtlCache<>("capList", 1, Duration.ofMinutes(1));
+    private final TtlCache<String, List<CapDetailResponse>> newListCache = new TtlCache<>("capNewList", 1, Duration.ofMinutes(1));
+    // 재고는 주문 커밋 이벤트로 무효화하고, 혹시 놓쳐도 몇 초 안에 만료되도록 짧은 TTL
+    private final TtlCache<Long, Map<String, Long>> stockCache = new TtlCache<>("capStock", 5000, Duration.ofSeconds(5));
+
     public Cap save(Cap cap){
-        return capRepository.save(cap);
+        Cap saved = capRepository.save(cap);
+        eventPublisher.publishEvent(new CapChangedEvent(List.of(saved.getId())));
+        return saved;
     }
 
-    public List<Cap> findAll() {
-        return capRepository.findAll();
+    public List<CapDetailResponse> findAll() {
+        return listCache.get(ALL_KEY, key -> transactionTemplate.execute(status -> toResponses(capRepository.findAll())));
     }
     
     @Transactional
     public void deleteById(Long id) {
         cartItemRepository.deleteByCapId(id);
         capRepository.deleteById(id);
+        eventPublisher.publishEvent(new CapChangedEvent(List.of(id)));
+    }
+
+    // 상품 상세 (캐시) - 응답 전용. 수정/주문 처리에는 findById 를 사용할 것
+    public CapDetailResponse getCapDetail(Long id) {
+        return detailCache.get(id, key -> transactionTemplate.execute(status ->
+                capRepository.findById(key).map(CapDetailResponse::new).orElse(null)));
+    }
+
+    // 사이즈별 구매 가능 재고 (실재고 - 홀드, 캐시) - 상품 상세/장바구니 담기용
+    public Map<String, Long> getStockMap(Long id) {
+        Map<String, Long> stockMap = stockCache.get(id, key -> transactionTemplate.execute(status -> {
+            Cap cap = capRepository.findById(key).orElse(null);
+            if (cap == null) {
+                return null;
+            }
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (CapStock stock : cap.getStocks()) {
+                map.put(stock.getSize(), stock.getAvailableStock());
+            }
+            return Collections.unmodifiableMap(map);
+        }));
+        return stockMap != null ? stockMap : Map.of();
+    }
+
+    // 사이즈별 실재고 (관리자 재고 편집용, 캐시 없음)
+    public Map<String, Long> getPhysicalStockMap(Long id) {
+        Map<String, Long> stockMap = transactionTemplate.execute(status -> {
+            Cap cap = capRepository.findById(id).orElse(null);
+            if (cap == null) {
+                return null;
+            }
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (CapStock stock : cap.getStocks()) {
+                map.put(stock.getSize(), stock.getStock());
+            }
+            return map;
+        });
+        return stockMap != null ? stockMap : Map.of();
     }
 
-    public List<Cap> findByName(String keyword) {
-        return capRepository.findByNameContaining(keyword);
+    // 캐시 히트/미스/제거 통계
+    public List<Map<String, Object>> cacheStats() {
+        return List.of(detailCache.stats(), listCache.stats(), newListCache.stats(), stockCache.stats());
     }
+
+    // 커밋된 변경만 반영되도록 트랜잭션 커밋 후 무효화 (트랜잭션 밖이면 바로 실행)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCapChanged(CapChangedEvent event) {
+        for (Long capId : event.getCapIds()) {
+            detailCache.invalidate(capId);
+            stockCache.invalidate(capId);
+        }
+        // 목록 응답에도 재고가 포함되므로 함께 비운다
+        listCache.invalidateAll();
+        newListCache.invalidateAll();
+    }
+
+    // 캐시에 넣을 응답 목록 (세션 안에서 지연 로딩 컬렉션까지 모두 복사)
+    private List<CapDetailResponse> toResponses(List<Cap> caps) {
+        return caps.stream().map(CapDetailResponse::new).toList();
+    }
+
+    /**
+     * 상품 목록 카드 페이지 조회 (키셋 페이지네이션)
+     * sort: newest(기본), price_asc, price_desc, new
+     * cursor: 이전 응답의 nextCursor (첫 페이지는 null)
+     * 카탈로그 크기와 상관없이 페이지당 쿼리 1번으로 끝난다.
+     */
+    public CapPageResponse findCatalogPage(String sort, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // 한 건 더 읽어서 다음 페이지 존재 여부 판단 (count 쿼리 없음)
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        String[] parts = parseCursor(cursor);
+        String sortKey = sort == null ? "newest" : sort;
+
+        List<CapCardResponse> rows;
+        switch (sortKey) {
+            case "price_asc":
+                rows = capRepository.findCardsPriceAsc(cursorLong(parts, 0), cursorLong(parts, 1), limit);
+                break;
+            case "price_desc":
+                rows = capRepository.findCardsPriceDesc(cursorLong(parts, 0), cursorLong(parts, 1), limit);
+                break;
+            case "new":
+                Long rank = cursorLong(parts, 0);
+                rows = capRepository.findCardsNewFirst(rank == null ? null : rank.intValue(), cursorLong(parts, 1), limit);
+                break;
+            case "newest":
+                rows = capRepository.findCardsNewest(cursorLong(parts, 0), limit);
+                break;
+            default:
+                throw new IllegalArgumentException("지원하지 않는 정렬입니다: " + sort);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<CapCardResponse> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            CapCardResponse last = items.get(items.size() - 1);
+            switch (sortKey) {
+                case "price_asc":
+                case "price_desc":
+                    nextCursor = last.getPrice() + "_" + last.getId();
+                    break;
+                case "new":
+                    nextCursor = (Boolean.TRUE.equals(last.getIsNew()) ? 1 : 0) + "_" + last.getId();
+                    break;
+                default:
+                    nextCursor = String.valueOf(last.getId());
+            }
+        }
+        return new CapPageResponse(items, nextCursor, hasNext);
+    }
+
+    private String[] parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new String[0];
+        }
+        return cursor.split("_");
+    }
+
+    private Long cursorLong(String[] parts, int index) {
+        if (parts.length <= index) {
+            return null;
+        }
+        try {
+            return Long.valueOf(parts[index]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서 값입니다.");
+        }
+    }
+
     public Cap findById(Long id) {
     return capRepository.findById(id).orElse(null); // 없으면 null
     }
     
-    public List<Cap> findNewCaps() {
-        return capRepository.findByIsNewTrue();
+    public List<CapDetailResponse> findNewCaps() {
+        return newListCache.get(NEW_KEY, key -> transactionTemplate.execute(status -> toResponses(capRepository.findByIsNewTrue())));
     }
     
     public void setIsNew(Long id, boolean isNew) {
@@ -48,6 +209,7 @@ public class CapService {
         if (cap != null) {
             cap.setIsNew(isNew);
             capRepository.save(cap);
+            eventPublisher.publishEvent(new CapChangedEvent(List.of(id)));
         }
     }
     
@@ -61,15 +223,13 @@ public class CapService {
         if (capStock == null) {
             // 새로운 사이즈 재고 생성
             capStock = new com.example.capshop.domain.CapStock(cap, size, stock);
-            if (cap.getStocks() == null) {
-                cap.setStocks(new java.util.ArrayList<>());
-            }
-            cap.getStocks().add(capStock);
+            cap.addStock(capStock);
         } else {
             capStock.setStock(stock);
         }
         
         capRepository.save(cap);
+        eventPublisher.publishEvent(CapChangedEvent.stockOnly(List.of(capId)));
     }
     
     // 기존 메서드 유지 (하위 호환성)
@@ -78,6 +238,7 @@ public class CapService {
                 .orElseThrow(() -> new RuntimeException("상품을 찾을 수 없습니다: " + id));
         cap.setStock(stock);
         capRepository.save(cap);
+        eventPublisher.publishEvent(CapChangedEvent.stockOnly(List.of(id)));
     }
 }
 
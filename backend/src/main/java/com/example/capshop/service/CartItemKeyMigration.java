@@ -0,0 +1,109 @@
+package com.example.capshop.service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 장바구니 (user_id, cap_id, size) 유니크 키 마이그레이션
+ * - CartItemService 의 INSERT/조건부 UPDATE 는 이 키가 있어야 줄이 중복되지 않는다.
+ * - ddl-auto=update 는 기존 중복 줄 때문에 키 추가가 실패해도 경고만 남기므로, 기동 중(웹 서버가 요청을 받기 전)에
+ *   중복 줄을 합치고 키를 만든다. 그래도 키가 없으면 예외를 던져 기동을 멈춘다.
+ * - 사이즈 없는 예전 줄(size NULL)은 유니크 키로 막히지 않으므로 여기서 함께 합친다 (새 줄은 항상 사이즈가 있다).
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // 스키마 갱신이 끝난 뒤 실행
+@RequiredArgsConstructor
+public class CartItemKeyMigration implements InitializingBean {
+
+    static final String KEY_NAME = "uk_cart_item_user_cap_size";
+    private static final Set<String> KEY_COLUMNS = Set.of("user_id", "cap_id", "size");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    /**
+     * 키가 없으면 중복 줄을 합치고 키를 만든다 (이미 있으면 아무것도 하지 않음)
+     * @return 합치면서 지운 줄 수
+     */
+    public int migrate() {
+        if (hasKey()) {
+            return 0;
+        }
+        Integer removed = transactionTemplate.execute(status -> mergeDuplicates());
+        log.info("장바구니 중복 줄 정리 완료: {}줄 삭제", removed);
+        try {
+            jdbcTemplate.execute("ALTER TABLE cart_item ADD CONSTRAINT " + KEY_NAME + " UNIQUE (user_id, cap_id, size)");
+        } catch (RuntimeException e) {
+            // 정리와 키 추가 사이에 다른 인스턴스가 중복 줄을 만든 경우 등 (다시 기동하면 재시도)
+            throw new IllegalStateException("장바구니 유니크 키를 만들지 못했습니다: " + e.getMessage(), e);
+        }
+        if (!hasKey()) {
+            throw new IllegalStateException("장바구니 유니크 키가 없습니다: " + KEY_NAME);
+        }
+        log.info("장바구니 유니크 키 생성 완료: {}", KEY_NAME);
+        return removed;
+    }
+
+    // (user_id, cap_id, size) 를 정확히 덮는 유니크 인덱스가 있는지 (이름은 DB 마다 달라서 컬럼으로 판단)
+    boolean hasKey() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "CART_ITEM" : "cart_item";
+            Map<String, Set<String>> indexes = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, true, false)) {
+                while (rs.next()) {
+                    String column = rs.getString("COLUMN_NAME");
+                    if (column != null) {
+                        indexes.computeIfAbsent(rs.getString("INDEX_NAME"), k -> new HashSet<>())
+                                .add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return indexes.containsValue(KEY_COLUMNS);
+        });
+    }
+
+    // 같은 (user_id, cap_id, size) 줄을 가장 먼저 담은 줄 하나로 합친다 (수량은 더함, GROUP BY 는 NULL 끼리 묶는다)
+    private int mergeDuplicates() {
+        List<Map<String, Object>> groups = jdbcTemplate.queryForList(
+                "SELECT user_id, cap_id, size, MIN(id) AS keep_id, SUM(quantity) AS total "
+                        + "FROM cart_item GROUP BY user_id, cap_id, size HAVING COUNT(*) > 1");
+        int removed = 0;
+        for (Map<String, Object> group : groups) {
+            Object userId = group.get("user_id");
+            Object capId = group.get("cap_id");
+            Object size = group.get("size");
+            Object keepId = group.get("keep_id");
+            jdbcTemplate.update("UPDATE cart_item SET quantity = ? WHERE id = ?",
+                    ((Number) group.get("total")).intValue(), keepId);
+            removed += size == null
+                    ? jdbcTemplate.update("DELETE FROM cart_item WHERE user_id = ? AND cap_id = ? AND size IS NULL AND id <> ?",
+                            userId, capId, keepId)
+                    : jdbcTemplate.update("DELETE FROM cart_item WHERE user_id = ? AND cap_id = ? AND size = ? AND id <> ?",
+                            userId, capId, size, keepId);
+        }
+        return removed;
+    }
+}
@@ -1,231 +1,162 @@
 package com.example.capshop.service;
 
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.example.capshop.domain.Cap;
-import com.example.capshop.domain.CartItem;
-
-import com.example.capshop.domain.User;
 import com.example.capshop.dto.CartItemResponse;
+import com.example.capshop.dto.CartQuantityChange;
 import com.example.capshop.repository.CartItemRepository;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * 장바구니 담기/수량 변경
+ * 줄을 읽고 메모리에서 더하는 대신 (user_id, cap_id, size) 유니크 키에 조건부 UPDATE 한 번으로 반영하므로
+ * 더블 클릭이나 여러 탭에서 동시에 눌러도 줄이 중복되거나 증가분이 사라지지 않는다.
+ * 사이즈별 구매 가능 재고 한도도 같은 문장에서 확인한다.
+ */
 @RequiredArgsConstructor
 @Service
 public class CartItemService {
-    private final CartItemRepository cartItemRepository;
 
-    public CartItem addToCart(User user, Cap cap, int quantity, String size) {
-        // 같은 사용자, 같은 상품, 같은 사이즈인 아이템이 있는지 확인
-        Optional<CartItem> existingItem = cartItemRepository.findByUserAndCapAndSize(user, cap, size);
-
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
-            return cartItemRepository.save(item);
-        } else {
-            CartItem newItem = new CartItem(user, cap, quantity, size);
-            return cartItemRepository.save(newItem);
-        }
-    }
-    
-    // 기존 메서드 유지 (하위 호환성)
-    public CartItem addToCart(User user, Cap cap, int quantity) {
-        return addToCart(user, cap, quantity, null);
-    }
+    private static final int MAX_BATCH_CHANGES = 50;
 
-    public void deleteCartItem(User user, Cap cap, String size) {
-        // deleteCartItem invoked
-        // 먼저 정확한 사이즈로 찾기
-        Optional<CartItem> existingItem = cartItemRepository.findByUserAndCapAndSize(user, cap, size);
-        
-        // 찾지 못했고 size가 null이 아닌 경우, null 사이즈로 저장된 아이템 찾기
-        if (existingItem.isEmpty() && size != null) {
-            // not found with exact size; retry with null size
-            existingItem = cartItemRepository.findByUserAndCapAndSize(user, cap, null);
-        }
-        
-        if (existingItem.isPresent()) {
-            cartItemRepository.delete(existingItem.get());
-        } else {
-            // item not found; throwing
-            // debugging listing suppressed
-            throw new IllegalArgumentException("장바구니에 해당 상품이 없습니다. (사이즈: '" + size + "')");
-        }
-    }
-    
-    // 기존 메서드 유지 (하위 호환성) - 사이즈 없이 삭제하는 경우 첫 번째 발견된 아이템 삭제
-    public void deleteCartItem(User user, Cap cap) {
-        List<CartItem> items = cartItemRepository.findAllByUserAndCap(user, cap);
-        if (!items.isEmpty()) {
-            cartItemRepository.delete(items.get(0));
-        } else {
-            throw new IllegalArgumentException("장바구니에 해당 상품이 없습니다.");
-        }
-    }
-    @Transactional
-    public int increaseQuantity(User user, Cap cap, String size) {
-        // increaseQuantity invoked
-        // 먼저 정확한 사이즈로 찾기
-        Optional<CartItem> itemOpt = cartItemRepository.findByUserAndCapAndSize(user, cap, size);
-        
-        // 찾지 못했고 size가 null이 아닌 경우, null 사이즈로 저장된 아이템 찾기
-        if (itemOpt.isEmpty() && size != null) {
-            // not found with exact size; retry with null size
-            itemOpt = cartItemRepository.findByUserAndCapAndSize(user, cap, null);
-            
-            // null 사이즈 아이템을 찾았다면 사이즈를 업데이트
-            if (itemOpt.isPresent()) {
-                CartItem existingItem = itemOpt.get();
-                existingItem.setSize(size);
-                cartItemRepository.save(existingItem);
-                // updated existing null-size item with new size
-            }
-        }
-        
-        // 장바구니에서 해당 유저 + 모자 + 사이즈 찾기
-        CartItem item = itemOpt.orElseGet(() -> {
-            // creating new CartItem since none exists
-            CartItem ci = new CartItem();
-            ci.setUser(user);
-            ci.setCap(cap);
-            ci.setSize(size);
-            ci.setQuantity(0);
-            return ci;
-        });
+    // 락 순서를 고정해서 여러 줄을 동시에 바꿀 때 데드락을 피한다
+    private static final Comparator<CartQuantityChange> LOCK_ORDER = Comparator
+            .comparing(CartQuantityChange::getCapId)
+            .thenComparing(CartQuantityChange::getSize);
 
-        int next = item.getQuantity() + 1;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
 
-        // 사이즈별 재고 체크
-        Long stockBySize = cap.getStockBySize(size);
-        if (stockBySize != null && next > stockBySize) {
-            throw new IllegalStateException("재고를 초과했습니다. (사이즈 " + size + " 재고: " + stockBySize + "개)");
+    public void addToCart(Long userId, Long capId, int quantity, String size) {
+        String key = requireSize(size);
+        if (quantity < 1) {
+            throw new IllegalArgumentException("수량은 1개 이상이어야 합니다.");
         }
-        
-        // 전체 재고 체크 (하위 호환성)
-        if (cap.getStock() != null && next > cap.getStock()) {
-            throw new IllegalStateException("재고를 초과했습니다.");
+        // 이미 담긴 줄이면 문장 하나로 끝
+        if (increase(userId, capId, key, quantity)) {
+            return;
         }
 
-        item.setQuantity(next);
-        cartItemRepository.save(item);
-        // item quantity incremented
-        return next;
-    }
-    
-    // 기존 메서드 유지 (하위 호환성)
-    @Transactional
-    public int increaseQuantity(User user, Cap cap) {
-        // 사이즈 없이 호출된 경우 첫 번째 발견된 아이템의 수량 증가
-        List<CartItem> items = cartItemRepository.findAllByUserAndCap(user, cap);
-        CartItem item;
-        
-        if (items.isEmpty()) {
-            // 아이템이 없으면 새로 생성 (사이즈 null)
-            item = new CartItem();
-            item.setUser(user);
-            item.setCap(cap);
-            item.setQuantity(0);
-        } else {
-            item = items.get(0);
+        boolean added;
+        try {
+            // 처음 담는 상품: 빈 줄 생성과 재고 한도 안 증가를 한 트랜잭션으로 (재고 초과면 줄째 롤백)
+            added = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                cartItemRepository.insertLine(userId, capId, key);
+                if (cartItemRepository.increaseQuantity(userId, capId, key, quantity) == 1) {
+                    return true;
+                }
+                status.setRollbackOnly();
+                return false;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // 줄이 이미 있음 (다른 탭이 먼저 담았거나 위에서 재고 한도에 걸린 줄) - 한 번 더 증가 시도
+            added = increase(userId, capId, key, quantity);
         }
-
-        int next = item.getQuantity() + 1;
-
-        // (선택) 재고 체크
-        if (cap.getStock() != null && next > cap.getStock()) {
-            throw new IllegalStateException("재고를 초과했습니다.");
+        if (!added) {
+            throw new IllegalStateException("재고를 초과했습니다. (사이즈 " + key + ")");
         }
+    }
 
-        item.setQuantity(next);
-        cartItemRepository.save(item);
-        return next;
+    // + 버튼 (담긴 줄이 없으면 1개로 담는다)
+    public void increaseQuantity(Long userId, Long capId, String size) {
+        addToCart(userId, capId, 1, size);
     }
 
-    @Transactional
-    public int decreaseQuantity(User user, Cap cap, String size) {
-        // decreaseQuantity invoked
-        
-        // 먼저 정확한 사이즈로 찾기
-        Optional<CartItem> itemOpt = cartItemRepository.findByUserAndCapAndSize(user, cap, size);
-        
-        // 찾지 못했고 size가 null이 아닌 경우, null 사이즈로 저장된 아이템 찾기
-        if (itemOpt.isEmpty() && size != null) {
-            // not found with exact size; retry with null size
-            itemOpt = cartItemRepository.findByUserAndCapAndSize(user, cap, null);
+    // - 버튼: 1개에서는 더 줄지 않는다
+    public void decreaseQuantity(Long userId, Long capId, String size) {
+        String key = requireSize(size);
+        Integer updated = transactionTemplate.execute(status ->
+                cartItemRepository.decreaseQuantity(userId, capId, key, 1));
+        // 반영되지 않았을 때만 원인 확인 (이미 1개면 그대로 둔다)
+        if (updated == 0 && cartItemRepository.findQuantity(userId, capId, key).isEmpty()) {
+            throw new IllegalArgumentException("장바구니에 해당 상품이 없습니다. (사이즈: '" + size + "')");
         }
-        
-        CartItem item = itemOpt.orElseThrow(() -> 
-            new IllegalArgumentException("장바구니에 해당 상품이 없습니다. (사이즈: '" + size + "')"));
-
-        int current = item.getQuantity();
-        if (current > 1) {
-            item.setQuantity(current - 1);
-            cartItemRepository.save(item);
-            return item.getQuantity();
-        } else {
-            // current == 1 → 더 이상 감소하지 않음
-            return 1;
+    }
+
+    // 휴지통: 해당 줄 삭제 (사이즈 없이 담긴 예전 줄도 지울 수 있다)
+    public void deleteCartItem(Long userId, Long capId, String size) {
+        String key = normalizeSize(size);
+        Integer deleted = transactionTemplate.execute(status -> key == null
+                ? cartItemRepository.deleteUnsizedLine(userId, capId)
+                : cartItemRepository.deleteLine(userId, capId, key));
+        if (deleted == 0) {
+            throw new IllegalArgumentException("장바구니에 해당 상품이 없습니다. (사이즈: '" + size + "')");
         }
     }
 
-    // 기존 메서드 유지 (하위 호환성)
-    @Transactional
-    public int decreaseQuantity(User user, Cap cap) {
-        List<CartItem> items = cartItemRepository.findAllByUserAndCap(user, cap);
-        if (items.isEmpty()) {
-            throw new IllegalArgumentException("장바구니에 해당 상품이 없습니다.");
+    /**
+     * 담긴 줄 여러 개의 수량을 한 번에 바꾼다 (한 트랜잭션, 줄마다 조건부 UPDATE 한 번)
+     * 하나라도 재고를 넘거나 1개 아래로 내려가거나 없는 줄이면 전체를 롤백한다.
+     */
+    public void applyChanges(Long userId, List<CartQuantityChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return;
         }
-        
-        CartItem item = items.get(0);
-        int current = item.getQuantity();
-        if (current > 1) {
-            item.setQuantity(current - 1);
-            cartItemRepository.save(item);
-            return item.getQuantity();
-        } else {
-            // current == 1 → 더 이상 감소하지 않음
-            return 1;
+        if (changes.size() > MAX_BATCH_CHANGES) {
+            throw new IllegalArgumentException("한 번에 변경할 수 있는 상품은 " + MAX_BATCH_CHANGES + "개까지입니다.");
         }
+        List<CartQuantityChange> ordered = changes.stream()
+                .map(change -> {
+                    if (change.getCapId() == null) {
+                        throw new IllegalArgumentException("상품이 지정되지 않았습니다.");
+                    }
+                    return new CartQuantityChange(change.getCapId(), requireSize(change.getSize()), change.getDelta());
+                })
+                .filter(change -> change.getDelta() != 0)
+                .sorted(LOCK_ORDER)
+                .collect(Collectors.toList());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (CartQuantityChange change : ordered) {
+                int updated = change.getDelta() > 0
+                        ? cartItemRepository.increaseQuantity(userId, change.getCapId(), change.getSize(), change.getDelta())
+                        : cartItemRepository.decreaseQuantity(userId, change.getCapId(), change.getSize(), -change.getDelta());
+                if (updated == 0) {
+                    throw new IllegalStateException("수량을 변경할 수 없습니다. (capId=" + change.getCapId()
+                            + ", 사이즈: " + change.getSize() + ")");
+                }
+            }
+        });
     }
 
-
-    public List<CartItemResponse> allCartItemResponse(User user) {
-        List<CartItem> items = cartItemRepository.findByUser(user);
-        return items.stream()
-            .map(item -> new CartItemResponse(
-                item.getId(),
-                item.getQuantity(),
-                item.getCap().getId(),
-                item.getCap().getName(),
-                item.getCap().getPrice(),
-                item.getCap().getMainImageUrl(),
-                item.getSize()
-            ))
-            .collect(Collectors.toList());
+    // 장바구니 화면 (줄 수와 관계없이 쿼리 한 번)
+    public List<CartItemResponse> findCartLines(Long userId) {
+        return cartItemRepository.findCartLines(userId);
     }
     
     // 특정 사용자, 상품, 사이즈의 장바구니 수량 조회
-    public int getCartItemQuantity(User user, Cap cap, String size) {
-        // size가 빈 문자열이거나 null인 경우 null로 통일
-        if (size != null && size.trim().isEmpty()) {
-            size = null;
+    public int getCartItemQuantity(Long userId, Long capId, String size) {
+        String key = normalizeSize(size);
+        if (key == null) {
+            return 0;
         }
-        
-        // 먼저 정확한 사이즈로 찾기
-        Optional<CartItem> itemOpt = cartItemRepository.findByUserAndCapAndSize(user, cap, size);
-        
-        // 찾지 못했고 size가 null이 아닌 경우, null 사이즈로 저장된 아이템 찾기
-        if (itemOpt.isEmpty() && size != null) {
-            itemOpt = cartItemRepository.findByUserAndCapAndSize(user, cap, null);
+        return cartItemRepository.findQuantity(userId, capId, key).orElse(0);
+    }
+
+    private boolean increase(Long userId, Long capId, String size, int quantity) {
+        Integer updated = transactionTemplate.execute(status ->
+                cartItemRepository.increaseQuantity(userId, capId, size, quantity));
+        return updated == 1;
+    }
+
+    // 빈 문자열은 사이즈 없음으로 통일
+    private static String normalizeSize(String size) {
+        return size == null || size.trim().isEmpty() ? null : size.trim();
+    }
+
+    // 담기/수량 변경은 사이즈별 재고 기준이라 사이즈가 꼭 있어야 한다
+    private static String requireSize(String size) {
+        String key = normalizeSize(size);
+        if (key == null) {
+            throw new IllegalArgumentException("사이즈를 선택해 주세요.");
         }
-        
-        return itemOpt.map(CartItem::getQuantity).orElse(0);
+        return key;
     }
 }
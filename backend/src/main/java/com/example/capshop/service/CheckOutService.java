@@ -4,11 +4,20 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.domain.order.CheckOutItem;
+import com.example.capshop.dto.StockLine;
 import com.example.capshop.repository.CheckOutRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,6 +26,8 @@ import lombok.RequiredArgsConstructor;
 public class CheckOutService {
 
     private final CheckOutRepository checkOutRepository;
+    private final StockReservationService stockReservationService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Transactional
     public CheckOut save(CheckOut checkOut) {
@@ -30,9 +41,21 @@ public class CheckOutService {
         if (checkOut.getPhone() == null || checkOut.getPhone().isBlank()) {
             throw new IllegalArgumentException("연락처는 필수입니다.");
         }
-        if (checkOut.getItemsJson() == null || checkOut.getItemsJson().isBlank()) {
+        // 상품 목록: JSON 문자열(기존 프론트) 또는 items 배열 → 자식 행으로 한 번만 변환해 저장
+        List<StockLine> lines = checkOut.getItems() != null && !checkOut.getItems().isEmpty()
+                ? checkOut.getItems().stream().map(CheckOutItem::toStockLine).collect(Collectors.toList())
+                : parseItemsJson(checkOut.getItemsJson());
+        if (lines.isEmpty()) {
             throw new IllegalArgumentException("주문 상품 정보는 필수입니다.");
         }
+        checkOut.setItems(new ArrayList<>());
+        for (StockLine line : lines) {
+            if (line.getCapId() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("주문 상품 정보 형식이 올바르지 않습니다.");
+            }
+            checkOut.addItem(new CheckOutItem(line.getCapId(), line.getSize(), line.getQuantity()));
+        }
+        checkOut.setItemsJson(null);
 
         // 2️⃣ 우선 1차 저장 (id 자동 생성)
         CheckOut saved = checkOutRepository.save(checkOut);
@@ -42,10 +65,52 @@ public class CheckOutService {
         String orderId = String.format("ORD%s-%06d", date, saved.getId());
         saved.setOrderId(orderId);
 
-        // 4️⃣ 다시 저장 (orderId 반영)
+        // 4️⃣ 사이즈별 재고 홀드 (결제 전에 재고를 잡아두고, 부족하면 체크아웃 자체를 실패시킴)
+        stockReservationService.hold(saved.getId(), lines);
+
+        // 5️⃣ 다시 저장 (orderId 반영)
         return checkOutRepository.save(saved);
     }
 
+    // 체크아웃 상품 → 재고 라인 목록
+    public List<StockLine> toStockLines(CheckOut checkOut) {
+        if (!checkOut.getItems().isEmpty()) {
+            return checkOut.getItems().stream().map(CheckOutItem::toStockLine).collect(Collectors.toList());
+        }
+        return parseItemsJson(checkOut.getItemsJson()); // 이전에 만든 체크아웃
+    }
+
+    // 조회 응답용: 기존 itemsJson 형식으로 직렬화
+    public String toItemsJson(CheckOut checkOut) {
+        ArrayNode array = objectMapper.createArrayNode();
+        for (StockLine line : toStockLines(checkOut)) {
+            array.addObject()
+                    .put("capId", line.getCapId())
+                    .put("quantity", line.getQuantity())
+                    .put("size", line.getSize());
+        }
+        return array.toString();
+    }
+
+    private List<StockLine> parseItemsJson(String itemsJson) {
+        if (itemsJson == null || itemsJson.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            JsonNode itemsNode = objectMapper.readTree(itemsJson);
+            List<StockLine> lines = new ArrayList<>();
+            for (JsonNode item : itemsNode) {
+                Long capId = item.get("capId").asLong();
+                int quantity = item.get("quantity").asInt();
+                String size = item.hasNonNull("size") ? item.get("size").asText() : null;
+                lines.add(new StockLine(capId, size, quantity));
+            }
+            return lines;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("주문 상품 정보 형식이 올바르지 않습니다.", e);
+        }
+    }
+
     public Optional<CheckOut> findById(Long id) {
         return checkOutRepository.findById(id);
     }
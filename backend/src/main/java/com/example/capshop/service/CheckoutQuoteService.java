@@ -0,0 +1,189 @@
+package com.example.capshop.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.dto.CapDetailResponse;
+import com.example.capshop.dto.CheckoutQuote;
+import com.example.capshop.dto.CheckoutQuoteRequest;
+import com.example.capshop.dto.QuotableCoupon;
+import com.example.capshop.dto.StockLine;
+
+/**
+ * 결제 금액 견적
+ * - 상품 가격(캐시)으로 라인 합계를 내고, 선택하거나 가장 유리한 쿠폰과 적립금 한도를 적용한다.
+ * - 금액 필드에 HMAC 서명을 붙여 돌려주고, 결제 승인 때는 서명과 만료만 확인한다.
+ */
+@Service
+public class CheckoutQuoteService {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final CheckOutService checkOutService;
+    private final CapService capService;
+    private final UserCouponService userCouponService;
+    private final PointsService pointsService;
+    private final SecretKeySpec signingKey;
+    private final long ttlMillis;
+
+    public CheckoutQuoteService(CheckOutService checkOutService,
+                                CapService capService,
+                                UserCouponService userCouponService,
+                                PointsService pointsService,
+                                @Value("${app.quote.secret:${jwt.secret}}") String secret,
+                                @Value("${app.quote.ttl-seconds:1800}") long ttlSeconds) {
+        this.checkOutService = checkOutService;
+        this.capService = capService;
+        this.userCouponService = userCouponService;
+        this.pointsService = pointsService;
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public CheckoutQuote quote(Long userId, CheckoutQuoteRequest request) {
+        if (request.getOrderId() == null) {
+            throw new IllegalArgumentException("주문번호가 필요합니다.");
+        }
+        CheckOut checkOut = checkOutService.findByOrderId(request.getOrderId())
+                .orElseThrow(() -> new IllegalArgumentException("체크아웃 정보를 찾을 수 없습니다."));
+        if (checkOut.getUserId() != null && !checkOut.getUserId().equals(userId)) {
+            throw new IllegalStateException("본인의 주문만 결제할 수 있습니다.");
+        }
+
+        // 1) 라인 합계 (캐시된 상품 가격)
+        List<CheckoutQuote.Line> lines = new ArrayList<>();
+        long originalAmount = 0;
+        for (StockLine line : checkOutService.toStockLines(checkOut)) {
+            CapDetailResponse cap = capService.getCapDetail(line.getCapId());
+            if (cap == null) {
+                throw new IllegalArgumentException("상품을 찾을 수 없습니다: " + line.getCapId());
+            }
+            long lineTotal = cap.getPrice() * line.getQuantity();
+            lines.add(new CheckoutQuote.Line(cap.getId(), cap.getName(), line.getSize(),
+                    line.getQuantity(), cap.getPrice(), lineTotal));
+            originalAmount += lineTotal;
+        }
+
+        // 2) 쿠폰: 선택한 쿠폰 또는 할인액이 가장 큰 쿠폰
+        QuotableCoupon applied = null;
+        long couponDiscount = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (QuotableCoupon candidate : userCouponService.getQuotableCoupons(userId)) {
+            boolean selected = candidate.getUserCouponId().equals(request.getUserCouponId());
+            if (!selected && (request.getUserCouponId() != null || !request.isBestCoupon())) {
+                continue;
+            }
+            Long discount = candidate.discountFor(originalAmount, now);
+            if (selected && discount == null) {
+                throw new IllegalArgumentException("쿠폰 적용 조건을 만족하지 않습니다.");
+            }
+            if (discount != null && (applied == null || discount > couponDiscount)) {
+                applied = candidate;
+                couponDiscount = discount;
+            }
+        }
+        if (request.getUserCouponId() != null && applied == null) {
+            throw new IllegalArgumentException("사용할 수 없는 쿠폰입니다.");
+        }
+
+        // 3) 적립금: 보유액과 남은 결제액 중 작은 값까지
+        long requestedPoints = request.getPointsToUse() != null ? Math.max(0, request.getPointsToUse()) : 0;
+        long pointsUsed = 0;
+        if (requestedPoints > 0) {
+            pointsUsed = Math.min(requestedPoints, Math.min(pointsService.getPoints(userId), originalAmount - couponDiscount));
+        }
+
+        CheckoutQuote.CheckoutQuoteBuilder quote = CheckoutQuote.builder()
+                .orderId(checkOut.getOrderId())
+                .userId(userId)
+                .lines(lines)
+                .originalAmount(originalAmount)
+                .userCouponId(applied != null ? applied.getUserCouponId() : null)
+                .couponName(applied != null ? applied.getCouponName() : null)
+                .couponDiscount(couponDiscount)
+                .pointsUsed(pointsUsed)
+                .finalAmount(originalAmount - couponDiscount - pointsUsed)
+                .expiresAt(System.currentTimeMillis() + ttlMillis);
+        CheckoutQuote unsigned = quote.build();
+        return quote.signature(sign(unsigned)).build();
+    }
+
+    /**
+     * 결제 승인 요청에 실려 온 견적(discountInfo)의 서명/만료/금액을 확인한다.
+     * @return 확인된 견적 (라인 정보 없음)
+     */
+    public CheckoutQuote verify(Long userId, String orderId, Long amount, Map<String, Object> discountInfo) {
+        CheckoutQuote quote = CheckoutQuote.builder()
+                .orderId(orderId)
+                .userId(userId)
+                .originalAmount(longValue(discountInfo, "originalAmount"))
+                .userCouponId(longValue(discountInfo, "userCouponId"))
+                .couponDiscount(longValue(discountInfo, "couponDiscount"))
+                .pointsUsed(longValue(discountInfo, "pointsUsed"))
+                .finalAmount(longValue(discountInfo, "finalAmount"))
+                .expiresAt(longValue(discountInfo, "expiresAt") != null ? longValue(discountInfo, "expiresAt") : 0L)
+                .signature(String.valueOf(discountInfo.get("signature")))
+                .build();
+        if (quote.getOriginalAmount() == null || quote.getCouponDiscount() == null
+                || quote.getPointsUsed() == null || quote.getFinalAmount() == null) {
+            throw new IllegalArgumentException("결제 금액 정보가 올바르지 않습니다.");
+        }
+
+        byte[] expected = sign(quote).getBytes(StandardCharsets.UTF_8);
+        if (!MessageDigest.isEqual(expected, quote.getSignature().getBytes(StandardCharsets.UTF_8))) {
+            throw new IllegalArgumentException("결제 금액 정보가 올바르지 않습니다.");
+        }
+        if (quote.getExpiresAt() < System.currentTimeMillis()) {
+            throw new IllegalStateException("결제 금액 견적이 만료되었습니다. 다시 시도해주세요.");
+        }
+        if (!quote.getFinalAmount().equals(amount)) {
+            throw new IllegalArgumentException("견적 금액과 결제 금액 불일치: 견적=" + quote.getFinalAmount() + ", 결제금액=" + amount);
+        }
+        return quote;
+    }
+
+    // 금액에 영향을 주는 필드만 서명 (라인/이름은 표시용)
+    private String sign(CheckoutQuote quote) {
+        String payload = String.join("|",
+                quote.getOrderId(),
+                String.valueOf(quote.getUserId()),
+                String.valueOf(quote.getOriginalAmount()),
+                quote.getUserCouponId() != null ? quote.getUserCouponId().toString() : "",
+                String.valueOf(quote.getCouponDiscount()),
+                String.valueOf(quote.getPointsUsed()),
+                String.valueOf(quote.getFinalAmount()),
+                String.valueOf(quote.getExpiresAt()));
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(signingKey);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("견적 서명에 실패했습니다.", e);
+        }
+    }
+
+    private Long longValue(Map<String, Object> discountInfo, String key) {
+        Object value = discountInfo.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Number number)) {
+            throw new IllegalArgumentException(key + " 형식이 올바르지 않습니다.");
+        }
+        return number.longValue();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.capshop.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.capshop.util.ImageVariants;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드 이미지의 너비별 변형(JPEG) 생성
+ * - 업로드 시 작업 큐에 넣어 백그라운드에서 미리 만든다.
+ * - ?w= 요청인데 아직 없으면 그때 만들어서 디스크에 남긴다. (같은 파일 동시 요청은 한 번만 생성)
+ * - 원본이 매우 클 수 있어서 생성은 항상 고정 크기 작업 풀에서만 돌린다. (요청 스레드는 결과만 기다림)
+ * 변형 파일은 {원본 폴더}/.variants/w{너비}/{원본 파일명}.jpg
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    private static final String VARIANT_DIR = ".variants";
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final long LAZY_WAIT_SECONDS = 10;
+
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageDerivativeService(@Value("${app.image.variant-workers:2}") int workers,
+                                  @Value("${app.image.variant-queue-size:200}") int queueSize) {
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + seq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /** 업로드 직후 모든 너비 변형 생성 예약 (큐가 가득 차면 건너뛰고 첫 요청 때 생성) */
+    public void enqueue(Path baseDir, String filename) {
+        if (!ImageVariants.isResizable(filename)) {
+            return;
+        }
+        for (int width : ImageVariants.WIDTHS) {
+            try {
+                generateAsync(baseDir, filename, width);
+            } catch (RejectedExecutionException e) {
+                log.warn("이미지 변형 작업 큐가 가득 차서 건너뜀: {}", filename);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 요청 너비에 가장 가까운 변형 파일 경로
+     * 변형을 만들 수 없는 파일이거나 생성에 실패하면 null (원본을 그대로 보내면 됨)
+     */
+    public Path resolve(Path baseDir, String filename, int requestedWidth) {
+        if (!ImageVariants.isResizable(filename) || requestedWidth <= 0) {
+            return null;
+        }
+        int width = ImageVariants.closestWidth(requestedWidth);
+        Path variant = variantPath(baseDir, filename, width);
+        if (variant == null) {
+            return null;
+        }
+        if (Files.exists(variant)) {
+            return variant;
+        }
+        try {
+            return generateAsync(baseDir, filename, width).get(LAZY_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException | TimeoutException | ExecutionException e) {
+            log.warn("이미지 변형 생성 실패, 원본 전송: {} w={} ({})", filename, width, e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /** 원본 삭제 시 변형 파일도 함께 삭제 */
+    public void deleteVariants(Path baseDir, String filename) {
+        for (int width : ImageVariants.WIDTHS) {
+            Path variant = variantPath(baseDir, filename, width);
+            if (variant == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(variant);
+            } catch (IOException e) {
+                log.warn("이미지 변형 삭제 실패: {} ({})", variant, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Path> generateAsync(Path baseDir, String filename, int width) {
+        Path variant = variantPath(baseDir, filename, width);
+        if (variant == null || Files.exists(variant)) {
+            return CompletableFuture.completedFuture(variant);
+        }
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(variant, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(generate(baseDir.resolve(filename).normalize(), variant, width));
+                } catch (Throwable t) {
+                    created.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(variant, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(variant, created);
+            throw e;
+        }
+        return created;
+    }
+
+    // filename 은 원본 폴더 기준 상대 경로 (해시 저장소는 ab/cd/해시.jpg), 폴더 밖을 가리키면 null
+    private Path variantPath(Path baseDir, String filename, int width) {
+        Path base = baseDir.toAbsolutePath().normalize();
+        Path original = base.resolve(filename).normalize();
+        if (!original.startsWith(base) || original.equals(base) || original.startsWith(base.resolve(VARIANT_DIR))) {
+            return null;
+        }
+        return base.resolve(VARIANT_DIR).resolve("w" + width).resolve(original.getFileName() + ".jpg");
+    }
+
+    // 원본이 요청 너비보다 작으면 확대하지 않고 원본 크기로 다시 압축만 한다
+    private Path generate(Path original, Path variant, int targetWidth) throws IOException {
+        if (Files.exists(variant)) {
+            return variant;
+        }
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null) {
+            return null;
+        }
+        int width = Math.min(targetWidth, source.getWidth());
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+
+        // JPEG 는 투명도가 없으므로 흰 배경 위에 그린다
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        // 임시 파일에 다 쓴 뒤 이동해서 반쯤 쓰인 파일이 전송되지 않게 한다
+        Files.createDirectories(variant.getParent());
+        Path temp = Files.createTempFile(variant.getParent(), "tmp-", ".jpg");
+        try {
+            writeJpeg(scaled, temp);
+            Files.move(temp, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return variant;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("JPEG writer 를 찾을 수 없습니다.");
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
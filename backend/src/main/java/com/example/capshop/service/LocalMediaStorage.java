@@ -0,0 +1,116 @@
+package com.example.capshop.service;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.capshop.dto.StoredMedia;
+
+/**
+ * 로컬 디스크(또는 여러 서버가 같이 마운트한 공유 디스크) 저장소
+ * {기준 폴더}/ab/cd/{해시}.{확장자} 로 저장. 예전 방식(타임스탬프_파일명)으로 저장된 파일도 그대로 읽을 수 있다.
+ */
+@Service
+@ConditionalOnProperty(name = "app.media.storage", havingValue = "local", matchIfMissing = true)
+public class LocalMediaStorage implements MediaStorage {
+
+    private static final String TEMP_DIR = ".tmp";
+
+    private final Map<String, Path> roots;
+    private final String publicBaseUrl;
+
+    public LocalMediaStorage(@Value("${app.media.image-dir:./uploads/images}") String imageDir,
+                             @Value("${app.media.review-image-dir:./uploads/reviews}") String reviewImageDir,
+                             @Value("${app.media.public-base-url:http://localhost:8080}") String publicBaseUrl) {
+        this.roots = Map.of(
+                IMAGES, Paths.get(imageDir).toAbsolutePath().normalize(),
+                REVIEW_IMAGES, Paths.get(reviewImageDir).toAbsolutePath().normalize());
+        this.publicBaseUrl = publicBaseUrl;
+    }
+
+    @Override
+    public StoredMedia store(String namespace, MultipartFile file) throws IOException {
+        Path root = root(namespace);
+        Path tempDir = root.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+
+        // 임시 파일로 한 번만 복사하면서 해시 계산 → 최종 위치로 이동 (같은 디스크라 rename)
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            String hash = MediaKeys.copyWithHash(file, temp);
+            String key = MediaKeys.key(hash, file.getOriginalFilename());
+            Path target = root.resolve(MediaKeys.shardPath(key));
+            long size = Files.size(temp);
+
+            if (Files.exists(target)) {
+                return new StoredMedia(key, url(namespace, key), size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                // 같은 내용을 동시에 올려도 내용이 같으므로 덮어써도 무방
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                return new StoredMedia(key, url(namespace, key), size, true);
+            }
+            return new StoredMedia(key, url(namespace, key), size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public String url(String namespace, String key) {
+        if (REVIEW_IMAGES.equals(namespace)) {
+            return publicBaseUrl + "/review-images/" + key;
+        }
+        return publicBaseUrl + (MediaKeys.isVideo(key) ? "/videos/" : "/images/") + key;
+    }
+
+    @Override
+    public boolean delete(String namespace, String key) throws IOException {
+        String relative = localPath(namespace, key);
+        if (relative == null) {
+            return false;
+        }
+        return Files.deleteIfExists(root(namespace).resolve(relative));
+    }
+
+    @Override
+    public Path localRoot(String namespace) {
+        return root(namespace);
+    }
+
+    @Override
+    public String localPath(String namespace, String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        if (MediaKeys.isContentKey(key)) {
+            return MediaKeys.shardPath(key);
+        }
+        // 예전 파일 (기준 폴더 바로 아래). 폴더 밖을 가리키면 거부
+        Path root = root(namespace);
+        Path legacy = root.resolve(key).normalize();
+        if (!legacy.startsWith(root) || !root.equals(legacy.getParent())) {
+            return null;
+        }
+        return legacy.getFileName().toString();
+    }
+
+    private Path root(String namespace) {
+        Path root = roots.get(namespace);
+        if (root == null) {
+            throw new IllegalArgumentException("알 수 없는 저장소 구분입니다: " + namespace);
+        }
+        return root;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.capshop.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.web.multipart.MultipartFile;
+
+// 내용 해시 기반 저장 키 규칙 (MediaStorage 구현체 공용)
+final class MediaKeys {
+
+    private static final Pattern CONTENT_KEY = Pattern.compile("^[0-9a-f]{64}(\\.[a-z0-9]{1,8})?$");
+    private static final Pattern EXTENSION = Pattern.compile("^[a-z0-9]{1,8}$");
+    private static final Set<String> VIDEO_EXTENSIONS = Set.of("mp4", "mov", "avi", "webm", "m4v", "mkv");
+
+    private MediaKeys() {
+    }
+
+    static boolean isContentKey(String key) {
+        return key != null && CONTENT_KEY.matcher(key).matches();
+    }
+
+    static boolean isVideo(String key) {
+        return VIDEO_EXTENSIONS.contains(extension(key));
+    }
+
+    // 원본 파일명의 확장자 (소문자, 이상한 값이면 빈 문자열)
+    static String extension(String filename) {
+        if (filename == null) return "";
+        int idx = filename.lastIndexOf('.');
+        if (idx < 0) return "";
+        String ext = filename.substring(idx + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(ext).matches() ? ext : "";
+    }
+
+    static String key(String hash, String originalFilename) {
+        String ext = extension(originalFilename);
+        return ext.isEmpty() ? hash : hash + "." + ext;
+    }
+
+    // 한 폴더에 파일이 몰리지 않도록 해시 앞 4글자로 2단계 폴더 (ab/cd/abcd...jpg)
+    static String shardPath(String key) {
+        return key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key;
+    }
+
+    /** 업로드 스트림을 임시 파일로 한 번 복사하면서 동시에 sha-256 계산 (hex 반환) */
+    static String copyWithHash(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
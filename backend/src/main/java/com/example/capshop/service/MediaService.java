@@ -0,0 +1,98 @@
+package com.example.capshop.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.capshop.dto.StoredMedia;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.LogbookRepository;
+import com.example.capshop.repository.ReviewRepository;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 업로드/조회/삭제 - 저장소(MediaStorage), 변형 이미지, 파일 전송을 묶어서 처리
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaService {
+    private final MediaStorage mediaStorage;
+    private final MediaServingService mediaServingService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final CapRepository capRepository;
+    private final ReviewRepository reviewRepository;
+    private final LogbookRepository logbookRepository;
+
+    /** 저장 후 (새로 저장된 로컬 이미지면) 너비별 변형 생성 예약 */
+    public StoredMedia upload(String namespace, MultipartFile file) throws IOException {
+        StoredMedia stored = mediaStorage.store(namespace, file);
+        Path root = mediaStorage.localRoot(namespace);
+        if (root != null && !stored.isDeduplicated()) {
+            imageDerivativeService.enqueue(root, mediaStorage.localPath(namespace, stored.getKey()));
+        }
+        return stored;
+    }
+
+    /**
+     * 파일 전송 (width 가 있으면 가까운 너비의 변형 이미지)
+     * 원격 저장소면 저장소 URL 로 리다이렉트
+     */
+    public void serve(String namespace, String key, Integer width,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path root = mediaStorage.localRoot(namespace);
+        if (root == null) {
+            response.sendRedirect(mediaStorage.url(namespace, key));
+            return;
+        }
+        String relative = mediaStorage.localPath(namespace, key);
+        if (relative == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (width != null) {
+            Path variant = imageDerivativeService.resolve(root, relative, width);
+            if (variant != null) {
+                mediaServingService.serve(variant.getParent(), variant.getFileName().toString(), request, response);
+                return;
+            }
+        }
+        mediaServingService.serve(root, relative, request, response);
+    }
+
+    /**
+     * 삭제 요청 처리 - 같은 내용이 여러 곳에서 공유될 수 있으므로
+     * 다른 상품/리뷰/로그북이 아직 같은 파일을 쓰고 있으면 파일은 남겨두고 true
+     * 파일이 없으면 false
+     */
+    public boolean delete(String namespace, String key) {
+        if (MediaKeys.isContentKey(key) && isReferenced(namespace, key)) {
+            log.info("다른 곳에서 사용 중인 파일이라 삭제하지 않음: {}/{}", namespace, key);
+            return true;
+        }
+        try {
+            Path root = mediaStorage.localRoot(namespace);
+            String relative = mediaStorage.localPath(namespace, key);
+            if (root != null && relative != null) {
+                imageDerivativeService.deleteVariants(root, relative);
+            }
+            return mediaStorage.delete(namespace, key);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("파일 삭제 실패: {}/{} ({})", namespace, key, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isReferenced(String namespace, String key) {
+        String suffix = "%/" + key;
+        if (MediaStorage.REVIEW_IMAGES.equals(namespace)) {
+            return reviewRepository.countByImageUrlLike(suffix) > 0;
+        }
+        return capRepository.countByImageUrlLike(suffix) > 0
+                || logbookRepository.countByImageUrlLike(suffix) > 0;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.capshop.service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드된 이미지/비디오 파일 전송
+ * - Range 요청(206)으로 비디오 탐색/이어받기 지원
+ * - ETag / Last-Modified 로 조건부 요청이면 304
+ * - 타임스탬프/내용 해시 이름의 업로드 파일은 내용이 바뀌지 않으므로 1년 immutable 캐시
+ * - 파일 전체를 메모리에 올리지 않고 FileChannel.transferTo 로 응답 스트림에 바로 보낸다
+ */
+@Slf4j
+@Service
+public class MediaServingService {
+
+    private static final String IMMUTABLE_CACHE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE_CACHE = "public, max-age=0, must-revalidate"; // mainvideo.mp4 처럼 같은 이름으로 교체될 수 있는 파일
+    // 타임스탬프가 붙은 예전 업로드 이름 또는 내용 해시 이름
+    private static final Pattern IMMUTABLE_NAME = Pattern.compile("^(\\d{13}_.+|[0-9a-f]{64}(\\..+)?)$");
+
+    // MediaTypeFactory(mime.types)에 없거나 브라우저 재생에 맞지 않는 확장자
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+    static {
+        CONTENT_TYPES.put("jpg", "image/jpeg");
+        CONTENT_TYPES.put("jpeg", "image/jpeg");
+        CONTENT_TYPES.put("png", "image/png");
+        CONTENT_TYPES.put("gif", "image/gif");
+        CONTENT_TYPES.put("webp", "image/webp");
+        CONTENT_TYPES.put("avif", "image/avif");
+        CONTENT_TYPES.put("heic", "image/heic");
+        CONTENT_TYPES.put("heif", "image/heif");
+        CONTENT_TYPES.put("svg", "image/svg+xml");
+        CONTENT_TYPES.put("bmp", "image/bmp");
+        CONTENT_TYPES.put("ico", "image/x-icon");
+        CONTENT_TYPES.put("mp4", "video/mp4");
+        CONTENT_TYPES.put("m4v", "video/mp4");
+        CONTENT_TYPES.put("mov", "video/quicktime");
+        CONTENT_TYPES.put("webm", "video/webm");
+        CONTENT_TYPES.put("ogv", "video/ogg");
+        CONTENT_TYPES.put("avi", "video/x-msvideo");
+        CONTENT_TYPES.put("mkv", "video/x-matroska");
+    }
+
+    /**
+     * baseDir 아래의 filename 을 응답으로 보낸다.
+     * 경로 탈출(../)이나 없는 파일이면 404
+     */
+    public void serve(Path baseDir, String filename, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path base = baseDir.toAbsolutePath().normalize();
+        Path file = base.resolve(filename).normalize();
+        if (!file.startsWith(base) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis() / 1000 * 1000; // HTTP 날짜는 초 단위
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                IMMUTABLE_NAME.matcher(file.getFileName().toString()).matches() ? IMMUTABLE_CACHE : REVALIDATE_CACHE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(contentType(file.getFileName().toString()));
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && isRangeStillValid(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of(); // 잘못된 Range 헤더는 무시하고 전체 전송
+            }
+            // 여러 구간(multipart/byteranges)은 지원하지 않고 전체 전송 (RFC 상 허용)
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                if (length == 0 || start >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = Math.max(0, end - start + 1);
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return;
+        }
+        transfer(file, start, count, response);
+    }
+
+    public static String contentType(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        int idx = lower.lastIndexOf('.');
+        String type = idx >= 0 ? CONTENT_TYPES.get(lower.substring(idx + 1)) : null;
+        if (type != null) {
+            return type;
+        }
+        return MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+    }
+
+    // If-None-Match 가 있으면 그것만 보고, 없을 때만 If-Modified-Since 확인
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2); // GET 은 약한 비교
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    // If-Range 가 현재 파일과 다르면 Range 를 무시하고 전체 전송 (강한 비교)
+    private boolean isRangeStillValid(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified == date;
+    }
+
+    private long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private void transfer(Path file, long start, long count, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (IOException e) {
+            // 비디오 탐색 중 브라우저가 연결을 끊는 것은 정상 동작
+            log.debug("미디어 전송 중단: {} ({})", file.getFileName(), e.getMessage());
+        }
+    }
+}
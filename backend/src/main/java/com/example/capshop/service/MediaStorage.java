@@ -0,0 +1,33 @@
+package com.example.capshop.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.capshop.dto.StoredMedia;
+
+/**
+ * 업로드 미디어 저장소
+ * 파일은 내용 해시(sha-256) + 확장자를 키로 저장하므로 같은 파일을 여러 번 올려도 한 번만 저장된다.
+ * namespace 는 상품 이미지(images) / 리뷰 이미지(review-images) 구분
+ */
+public interface MediaStorage {
+    String IMAGES = "images";
+    String REVIEW_IMAGES = "review-images";
+
+    /** 업로드 파일 저장 (이미 같은 내용이 있으면 저장하지 않고 기존 키 반환) */
+    StoredMedia store(String namespace, MultipartFile file) throws IOException;
+
+    /** 키에 해당하는 공개 URL */
+    String url(String namespace, String key);
+
+    /** 삭제 (없으면 false) */
+    boolean delete(String namespace, String key) throws IOException;
+
+    /** 로컬 디스크 저장소면 기준 폴더, 원격 저장소면 null */
+    Path localRoot(String namespace);
+
+    /** 기준 폴더 아래 상대 경로 (잘못된 키거나 원격 저장소면 null) */
+    String localPath(String namespace, String key);
+}
@@ -1,73 +1,63 @@
 package com.example.capshop.service;
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
 import com.example.capshop.domain.Cap;
 import com.example.capshop.domain.CartItem;
 import com.example.capshop.domain.Status;
 import com.example.capshop.domain.User;
-import com.example.capshop.domain.order.CheckOut;
 import com.example.capshop.domain.order.Order;
 import com.example.capshop.domain.order.OrderItem;
 import com.example.capshop.domain.order.Payment;
-import com.example.capshop.dto.PointsRequest;
+import com.example.capshop.dto.AdminOrderItemResponse;
+import com.example.capshop.dto.AdminOrderPageResponse;
+import com.example.capshop.dto.AdminOrderResponse;
+import com.example.capshop.dto.StockLine;
 import com.example.capshop.repository.CartItemRepository;
+import com.example.capshop.repository.OrderItemRepository;
 import com.example.capshop.repository.OrderRepository;
 import com.example.capshop.repository.PaymentRepository;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.example.capshop.service.UserCouponService;
 
 @Service
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final int MAX_ADMIN_PAGE_SIZE = 100;
 
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final CartItemRepository cartItemRepository;
-    private final CheckOutService checkOutService;
-    private final com.example.capshop.repository.CapRepository capRepository;
     private final PaymentRepository paymentRepository;
-    private final PointsService pointsService;
-    private final UserCouponService userCouponService;
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StockReservationService stockReservationService;
+    private final TossPaymentsClient tossPaymentsClient;
     
     public OrderService(OrderRepository orderRepository, 
+                       OrderItemRepository orderItemRepository,
                        CartItemRepository cartItemRepository,
-                       CheckOutService checkOutService,
-                       com.example.capshop.repository.CapRepository capRepository,
                        PaymentRepository paymentRepository,
-                       PointsService pointsService,
-                       UserCouponService userCouponService) {
+                       StockReservationService stockReservationService,
+                       TossPaymentsClient tossPaymentsClient) {
         this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
         this.cartItemRepository = cartItemRepository;
-        this.checkOutService = checkOutService;
-        this.capRepository = capRepository;
         this.paymentRepository = paymentRepository;
-        this.pointsService = pointsService;
-        this.userCouponService = userCouponService;
-        
-        // RestTemplate UTF-8 설정
-        this.restTemplate = new RestTemplate();
-        this.restTemplate.getMessageConverters()
-            .add(0, new StringHttpMessageConverter(StandardCharsets.UTF_8));
+        this.stockReservationService = stockReservationService;
+        this.tossPaymentsClient = tossPaymentsClient;
     }
 
+    @Transactional
     public Order placeOrder(User user) {
         List<CartItem> cartItems = cartItemRepository.findByUser(user);
 
@@ -76,27 +66,21 @@ public class OrderService {
         }
 
         Order order = new Order(user);
+        List<StockLine> stockLines = new ArrayList<>();
 
         for (CartItem cartItem : cartItems) {
             Cap cap = cartItem.getCap();
             String size = cartItem.getSize();
 
-            // 사이즈별 재고 확인 및 차감
-            Long stockBySize = cap.getStockBySize(size);
-            if (stockBySize == null || stockBySize < cartItem.getQuantity()) {
-                throw new IllegalStateException("재고 부족: " + cap.getName() + " (사이즈: " + size + ", 재고: " + stockBySize + ")");
-            }
-
-            // CapStock 객체를 통해 재고 차감
-            com.example.capshop.domain.CapStock capStock = cap.getCapStockBySize(size);
-            if (capStock != null) {
-                capStock.decreaseStock(cartItem.getQuantity());
-            }
+            stockLines.add(new StockLine(cap.getId(), size, cartItem.getQuantity()));
 
             OrderItem orderItem = new OrderItem(cap, cartItem.getQuantity(), cap.getPrice(), size);
             order.addOrderItem(orderItem);
         }
 
+        // 사이즈별 재고 조건부 차감 (전 라인 한 번에, 하나라도 부족하면 롤백)
+        stockReservationService.reserveAll(stockLines);
+
         order.calculateTotalPrice();
 
         Order savedOrder = orderRepository.save(order);
@@ -114,14 +98,45 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다."));
     }
     
-    // 관리자용: 전체 주문 목록
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    /**
+     * 관리자용 주문 목록 (최신 주문부터, 필터는 모두 선택)
+     * cursor: 이전 응답의 nextCursor (첫 페이지는 null)
+     * 주문 행 1번 + 그 페이지 상품/상품명 1번, 주문 수와 상관없이 페이지당 쿼리 2번으로 끝난다.
+     */
+    @Transactional(readOnly = true)
+    public AdminOrderPageResponse searchAdminOrders(Status status, LocalDateTime from, LocalDateTime to,
+                                                    Long userId, String orderIdPrefix, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_ADMIN_PAGE_SIZE));
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                cursorId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+            }
+        }
+        String prefix = orderIdPrefix == null || orderIdPrefix.isBlank() ? null : likePrefix(orderIdPrefix.trim());
+
+        // 한 건 더 읽어서 다음 페이지 존재 여부 판단 (count 쿼리 없음)
+        List<AdminOrderResponse> rows = orderRepository.searchAdminOrders(
+                status, from, to, userId, prefix, cursorId, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<AdminOrderResponse> items = hasNext ? rows.subList(0, pageSize) : rows;
+
+        if (!items.isEmpty()) {
+            Map<Long, AdminOrderResponse> byId = items.stream()
+                    .collect(Collectors.toMap(AdminOrderResponse::getId, Function.identity()));
+            for (AdminOrderItemResponse item : orderItemRepository.findAdminItemsByOrderIds(byId.keySet())) {
+                byId.get(item.getOrderPk()).getOrderItems().add(item);
+            }
+        }
+        String nextCursor = hasNext ? String.valueOf(items.get(items.size() - 1).getId()) : null;
+        return new AdminOrderPageResponse(items, nextCursor, hasNext);
     }
-    
-    // 관리자용: 상태별 주문 필터
-    public List<Order> getOrdersByStatus(Status status) {
-        return orderRepository.findByStatus(status);
+
+    // LIKE 특수문자는 그대로 비교되도록 '!' 로 이스케이프 (쿼리의 ESCAPE '!')
+    private String likePrefix(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
     }
 
     public Order getOrderDetail(Long orderId) {
@@ -129,6 +144,11 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다."));
     }
 
+    /**
+     * 주문 취소
+     * 상태 전환과 재고 복구를 한 트랜잭션에서 처리하므로, 토스 취소가 실패하면 재고 복구도 함께 롤백된다.
+     */
+    @Transactional
     public void cancelOrder(Long orderId) {
         logger.info("주문 취소 시작 - orderId: {}", orderId);
         Order order = getOrderDetail(orderId);
@@ -138,36 +158,28 @@ public class OrderService {
             throw new IllegalStateException("취소할 수 없는 주문입니다.");
         }
 
-        order.cancel();
-        logger.info("주문 상태 CANCELLED로 변경 - orderId: {}", orderId);
+        Payment payment = paymentRepository.findByOrder(order)
+                .orElseThrow(() -> new RuntimeException("결제 정보를 찾을 수 없습니다."));
 
-        // 재고 복구
-        for (OrderItem item : order.getOrderItems()) {
-            Cap cap = item.getCap();
-            String size = item.getSelectedSize();
-            
-            // 사이즈별 재고 복구
-            com.example.capshop.domain.CapStock capStock = cap.getCapStockBySize(size);
-            if (capStock != null) {
-                Long beforeStock = capStock.getStock();
-                capStock.increaseStock(item.getQuantity());
-                logger.info("재고 복구 - capId: {}, size: {}, 변경 전: {}, 변경 후: {}", 
-                    cap.getId(), size, beforeStock, capStock.getStock());
-            } else {
-                logger.warn("재고 복구 실패 - CapStock을 찾을 수 없음: capId={}, size={}", cap.getId(), size);
-            }
+        // 조건부 UPDATE 로 ORDERED → CANCELLED (동시에 들어온 취소는 커밋까지 이 행에서 기다렸다가 0행이 된다)
+        if (orderRepository.changeStatus(orderId, Status.ORDERED, Status.CANCELLED) == 0) {
+            logger.warn("이미 처리된 주문 - orderId: {}", orderId);
+            throw new IllegalStateException("취소할 수 없는 주문입니다.");
         }
+        order.cancel();
+        logger.info("주문 상태 CANCELLED로 변경 - orderId: {}", orderId);
 
-        // 결제 취소 처리
-        Payment payment = paymentRepository.findByOrder(order)
-                .orElseThrow(() -> new RuntimeException("결제 정보를 찾을 수 없습니다."));
-        
+        // 토스 취소가 실패하면 예외로 위 상태 변경까지 롤백
         logger.info("토스 결제 취소 요청 - paymentKey: {}", payment.getPaymentKey());
         cancelPaymentToToss(payment);
         payment.cancel();
         paymentRepository.save(payment);
         logger.info("Payment 상태 CANCELED로 변경 - paymentId: {}", payment.getId());
 
+        // 재고 복구는 토스 호출 뒤에 해서 외부 호출 동안 재고 행을 잠그지 않는다
+        stockReservationService.release(toStockLines(order));
+        logger.info("재고 복구 완료 - orderId: {}, 품목 수: {}", orderId, order.getOrderItems().size());
+
         orderRepository.save(order);
         logger.info("주문 취소 완료 - orderId: {}", orderId);
     }
@@ -241,21 +253,8 @@ public class OrderService {
         logger.info("주문 상태 RETURNED로 변경 - orderId: {}", orderId);
         
         // 재고 복구
-        for (OrderItem item : order.getOrderItems()) {
-            Cap cap = item.getCap();
-            String size = item.getSelectedSize();
-            
-            // 사이즈별 재고 복구
-            com.example.capshop.domain.CapStock capStock = cap.getCapStockBySize(size);
-            if (capStock != null) {
-                Long beforeStock = capStock.getStock();
-                capStock.increaseStock(item.getQuantity());
-                logger.info("반품 재고 복구 - capId: {}, size: {}, 변경 전: {}, 변경 후: {}", 
-                    cap.getId(), size, beforeStock, capStock.getStock());
-            } else {
-                logger.warn("반품 재고 복구 실패 - CapStock을 찾을 수 없음: capId={}, size={}", cap.getId(), size);
-            }
-        }
+        stockReservationService.release(toStockLines(order));
+        logger.info("반품 재고 복구 완료 - orderId: {}, 품목 수: {}", orderId, order.getOrderItems().size());
         
         // 환불 처리
         Payment payment = paymentRepository.findByOrder(order)
@@ -356,31 +355,21 @@ public class OrderService {
         logger.info("송장번호 설정 완료 - orderId: {}", orderId);
     }
     
+    // 주문 품목 → 재고 라인 변환 (재고 복구용)
+    private List<StockLine> toStockLines(Order order) {
+        List<StockLine> lines = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            lines.add(new StockLine(item.getCap().getId(), item.getSelectedSize(), item.getQuantity()));
+        }
+        return lines;
+    }
+
     // 토스 결제 취소 API 호출
     private void cancelPaymentToToss(Payment payment) {
         try {
-            String tossSecretKey = "test_gsk_docs_OaPz8L5KdmQXkzRz3y47BMw6"; // TODO: 실제 시크릿키로 교체
-            String url = "https://api.tosspayments.com/v1/payments/" + payment.getPaymentKey() + "/cancel";
-            
-            logger.info("토스 API 호출 - URL: {}, paymentKey: {}", url, payment.getPaymentKey());
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBasicAuth(tossSecretKey, "");
-            
-            String body = String.format("{\"cancelReason\":\"%s\"}", "고객 주문 취소");
-            
-            HttpEntity<String> request = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
-            
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                logger.error("토스 결제 취소 실패 - status: {}, body: {}", 
-                    response.getStatusCode(), response.getBody());
-                throw new RuntimeException("토스 결제 취소 실패: " + response.getBody());
-            }
-            
-            logger.info("토스 결제 취소 성공 - paymentKey: {}, response: {}", 
-                payment.getPaymentKey(), response.getBody());
+            JsonNode response = tossPaymentsClient.cancel(payment.getPaymentKey(), "고객 주문 취소");
+            logger.info("토스 결제 취소 성공 - paymentKey: {}, status: {}",
+                payment.getPaymentKey(), response.path("status").asText());
         } catch (Exception e) {
             logger.error("결제 취소 처리 중 오류 발생 - paymentKey: {}, error: {}", 
                 payment.getPaymentKey(), e.getMessage(), e);
@@ -391,332 +380,13 @@ public class OrderService {
     // 토스 환불 API 호출
     private void refundPaymentToToss(Payment payment, Long refundAmount, String refundReason) {
         try {
-            String tossSecretKey = "test_gsk_docs_OaPz8L5KdmQXkzRz3y47BMw6"; // TODO: 실제 시크릿키로 교체
-            String url = "https://api.tosspayments.com/v1/payments/" + payment.getPaymentKey() + "/cancel";
-            
-            logger.info("토스 환불 API 호출 - URL: {}, paymentKey: {}, amount: {}", 
-                url, payment.getPaymentKey(), refundAmount);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBasicAuth(tossSecretKey, "");
-            
-            String body = String.format(
-                "{\"cancelReason\":\"%s\",\"cancelAmount\":%d}",
-                refundReason, refundAmount
-            );
-            
-            HttpEntity<String> request = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
-            
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                logger.error("토스 환불 실패 - status: {}, body: {}", 
-                    response.getStatusCode(), response.getBody());
-                throw new RuntimeException("토스 환불 실패: " + response.getBody());
-            }
-            
-            logger.info("토스 환불 성공 - paymentKey: {}, amount: {}, response: {}", 
-                payment.getPaymentKey(), refundAmount, response.getBody());
+            JsonNode response = tossPaymentsClient.cancel(payment.getPaymentKey(), refundReason, refundAmount);
+            logger.info("토스 환불 성공 - paymentKey: {}, amount: {}, status: {}",
+                payment.getPaymentKey(), refundAmount, response.path("status").asText());
         } catch (Exception e) {
             logger.error("환불 처리 중 오류 발생 - paymentKey: {}, error: {}", 
                 payment.getPaymentKey(), e.getMessage(), e);
             throw new RuntimeException("환불 처리 중 오류 발생: " + e.getMessage(), e);
         }
     }
-    
-    @Transactional
-    public Order confirmPaymentAndCreateOrder(User user, String paymentKey, String orderId, Long amount) {
-    try {
-        // 1. 토스에 결제 최종 승인 요청
-        String tossSecretKey = "test_gsk_docs_OaPz8L5KdmQXkzRz3y47BMw6"; // TODO: 실제 시크릿키로 교체
-        String url = "https://api.tosspayments.com/v1/payments/confirm";
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBasicAuth(tossSecretKey, "");
-        
-        String body = String.format(
-            "{\"paymentKey\":\"%s\",\"orderId\":\"%s\",\"amount\":%d}",
-            paymentKey, orderId, amount
-        );
-        
-        HttpEntity<String> request = new HttpEntity<>(body, headers);
-        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
-        
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("토스 결제 승인 실패: " + response.getBody());
-        }
-        
-        // 토스 응답 파싱
-        JsonNode tossResponse = objectMapper.readTree(response.getBody());
-        String tossStatus = tossResponse.get("status").asText(); // 토스 결제 상태
-        String paymentMethod = tossResponse.has("method") ? tossResponse.get("method").asText() : "CARD";
-        
-        // 토스 결제 상태 검증
-        if (!"DONE".equals(tossStatus)) {
-            throw new RuntimeException("토스 결제가 완료되지 않았습니다. 상태: " + tossStatus);
-        }
-        
-        // 2. CheckOut에서 orderId로 조회
-        CheckOut checkOut = checkOutService.findByOrderId(orderId)
-                .orElseThrow(() -> new RuntimeException("체크아웃 정보를 찾을 수 없습니다: " + orderId));
-        
-        // 3. CheckOut의 itemsJson 파싱하여 Order + OrderItem 생성
-        JsonNode itemsNode = objectMapper.readTree(checkOut.getItemsJson());
-        Order order = new Order(user);
-        order.setStatus(Status.ORDERED);
-        
-        // CheckOut의 주문번호 및 배송 정보를 Order로 복사
-        order.setOrderId(checkOut.getOrderId());
-        order.setReceiverName(checkOut.getName());
-        order.setAddress(checkOut.getAddress());
-        order.setPhone(checkOut.getPhone());
-        
-        for (JsonNode item : itemsNode) {
-            Long capId = item.get("capId").asLong();
-            int quantity = item.get("quantity").asInt();
-            String size = item.has("size") ? item.get("size").asText() : null;
-            
-            Cap cap = capRepository.findById(capId)
-                    .orElseThrow(() -> new RuntimeException("상품을 찾을 수 없습니다: " + capId));
-
-            // ===== 재고 확인 및 차감 (사이즈별 기준) =====
-            if (size != null && !size.isBlank()) {
-                // 사이즈별 재고 체크
-                Long stockBySize = cap.getStockBySize(size);
-                if (stockBySize == null || stockBySize < quantity) {
-                    throw new IllegalStateException("재고 부족: " + cap.getName() +
-                            " (사이즈: " + size + ", 재고: " + stockBySize + ")");
-                }
-
-                com.example.capshop.domain.CapStock capStock = cap.getCapStockBySize(size);
-                if (capStock == null) {
-                    throw new IllegalStateException(
-                            "CapStock 정보를 찾을 수 없습니다. capId=" + capId + ", size=" + size);
-                }
-                capStock.decreaseStock(quantity);
-
-                // (선택) 총 재고 필드도 같이 관리한다면
-                if (cap.getStock() != null) {
-                    cap.setStock(cap.getStock() - quantity);
-                }
-            } else {
-                // 사이즈가 없는 상품(ONE SIZE 등)이라면 기존 전체 재고 사용
-                if (cap.getStock() == null || cap.getStock() < quantity) {
-                    throw new IllegalStateException("재고 부족: " + cap.getName());
-                }
-                cap.setStock(cap.getStock() - quantity);
-            }
-            // ==========================================
-            
-            // OrderItem 생성 (가격 스냅샷 + 사이즈)
-            OrderItem orderItem = new OrderItem(cap, quantity, cap.getPrice(), size);
-            order.addOrderItem(orderItem);
-        }
-        
-        order.calculateTotalPrice();
-        
-        // 4. 금액 검증 (토스 승인 금액 == 계산된 주문 금액)
-        if (!order.getTotal_price().equals(amount)) {
-            throw new RuntimeException("결제 금액 불일치");
-        }
-        
-        // 5. Order 저장
-        Order savedOrder = orderRepository.save(order);
-        
-        // 6. Payment 생성 및 저장
-        Payment payment = new Payment(savedOrder, paymentKey, paymentMethod, amount);
-        payment.approve(); // 결제 승인 완료 상태로 변경
-        paymentRepository.save(payment);
-        
-        // 7. CheckOut 삭제
-        checkOutService.deleteById(checkOut.getId());
-        
-        return savedOrder;
-        
-    } catch (Exception e) {
-        throw new RuntimeException("결제 처리 중 오류 발생: " + e.getMessage(), e);
-    }
-}
-
-    // 할인 정보를 포함한 결제 승인 + 주문 생성
-    @Transactional
-    public Order confirmPaymentAndCreateOrderWithDiscount(
-        User user, String paymentKey, String orderId, Long amount, Map<String, Object> discountInfo) {
-    try {
-        // 1. 토스에 결제 최종 승인 요청
-        String tossSecretKey = "test_gsk_docs_OaPz8L5KdmQXkzRz3y47BMw6"; // TODO: 실제 시크릿키로 교체
-        String url = "https://api.tosspayments.com/v1/payments/confirm";
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBasicAuth(tossSecretKey, "");
-        
-        String body = String.format(
-            "{\"paymentKey\":\"%s\",\"orderId\":\"%s\",\"amount\":%d}",
-            paymentKey, orderId, amount
-        );
-        
-        HttpEntity<String> request = new HttpEntity<>(body, headers);
-        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, request, String.class);
-        
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("토스 결제 승인 실패: " + response.getBody());
-        }
-        
-        // 토스 응답 파싱
-        JsonNode tossResponse = objectMapper.readTree(response.getBody());
-        String tossStatus = tossResponse.get("status").asText();
-        String paymentMethod = tossResponse.has("method") ? tossResponse.get("method").asText() : "CARD";
-        
-        // 토스 결제 상태 검증
-        if (!"DONE".equals(tossStatus)) {
-            throw new RuntimeException("토스 결제가 완료되지 않았습니다. 상태: " + tossStatus);
-        }
-        
-        // 2. CheckOut에서 orderId로 조회
-        CheckOut checkOut = checkOutService.findByOrderId(orderId)
-                .orElseThrow(() -> new RuntimeException("체크아웃 정보를 찾을 수 없습니다: " + orderId));
-        
-        // 3. 할인 정보 파싱
-        Long originalAmount = 0L;
-        Long finalAmount = amount; // 결제된 최종 금액
-        Long couponDiscount = 0L;
-        Long pointsUsed = 0L;
-        
-        if (discountInfo != null) {
-            if (discountInfo.get("originalAmount") != null) {
-                originalAmount = ((Number) discountInfo.get("originalAmount")).longValue();
-            }
-            if (discountInfo.get("couponDiscount") != null) {
-                couponDiscount = ((Number) discountInfo.get("couponDiscount")).longValue();
-            }
-            if (discountInfo.get("pointsUsed") != null) {
-                pointsUsed = ((Number) discountInfo.get("pointsUsed")).longValue();
-            }
-            if (discountInfo.get("finalAmount") != null) {
-                Long discountFinalAmount = ((Number) discountInfo.get("finalAmount")).longValue();
-                // 최종 금액 검증
-                if (!discountFinalAmount.equals(amount)) {
-                    throw new RuntimeException("할인 정보와 결제 금액 불일치: 할인정보=" + discountFinalAmount + ", 결제금액=" + amount);
-                }
-            }
-        }
-        
-        // 4. CheckOut의 itemsJson 파싱하여 Order + OrderItem 생성
-        JsonNode itemsNode = objectMapper.readTree(checkOut.getItemsJson());
-        Order order = new Order(user);
-        order.setStatus(Status.ORDERED);
-        
-        // CheckOut의 주문번호 및 배송 정보를 Order로 복사
-        order.setOrderId(checkOut.getOrderId());
-        order.setReceiverName(checkOut.getName());
-        order.setAddress(checkOut.getAddress());
-        order.setPhone(checkOut.getPhone());
-        
-        // 원가 계산으로 할인 적용 전 금액 검증
-        Long calculatedOriginalAmount = 0L;
-        
-        for (JsonNode item : itemsNode) {
-            Long capId = item.get("capId").asLong();
-            int quantity = item.get("quantity").asInt();
-            String size = item.has("size") ? item.get("size").asText() : null;
-            
-            Cap cap = capRepository.findById(capId)
-                    .orElseThrow(() -> new RuntimeException("상품을 찾을 수 없습니다: " + capId));
-            
-            // ===== 재고 확인 및 차감 (사이즈별 기준) =====
-            if (size != null && !size.isBlank()) {
-                Long stockBySize = cap.getStockBySize(size);
-                if (stockBySize == null || stockBySize < quantity) {
-                    throw new IllegalStateException("재고 부족: " + cap.getName() +
-                            " (사이즈: " + size + ", 재고: " + stockBySize + ")");
-                }
-
-                com.example.capshop.domain.CapStock capStock = cap.getCapStockBySize(size);
-                if (capStock == null) {
-                    throw new IllegalStateException(
-                            "CapStock 정보를 찾을 수 없습니다. capId=" + capId + ", size=" + size);
-                }
-                capStock.decreaseStock(quantity);
-
-                if (cap.getStock() != null) {
-                    cap.setStock(cap.getStock() - quantity);
-                }
-            } else {
-                if (cap.getStock() == null || cap.getStock() < quantity) {
-                    throw new IllegalStateException("재고 부족: " + cap.getName());
-                }
-                cap.setStock(cap.getStock() - quantity);
-            }
-            // ==========================================
-
-            // OrderItem 생성 (가격 스냅샷 + 사이즈)
-            OrderItem orderItem = new OrderItem(cap, quantity, cap.getPrice(), size);
-            order.addOrderItem(orderItem);
-            
-            calculatedOriginalAmount += cap.getPrice() * quantity;
-        }
-        
-        // 주문의 total_price를 계산해서 UserCouponService가 할인을 정확히 계산할 수 있게 함
-        order.calculateTotalPrice();
-
-        // 할인 정보에 userCouponId가 전달되면 서버 측에서 안전하게 쿠폰 사용 처리
-        if (discountInfo != null && discountInfo.get("userCouponId") != null) {
-            try {
-                Number idNum = (Number) discountInfo.get("userCouponId");
-                Long userCouponId = idNum.longValue();
-                Long usedDiscount = userCouponService.markCouponUsedOnSuccess(user.getId(), userCouponId, order);
-                couponDiscount = usedDiscount != null ? usedDiscount : 0L;
-            } catch (ClassCastException cce) {
-                throw new RuntimeException("userCouponId 형식이 올바르지 않습니다.", cce);
-            }
-        }
-
-        // 5. 할인 적용 전 금액 검증 (선택적)
-        if (originalAmount > 0 && !calculatedOriginalAmount.equals(originalAmount)) {
-            throw new RuntimeException("원가 계산 불일치: 계산된금액=" + calculatedOriginalAmount + ", 전달받은금액=" + originalAmount);
-        }
-        
-        // 6. Order에 할인 정보 저장
-        Long baseAmount = originalAmount > 0 ? originalAmount : calculatedOriginalAmount;
-        Long totalDiscount = couponDiscount + pointsUsed;
-        
-        order.setOriginal_price(baseAmount);        // 할인 전 원가
-        order.setCoupon_discount(couponDiscount);   // 쿠폰 할인액
-        order.setPoints_discount(pointsUsed);       // 포인트 할인액  
-        order.setTotal_discount(totalDiscount);     // 총 할인액
-        order.setFinal_price(finalAmount);          // 최종 결제액
-        order.setTotal_price(finalAmount);          // 기존 호환성 유지
-        
-        // 7. Order 저장
-        Order savedOrder = orderRepository.save(order);
-        
-        // 8. Payment 생성 및 저장
-        Payment payment = new Payment(savedOrder, paymentKey, paymentMethod, finalAmount);
-        payment.approve();
-        paymentRepository.save(payment);
-        
-        // 9. 할인 적용 처리 (포인트 차감)
-        if (pointsUsed > 0) {
-            PointsRequest pointsRequest = new PointsRequest();
-            pointsRequest.setUserId(user.getId());
-            pointsRequest.setAmount(pointsUsed);
-            pointsRequest.setReason("주문 결제");
-            pointsService.usePoints(pointsRequest);
-        }
-        
-        // 10. 적립금 지급 (할인 전 원래 가격 기준으로)
-        Long pointsBase = originalAmount > 0 ? originalAmount : calculatedOriginalAmount;
-        pointsService.addOrderPoints(user.getId(), pointsBase);
-        
-        // 11. CheckOut 삭제
-        checkOutService.deleteById(checkOut.getId());
-        cartItemRepository.deleteByUser(user);
-        return savedOrder;
-        
-    } catch (Exception e) {
-        throw new RuntimeException("결제 처리 중 오류 발생: " + e.getMessage(), e);
-    }
-    }
 }
@@ -0,0 +1,220 @@
+package com.example.capshop.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.OutboxEvent;
+import com.example.capshop.domain.OutboxStatus;
+import com.example.capshop.domain.order.Order;
+import com.example.capshop.dto.StockLine;
+import com.example.capshop.repository.CartItemRepository;
+import com.example.capshop.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 아웃박스 이벤트 처리기
+ * - 주기적으로 처리할 이벤트를 모아 가상 스레드에서 동시에 처리한다. (DB 커넥션을 고려해 동시 처리 수 제한)
+ * - 이벤트마다 트랜잭션 하나: 후속 작업과 DONE 표시가 같이 커밋되므로 같은 이벤트가 두 번 반영되지 않는다.
+ * - 실패하면 지수 백오프로 재시도하고, 한도를 넘기거나 업무 규칙 위반(재시도해도 같은 결과)이면 DEAD 로 보낸다.
+ * - 여러 서버에서 돌아도 SKIP LOCKED 로 잠금을 잡은 한 곳만 처리한다.
+ */
+@Slf4j
+@Service
+public class OutboxDispatcher {
+
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long BASE_BACKOFF_SECONDS = 5;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+    private static final int RETENTION_DAYS = 7;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final PointsService pointsService;
+    private final CheckOutService checkOutService;
+    private final CartItemRepository cartItemRepository;
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int batchSize;
+    private final Semaphore permits;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            PointsService pointsService,
+                            CheckOutService checkOutService,
+                            CartItemRepository cartItemRepository,
+                            OrderService orderService,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.concurrency:4}") int concurrency) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.pointsService = pointsService;
+        this.checkOutService = checkOutService;
+        this.cartItemRepository = cartItemRepository;
+        this.orderService = orderService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.permits = new Semaphore(Math.max(1, concurrency));
+    }
+
+    // 이전 묶음이 끝나야 다음 주기가 시작된다 (fixedDelay)
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        dispatch();
+    }
+
+    /**
+     * 처리할 이벤트를 한 묶음 처리한다.
+     * @return 이번에 꺼낸 이벤트 수
+     */
+    public int dispatch() {
+        List<Long> ids = outboxEventRepository.findDueIds(
+                OutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long id : ids) {
+                executor.submit(() -> {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        process(id);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } // close() 는 제출한 작업이 모두 끝날 때까지 기다린다
+        return ids.size();
+    }
+
+    /** 처리 완료된 이벤트 정리 (매일 새벽 4시 30분) */
+    @Scheduled(cron = "0 30 4 * * *")
+    public void purgeProcessed() {
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteProcessedBefore(
+                OutboxStatus.DONE, LocalDateTime.now().minusDays(RETENTION_DAYS)));
+        log.info("처리 완료 아웃박스 이벤트 정리: {}건", deleted);
+    }
+
+    /** 관리용 지표: 대기/DEAD 건수, 가장 오래 기다린 이벤트의 지연, 서버 기동 후 처리/실패 수 */
+    public Map<String, Object> stats() {
+        LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt(OutboxStatus.PENDING);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        stats.put("dead", outboxEventRepository.countByStatus(OutboxStatus.DEAD));
+        stats.put("lagSeconds", oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).getSeconds());
+        stats.put("processed", processed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("deadLettered", deadLettered.sum());
+        return stats;
+    }
+
+    void process(Long id) {
+        try {
+            Boolean handled = transactionTemplate.execute(status -> {
+                OutboxEvent event = outboxEventRepository.findForUpdateSkipLocked(id).orElse(null);
+                if (event == null || event.getStatus() != OutboxStatus.PENDING) {
+                    return false; // 다른 서버가 처리 중이거나 이미 처리됨
+                }
+                handle(event);
+                event.markDone();
+                return true;
+            });
+            if (Boolean.TRUE.equals(handled)) {
+                processed.increment();
+            }
+        } catch (RuntimeException e) {
+            recordFailure(id, e);
+        }
+    }
+
+    private void handle(OutboxEvent event) {
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(event.getPayload());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("이벤트 내용을 읽을 수 없습니다.", e);
+        }
+        Long userId = payload.path("userId").asLong();
+        switch (event.getType()) {
+            case ORDER_POINTS:
+                pointsService.addOrderPoints(userId, payload.path("amount").asLong());
+                break;
+            case CHECKOUT_CLEANUP:
+                // 결제한 줄만 장바구니에서 뺀다 (결제 중에 새로 담은 상품은 남긴다)
+                Long checkOutId = payload.path("checkOutId").asLong();
+                checkOutService.findById(checkOutId).ifPresent(checkOut -> {
+                    for (StockLine line : checkOutService.toStockLines(checkOut)) {
+                        if (line.hasSize()) {
+                            cartItemRepository.deleteLine(userId, line.getCapId(), line.getSize());
+                        } else {
+                            cartItemRepository.deleteUnsizedLine(userId, line.getCapId());
+                        }
+                    }
+                    checkOutService.deleteById(checkOutId);
+                });
+                break;
+            case REVIEW_CONFIRM_PURCHASE:
+                // 이미 확정됐거나(수동/자동) 확정할 수 없는 상태면 할 일 없음
+                Order order = orderService.getOrderDetail(payload.path("orderId").asLong());
+                if (order.canConfirm()) {
+                    orderService.confirmPurchase(order.getId(), userId);
+                }
+                break;
+            case REVIEW_POINTS:
+                pointsService.addReviewPoints(userId);
+                break;
+            default:
+                throw new IllegalArgumentException("알 수 없는 이벤트 종류입니다: " + event.getType());
+        }
+    }
+
+    // 업무 규칙 위반(IllegalArgument/IllegalState)은 다시 해도 같으므로 바로 DEAD
+    private void recordFailure(Long id, RuntimeException error) {
+        failed.increment();
+        boolean retryable = !(error instanceof IllegalArgumentException || error instanceof IllegalStateException);
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(id).ifPresent(event -> {
+                if (event.getStatus() != OutboxStatus.PENDING) {
+                    return;
+                }
+                long backoff = Math.min(MAX_BACKOFF_SECONDS, BASE_BACKOFF_SECONDS << Math.min(event.getAttempts(), 20));
+                event.markFailed(error.getMessage(), retryable, MAX_ATTEMPTS, backoff);
+                if (event.getStatus() == OutboxStatus.DEAD) {
+                    deadLettered.increment();
+                    log.error("아웃박스 이벤트 DEAD - id: {}, type: {}, attempts: {}, error: {}",
+                            id, event.getType(), event.getAttempts(), error.getMessage());
+                } else {
+                    log.warn("아웃박스 이벤트 실패, 재시도 예정 - id: {}, type: {}, attempts: {}, error: {}",
+                            id, event.getType(), event.getAttempts(), error.getMessage());
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.error("아웃박스 실패 기록 중 오류 - id: {}, error: {}", id, e.getMessage());
+        }
+    }
+}
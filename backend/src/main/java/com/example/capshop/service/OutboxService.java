@@ -0,0 +1,53 @@
+package com.example.capshop.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capshop.domain.OutboxEvent;
+import com.example.capshop.domain.OutboxEventType;
+import com.example.capshop.domain.OutboxStatus;
+import com.example.capshop.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 아웃박스 이벤트 적재/관리
+ * enqueue 는 반드시 주문/리뷰를 저장하는 트랜잭션 안에서 호출한다. (같이 커밋되거나 같이 롤백)
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType type, String eventKey, Map<String, Object> payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(eventKey, type, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("아웃박스 이벤트 형식이 올바르지 않습니다.", e);
+        }
+    }
+
+    // 관리자용: 최근 DEAD 이벤트
+    @Transactional(readOnly = true)
+    public List<OutboxEvent> findDead(int limit) {
+        return outboxEventRepository.findByStatusOrderByIdDesc(OutboxStatus.DEAD, PageRequest.of(0, limit));
+    }
+
+    // 관리자용: DEAD 이벤트 재처리
+    @Transactional
+    public void requeue(Long eventId) {
+        OutboxEvent event = outboxEventRepository.findById(eventId)
+                .orElseThrow(() -> new IllegalArgumentException("이벤트를 찾을 수 없습니다."));
+        event.requeue();
+    }
+}
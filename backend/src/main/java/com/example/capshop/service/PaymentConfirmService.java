@@ -0,0 +1,459 @@
+package com.example.capshop.service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.OutboxEventType;
+import com.example.capshop.domain.PaymentAttemptStatus;
+import com.example.capshop.domain.Status;
+import com.example.capshop.domain.User;
+import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.domain.order.Order;
+import com.example.capshop.domain.order.OrderItem;
+import com.example.capshop.domain.order.Payment;
+import com.example.capshop.domain.order.PaymentAttempt;
+import com.example.capshop.dto.CheckoutQuote;
+import com.example.capshop.dto.PointsRequest;
+import com.example.capshop.dto.StockLine;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.OrderRepository;
+import com.example.capshop.repository.PaymentAttemptRepository;
+import com.example.capshop.repository.PaymentRepository;
+import com.example.capshop.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 결제 승인 + 주문 생성을 단계별로 나눠 처리한다.
+ * 1) 확보: 짧은 트랜잭션에서 검증, 포인트 차감, 재고 홀드 → 판매 전환, PaymentAttempt(CONFIRMING) 저장
+ * 2) 승인: 트랜잭션 없이 토스 승인 호출 → APPROVED 커밋
+ * 3) 확정: 짧은 트랜잭션에서 Order/Payment 저장, 쿠폰 사용, 후속 작업(적립, 체크아웃/장바구니 정리) 아웃박스 적재 → COMPLETED
+ * 실패하면 보정(토스 취소, 재고·포인트 복구) 후 FAILED.
+ * 토스 응답 대기 중에는 DB 커넥션을 잡고 있지 않으며, 각 단계의 상태가 커밋되어 있어서
+ * 서버가 중간에 죽어도 recoverStale 가 남은 단계를 이어서 처리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentConfirmService {
+
+    private static final long RECOVERY_DELAY_MINUTES = 2; // 토스 타임아웃 × 재시도보다 길게
+    private static final int RECOVERY_BATCH_SIZE = 100;
+    private static final long DUPLICATE_WAIT_SECONDS = 30;  // 토스 읽기 타임아웃 × 재시도 정도
+    private static final long DUPLICATE_POLL_MILLIS = 200;
+    private static final String IN_PROGRESS_MESSAGE = "결제 승인 결과를 확인하는 중입니다. 잠시 후 주문 내역을 확인해주세요.";
+
+    private final PaymentAttemptRepository paymentAttemptRepository;
+    private final CheckOutService checkOutService;
+    private final CheckoutQuoteService checkoutQuoteService;
+    private final CapRepository capRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final UserRepository userRepository;
+    private final PointsService pointsService;
+    private final UserCouponService userCouponService;
+    private final StockReservationService stockReservationService;
+    private final TossPaymentsClient tossPaymentsClient;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    // 이 서버에서 진행 중인 승인 (orderId:paymentKey → 결과)
+    private final ConcurrentMap<String, CompletableFuture<Order>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 토스 결제 성공 후 최종 승인 + 주문 생성 (할인 정보 포함)
+     * 같은 paymentKey/orderId 로 다시 들어온 요청(새로고침, 중복 클릭)은 토스를 다시 호출하지 않고
+     * 진행 중인 처리를 기다렸다가 같은 주문을 돌려준다.
+     */
+    public Order confirm(User user, String paymentKey, String orderId, Long amount, Map<String, Object> discountInfo) {
+        // 같은 서버로 동시에 들어온 중복 요청은 먼저 온 요청의 결과를 같이 받는다
+        String key = orderId + ":" + paymentKey;
+        CompletableFuture<Order> mine = new CompletableFuture<>();
+        CompletableFuture<Order> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            Order order = execute(user.getId(), paymentKey, orderId, amount, discountInfo);
+            mine.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Order execute(Long userId, String paymentKey, String orderId, Long amount, Map<String, Object> discountInfo) {
+        Long attemptId;
+        try {
+            attemptId = reserve(userId, paymentKey, orderId, amount, discountInfo);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버가 같은 주문번호/결제키로 먼저 저장함 (PaymentAttempt 유니크 제약)
+            attemptId = null;
+        }
+        if (attemptId == null) {
+            return awaitExisting(userId, paymentKey, orderId);
+        }
+        return approveAndComplete(attemptId);
+    }
+
+    /**
+     * 진행 중 상태로 오래 멈춘 결제를 이어서 처리한다. (스케줄러에서 호출)
+     * @return 처리 대상 건수
+     */
+    public int recoverStale(LocalDateTime now) {
+        List<Long> ids = paymentAttemptRepository.findStaleIds(
+                EnumSet.of(PaymentAttemptStatus.CONFIRMING, PaymentAttemptStatus.APPROVED, PaymentAttemptStatus.COMPENSATING),
+                now.minusMinutes(RECOVERY_DELAY_MINUTES),
+                PageRequest.of(0, RECOVERY_BATCH_SIZE));
+        for (Long id : ids) {
+            try {
+                PaymentAttempt attempt = paymentAttemptRepository.findById(id).orElse(null);
+                if (attempt == null) {
+                    continue;
+                }
+                log.info("결제 복구 - orderId: {}, status: {}", attempt.getOrderId(), attempt.getStatus());
+                if (attempt.getStatus() == PaymentAttemptStatus.COMPENSATING) {
+                    compensate(id, attempt.getFailReason());
+                } else {
+                    approveAndComplete(id);
+                }
+            } catch (RuntimeException e) {
+                log.warn("결제 복구 실패 - attemptId: {}, error: {}", id, e.getMessage());
+            }
+        }
+        return ids.size();
+    }
+
+    // ===== 1단계: 확보 =====
+
+    private Long reserve(Long userId, String paymentKey, String orderId, Long amount, Map<String, Object> discountInfo) {
+        return transactionTemplate.execute(status -> {
+            // 먼저 기존 진행 기록을 잠근다 (완료 후에는 체크아웃이 정리되어 없을 수 있음)
+            PaymentAttempt existing = paymentAttemptRepository.findForUpdateByOrderId(orderId).orElse(null);
+            if (existing != null) {
+                checkDuplicate(existing, userId, paymentKey);
+                if (existing.getStatus() != PaymentAttemptStatus.FAILED) {
+                    return null; // 같은 결제의 중복 요청 → 결과를 기다린다
+                }
+            }
+
+            CheckOut checkOut = checkOutService.findByOrderId(orderId)
+                    .orElseThrow(() -> new RuntimeException("체크아웃 정보를 찾을 수 없습니다: " + orderId));
+            if (checkOut.getUserId() != null && !checkOut.getUserId().equals(userId)) {
+                throw new IllegalStateException("본인의 주문만 결제할 수 있습니다.");
+            }
+
+            List<StockLine> lines = checkOutService.toStockLines(checkOut);
+            // 서버 견적(/api/checkout/quote)의 서명/만료/금액을 확인한 요청만 토스 승인까지 간다 (견적 없는 요청은 거절)
+            if (discountInfo == null || discountInfo.get("signature") == null) {
+                throw new IllegalArgumentException("결제 금액 견적이 없습니다. 결제를 다시 진행해주세요.");
+            }
+            CheckoutQuote quote = checkoutQuoteService.verify(userId, orderId, amount, discountInfo);
+            if (quote.getOriginalAmount() - quote.getCouponDiscount() - quote.getPointsUsed() != amount) {
+                throw new IllegalArgumentException("견적 금액 계산 불일치: 원가=" + quote.getOriginalAmount()
+                        + ", 쿠폰=" + quote.getCouponDiscount() + ", 포인트=" + quote.getPointsUsed() + ", 결제금액=" + amount);
+            }
+            Long originalAmount = quote.getOriginalAmount();
+            Long pointsUsed = quote.getPointsUsed();
+            Long userCouponId = quote.getUserCouponId();
+            Long couponDiscount = quote.getCouponDiscount();
+
+            PaymentAttempt attempt;
+            if (existing != null) {
+                existing.restart(userId, paymentKey, amount, originalAmount, pointsUsed, userCouponId, couponDiscount);
+                attempt = existing;
+            } else {
+                attempt = paymentAttemptRepository.save(new PaymentAttempt(
+                        orderId, checkOut.getId(), userId, paymentKey, amount,
+                        originalAmount, pointsUsed, userCouponId, couponDiscount));
+            }
+
+            if (pointsUsed > 0) {
+                PointsRequest pointsRequest = new PointsRequest();
+                pointsRequest.setUserId(userId);
+                pointsRequest.setAmount(pointsUsed);
+                pointsRequest.setReason("주문 결제");
+                // 잔액 확인과 차감이 조건부 UPDATE 한 번 (동시 결제에도 음수 불가), 원장 행은 같은 트랜잭션에서 기록
+                pointsService.usePoints(pointsRequest);
+            }
+            stockReservationService.commitCheckout(checkOut.getId(), lines);
+            return attempt.getId();
+        });
+    }
+
+    // 실패한 주문번호는 새 결제키로만 다시 시도할 수 있다 (같은 결제키는 토스에서도 같은 실패가 돌아옴)
+    private void checkDuplicate(PaymentAttempt existing, Long userId, String paymentKey) {
+        if (!existing.getUserId().equals(userId)) {
+            throw new IllegalStateException("본인의 주문만 결제할 수 있습니다.");
+        }
+        boolean samePayment = existing.getPaymentKey().equals(paymentKey);
+        if (existing.getStatus() == PaymentAttemptStatus.FAILED) {
+            if (samePayment) {
+                throw new RuntimeException("결제 처리 중 오류 발생: " + existing.getFailReason());
+            }
+        } else if (!samePayment) {
+            throw new IllegalStateException("이미 다른 결제로 처리된 주문입니다.");
+        }
+    }
+
+    // ===== 중복 요청: 먼저 온 요청의 결과 기다리기 =====
+
+    private Order await(CompletableFuture<Order> running) {
+        try {
+            return running.get(DUPLICATE_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(IN_PROGRESS_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(IN_PROGRESS_MESSAGE);
+        }
+    }
+
+    // 다른 서버(또는 이전 요청)가 진행 중인 결제: 완료/실패가 커밋될 때까지 기록을 확인한다
+    private Order awaitExisting(Long userId, String paymentKey, String orderId) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DUPLICATE_WAIT_SECONDS);
+        while (true) {
+            PaymentAttempt attempt = paymentAttemptRepository.findByOrderId(orderId)
+                    .orElseThrow(() -> new IllegalStateException("이미 사용된 결제 정보입니다."));
+            checkDuplicate(attempt, userId, paymentKey);
+            if (attempt.getStatus() == PaymentAttemptStatus.COMPLETED) {
+                return orderRepository.findById(attempt.getCreatedOrderId())
+                        .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다."));
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(IN_PROGRESS_MESSAGE);
+            }
+            try {
+                Thread.sleep(DUPLICATE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(IN_PROGRESS_MESSAGE);
+            }
+        }
+    }
+
+    // ===== 2단계: 승인 (트랜잭션 없음) → 3단계 =====
+
+    private Order approveAndComplete(Long attemptId) {
+        PaymentAttempt attempt = paymentAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new RuntimeException("결제 진행 정보를 찾을 수 없습니다."));
+        if (attempt.getStatus() == PaymentAttemptStatus.CONFIRMING) {
+            approve(attempt);
+        }
+        return complete(attemptId);
+    }
+
+    private void approve(PaymentAttempt attempt) {
+        JsonNode tossResponse;
+        try {
+            tossResponse = tossPaymentsClient.confirm(attempt.getPaymentKey(), attempt.getOrderId(), attempt.getAmount());
+        } catch (TossPaymentsClient.TossPaymentException e) {
+            if (e.isOutcomeUnknown()) {
+                // 승인됐을 수도 있으므로 보정하지 않고 남겨 둔다 (복구 작업이 같은 멱등키로 다시 확인)
+                log.warn("토스 승인 결과 불명 - orderId: {}, error: {}", attempt.getOrderId(), e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> lock(attempt.getId()).touch());
+                throw new IllegalStateException(IN_PROGRESS_MESSAGE, e);
+            }
+            compensate(attempt.getId(), "토스 결제 승인 실패: " + e.getMessage());
+            throw new RuntimeException("토스 결제 승인 실패: " + e.getMessage(), e);
+        }
+
+        String tossStatus = tossResponse.path("status").asText();
+        if (!"DONE".equals(tossStatus)) {
+            compensate(attempt.getId(), "토스 결제가 완료되지 않았습니다. 상태: " + tossStatus);
+            throw new RuntimeException("토스 결제가 완료되지 않았습니다. 상태: " + tossStatus);
+        }
+        String paymentMethod = tossResponse.has("method") ? tossResponse.get("method").asText() : "CARD";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            PaymentAttempt locked = lock(attempt.getId());
+            if (locked.getStatus() == PaymentAttemptStatus.CONFIRMING) {
+                locked.approve(paymentMethod);
+            }
+        });
+    }
+
+    // ===== 3단계: 확정 =====
+
+    private Order complete(Long attemptId) {
+        try {
+            return transactionTemplate.execute(status -> createOrder(attemptId));
+        } catch (RuntimeException e) {
+            log.error("주문 생성 실패, 결제 보정 시작 - attemptId: {}, error: {}", attemptId, e.getMessage(), e);
+            compensate(attemptId, "주문 생성 실패: " + e.getMessage());
+            throw new RuntimeException("결제 처리 중 오류 발생: " + e.getMessage(), e);
+        }
+    }
+
+    private Order createOrder(Long attemptId) {
+        PaymentAttempt attempt = lock(attemptId);
+        if (attempt.getStatus() == PaymentAttemptStatus.COMPLETED) {
+            return orderRepository.findById(attempt.getCreatedOrderId())
+                    .orElseThrow(() -> new RuntimeException("주문을 찾을 수 없습니다."));
+        }
+        if (attempt.getStatus() != PaymentAttemptStatus.APPROVED) {
+            throw new IllegalStateException("주문을 생성할 수 없는 결제 상태입니다: " + attempt.getStatus());
+        }
+
+        CheckOut checkOut = checkOutService.findById(attempt.getCheckOutId())
+                .orElseThrow(() -> new RuntimeException("체크아웃 정보를 찾을 수 없습니다: " + attempt.getOrderId()));
+        User user = userRepository.getReferenceById(attempt.getUserId());
+
+        Order order = new Order(user);
+        order.setStatus(Status.ORDERED);
+
+        // CheckOut의 주문번호 및 배송 정보를 Order로 복사
+        order.setOrderId(checkOut.getOrderId());
+        order.setReceiverName(checkOut.getName());
+        order.setAddress(checkOut.getAddress());
+        order.setPhone(checkOut.getPhone());
+
+        List<StockLine> lines = checkOutService.toStockLines(checkOut);
+        Map<Long, Cap> caps = loadCaps(lines);
+        long calculatedOriginalAmount = 0;
+        for (StockLine line : lines) {
+            // OrderItem 생성 (가격 스냅샷 + 사이즈), 원가 합계도 같이 계산
+            Cap cap = caps.get(line.getCapId());
+            order.addOrderItem(new OrderItem(cap, line.getQuantity(), cap.getPrice(), line.getSize()));
+            calculatedOriginalAmount += cap.getPrice() * line.getQuantity();
+        }
+
+        // 주문의 total_price를 계산해서 UserCouponService가 할인을 정확히 계산할 수 있게 함
+        order.calculateTotalPrice();
+
+        Long couponDiscount = 0L;
+        if (attempt.getUserCouponId() != null) {
+            Long usedDiscount = userCouponService.markCouponUsedOnSuccess(attempt.getUserId(), attempt.getUserCouponId(), order);
+            couponDiscount = usedDiscount != null ? usedDiscount : 0L;
+        }
+
+        Long baseAmount = attempt.getOriginalAmount() > 0 ? attempt.getOriginalAmount() : calculatedOriginalAmount;
+        Long pointsUsed = attempt.getPointsUsed();
+        // 실제 적용된 쿠폰 할인이 견적과 다르거나 승인 금액과 맞지 않으면 주문을 만들지 않는다 (롤백 후 보정에서 토스 취소)
+        if (attempt.getCouponDiscount() != null && !attempt.getCouponDiscount().equals(couponDiscount)) {
+            throw new IllegalStateException("쿠폰 할인액이 견적과 다릅니다: 견적=" + attempt.getCouponDiscount() + ", 적용=" + couponDiscount);
+        }
+        if (baseAmount - couponDiscount - pointsUsed != attempt.getAmount()) {
+            throw new IllegalStateException("결제 금액 불일치: 원가=" + baseAmount + ", 쿠폰=" + couponDiscount
+                    + ", 포인트=" + pointsUsed + ", 승인금액=" + attempt.getAmount());
+        }
+        order.setOriginal_price(baseAmount);                  // 할인 전 원가
+        order.setCoupon_discount(couponDiscount);             // 쿠폰 할인액
+        order.setPoints_discount(pointsUsed);                 // 포인트 할인액
+        order.setTotal_discount(couponDiscount + pointsUsed); // 총 할인액
+        order.setFinal_price(attempt.getAmount());            // 최종 결제액
+        order.setTotal_price(attempt.getAmount());            // 기존 호환성 유지
+
+        Order savedOrder = orderRepository.save(order);
+
+        Payment payment = new Payment(savedOrder, attempt.getPaymentKey(), attempt.getPaymentMethod(), attempt.getAmount());
+        payment.approve();
+        paymentRepository.save(payment);
+
+        // 적립금 지급(할인 전 원래 가격 기준)과 체크아웃/장바구니 정리는 커밋 후 아웃박스에서 처리
+        outboxService.enqueue(OutboxEventType.ORDER_POINTS, "order-points:" + savedOrder.getId(),
+                Map.of("userId", attempt.getUserId(), "amount", baseAmount));
+        outboxService.enqueue(OutboxEventType.CHECKOUT_CLEANUP, "checkout-cleanup:" + savedOrder.getId(),
+                Map.of("userId", attempt.getUserId(), "checkOutId", checkOut.getId()));
+
+        attempt.complete(savedOrder.getId());
+        return savedOrder;
+    }
+
+    // ===== 보정 =====
+
+    /**
+     * 토스 승인을 취소하고 1단계에서 잡은 재고/포인트를 되돌린다.
+     * 토스 취소가 실패하면 COMPENSATING 으로 남겨 복구 작업이 다시 시도한다.
+     */
+    private void compensate(Long attemptId, String reason) {
+        PaymentAttempt attempt = transactionTemplate.execute(status -> {
+            PaymentAttempt locked = lock(attemptId);
+            if (locked.isFinished()) {
+                return null;
+            }
+            if (locked.getStatus() != PaymentAttemptStatus.COMPENSATING) {
+                locked.startCompensation(reason);
+            }
+            return locked;
+        });
+        if (attempt == null) {
+            return;
+        }
+
+        if (attempt.getApprovedAt() != null) {
+            try {
+                tossPaymentsClient.cancel(attempt.getPaymentKey(), "주문 처리 실패 자동 취소");
+                log.info("토스 결제 자동 취소 - orderId: {}", attempt.getOrderId());
+            } catch (TossPaymentsClient.TossPaymentException e) {
+                if (!"ALREADY_CANCELED_PAYMENT".equals(e.getCode())) {
+                    log.error("토스 결제 자동 취소 실패 - orderId: {}, error: {}", attempt.getOrderId(), e.getMessage());
+                    transactionTemplate.executeWithoutResult(status -> lock(attemptId).touch());
+                    return;
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            PaymentAttempt locked = lock(attemptId);
+            if (locked.getStatus() != PaymentAttemptStatus.COMPENSATING) {
+                return;
+            }
+            checkOutService.findById(locked.getCheckOutId()).ifPresentOrElse(
+                    checkOut -> stockReservationService.release(checkOutService.toStockLines(checkOut)),
+                    () -> log.error("체크아웃이 없어 재고를 복구하지 못했습니다 - orderId: {}", locked.getOrderId()));
+            if (locked.getPointsUsed() > 0) {
+                PointsRequest refund = new PointsRequest();
+                refund.setUserId(locked.getUserId());
+                refund.setAmount(locked.getPointsUsed());
+                refund.setReason("결제 실패 포인트 환원");
+                pointsService.addPoints(refund);
+            }
+            locked.fail();
+            log.info("결제 보정 완료 - orderId: {}, reason: {}", locked.getOrderId(), locked.getFailReason());
+        });
+    }
+
+    private PaymentAttempt lock(Long attemptId) {
+        return paymentAttemptRepository.findForUpdateById(attemptId)
+                .orElseThrow(() -> new RuntimeException("결제 진행 정보를 찾을 수 없습니다."));
+    }
+
+    private Map<Long, Cap> loadCaps(List<StockLine> lines) {
+        List<Long> capIds = lines.stream().map(StockLine::getCapId).distinct().collect(Collectors.toList());
+        Map<Long, Cap> caps = capRepository.findByIdIn(capIds).stream()
+                .collect(Collectors.toMap(Cap::getId, Function.identity()));
+        for (Long capId : capIds) {
+            if (!caps.containsKey(capId)) {
+                throw new RuntimeException("상품을 찾을 수 없습니다: " + capId);
+            }
+        }
+        return caps;
+    }
+}
@@ -1,68 +1,90 @@
 package com.example.capshop.service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.capshop.domain.PointsLedgerEntry;
+import com.example.capshop.domain.PointsSnapshot;
 import com.example.capshop.domain.User;
+import com.example.capshop.dto.PointsHistoryPageResponse;
+import com.example.capshop.dto.PointsHistoryResponse;
 import com.example.capshop.dto.PointsRequest;
+import com.example.capshop.repository.PointsLedgerRepository;
+import com.example.capshop.repository.PointsSnapshotRepository;
+import com.example.capshop.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * 적립금
+ * - 변경은 조건부 UPDATE 한 번(잔액이 음수가 되면 0행)으로 User.points 를 바꾸고, 같은 트랜잭션에서 원장(points_ledger)에 한 행 추가한다.
+ * - 월말마다 사용자별 잔액 스냅샷(points_snapshot)을 남겨, 특정 시점 잔액은 스냅샷 + 한 달 치 원장만 더해 구한다.
+ */
 @Service
 @RequiredArgsConstructor
 public class PointsService {
-    
-    private final UserService userService;
-    
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int BATCH_CHUNK_SIZE = 500;
+    private static final String OPENING_JOB = "openPointsLedger";
+    private static final String SNAPSHOT_JOB_PREFIX = "pointsSnapshot-";
+    static final String OPENING_REASON = "기존 적립금 이월";
+
+    private final UserRepository userRepository;
+    private final PointsLedgerRepository pointsLedgerRepository;
+    private final PointsSnapshotRepository pointsSnapshotRepository;
+    private final BatchJobRunner batchJobRunner;
+
     // 적립금 적립
     @Transactional
     public void addPoints(PointsRequest request) {
-        User user = userService.findById(request.getUserId());
-        
-        if (request.getAmount() <= 0) {
+        if (request.getAmount() == null || request.getAmount() <= 0) {
             throw new IllegalArgumentException("적립금은 0보다 커야 합니다.");
         }
-        
-        user.addPoints(request.getAmount());
-        // UserService가 이미 save를 처리한다면 별도 저장 불필요
-        // 그렇지 않다면 userRepository.save(user) 필요
+        apply(request.getUserId(), request.getAmount(), request.getReason());
     }
-    
-    // 적립금 사용
+
+    // 적립금 사용 (결제 트랜잭션 안에서 호출되면 그 트랜잭션에 합류)
     @Transactional
     public void usePoints(PointsRequest request) {
-        User user = userService.findById(request.getUserId());
-        
-        if (request.getAmount() <= 0) {
+        if (request.getAmount() == null || request.getAmount() <= 0) {
             throw new IllegalArgumentException("사용할 적립금은 0보다 커야 합니다.");
         }
-        
-        user.usePoints(request.getAmount());
-        // UserService가 이미 save를 처리한다면 별도 저장 불필요
+        apply(request.getUserId(), -request.getAmount(), request.getReason());
     }
-    
+
     // 적립금 조회
     @Transactional(readOnly = true)
     public Long getPoints(Long userId) {
-        User user = userService.findById(userId);
-        return user.getAvailablePoints();
+        return userRepository.findPointsById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
     }
-    
+
     // 주문 완료 시 자동 적립 (주문 금액의 1%)
     @Transactional
     public void addOrderPoints(Long userId, Long orderAmount) {
         Long pointsToAdd = orderAmount / 100; // 1% 적립
-        
+
         if (pointsToAdd > 0) {
             PointsRequest request = new PointsRequest();
             request.setUserId(userId);
             request.setAmount(pointsToAdd);
             request.setReason("주문 완료 적립 (1%)");
-            
+
             addPoints(request);
         }
     }
-    
+
     // 리뷰 작성 시 보너스 적립금 지급
     @Transactional
     public void addReviewPoints(Long userId) {
@@ -70,7 +92,143 @@ public class PointsService {
         request.setUserId(userId);
         request.setAmount(500L); // 리뷰 작성 시 500원 적립
         request.setReason("리뷰 작성 보너스");
-        
+
         addPoints(request);
     }
-}
\ No newline at end of file
+
+    /**
+     * 적립금 내역 (최신순)
+     * cursor: 이전 응답의 nextCursor (첫 페이지는 null)
+     */
+    @Transactional(readOnly = true)
+    public PointsHistoryPageResponse getHistory(Long userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                cursorId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+            }
+        }
+
+        // 한 건 더 읽어서 다음 페이지 존재 여부 판단 (count 쿼리 없음)
+        List<PointsHistoryResponse> rows = pointsLedgerRepository.findHistory(userId, cursorId, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<PointsHistoryResponse> items = hasNext ? rows.subList(0, pageSize) : rows;
+        if (items.isEmpty() && cursorId == null && !userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("사용자를 찾을 수 없습니다.");
+        }
+        String nextCursor = hasNext ? String.valueOf(items.get(items.size() - 1).getId()) : null;
+        return new PointsHistoryPageResponse(items, nextCursor, hasNext);
+    }
+
+    /**
+     * at 시점 직전까지의 원장 잔액
+     * 그 달 이전의 가장 최근 스냅샷 + 스냅샷 다음 달부터 at 까지 원장 합계 (스냅샷이 없으면 원장 처음부터)
+     */
+    @Transactional(readOnly = true)
+    public long getLedgerBalance(Long userId, LocalDateTime at) {
+        LocalDate month = YearMonth.from(at).atDay(1);
+        Optional<PointsSnapshot> snapshot = pointsSnapshotRepository
+                .findFirstByUserIdAndPeriodStartBeforeOrderByPeriodStartDesc(userId, month);
+        if (snapshot.isEmpty()) {
+            return pointsLedgerRepository.sumBetween(userId, null, at);
+        }
+        LocalDateTime from = snapshot.get().getPeriodStart().plusMonths(1).atStartOfDay();
+        return snapshot.get().getBalance() + pointsLedgerRepository.sumBetween(userId, from, at);
+    }
+
+    /**
+     * 한 달의 월말 잔액 스냅샷 생성 (사용자 id 묶음마다 커밋, 같은 달을 다시 실행해도 결과가 같다)
+     * @return 스냅샷을 남긴 사용자 수
+     */
+    public long snapshotMonth(YearMonth month) {
+        return batchJobRunner.run(SNAPSHOT_JOB_PREFIX + month, BATCH_CHUNK_SIZE,
+                (afterId, page) -> userRepository.findIdsAfter(afterId, page),
+                userIds -> snapshot(userIds, month));
+    }
+
+    public boolean hasSnapshot(YearMonth month) {
+        return batchJobRunner.hasCompleted(SNAPSHOT_JOB_PREFIX + month);
+    }
+
+    /**
+     * 원장 도입 전 적립금을 "기존 적립금 이월" 한 행으로 옮긴다 (원장 합계와 User.points 차이만큼)
+     * @return 이월 행을 만든 사용자 수
+     */
+    public long openLedger() {
+        return batchJobRunner.run(OPENING_JOB, BATCH_CHUNK_SIZE,
+                (afterId, page) -> userRepository.findIdsAfter(afterId, page),
+                this::open);
+    }
+
+    // 이월이 한 번도 끝나지 않았으면 원장 합계가 잔액과 맞지 않는다
+    public boolean needsOpening() {
+        return !batchJobRunner.hasCompleted(OPENING_JOB);
+    }
+
+    // 호출한 트랜잭션 안에서 실행 (BatchJobRunner 의 묶음 트랜잭션)
+    int snapshot(List<Long> userIds, YearMonth month) {
+        LocalDate periodStart = month.atDay(1);
+        LocalDateTime from = periodStart.atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        // 지난달 스냅샷이 있으면 이번 달 원장만, 없으면 원장 처음부터 더한다
+        Map<Long, Long> previous = new HashMap<>();
+        for (PointsSnapshot snapshot : pointsSnapshotRepository.findByUserIdsAndPeriod(userIds, periodStart.minusMonths(1))) {
+            previous.put(snapshot.getUserId(), snapshot.getBalance());
+        }
+        List<Long> withoutPrevious = userIds.stream().filter(id -> !previous.containsKey(id)).toList();
+
+        Map<Long, Long> balances = new HashMap<>(previous);
+        if (!previous.isEmpty()) {
+            sumInto(balances, pointsLedgerRepository.sumByUserIds(previous.keySet(), from, to));
+        }
+        if (!withoutPrevious.isEmpty()) {
+            sumInto(balances, pointsLedgerRepository.sumByUserIds(withoutPrevious, null, to));
+        }
+
+        pointsSnapshotRepository.deleteByUserIdsAndPeriod(userIds, periodStart);
+        LocalDateTime now = LocalDateTime.now();
+        List<PointsSnapshot> snapshots = new ArrayList<>();
+        balances.forEach((userId, balance) ->
+                snapshots.add(new PointsSnapshot(userId, periodStart, balance, now)));
+        pointsSnapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    // 호출한 트랜잭션 안에서 실행 (BatchJobRunner 의 묶음 트랜잭션)
+    int open(List<Long> userIds) {
+        // 사용자 행을 먼저 잠근 뒤 원장 합계를 읽어야 그 사이 증감이 이월분에 섞이지 않는다
+        List<User> locked = userRepository.lockByIds(userIds);
+        Map<Long, Long> ledger = new HashMap<>();
+        sumInto(ledger, pointsLedgerRepository.sumAllByUserIds(userIds));
+
+        LocalDateTime now = LocalDateTime.now();
+        int opened = 0;
+        for (User user : locked) {
+            long difference = user.getAvailablePoints() - ledger.getOrDefault(user.getId(), 0L);
+            if (difference != 0) {
+                pointsLedgerRepository.save(new PointsLedgerEntry(user.getId(), difference, OPENING_REASON, now));
+                opened++;
+            }
+        }
+        return opened;
+    }
+
+    // 잔액 UPDATE 가 0행이면 원장도 남기지 않는다
+    private void apply(Long userId, long delta, String reason) {
+        if (userRepository.addPoints(userId, delta) == 0) {
+            throw new IllegalArgumentException(delta < 0 ? "보유 적립금이 부족합니다." : "사용자를 찾을 수 없습니다.");
+        }
+        pointsLedgerRepository.save(new PointsLedgerEntry(userId, delta, reason, LocalDateTime.now()));
+    }
+
+    // [userId, sum] 행을 map 에 더한다
+    private static void sumInto(Map<Long, Long> balances, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            balances.merge((Long) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+    }
+}
@@ -1,21 +1,32 @@
 package com.example.capshop.service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.OutboxEventType;
 import com.example.capshop.domain.Review;
 import com.example.capshop.domain.User;
 import com.example.capshop.domain.order.Order;
 import com.example.capshop.dto.ReviewCreateRequest;
+import com.example.capshop.dto.ReviewPageResponse;
 import com.example.capshop.dto.ReviewResponse;
 import com.example.capshop.dto.ReviewStatistics;
 import com.example.capshop.dto.ReviewUpdateRequest;
+import com.example.capshop.repository.OrderItemRepository;
 import com.example.capshop.repository.ReviewRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -24,11 +35,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ReviewService {
     
+    private static final int MAX_PAGE_SIZE = 50;
+    
     private final ReviewRepository reviewRepository;
     private final UserService userService;
     private final CapService capService;
     private final OrderService orderService;
-    private final PointsService pointsService;
+    private final OutboxService outboxService;
+    private final CapReviewStatsService capReviewStatsService;
+    private final OrderItemRepository orderItemRepository;
     
     // 리뷰 작성 가능 여부 확인 - 특정 주문의 특정 상품에 대해 이미 리뷰가 작성되었는지 체크
     @Transactional(readOnly = true)
@@ -87,22 +102,15 @@ public class ReviewService {
         Review review = new Review(user, cap, order, request.getRating(), request.getContent(), request.getImageUrls());
         
         Review savedReview = reviewRepository.save(review);
+        capReviewStatsService.reviewAdded(savedReview);
         
-        // 리뷰 작성 시 자동으로 구매확정 처리
-        try {
-            if (!order.isConfirmed()) {
-                orderService.confirmPurchase(order.getId(), user.getId());
-            }
-        } catch (Exception e) {
-            // 구매확정이 실패해도 리뷰 작성은 성공으로 처리
-        }
-        
-        // 리뷰 작성 시 보너스 적립금 지급
-        try {
-            pointsService.addReviewPoints(user.getId());
-        } catch (Exception e) {
-            // 적립금 지급 실패해도 리뷰 작성은 성공으로 처리
+        // 자동 구매확정과 보너스 적립금은 커밋 후 아웃박스에서 처리 (실패해도 리뷰 작성은 성공, 재시도됨)
+        if (order.canConfirm()) {
+            outboxService.enqueue(OutboxEventType.REVIEW_CONFIRM_PURCHASE, "review-confirm:" + savedReview.getId(),
+                    Map.of("userId", user.getId(), "orderId", order.getId()));
         }
+        outboxService.enqueue(OutboxEventType.REVIEW_POINTS, "review-points:" + savedReview.getId(),
+                Map.of("userId", user.getId()));
         
         return new ReviewResponse(savedReview);
     }
@@ -123,8 +131,12 @@ public class ReviewService {
             throw new IllegalArgumentException("별점은 1~5 사이여야 합니다.");
         }
         
+        int oldRating = review.getRating();
+        boolean oldPhoto = CapReviewStatsService.isPhoto(review.getImageUrls());
         review.updateReview(request.getRating(), request.getContent(), request.getImageUrls());
         Review updatedReview = reviewRepository.save(review);
+        capReviewStatsService.reviewChanged(review.getCap().getId(), oldRating, oldPhoto,
+                request.getRating(), CapReviewStatsService.isPhoto(request.getImageUrls()));
         
         return new ReviewResponse(updatedReview);
     }
@@ -140,6 +152,7 @@ public class ReviewService {
             throw new IllegalArgumentException("본인의 리뷰만 삭제할 수 있습니다.");
         }
         
+        capReviewStatsService.reviewRemoved(review);
         reviewRepository.delete(review);
     }
     
@@ -149,87 +162,59 @@ public class ReviewService {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("리뷰를 찾을 수 없습니다."));
         
+        capReviewStatsService.reviewRemoved(review);
         reviewRepository.delete(review);
     }
     
-    // 특정 상품의 모든 리뷰 조회
+    // 특정 상품의 리뷰 (최신순 또는 별점순, 키셋 페이지)
     @Transactional(readOnly = true)
-    public List<ReviewResponse> getReviewsByCap(Long capId, String sortBy) {
-        Cap cap = capService.findById(capId);
-        if (cap == null) {
-            throw new IllegalArgumentException("상품을 찾을 수 없습니다.");
+    public ReviewPageResponse getReviewsByCap(Long capId, String sortBy, String cursor, int size) {
+        boolean byRating = "rating".equals(sortBy);
+        FeedCursor after = FeedCursor.parse(cursor, byRating);
+        Pageable limit = pageLimit(size);
+        List<ReviewResponse> rows = byRating
+                ? reviewRepository.findCapFeedRating(capId, after.rating, after.createdAt, after.id, limit)
+                : reviewRepository.findCapFeedRecent(capId, after.createdAt, after.id, limit);
+        if (rows.isEmpty() && after.id == null) {
+            requireCap(capId);
         }
-        
-        List<Review> reviews;
-        if ("rating".equals(sortBy)) {
-            reviews = reviewRepository.findByCapOrderByRatingDescCreatedAtDesc(cap);
-        } else {
-            reviews = reviewRepository.findByCapOrderByCreatedAtDesc(cap);
-        }
-        
-        return reviews.stream()
-                .map(ReviewResponse::new)
-                .collect(Collectors.toList());
+        return toPage(rows, limit.getPageSize() - 1, byRating);
     }
     
-    // 포토 리뷰만 조회
+    // 포토 리뷰만 조회 (최신순, 키셋 페이지)
     @Transactional(readOnly = true)
-    public List<ReviewResponse> getPhotoReviewsByCap(Long capId) {
-        Cap cap = capService.findById(capId);
-        if (cap == null) {
-            throw new IllegalArgumentException("상품을 찾을 수 없습니다.");
+    public ReviewPageResponse getPhotoReviewsByCap(Long capId, String cursor, int size) {
+        FeedCursor after = FeedCursor.parse(cursor, false);
+        Pageable limit = pageLimit(size);
+        List<ReviewResponse> rows = reviewRepository.findCapPhotoFeed(capId, after.createdAt, after.id, limit);
+        if (rows.isEmpty() && after.id == null) {
+            requireCap(capId);
         }
-        
-        List<Review> reviews = reviewRepository.findPhotoReviewsByCap(cap);
-        return reviews.stream()
-                .map(ReviewResponse::new)
-                .collect(Collectors.toList());
+        return toPage(rows, limit.getPageSize() - 1, false);
     }
     
-    // 특정 사용자의 모든 리뷰 조회
+    // 특정 사용자의 리뷰 (최신순, 키셋 페이지)
     @Transactional(readOnly = true)
-    public List<ReviewResponse> getReviewsByUser(Long userId) {
-        User user = userService.findById(userId);
-        if (user == null) {
+    public ReviewPageResponse getReviewsByUser(Long userId, String cursor, int size) {
+        FeedCursor after = FeedCursor.parse(cursor, false);
+        Pageable limit = pageLimit(size);
+        List<ReviewResponse> rows = reviewRepository.findUserFeed(userId, after.createdAt, after.id, limit);
+        if (rows.isEmpty() && after.id == null && userService.findById(userId) == null) {
             throw new IllegalArgumentException("사용자를 찾을 수 없습니다.");
         }
-        
-        List<Review> reviews = reviewRepository.findByUserOrderByCreatedAtDesc(user);
-        return reviews.stream()
-                .map(ReviewResponse::new)
-                .collect(Collectors.toList());
+        return toPage(rows, limit.getPageSize() - 1, false);
     }
     
-    // 특정 상품의 리뷰 통계 조회
+    // 특정 상품의 리뷰 통계 조회 (cap_review_stats 기본키 조회 한 번)
     @Transactional(readOnly = true)
     public ReviewStatistics getReviewStatistics(Long capId) {
-        Cap cap = capService.findById(capId);
-        if (cap == null) {
-            throw new IllegalArgumentException("상품을 찾을 수 없습니다.");
-        }
-        
-        // 평균 별점
-        Double avgRating = reviewRepository.getAverageRatingByCap(cap);
-        double averageRating = avgRating != null ? avgRating : 0.0;
-        
-        // 전체 리뷰 수
-        long totalReviews = reviewRepository.countByCap(cap);
-        
-        // 포토 리뷰 수
-        long photoReviews = reviewRepository.findPhotoReviewsByCap(cap).size();
-        
-        ReviewStatistics statistics = new ReviewStatistics(averageRating, totalReviews, photoReviews);
-        
-        // 별점별 리뷰 수
-        List<Object[]> ratingCounts = reviewRepository.countByRatingGroupByCap(cap);
-        Map<Integer, Long> distribution = ratingCounts.stream()
-                .collect(Collectors.toMap(
-                    arr -> (Integer) arr[0],
-                    arr -> (Long) arr[1]
-                ));
-        statistics.setRatingDistribution(distribution);
-        
-        return statistics;
+        return capReviewStatsService.getStatistics(capId).orElseGet(() -> {
+            // 통계 행이 없으면 리뷰가 없는 상품 (없는 상품이면 오류)
+            if (capService.findById(capId) == null) {
+                throw new IllegalArgumentException("상품을 찾을 수 없습니다.");
+            }
+            return new ReviewStatistics(0.0, 0, 0);
+        });
     }
     
     // 리뷰 단일 조회
@@ -241,13 +226,90 @@ public class ReviewService {
         return new ReviewResponse(review);
     }
 
-    // 모든 리뷰 조회 (상품 구분 없이, 최신순)
+    // 모든 리뷰 조회 (상품 구분 없이, 최신순, 키셋 페이지)
     @Transactional(readOnly = true)
-    public List<ReviewResponse> getAllReviews() {
-        List<Review> reviews = reviewRepository.findAll();
-        return reviews.stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .map(ReviewResponse::new)
-                .collect(Collectors.toList());
+    public ReviewPageResponse getAllReviews(String cursor, int size) {
+        FeedCursor after = FeedCursor.parse(cursor, false);
+        Pageable limit = pageLimit(size);
+        return toPage(reviewRepository.findFeed(after.createdAt, after.id, limit), limit.getPageSize() - 1, false);
+    }
+
+    // 한 건 더 읽어서 다음 페이지 존재 여부 판단 (count 쿼리 없음)
+    private Pageable pageLimit(int size) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)) + 1);
+    }
+
+    // 첫 페이지가 비었을 때만 상품 존재 확인 (없는 상품이면 오류)
+    private void requireCap(Long capId) {
+        if (capService.findById(capId) == null) {
+            throw new IllegalArgumentException("상품을 찾을 수 없습니다.");
+        }
+    }
+
+    private ReviewPageResponse toPage(List<ReviewResponse> rows, int pageSize, boolean byRating) {
+        boolean hasNext = rows.size() > pageSize;
+        List<ReviewResponse> items = hasNext ? rows.subList(0, pageSize) : rows;
+        fillDetails(items);
+        String nextCursor = null;
+        if (hasNext) {
+            ReviewResponse last = items.get(items.size() - 1);
+            nextCursor = (byRating ? last.getRating() + "_" : "") + last.getCreatedAt() + "_" + last.getId();
+        }
+        return new ReviewPageResponse(items, nextCursor, hasNext);
+    }
+
+    // 페이지 단위로 이미지 한 번, 구매 사이즈 한 번 (리뷰마다 지연 로딩하지 않음)
+    private void fillDetails(List<ReviewResponse> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Long> reviewIds = items.stream().map(ReviewResponse::getId).collect(Collectors.toList());
+        Map<Long, List<String>> images = new HashMap<>();
+        for (Object[] row : reviewRepository.findImageUrlsByReviewIds(reviewIds)) {
+            images.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        Set<Long> orderIds = items.stream().map(ReviewResponse::getOrderId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<String, String> sizes = new HashMap<>(); // "orderId_capId" -> 사이즈
+        if (!orderIds.isEmpty()) {
+            for (Object[] row : orderItemRepository.findSizesByOrderIds(orderIds)) {
+                sizes.putIfAbsent(row[0] + "_" + row[1], (String) row[2]);
+            }
+        }
+
+        for (ReviewResponse item : items) {
+            item.fillDetails(images.getOrDefault(item.getId(), new ArrayList<>()),
+                    sizes.get(item.getOrderId() + "_" + item.getCapId()));
+        }
+    }
+
+    // 커서: 최신순 "작성시각_id", 별점순 "별점_작성시각_id" (첫 페이지는 null)
+    private static final class FeedCursor {
+        private Integer rating;
+        private LocalDateTime createdAt;
+        private Long id;
+
+        static FeedCursor parse(String cursor, boolean byRating) {
+            FeedCursor parsed = new FeedCursor();
+            if (cursor == null || cursor.isBlank()) {
+                return parsed;
+            }
+            String[] parts = cursor.split("_");
+            if (parts.length != (byRating ? 3 : 2)) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+            }
+            try {
+                int i = 0;
+                if (byRating) {
+                    parsed.rating = Integer.valueOf(parts[i++]);
+                }
+                parsed.createdAt = LocalDateTime.parse(parts[i++]);
+                parsed.id = Long.valueOf(parts[i]);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+            }
+            return parsed;
+        }
     }
 }
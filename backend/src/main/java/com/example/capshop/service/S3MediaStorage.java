@@ -0,0 +1,187 @@
+package com.example.capshop.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.capshop.dto.StoredMedia;
+
+/**
+ * S3 호환 오브젝트 스토리지 저장소 (AWS S3, MinIO 등)
+ * SDK 없이 path-style URL + AWS Signature V4 로 PUT/HEAD/DELETE 만 사용한다.
+ * 업로드 시 계산한 내용 해시를 x-amz-content-sha256 으로 그대로 보내므로 파일을 다시 읽지 않는다.
+ * 객체 키: {namespace}/ab/cd/{해시}.{확장자}
+ */
+@Service
+@ConditionalOnProperty(name = "app.media.storage", havingValue = "s3")
+public class S3MediaStorage implements MediaStorage {
+
+    private static final String EMPTY_PAYLOAD_HASH =
+            "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter DATE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final String publicBaseUrl;
+
+    public S3MediaStorage(@Value("${app.media.s3.endpoint}") String endpoint,
+                          @Value("${app.media.s3.bucket}") String bucket,
+                          @Value("${app.media.s3.region:us-east-1}") String region,
+                          @Value("${app.media.s3.access-key}") String accessKey,
+                          @Value("${app.media.s3.secret-key}") String secretKey,
+                          @Value("${app.media.s3.public-base-url:}") String publicBaseUrl) {
+        this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.publicBaseUrl = publicBaseUrl.isBlank() ? this.endpoint + "/" + bucket : publicBaseUrl;
+    }
+
+    @Override
+    public StoredMedia store(String namespace, MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile("upload-", ".part");
+        try {
+            String hash = MediaKeys.copyWithHash(file, temp);
+            String key = MediaKeys.key(hash, file.getOriginalFilename());
+            String objectKey = objectKey(namespace, key);
+            long size = Files.size(temp);
+
+            // 이미 같은 내용이 있으면 업로드 생략
+            if (send("HEAD", objectKey, EMPTY_PAYLOAD_HASH, HttpRequest.BodyPublishers.noBody(), null) == 200) {
+                return new StoredMedia(key, url(namespace, key), size, true);
+            }
+            int status = send("PUT", objectKey, hash, HttpRequest.BodyPublishers.ofFile(temp),
+                    MediaServingService.contentType(key));
+            if (status / 100 != 2) {
+                throw new IOException("오브젝트 스토리지 업로드 실패: status=" + status);
+            }
+            return new StoredMedia(key, url(namespace, key), size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public String url(String namespace, String key) {
+        return publicBaseUrl + "/" + objectKey(namespace, key);
+    }
+
+    @Override
+    public boolean delete(String namespace, String key) throws IOException {
+        if (!MediaKeys.isContentKey(key)) {
+            return false;
+        }
+        String objectKey = objectKey(namespace, key);
+        if (send("HEAD", objectKey, EMPTY_PAYLOAD_HASH, HttpRequest.BodyPublishers.noBody(), null) != 200) {
+            return false;
+        }
+        int status = send("DELETE", objectKey, EMPTY_PAYLOAD_HASH, HttpRequest.BodyPublishers.noBody(), null);
+        return status / 100 == 2;
+    }
+
+    @Override
+    public Path localRoot(String namespace) {
+        return null;
+    }
+
+    @Override
+    public String localPath(String namespace, String key) {
+        return null;
+    }
+
+    private String objectKey(String namespace, String key) {
+        if (!MediaKeys.isContentKey(key)) {
+            throw new IllegalArgumentException("잘못된 미디어 키입니다: " + key);
+        }
+        return namespace + "/" + MediaKeys.shardPath(key);
+    }
+
+    // 서명한 요청을 보내고 상태 코드 반환
+    private int send(String method, String objectKey, String payloadHash,
+                     HttpRequest.BodyPublisher body, String contentType) throws IOException {
+        URI uri = URI.create(endpoint + "/" + bucket + "/" + objectKey);
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String amzDate = AMZ_DATE.format(now);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(60))
+                .method(method, body)
+                .header("x-amz-date", amzDate)
+                .header("x-amz-content-sha256", payloadHash)
+                .header("Authorization", authorization(method, uri, amzDate, DATE_STAMP.format(now), payloadHash));
+        if (contentType != null) {
+            builder.header("Content-Type", contentType);
+        }
+        try {
+            return httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("오브젝트 스토리지 요청이 중단되었습니다.", e);
+        }
+    }
+
+    // AWS Signature V4 (host, x-amz-content-sha256, x-amz-date 헤더 서명)
+    private String authorization(String method, URI uri, String amzDate, String dateStamp, String payloadHash) {
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalRequest = method + "\n"
+                + uri.getRawPath() + "\n"
+                + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\n"
+                + signedHeaders + "\n"
+                + payloadHash;
+        String scope = dateStamp + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+                + HexFormat.of().formatHex(MediaKeys.sha256().digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), dateStamp);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + signedHeaders
+                + ", Signature=" + signature;
+    }
+
+    private byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,15 +1,15 @@
 package com.example.capshop.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.YearMonth;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.example.capshop.domain.order.CheckOut;
 import com.example.capshop.domain.Status;
-import com.example.capshop.domain.order.Order;
 import com.example.capshop.repository.CheckOutRepository;
 import com.example.capshop.repository.OrderRepository;
 
@@ -24,72 +24,155 @@ public class ScheduledService {
     private final OrderRepository orderRepository;
     private final CheckOutRepository checkOutRepository;
     private final UserCouponService userCouponService;
+    private final StockReservationService stockReservationService;
+    private final PaymentConfirmService paymentConfirmService;
+    private final BatchJobRunner batchJobRunner;
+    private final SchedulerLockService schedulerLockService;
+    private final CapReviewStatsService capReviewStatsService;
+    private final PointsService pointsService;
+    
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    
+    // 여러 서버가 같이 떠 있어도 작업마다 잠금을 잡은 한 서버에서만 실행
+    // 일 단위 작업: 잠금 5분(실행 중 연장), 끝나도 5분 유지 / 분 단위 작업: 잠금 2분, 최소 30초 유지
+    private static final Duration DAILY_LEASE = Duration.ofMinutes(5);
+    private static final Duration DAILY_LOCK_AT_LEAST = Duration.ofMinutes(5);
+    private static final Duration MINUTELY_LEASE = Duration.ofMinutes(2);
+    private static final Duration MINUTELY_LOCK_AT_LEAST = Duration.ofSeconds(30);
     
     /**
      * 자동 구매확정 처리
      * 배송 완료 후 7일이 지난 주문들을 자동으로 구매확정 처리
-     * 매일 새벽 3시에 실행
+     * 매일 새벽 3시에 실행 (묶음마다 커밋, 중간에 멈추면 다음 실행에서 이어서 처리)
      */
     @Scheduled(cron = "0 0 3 * * *")
-    @Transactional
     public void autoConfirmPurchase() {
-        log.info("=== 자동 구매확정 작업 시작 ===");
-        
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        
-        // 배송 완료 후 7일이 지난, 아직 구매확정되지 않은 주문들 조회
-        List<Order> ordersToConfirm = orderRepository.findByStatusAndDeliveredAtBeforeAndConfirmedFalse(
-            Status.DELIVERED, sevenDaysAgo);
-        
-        int confirmedCount = 0;
-        for (Order order : ordersToConfirm) {
-            try {
-                order.confirmPurchase();
-                orderRepository.save(order);
-                confirmedCount++;
-                log.info("자동 구매확정 처리: 주문번호={}, 사용자={}", 
-                        order.getOrderId(), order.getUser().getName());
-            } catch (Exception e) {
-                log.error("자동 구매확정 처리 실패: 주문번호={}, 오류={}", 
-                         order.getOrderId(), e.getMessage());
-            }
-        }
-        
-        log.info("=== 자동 구매확정 작업 완료: {}건 처리 ===", confirmedCount);
+        schedulerLockService.runExclusively("autoConfirmPurchase", DAILY_LEASE, DAILY_LOCK_AT_LEAST, () -> {
+            log.info("=== 자동 구매확정 작업 시작 ===");
+            
+            LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
+            long confirmedCount = batchJobRunner.run("autoConfirmPurchase", BATCH_CHUNK_SIZE,
+                    (afterId, page) -> orderRepository.findConfirmableIds(Status.DELIVERED, sevenDaysAgo, afterId, page),
+                    ids -> orderRepository.confirmByIds(ids, Status.DELIVERED, LocalDateTime.now()));
+            
+            log.info("=== 자동 구매확정 작업 완료: {}건 처리 ===", confirmedCount);
+        });
     }
     
     /**
      * 오래된 Checkout 데이터 자동 삭제
-     * 생성 후 24시간이 지난 Checkout 데이터들을 삭제
+     * 생성 후 24시간이 지난 Checkout 데이터들을 상품 목록과 함께 묶음 단위로 삭제
      * 매일 새벽 2시에 실행
      */
     @Scheduled(cron = "0 0 2 * * *")
-    @Transactional
     public void cleanupOldCheckouts() {
-        log.info("=== Checkout 정리 작업 시작 ===");
-        
-        LocalDateTime oneDayAgo = LocalDateTime.now().minusHours(24);
-        
-        // 24시간 전에 생성된 Checkout 데이터들 조회
-        List<CheckOut> oldCheckouts = checkOutRepository.findByCreatedAtBefore(oneDayAgo);
-        
-        if (!oldCheckouts.isEmpty()) {
-            checkOutRepository.deleteAll(oldCheckouts);
-            log.info("=== Checkout 정리 작업 완료: {}건 삭제 ===", oldCheckouts.size());
-        } else {
-            log.info("=== Checkout 정리 작업 완료: 삭제할 데이터 없음 ===");
-        }
+        schedulerLockService.runExclusively("cleanupOldCheckouts", DAILY_LEASE, DAILY_LOCK_AT_LEAST, () -> {
+            log.info("=== Checkout 정리 작업 시작 ===");
+            
+            LocalDateTime oneDayAgo = LocalDateTime.now().minusHours(24);
+            long deletedCount = batchJobRunner.run("cleanupOldCheckouts", BATCH_CHUNK_SIZE,
+                    (afterId, page) -> checkOutRepository.findIdsCreatedBefore(oneDayAgo, afterId, page),
+                    ids -> {
+                        checkOutRepository.deleteItemsByCheckOutIds(ids);
+                        return checkOutRepository.deleteByIds(ids);
+                    });
+            
+            log.info("=== Checkout 정리 작업 완료: {}건 삭제 ===", deletedCount);
+        });
+    }
+    
+    /**
+     * 만료된 재고 홀드 해제
+     * 결제되지 않고 TTL이 지난 체크아웃 홀드를 한 번에 풀어 다시 구매 가능하게 함
+     * 1분마다 실행
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void releaseExpiredStockHolds() {
+        schedulerLockService.runExclusively("releaseExpiredStockHolds", MINUTELY_LEASE, MINUTELY_LOCK_AT_LEAST, () -> {
+            int released = stockReservationService.releaseExpiredHolds(LocalDateTime.now());
+            if (released > 0) {
+                log.info("만료된 재고 홀드 해제: {}건", released);
+            }
+        });
+    }
+    
+    /**
+     * 중간에 멈춘 결제 승인 복구
+     * 서버 재시작 등으로 토스 승인/주문 생성/보정 단계에서 멈춘 결제를 이어서 처리
+     * 1분마다 실행
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void recoverPaymentAttempts() {
+        schedulerLockService.runExclusively("recoverPaymentAttempts", MINUTELY_LEASE, MINUTELY_LOCK_AT_LEAST, () -> {
+            int recovered = paymentConfirmService.recoverStale(LocalDateTime.now());
+            if (recovered > 0) {
+                log.info("멈춘 결제 복구 시도: {}건", recovered);
+            }
+        });
     }
     
     /**
      * 만료된 쿠폰 자동 EXPIRED 처리
-     * 1분마다 실행 (테스트용)
+     * 매일 자정에 실행 (묶음마다 별도 트랜잭션이므로 여기서는 트랜잭션을 열지 않음)
      */
     @Scheduled(cron = "0 0 0 * * *")
-    @Transactional
     public void autoExpireCoupons() {
-        log.info("=== 만료된 쿠폰 자동 EXPIRED 작업 시작 ===");
-        int expiredCount = userCouponService.expireOldCoupons();
-        log.info("만료 처리된 쿠폰 개수: {}", expiredCount);
+        schedulerLockService.runExclusively("autoExpireCoupons", DAILY_LEASE, DAILY_LOCK_AT_LEAST, () -> {
+            log.info("=== 만료된 쿠폰 자동 EXPIRED 작업 시작 ===");
+            int expiredCount = userCouponService.expireOldCoupons();
+            log.info("만료 처리된 쿠폰 개수: {}", expiredCount);
+        });
+    }
+    
+    /**
+     * 상품별 리뷰 통계 재계산
+     * 증감 갱신이 어긋났을 경우를 대비해 매주 일요일 새벽 5시에 리뷰 테이블 기준으로 다시 맞춤
+     */
+    @Scheduled(cron = "0 0 5 * * SUN")
+    public void rebuildReviewStats() {
+        schedulerLockService.runExclusively("rebuildReviewStats", DAILY_LEASE, DAILY_LOCK_AT_LEAST, () -> {
+            long rebuilt = capReviewStatsService.rebuildAll();
+            log.info("리뷰 통계 재계산 완료: 상품 {}개", rebuilt);
+        });
+    }
+    
+    // 통계 테이블 도입 후 첫 기동: 기존 리뷰를 한 번 채워 넣는다
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillReviewStats() {
+        if (capReviewStatsService.needsBackfill()) {
+            log.info("리뷰 통계가 비어 있어 재계산을 시작합니다.");
+            rebuildReviewStats();
+        }
+    }
+    
+    /**
+     * 적립금 월말 잔액 스냅샷
+     * 매월 1일 새벽 3시 30분에 지난달 스냅샷을 남김 (원장 이월이 끝나기 전에는 건너뜀)
+     */
+    @Scheduled(cron = "0 30 3 1 * *")
+    public void snapshotPoints() {
+        schedulerLockService.runExclusively("snapshotPoints", DAILY_LEASE, DAILY_LOCK_AT_LEAST, () -> {
+            if (pointsService.needsOpening()) {
+                log.warn("적립금 원장 이월이 끝나지 않아 스냅샷을 건너뜁니다.");
+                return;
+            }
+            YearMonth lastMonth = YearMonth.now().minusMonths(1);
+            long saved = pointsService.snapshotMonth(lastMonth);
+            log.info("적립금 스냅샷 완료: {} 사용자 {}명", lastMonth, saved);
+        });
+    }
+    
+    // 원장 도입 후 첫 기동: 기존 적립금을 원장으로 이월하고, 놓친 지난달 스냅샷을 채운다
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPointsLedger() {
+        if (pointsService.needsOpening()) {
+            schedulerLockService.runExclusively("openPointsLedger", DAILY_LEASE, DAILY_LOCK_AT_LEAST, () -> {
+                long opened = pointsService.openLedger();
+                log.info("적립금 원장 이월 완료: 사용자 {}명", opened);
+            });
+        }
+        if (!pointsService.hasSnapshot(YearMonth.now().minusMonths(1))) {
+            snapshotPoints();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package com.example.capshop.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.repository.SchedulerLockRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DB 잠금 테이블로 스케줄 작업을 여러 서버 중 한 곳에서만 실행한다. (외부 코디네이터 없음)
+ * - 잠금은 임대 시간(lease) 동안 유효하고, 작업이 도는 동안 lease/3 마다 연장한다.
+ * - 가져갈 때마다 fencingToken 이 오르며, 묶음 쓰기는 checkFence() 로 같은 트랜잭션에서 토큰을 확인한다.
+ *   (GC 멈춤 등으로 잠금을 잃은 서버의 늦은 쓰기는 커밋되지 않음)
+ * - 끝나도 lockAtLeast 까지는 잡아 두어, 서버 간 시계 차이로 같은 주기를 두 번 실행하지 않게 한다.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+    private final Set<String> knownLocks = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "scheduler-lock-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${app.scheduler.instance-id:}") String instanceId) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.instanceId = instanceId == null || instanceId.isBlank() ? defaultInstanceId() : instanceId;
+    }
+
+    /**
+     * 잠금을 얻으면 작업을 실행하고, 다른 서버가 잡고 있으면 건너뛴다.
+     * @param lease       연장 없이 잠금이 유지되는 시간 (서버가 죽으면 이 시간 뒤 다른 서버가 가져감)
+     * @param lockAtLeast 작업이 빨리 끝나도 잠금을 유지할 최소 시간 (작업 주기보다 짧게)
+     * @return 이 서버에서 실행했으면 true
+     */
+    public boolean runExclusively(String name, Duration lease, Duration lockAtLeast, Runnable task) {
+        Lease acquired = tryAcquire(name, lease, lockAtLeast);
+        if (acquired == null) {
+            log.debug("[{}] 다른 서버에서 실행 중 - 건너뜀", name);
+            return false;
+        }
+
+        long period = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(() -> {
+            if (!acquired.lost && !renew(acquired)) {
+                acquired.lost = true;
+                log.warn("[{}] 잠금 연장 실패 - 다른 서버가 가져감 (token={})", name, acquired.token);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+
+        currentLease.set(acquired);
+        try {
+            task.run();
+        } finally {
+            currentLease.remove();
+            renewal.cancel(false);
+            release(acquired);
+        }
+        return true;
+    }
+
+    /**
+     * 현재 스레드가 잡은 잠금이 아직 유효한지 확인하고 연장한다. (잠금 밖에서 호출하면 아무것도 하지 않음)
+     * 묶음 쓰기와 같은 트랜잭션에서 호출하면 잠금 행이 커밋까지 잠겨, 그 사이 다른 서버가 가져가지 못한다.
+     */
+    public void checkFence() {
+        Lease lease = currentLease.get();
+        if (lease == null) {
+            return;
+        }
+        if (lease.lost || !renew(lease)) {
+            lease.lost = true;
+            throw new IllegalStateException("스케줄러 잠금을 잃어 작업을 중단합니다: " + lease.name + " (token=" + lease.token + ")");
+        }
+    }
+
+    // 관리용: 작업별 잠금 보유 서버, 만료 시각, 토큰
+    public List<Map<String, Object>> stats() {
+        return schedulerLockRepository.findAll().stream().map(lock -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("name", lock.getName());
+            stats.put("owner", lock.getOwner());
+            stats.put("lockedUntil", lock.getLockedUntil());
+            stats.put("acquiredAt", lock.getAcquiredAt());
+            stats.put("fencingToken", lock.getFencingToken());
+            return stats;
+        }).collect(Collectors.toList());
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    private Lease tryAcquire(String name, Duration lease, Duration lockAtLeast) {
+        ensureRow(name);
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (schedulerLockRepository.tryAcquire(name, instanceId, now, now.plus(lease)) == 0) {
+                return null;
+            }
+            long token = schedulerLockRepository.findFencingToken(name);
+            return new Lease(name, token, lease, now.plus(lockAtLeast));
+        });
+    }
+
+    private boolean renew(Lease lease) {
+        try {
+            Integer renewed = transactionTemplate.execute(status -> schedulerLockRepository.renew(
+                    lease.name, instanceId, lease.token, LocalDateTime.now().plus(lease.duration)));
+            return renewed != null && renewed > 0;
+        } catch (RuntimeException e) {
+            log.warn("[{}] 잠금 연장 중 오류: {}", lease.name, e.getMessage());
+            return false;
+        }
+    }
+
+    private void release(Lease lease) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime until = lease.holdUntil.isAfter(now) ? lease.holdUntil : now;
+            transactionTemplate.executeWithoutResult(status ->
+                    schedulerLockRepository.release(lease.name, instanceId, lease.token, until));
+        } catch (RuntimeException e) {
+            // 해제에 실패해도 lease 가 지나면 다른 서버가 가져간다
+            log.warn("[{}] 잠금 해제 실패: {}", lease.name, e.getMessage());
+        }
+    }
+
+    // 작업별 잠금 행이 없으면 만든다 (동시에 만들면 한쪽은 기본키 충돌 - 이미 있으니 무시)
+    private void ensureRow(String name) {
+        if (knownLocks.contains(name)) {
+            return;
+        }
+        if (!schedulerLockRepository.existsById(name)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> schedulerLockRepository.insertLock(name));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("[{}] 잠금 행이 이미 생성됨", name);
+            }
+        }
+        knownLocks.add(name);
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static final class Lease {
+        private final String name;
+        private final long token;
+        private final Duration duration;
+        private final LocalDateTime holdUntil;
+        private volatile boolean lost;
+
+        private Lease(String name, long token, Duration duration, LocalDateTime holdUntil) {
+            this.name = name;
+            this.token = token;
+            this.duration = duration;
+            this.holdUntil = holdUntil;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.capshop.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capshop.domain.StockHold;
+import com.example.capshop.dto.StockLine;
+import com.example.capshop.dto.StockReservationResult;
+import com.example.capshop.repository.StockHoldRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사이즈별 재고 차감/복구 전용 컴포넌트
+ * 엔티티를 읽고 메모리에서 빼는 대신 조건부 UPDATE 한 번으로 차감하므로
+ * 동시에 여러 명이 결제해도 재고가 음수가 되지 않는다.
+ */
+@Slf4j
+@Service
+public class StockReservationService {
+
+    // 홀드 중인 수량(reserved)은 다른 구매자가 가져갈 수 없다
+    private static final String DECREASE_SIZE_STOCK =
+            "UPDATE cap_stock SET stock = stock - ? WHERE cap_id = ? AND size = ? AND stock - reserved >= ?";
+    private static final String DECREASE_CAP_STOCK =
+            "UPDATE cap SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String INCREASE_SIZE_STOCK =
+            "UPDATE cap_stock SET stock = stock + ? WHERE cap_id = ? AND size = ?";
+    private static final String INCREASE_CAP_STOCK =
+            "UPDATE cap SET stock = stock + ? WHERE id = ?";
+    private static final String HOLD_SIZE_STOCK =
+            "UPDATE cap_stock SET reserved = reserved + ? WHERE cap_id = ? AND size = ? AND stock - reserved >= ?";
+    private static final String CONVERT_HOLD =
+            "UPDATE cap_stock SET stock = stock - ?, reserved = reserved - ? WHERE cap_id = ? AND size = ? AND reserved >= ? AND stock >= ?";
+    private static final String RELEASE_HOLD =
+            "UPDATE cap_stock SET reserved = GREATEST(reserved - ?, 0) WHERE cap_id = ? AND size = ?";
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    // 락 순서를 고정해서 여러 상품을 동시에 주문할 때 데드락을 피한다
+    private static final Comparator<StockLine> LOCK_ORDER = Comparator
+            .comparing(StockLine::getCapId)
+            .thenComparing(StockLine::getSize, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockHoldRepository stockHoldRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long holdTtlMinutes;
+
+    public StockReservationService(JdbcTemplate jdbcTemplate,
+                                   StockHoldRepository stockHoldRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.stock.hold-ttl-minutes:15}") long holdTtlMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockHoldRepository = stockHoldRepository;
+        this.eventPublisher = eventPublisher;
+        this.holdTtlMinutes = holdTtlMinutes;
+    }
+
+    /**
+     * 모든 라인을 한 번의 배치로 차감하고 라인별 성공 여부를 돌려준다.
+     * 일부 라인만 실패할 수 있으므로 호출 측 트랜잭션에서 결과를 보고 롤백 여부를 정해야 한다.
+     */
+    @Transactional
+    public StockReservationResult reserve(List<StockLine> lines) {
+        List<StockLine> ordered = lines.stream().sorted(LOCK_ORDER).collect(Collectors.toList());
+
+        List<StockLine> sized = ordered.stream().filter(StockLine::hasSize).collect(Collectors.toList());
+        List<StockLine> unsized = ordered.stream().filter(line -> !line.hasSize()).collect(Collectors.toList());
+
+        if (!sized.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(DECREASE_SIZE_STOCK, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    StockLine line = sized.get(i);
+                    ps.setInt(1, line.getQuantity());
+                    ps.setLong(2, line.getCapId());
+                    ps.setString(3, line.getSize());
+                    ps.setInt(4, line.getQuantity());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return sized.size();
+                }
+            });
+            markReserved(sized, counts);
+        }
+
+        if (!unsized.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(DECREASE_CAP_STOCK, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    StockLine line = unsized.get(i);
+                    ps.setInt(1, line.getQuantity());
+                    ps.setLong(2, line.getCapId());
+                    ps.setInt(3, line.getQuantity());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return unsized.size();
+                }
+            });
+            markReserved(unsized, counts);
+        }
+
+        publishStockChanged(lines);
+        return new StockReservationResult(lines);
+    }
+
+    /**
+     * 모든 라인을 차감하고, 하나라도 부족하면 예외를 던져 트랜잭션 전체를 롤백한다.
+     */
+    @Transactional
+    public StockReservationResult reserveAll(List<StockLine> lines) {
+        StockReservationResult result = reserve(lines);
+        if (!result.isAllReserved()) {
+            StockLine failed = result.getFailedLines().get(0);
+            log.warn("재고 차감 실패 - capId: {}, size: {}, quantity: {}",
+                    failed.getCapId(), failed.getSize(), failed.getQuantity());
+            throw new IllegalStateException("재고 부족: capId=" + failed.getCapId()
+                    + (failed.hasSize() ? " (사이즈: " + failed.getSize() + ")" : ""));
+        }
+        return result;
+    }
+
+    // 주문 취소/반품 시 재고 복구
+    @Transactional
+    public void release(List<StockLine> lines) {
+        List<StockLine> ordered = lines.stream().sorted(LOCK_ORDER).collect(Collectors.toList());
+        List<Object[]> sizedArgs = new ArrayList<>();
+        List<Object[]> unsizedArgs = new ArrayList<>();
+        for (StockLine line : ordered) {
+            if (line.hasSize()) {
+                sizedArgs.add(new Object[] { line.getQuantity(), line.getCapId(), line.getSize() });
+            } else {
+                unsizedArgs.add(new Object[] { line.getQuantity(), line.getCapId() });
+            }
+        }
+        if (!sizedArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INCREASE_SIZE_STOCK, sizedArgs);
+        }
+        if (!unsizedArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INCREASE_CAP_STOCK, unsizedArgs);
+        }
+        publishStockChanged(lines);
+    }
+
+    /**
+     * 체크아웃 생성 시 사이즈별 재고를 일정 시간 홀드한다.
+     * 실재고는 그대로 두고 reserved 카운터만 올리므로 구매 가능 재고는 stock - reserved 로 바로 읽힌다.
+     * 하나라도 홀드하지 못하면 예외를 던져 체크아웃 저장 자체를 롤백한다.
+     */
+    @Transactional
+    public void hold(Long checkOutId, List<StockLine> lines) {
+        List<StockLine> sized = lines.stream()
+                .filter(StockLine::hasSize)
+                .sorted(LOCK_ORDER)
+                .collect(Collectors.toList());
+        if (sized.isEmpty()) {
+            return;
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(HOLD_SIZE_STOCK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockLine line = sized.get(i);
+                ps.setInt(1, line.getQuantity());
+                ps.setLong(2, line.getCapId());
+                ps.setString(3, line.getSize());
+                ps.setInt(4, line.getQuantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return sized.size();
+            }
+        });
+        markReserved(sized, counts);
+
+        for (StockLine line : sized) {
+            if (!line.isReserved()) {
+                throw new IllegalStateException("재고 부족: capId=" + line.getCapId()
+                        + " (사이즈: " + line.getSize() + ")");
+            }
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(holdTtlMinutes);
+        List<StockHold> holds = sized.stream()
+                .map(line -> new StockHold(checkOutId, line.getCapId(), line.getSize(), line.getQuantity(), expiresAt))
+                .collect(Collectors.toList());
+        stockHoldRepository.saveAll(holds);
+        publishStockChanged(sized);
+    }
+
+    /**
+     * 결제 승인 시 체크아웃의 홀드를 판매로 전환한다.
+     * 홀드가 이미 만료되어 해제되었거나 사이즈가 없는 라인은 조건부 차감으로 처리한다.
+     */
+    @Transactional
+    public void commitCheckout(Long checkOutId, List<StockLine> lines) {
+        List<StockHold> holds = stockHoldRepository.findForUpdateByCheckOutId(checkOutId);
+        if (holds.isEmpty()) {
+            reserveAll(lines);
+            return;
+        }
+
+        List<StockHold> ordered = holds.stream()
+                .sorted(Comparator.comparing(StockHold::getCapId).thenComparing(StockHold::getSize))
+                .collect(Collectors.toList());
+        int[] counts = jdbcTemplate.batchUpdate(CONVERT_HOLD, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockHold hold = ordered.get(i);
+                ps.setInt(1, hold.getQuantity());
+                ps.setInt(2, hold.getQuantity());
+                ps.setLong(3, hold.getCapId());
+                ps.setString(4, hold.getSize());
+                ps.setInt(5, hold.getQuantity());
+                ps.setInt(6, hold.getQuantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ordered.size();
+            }
+        });
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] <= 0) {
+                StockHold hold = ordered.get(i);
+                throw new IllegalStateException("재고 부족: capId=" + hold.getCapId()
+                        + " (사이즈: " + hold.getSize() + ")");
+            }
+        }
+        stockHoldRepository.deleteAllInBatch(holds);
+        eventPublisher.publishEvent(CapChangedEvent.stockOnly(
+                holds.stream().map(StockHold::getCapId).collect(Collectors.toSet())));
+
+        // 홀드 대상이 아닌 사이즈 없는 상품은 기존 방식대로 차감
+        List<StockLine> unsized = lines.stream().filter(line -> !line.hasSize()).collect(Collectors.toList());
+        if (!unsized.isEmpty()) {
+            reserveAll(unsized);
+        }
+    }
+
+    /**
+     * 만료된 홀드를 묶어서 해제한다. (capId, size)별로 합산해 한 번의 배치로 reserved 를 줄인다.
+     * @return 해제된 홀드 수
+     */
+    @Transactional
+    public int releaseExpiredHolds(LocalDateTime now) {
+        int released = 0;
+        List<StockHold> expired;
+        do {
+            expired = stockHoldRepository.findExpiredForUpdate(now, PageRequest.of(0, SWEEP_BATCH_SIZE));
+            if (expired.isEmpty()) {
+                break;
+            }
+
+            Map<String, Object[]> totals = new LinkedHashMap<>();
+            expired.stream()
+                    .sorted(Comparator.comparing(StockHold::getCapId).thenComparing(StockHold::getSize))
+                    .forEach(hold -> totals.merge(hold.getCapId() + "|" + hold.getSize(),
+                            new Object[] { hold.getQuantity(), hold.getCapId(), hold.getSize() },
+                            (a, b) -> new Object[] { (int) a[0] + (int) b[0], a[1], a[2] }));
+            jdbcTemplate.batchUpdate(RELEASE_HOLD, new ArrayList<>(totals.values()));
+            stockHoldRepository.deleteAllInBatch(expired);
+            eventPublisher.publishEvent(CapChangedEvent.stockOnly(
+                    expired.stream().map(StockHold::getCapId).collect(Collectors.toSet())));
+
+            released += expired.size();
+        } while (expired.size() == SWEEP_BATCH_SIZE);
+        return released;
+    }
+
+    // 커밋 후 상품 조회 캐시에서 해당 상품 재고를 비우도록 알림
+    private void publishStockChanged(List<StockLine> lines) {
+        eventPublisher.publishEvent(CapChangedEvent.stockOnly(
+                lines.stream().map(StockLine::getCapId).collect(Collectors.toSet())));
+    }
+
+    private void markReserved(List<StockLine> batch, int[] counts) {
+        for (int i = 0; i < batch.size(); i++) {
+            // 갱신된 행이 없으면 조건(stock >= quantity)에 걸린 것 → 재고 부족
+            batch.get(i).setReserved(counts[i] > 0);
+        }
+    }
+}
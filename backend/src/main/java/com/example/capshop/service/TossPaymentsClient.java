@@ -0,0 +1,325 @@
+package com.example.capshop.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 토스페이먼츠 API 클라이언트 (결제 승인 / 취소 / 부분 환불)
+ * - HttpClient 하나를 재사용해서 keep-alive 커넥션을 풀링한다.
+ * - 연결/응답 타임아웃을 명시하고, 네트워크 오류·5xx·429 는 Idempotency-Key 를 붙여 백오프 재시도한다.
+ *   (같은 키로 다시 보내면 토스가 첫 요청 결과를 그대로 돌려주므로 이중 승인/이중 취소가 생기지 않는다)
+ * - 연속 실패가 임계치를 넘으면 일정 시간 호출을 막는다. (서킷 브레이커)
+ * - 작업별 응답 시간 히스토그램을 남긴다.
+ * DB 를 건드리지 않으므로 트랜잭션 밖에서 호출해야 커넥션을 붙잡고 기다리지 않는다.
+ */
+@Slf4j
+@Service
+public class TossPaymentsClient {
+
+    static final String CONFIRM = "confirm";
+    static final String CANCEL = "cancel";
+
+    // 응답 시간 히스토그램 구간 상한 (ms), 마지막 구간은 그 이상
+    private static final long[] LATENCY_BUCKETS_MS = {50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String authorization;
+    private final Duration readTimeout;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+
+    public TossPaymentsClient(
+            @Value("${app.toss.base-url:https://api.tosspayments.com}") String baseUrl,
+            @Value("${app.toss.secret-key:test_gsk_docs_OaPz8L5KdmQXkzRz3y47BMw6}") String secretKey,
+            @Value("${app.toss.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${app.toss.read-timeout-ms:15000}") long readTimeoutMs,
+            @Value("${app.toss.max-attempts:3}") int maxAttempts,
+            @Value("${app.toss.backoff-ms:200}") long backoffMillis,
+            @Value("${app.toss.circuit-failure-threshold:5}") int circuitFailureThreshold,
+            @Value("${app.toss.circuit-open-seconds:30}") long circuitOpenSeconds) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        // 시크릿 키 + ":" 를 base64 인코딩 (비밀번호 없음)
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((secretKey + ":").getBytes(StandardCharsets.UTF_8));
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+        this.circuitBreaker = new CircuitBreaker(circuitFailureThreshold, Duration.ofSeconds(circuitOpenSeconds));
+        latencies.put(CONFIRM, new LatencyHistogram());
+        latencies.put(CANCEL, new LatencyHistogram());
+    }
+
+    /** 결제 최종 승인. 토스 결제 객체(JSON)를 그대로 반환 */
+    public JsonNode confirm(String paymentKey, String orderId, long amount) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("paymentKey", paymentKey);
+        body.put("orderId", orderId);
+        body.put("amount", amount);
+        return post(CONFIRM, "/v1/payments/confirm", body, "confirm-" + paymentKey);
+    }
+
+    /** 전액 취소 */
+    public JsonNode cancel(String paymentKey, String cancelReason) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("cancelReason", cancelReason);
+        return post(CANCEL, "/v1/payments/" + paymentKey + "/cancel", body, "cancel-" + paymentKey);
+    }
+
+    /** 부분 취소 (반품 환불) - 같은 결제에 금액이 다른 환불은 다른 요청으로 본다 */
+    public JsonNode cancel(String paymentKey, String cancelReason, long cancelAmount) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("cancelReason", cancelReason);
+        body.put("cancelAmount", cancelAmount);
+        return post(CANCEL, "/v1/payments/" + paymentKey + "/cancel", body,
+                "cancel-" + paymentKey + "-" + cancelAmount);
+    }
+
+    /** 관리용 지표: 서킷 상태, 작업별 호출/실패 수와 응답 시간 분포 */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuit", circuitBreaker.state());
+        latencies.forEach((operation, histogram) -> stats.put(operation, histogram.snapshot()));
+        return stats;
+    }
+
+    private JsonNode post(String operation, String path, JsonNode body, String idempotencyKey) {
+        if (!circuitBreaker.allowRequest()) {
+            throw new TossPaymentException(-1, "CIRCUIT_OPEN",
+                    "토스 결제 서버 호출이 일시적으로 차단되었습니다. 잠시 후 다시 시도해주세요.", false);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(readTimeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
+                .build();
+        LatencyHistogram histogram = latencies.get(operation);
+
+        TossPaymentException last = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (attempt > 1) {
+                sleepBackoff(attempt);
+            }
+            long started = System.nanoTime();
+            try {
+                HttpResponse<String> response = httpClient.send(request,
+                        HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                histogram.record(System.nanoTime() - started);
+                int status = response.statusCode();
+                if (status / 100 == 2) {
+                    circuitBreaker.recordSuccess();
+                    return parse(status, response.body());
+                }
+                last = errorResponse(status, response.body());
+                if (status < 500 && status != 429) {
+                    // 4xx 는 요청 자체가 거절된 것이라 재시도해도 같다 (서버는 정상이므로 서킷 실패로 세지 않음)
+                    circuitBreaker.recordSuccess();
+                    histogram.recordFailure();
+                    throw last;
+                }
+            } catch (HttpTimeoutException e) {
+                histogram.record(System.nanoTime() - started);
+                last = new TossPaymentException(-1, "TIMEOUT", "토스 응답 시간 초과: " + e.getMessage(), true);
+            } catch (IOException e) {
+                histogram.record(System.nanoTime() - started);
+                last = new TossPaymentException(-1, "NETWORK_ERROR", "토스 통신 오류: " + e.getMessage(), true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                histogram.recordFailure();
+                circuitBreaker.releaseTrial();
+                throw new TossPaymentException(-1, "INTERRUPTED", "토스 요청이 중단되었습니다.", true);
+            }
+            log.warn("토스 {} 호출 실패 ({}/{}) - {}", operation, attempt, maxAttempts, last.getMessage());
+        }
+        circuitBreaker.recordFailure();
+        histogram.recordFailure();
+        throw last;
+    }
+
+    private JsonNode parse(int status, String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new TossPaymentException(status, "INVALID_RESPONSE", "토스 응답을 해석할 수 없습니다: " + e.getMessage(), true);
+        }
+    }
+
+    private TossPaymentException errorResponse(int status, String body) {
+        String code = "HTTP_" + status;
+        String message = body;
+        try {
+            JsonNode error = objectMapper.readTree(body);
+            if (error.hasNonNull("code")) {
+                code = error.get("code").asText();
+            }
+            if (error.hasNonNull("message")) {
+                message = error.get("message").asText();
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // JSON 이 아닌 오류 응답(게이트웨이 등)은 본문 그대로
+        }
+        // 5xx 는 토스 쪽에서 처리됐는지 알 수 없음
+        return new TossPaymentException(status, code, message, status >= 500 || status == 429);
+    }
+
+    // 지수 백오프 + 지터 (200ms, 400ms, 800ms ... 의 50~100%)
+    private void sleepBackoff(int attempt) {
+        long delay = backoffMillis << (attempt - 2);
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.releaseTrial();
+            throw new TossPaymentException(-1, "INTERRUPTED", "토스 요청이 중단되었습니다.", true);
+        }
+    }
+
+    /**
+     * 토스 호출 실패
+     * outcomeUnknown 이 true 면 (타임아웃, 5xx) 토스에서 실제로 처리됐을 수도 있으므로
+     * 같은 Idempotency-Key 로 다시 확인하거나 취소로 보정해야 한다.
+     */
+    @Getter
+    public static class TossPaymentException extends RuntimeException {
+        private final int status;
+        private final String code;
+        private final boolean outcomeUnknown;
+
+        public TossPaymentException(int status, String code, String message, boolean outcomeUnknown) {
+            super(message);
+            this.status = status;
+            this.code = code;
+            this.outcomeUnknown = outcomeUnknown;
+        }
+    }
+
+    // 연속 실패 횟수 기반 서킷 브레이커 (OPEN 시간이 지나면 한 건만 시험 호출)
+    static final class CircuitBreaker {
+        private final int failureThreshold;
+        private final long openNanos;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean open;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, Duration openDuration) {
+            this.failureThreshold = Math.max(1, failureThreshold);
+            this.openNanos = openDuration.toNanos();
+        }
+
+        synchronized boolean allowRequest() {
+            if (!open) {
+                return true;
+            }
+            if (System.nanoTime() - openedAt < openNanos || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true; // HALF_OPEN
+            return true;
+        }
+
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+            open = false;
+            trialInFlight = false;
+        }
+
+        synchronized void recordFailure() {
+            consecutiveFailures++;
+            if (trialInFlight || consecutiveFailures >= failureThreshold) {
+                if (!open) {
+                    log.error("토스 서킷 OPEN - 연속 실패 {}회", consecutiveFailures);
+                }
+                open = true;
+                openedAt = System.nanoTime();
+                trialInFlight = false;
+            }
+        }
+
+        // 시험 호출이 결과 없이 끝났을 때 (중단 등) 다음 요청이 다시 시험할 수 있게
+        synchronized void releaseTrial() {
+            trialInFlight = false;
+        }
+
+        synchronized String state() {
+            if (!open) {
+                return "CLOSED";
+            }
+            return System.nanoTime() - openedAt < openNanos ? "OPEN" : "HALF_OPEN";
+        }
+    }
+
+    private static final class LatencyHistogram {
+        private final LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS_MS.length + 1];
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private LatencyHistogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos) {
+            long millis = nanos / 1_000_000;
+            int i = 0;
+            while (i < LATENCY_BUCKETS_MS.length && millis > LATENCY_BUCKETS_MS[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            calls.increment();
+            totalNanos.add(nanos);
+        }
+
+        private void recordFailure() {
+            failures.increment();
+        }
+
+        private Map<String, Object> snapshot() {
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+                histogram.put("le" + LATENCY_BUCKETS_MS[i] + "ms", buckets[i].sum());
+            }
+            histogram.put("gt" + LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1] + "ms",
+                    buckets[LATENCY_BUCKETS_MS.length].sum());
+            long count = calls.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("calls", count);
+            snapshot.put("failures", failures.sum());
+            snapshot.put("avgMillis", count == 0 ? 0 : totalNanos.sum() / count / 1_000_000);
+            snapshot.put("histogram", histogram);
+            return snapshot;
+        }
+    }
+}
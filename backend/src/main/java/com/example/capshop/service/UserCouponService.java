@@ -1,22 +1,34 @@
 package com.example.capshop.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.capshop.domain.Coupon;
 import com.example.capshop.domain.CouponStatus;
 import com.example.capshop.domain.User;
 import com.example.capshop.domain.UserCoupon;
 import com.example.capshop.domain.order.Order;
+import com.example.capshop.dto.QuotableCoupon;
 import com.example.capshop.dto.UserCouponResponse;
 import com.example.capshop.repository.UserCouponRepository;
 import com.example.capshop.repository.UserRepository;
+import com.example.capshop.util.TtlCache;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserCouponService {
@@ -24,6 +36,21 @@ public class UserCouponService {
     private final UserCouponRepository userCouponRepository;
     private final UserRepository userRepository;
     private final CouponService couponService;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+    
+    private static final int EXPIRE_CHUNK_SIZE = 1000;
+    private static final Duration EXPIRE_MAX_DURATION = Duration.ofMinutes(10);
+    
+    // 쿠폰 만료 작업 진행 상황
+    private final AtomicBoolean expiryRunning = new AtomicBoolean();
+    private final AtomicLong expiryProgress = new AtomicLong();
+    private final AtomicLong expiredTotal = new AtomicLong();
+    private volatile Map<String, Object> lastExpiryRun = Map.of();
+    
+    // 견적용 사용 가능 쿠폰 목록 (사용자별). 지급/사용 시 무효화, 기간은 견적 시점에 다시 확인
+    private final TtlCache<Long, List<QuotableCoupon>> quotableCache =
+            new TtlCache<>("quotableCoupons", 10000, Duration.ofMinutes(5));
     
     // 사용자에게 쿠폰 지급
     @Transactional
@@ -41,6 +68,7 @@ public class UserCouponService {
         userCoupon.setValidFrom(userCoupon.getObtainedAt());
         userCoupon.setValidUntil(userCoupon.getObtainedAt().plusDays(30));
         UserCoupon savedUserCoupon = userCouponRepository.save(userCoupon);
+        quotableCache.invalidate(userId);
         
         return new UserCouponResponse(savedUserCoupon);
     }
@@ -61,6 +89,7 @@ public class UserCouponService {
         userCoupon.setValidFrom(userCoupon.getObtainedAt());
         userCoupon.setValidUntil(userCoupon.getObtainedAt().plusDays(30));
         UserCoupon savedUserCoupon = userCouponRepository.save(userCoupon);
+        quotableCache.invalidate(userId);
         // coupon issued successfully
         return new UserCouponResponse(savedUserCoupon);
     }
@@ -96,6 +125,13 @@ public class UserCouponService {
                 .collect(Collectors.toList());
     }
     
+    // 견적용 사용 가능 쿠폰 (캐시)
+    public List<QuotableCoupon> getQuotableCoupons(Long userId) {
+        return quotableCache.get(userId, key -> userCouponRepository.findQuotableByUserId(key).stream()
+                .map(QuotableCoupon::new)
+                .collect(Collectors.toUnmodifiableList()));
+    }
+    
     // 쿠폰 사용
     @Transactional
     public Long useCoupon(Long userCouponId, Order order) {
@@ -108,6 +144,7 @@ public class UserCouponService {
         // 쿠폰 사용 처리
         userCoupon.useCoupon(order, discountAmount);
         userCouponRepository.save(userCoupon);
+        quotableCache.invalidate(userCoupon.getUser().getId());
         
         return discountAmount;
     }
@@ -136,25 +173,77 @@ public class UserCouponService {
         // 쿠폰 사용 처리
         userCoupon.useCoupon(order, discountAmount);
         userCouponRepository.save(userCoupon);
+        quotableCache.invalidate(userCoupon.getUser().getId());
         
         return discountAmount;
     }
     
-    // 만료된 쿠폰들 정리 (스케줄러용)
-    @Transactional
+    /**
+     * 만료된 쿠폰들 정리 (스케줄러용)
+     * 만료 대상 id 를 인덱스 순서로 한 묶음씩 읽어 묶음마다 짧은 트랜잭션의 UPDATE 한 번으로 처리한다.
+     * 처리된 행은 조건에서 빠지므로 다음 묶음은 다시 앞에서부터 읽으면 되고,
+     * 시간 한도를 넘기면 멈췄다가 다음 실행에서 이어서 처리한다.
+     */
     public int expireOldCoupons() {
-    List<UserCoupon> availableCoupons = userCouponRepository.findByStatus(CouponStatus.AVAILABLE);
-
-    int expiredCount = 0;
-    for (UserCoupon userCoupon : availableCoupons) {
-
-        // isValid() = 유효기간 체크
-        if (!userCoupon.isValid()) {
-            userCoupon.expireCoupon();  // 상태를 EXPIRED 로 바꾸는 메서드라고 가정
-            expiredCount++;
+        return expireOldCoupons(LocalDateTime.now(), EXPIRE_CHUNK_SIZE, EXPIRE_MAX_DURATION);
+    }
+    
+    int expireOldCoupons(LocalDateTime now, int chunkSize, Duration maxDuration) {
+        if (!expiryRunning.compareAndSet(false, true)) {
+            log.warn("쿠폰 만료 작업이 이미 실행 중입니다.");
+            return 0;
         }
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + maxDuration.toNanos();
+        LocalDateTime startedAt = LocalDateTime.now();
+        expiryProgress.set(0);
+        int expiredCount = 0;
+        int chunks = 0;
+        boolean completed = false;
+        try {
+            while (true) {
+                List<Long> ids = userCouponRepository.findExpirableIds(now, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    completed = true;
+                    break;
+                }
+                Integer updated = transactionTemplate.execute(status -> {
+                    schedulerLockService.checkFence();
+                    return userCouponRepository.expireByIds(ids);
+                });
+                expiredCount += updated != null ? updated : 0;
+                chunks++;
+                expiryProgress.set(expiredCount);
+                if (chunks % 100 == 0) {
+                    log.info("쿠폰 만료 진행: {}건 ({}묶음)", expiredCount, chunks);
+                }
+                if (System.nanoTime() > deadline) {
+                    log.warn("쿠폰 만료 작업 시간 한도 초과, 다음 실행에서 이어서 처리: {}건 처리", expiredCount);
+                    break;
+                }
+            }
+        } finally {
+            expiryRunning.set(false);
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("startedAt", startedAt);
+            run.put("expired", expiredCount);
+            run.put("chunks", chunks);
+            run.put("durationMs", (System.nanoTime() - startNanos) / 1_000_000);
+            run.put("completed", completed);
+            lastExpiryRun = run;
+        }
+        expiredTotal.addAndGet(expiredCount);
+        return expiredCount;
     }
-    return expiredCount;
+    
+    // 쿠폰 만료 작업 지표 (진행 중 여부, 현재 진행 건수, 직전 실행 결과, 서버 기동 후 누적)
+    public Map<String, Object> expiryStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", expiryRunning.get());
+        stats.put("progress", expiryProgress.get());
+        stats.put("lastRun", lastExpiryRun);
+        stats.put("expiredTotal", expiredTotal.get());
+        return stats;
     }
     
     @Transactional
@@ -190,6 +279,7 @@ public class UserCouponService {
         // 1) 쿠폰 USED 전환(사용 주문/금액 기록)
         uc.useCoupon(order, discount);
         userCouponRepository.save(uc);
+        quotableCache.invalidate(userId);
 
         // 2) 주문에도 연결 + 합계 반영 (스냅샷 없음)
         order.applyCouponDiscount(discount, uc);
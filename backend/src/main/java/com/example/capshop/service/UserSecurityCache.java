@@ -0,0 +1,42 @@
+package com.example.capshop.service;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.example.capshop.dto.UserSecurityState;
+import com.example.capshop.repository.UserRepository;
+import com.example.capshop.util.TtlCache;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 토큰 인증용 사용자 상태 캐시 (관리자 여부, 탈퇴/비활성 여부, 이름)
+ * 요청마다 DB 를 조회하지 않도록 짧게 캐시하고, 관리자 토글/상태 변경/정보 수정 시 바로 무효화한다.
+ */
+@RequiredArgsConstructor
+@Service
+public class UserSecurityCache {
+    private final UserRepository userRepository;
+    private final TtlCache<Long, UserSecurityState> cache =
+            new TtlCache<>("userSecurity", 10_000, Duration.ofMinutes(5));
+
+    /** 사용자 상태 (없는 사용자면 null) */
+    public UserSecurityState get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return cache.get(userId, id -> userRepository.findById(id)
+                .map(UserSecurityState::new)
+                .orElse(null));
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+}
@@ -19,6 +19,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserCouponService userCouponService;
+    private final UserSecurityCache userSecurityCache;
 
     public User save(User user){
         User savedUser = userRepository.save(user);
@@ -92,6 +93,7 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
         user.setAdmin(!user.isAdmin());
         userRepository.save(user);
+        userSecurityCache.invalidate(userId);
         return user.isAdmin();
     }
 
@@ -101,6 +103,7 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
         user.setDeleted(!user.isDeleted());
         userRepository.save(user);
+        userSecurityCache.invalidate(userId);
         return user.isDeleted();
     }
 
@@ -228,6 +231,7 @@ public class UserService {
         // 필요시 User 엔티티에 emailMarketing, smsMarketing 필드 추가 후 구현
         
         userRepository.save(user);
+        userSecurityCache.invalidate(userId);
     }
     
     // 계정 탈퇴 (소프트 삭제)
@@ -237,5 +241,6 @@ public class UserService {
         
         user.setDeleted(true);
         userRepository.save(user);
+        userSecurityCache.invalidate(userId);
     }
 }
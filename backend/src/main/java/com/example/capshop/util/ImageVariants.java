@@ -0,0 +1,46 @@
+package com.example.capshop.util;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 이미지 너비별 변형(썸네일/반응형) 규칙
+ * 변형 이미지는 원본 URL 에 ?w=너비 를 붙여서 요청한다.
+ */
+public class ImageVariants {
+
+    public static final List<Integer> WIDTHS = List.of(320, 640, 1280);
+
+    // JDK ImageIO 로 읽을 수 있는 형식만 변형 생성 (webp/svg/동영상은 원본 그대로)
+    private static final Set<String> RESIZABLE = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    /** 요청 너비 이상인 가장 작은 변형 너비 (가장 큰 변형보다 크면 가장 큰 변형) */
+    public static int closestWidth(int requested) {
+        for (int width : WIDTHS) {
+            if (width >= requested) {
+                return width;
+            }
+        }
+        return WIDTHS.get(WIDTHS.size() - 1);
+    }
+
+    public static boolean isResizable(String filename) {
+        if (filename == null) return false;
+        int idx = filename.lastIndexOf('.');
+        return idx > 0 && RESIZABLE.contains(filename.substring(idx + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /** img srcset 값 (예: "url?w=320 320w, url?w=640 640w, ...") - 변형을 만들 수 없는 파일이면 null */
+    public static String srcset(String url) {
+        if (url == null || !isResizable(url)) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int width : WIDTHS) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(url).append("?w=").append(width).append(' ').append(width).append('w');
+        }
+        return sb.toString();
+    }
+}
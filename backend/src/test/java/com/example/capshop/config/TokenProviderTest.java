@@ -0,0 +1,92 @@
+package com.example.capshop.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.security.core.Authentication;
+
+import com.example.capshop.domain.User;
+import com.example.capshop.repository.UserRepository;
+import com.example.capshop.service.UserSecurityCache;
+
+class TokenProviderTest {
+
+    private UserRepository userRepository;
+    private UserSecurityCache userSecurityCache;
+    private TokenProvider tokenProvider;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecretKey("123456789123456789123456789123456789");
+        userRepository = mock(UserRepository.class);
+        userSecurityCache = new UserSecurityCache(userRepository);
+        tokenProvider = new TokenProvider(properties, userSecurityCache);
+
+        user = User.builder().email("a@test.com").name("홍길동").build();
+        user.setId(7L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void repeatedRequestsHitDatabaseOnce() {
+        String token = tokenProvider.generateToken(user, Duration.ofHours(1));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(tokenProvider.authenticate(token) != null);
+        }
+
+        verify(userRepository, times(1)).findById(7L);
+        Authentication authentication = tokenProvider.authenticate(token);
+        User principal = (User) authentication.getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("홍길동", principal.getName());
+    }
+
+    /**
+     * 캐시 적중 시 요청당 인증 시간 측정
+     * CAPSHOP_BENCHMARK=true 일 때만 실행
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "CAPSHOP_BENCHMARK", matches = "true")
+    void benchmarkCachedAuthentication() {
+        String token = tokenProvider.generateToken(user, Duration.ofHours(1));
+
+        int requests = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            assertTrue(tokenProvider.authenticate(token) != null);
+        }
+        long perRequest = (System.nanoTime() - start) / requests;
+        System.out.printf("토큰 인증 평균 %dns/요청 (DB 조회 1회)%n", perRequest);
+
+        verify(userRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void statusToggleTakesEffectAfterInvalidation() {
+        String token = tokenProvider.generateToken(user, Duration.ofHours(1));
+        assertEquals(1, tokenProvider.authenticate(token).getAuthorities().size());
+
+        user.setAdmin(true);
+        userSecurityCache.invalidate(7L);
+        assertEquals(2, tokenProvider.authenticate(token).getAuthorities().size()); // ROLE_ADMIN 추가
+
+        user.setDeleted(true);
+        userSecurityCache.invalidate(7L);
+        assertNull(tokenProvider.authenticate(token));
+        assertNull(tokenProvider.authenticate(token + "x"));
+    }
+}
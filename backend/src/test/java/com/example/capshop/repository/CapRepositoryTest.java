@@ -0,0 +1,77 @@
+package com.example.capshop.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.CapStock;
+import com.example.capshop.dto.CapCardResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CapRepositoryTest {
+
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 120; i++) {
+            Cap cap = new Cap();
+            cap.setName("cap " + i);
+            cap.setPrice(10000L + (i % 7) * 1000L);
+            cap.setIsNew(i % 5 == 0);
+            cap.setSize(List.of("M", "L"));
+            cap.setImageUrls(List.of("a.png", "b.png"));
+            cap.addStock(new CapStock(cap, "M", 3L));
+            cap.addStock(new CapStock(cap, "L", 2L));
+            capRepository.save(cap);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void catalogPageIsOneQueryRegardlessOfCatalogSize() {
+        List<CapCardResponse> page = capRepository.findCardsPriceAsc(null, null, PageRequest.of(0, 41));
+
+        assertEquals(41, page.size());
+        assertEquals(5L, page.get(0).getStock());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void keysetCursorContinuesWithoutOverlap() {
+        List<CapCardResponse> first = capRepository.findCardsPriceAsc(null, null, PageRequest.of(0, 40));
+        CapCardResponse last = first.get(first.size() - 1);
+
+        List<CapCardResponse> second = capRepository.findCardsPriceAsc(last.getPrice(), last.getId(), PageRequest.of(0, 40));
+
+        CapCardResponse next = second.get(0);
+        assertTrue(next.getPrice() > last.getPrice()
+                || (next.getPrice().equals(last.getPrice()) && next.getId() > last.getId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.capshop.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.CapStock;
+import com.example.capshop.domain.CartItem;
+import com.example.capshop.domain.User;
+import com.example.capshop.dto.CartItemResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CartItemRepositoryTest {
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().email("cart-view@test.com").name("구매자").build();
+        entityManager.persist(user);
+        User other = User.builder().email("cart-other@test.com").name("다른 사람").build();
+        entityManager.persist(other);
+
+        // 상품 10개, 사이즈 2개씩 담기 (M 은 일부 홀드 중)
+        for (int i = 0; i < 10; i++) {
+            Cap cap = new Cap();
+            cap.setName("cap " + i);
+            cap.setPrice(10000L + i * 1000L);
+            cap.setMainImageUrl("cap-" + i + ".png");
+            CapStock m = new CapStock(cap, "M", 10L);
+            m.setReserved(3L);
+            cap.addStock(m);
+            cap.addStock(new CapStock(cap, "L", 5L));
+            capRepository.save(cap);
+            cartItemRepository.save(new CartItem(user, cap, 2, "M"));
+            cartItemRepository.save(new CartItem(user, cap, 1, "L"));
+            cartItemRepository.save(new CartItem(other, cap, 1, "M"));
+        }
+        // 사이즈 도입 전에 담긴 줄
+        Cap legacy = new Cap();
+        legacy.setName("legacy");
+        legacy.setPrice(5000L);
+        capRepository.save(legacy);
+        cartItemRepository.save(new CartItem(user, legacy, 3));
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void cartViewIsOneQueryRegardlessOfLineCount() {
+        List<CartItemResponse> lines = cartItemRepository.findCartLines(user.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(21, lines.size());
+
+        CartItemResponse first = lines.get(0);
+        assertEquals("cap 0", first.getCapName());
+        assertEquals("cap-0.png", first.getMainImageUrl());
+        assertEquals("M", first.getSize());
+        assertEquals(7L, first.getAvailableStock()); // 10 - 홀드 3
+        assertEquals(20000L, first.getSubTotal());
+
+        CartItemResponse second = lines.get(1);
+        assertEquals("L", second.getSize());
+        assertEquals(5L, second.getAvailableStock());
+        assertEquals(10000L, second.getSubTotal());
+
+        CartItemResponse unsized = lines.get(20);
+        assertNull(unsized.getSize());
+        assertNull(unsized.getAvailableStock());
+        assertEquals(15000L, unsized.getSubTotal());
+    }
+}
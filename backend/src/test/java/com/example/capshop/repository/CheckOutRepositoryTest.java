@@ -0,0 +1,177 @@
+package com.example.capshop.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.CapStock;
+import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.domain.order.CheckOutItem;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CheckOutRepositoryTest {
+
+    private static final int ROUNDS = 200;
+
+    @Autowired
+    private CheckOutRepository checkOutRepository;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> capIds = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 50; i++) {
+            Cap cap = new Cap();
+            cap.setName("cap " + i);
+            cap.setPrice(10000L + i * 100L);
+            cap.setSize(List.of("M", "L"));
+            cap.addStock(new CapStock(cap, "M", 30L));
+            cap.addStock(new CapStock(cap, "L", 20L));
+            capIds.add(capRepository.save(cap).getId());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void checkoutLinesAndCapsLoadInTwoQueriesRegardlessOfLineCount() {
+        save(checkOut("ORD-50", 50));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        CheckOut checkOut = checkOutRepository.findByOrderId("ORD-50").orElseThrow();
+        List<Long> ids = checkOut.getItems().stream().map(CheckOutItem::getCapId).collect(Collectors.toList());
+        List<Cap> caps = capRepository.findByIdIn(ids);
+        long total = 0;
+        Map<Long, Cap> byId = caps.stream().collect(Collectors.toMap(Cap::getId, Function.identity()));
+        for (CheckOutItem item : checkOut.getItems()) {
+            total += byId.get(item.getCapId()).getPrice() * item.getQuantity();
+            byId.get(item.getCapId()).getCapStockBySize(item.getSize()); // 재고도 이미 로딩됨
+        }
+
+        assertEquals(50, checkOut.getItems().size());
+        assertEquals(50, caps.size());
+        assertTrue(total > 0);
+        assertEquals(2L, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * 결제 승인 시 체크아웃 상품/가격 로딩: 기존(itemsJson 파싱 + 상품별 findById) vs 자식 테이블 + findByIdIn
+     * 오래 걸리므로 CAPSHOP_BENCHMARK=true 일 때만 실행
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "CAPSHOP_BENCHMARK", matches = "true")
+    void typedLinesLoadFasterThanJsonAndPerLineLookups() throws Exception {
+        for (int lines : new int[] { 1, 10, 50 }) {
+            CheckOut legacy = checkOut("LEGACY-" + lines, 0);
+            legacy.setItemsJson(itemsJson(lines));
+            save(legacy);
+            save(checkOut("TYPED-" + lines, lines));
+            entityManager.flush();
+            entityManager.clear();
+
+            long legacyNanos = time(() -> {
+                CheckOut c = checkOutRepository.findByOrderId("LEGACY-" + lines).orElseThrow();
+                long total = 0;
+                for (JsonNode item : readTree(c.getItemsJson())) {
+                    Cap cap = capRepository.findById(item.get("capId").asLong()).orElseThrow();
+                    total += cap.getPrice() * item.get("quantity").asInt();
+                }
+                return total;
+            });
+            long typedNanos = time(() -> {
+                CheckOut c = checkOutRepository.findByOrderId("TYPED-" + lines).orElseThrow();
+                Map<Long, Cap> caps = capRepository.findByIdIn(
+                        c.getItems().stream().map(CheckOutItem::getCapId).collect(Collectors.toList()))
+                        .stream().collect(Collectors.toMap(Cap::getId, Function.identity()));
+                long total = 0;
+                for (CheckOutItem item : c.getItems()) {
+                    total += caps.get(item.getCapId()).getPrice() * item.getQuantity();
+                }
+                return total;
+            });
+
+            System.out.printf("%d줄: 기존 평균 %.3fms, 자식 테이블 평균 %.3fms%n",
+                    lines, legacyNanos / 1_000_000.0, typedNanos / 1_000_000.0);
+            if (lines > 1) {
+                assertTrue(typedNanos < legacyNanos);
+            }
+        }
+    }
+
+    private CheckOut checkOut(String orderId, int lines) {
+        CheckOut checkOut = new CheckOut("홍길동", "서울", "010-0000-0000", null);
+        checkOut.setOrderId(orderId);
+        for (int i = 0; i < lines; i++) {
+            checkOut.addItem(new CheckOutItem(capIds.get(i), i % 2 == 0 ? "M" : "L", 1 + i % 3));
+        }
+        return checkOut;
+    }
+
+    private void save(CheckOut checkOut) {
+        checkOutRepository.save(checkOut);
+    }
+
+    private String itemsJson(int lines) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"capId\":").append(capIds.get(i))
+                    .append(",\"quantity\":").append(1 + i % 3)
+                    .append(",\"size\":\"").append(i % 2 == 0 ? "M" : "L").append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 워밍업 후 평균 실행 시간 (ns), 매번 영속성 컨텍스트를 비워 실제 쿼리가 나가게 한다
+    private long time(LongSupplier load) {
+        for (int i = 0; i < ROUNDS / 4; i++) {
+            load.getAsLong();
+            entityManager.clear();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            load.getAsLong();
+            entityManager.clear();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
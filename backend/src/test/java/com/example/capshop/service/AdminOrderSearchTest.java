@@ -0,0 +1,146 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.Status;
+import com.example.capshop.domain.User;
+import com.example.capshop.domain.order.Order;
+import com.example.capshop.domain.order.OrderItem;
+import com.example.capshop.dto.AdminOrderPageResponse;
+import com.example.capshop.dto.AdminOrderResponse;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.CartItemRepository;
+import com.example.capshop.repository.OrderItemRepository;
+import com.example.capshop.repository.OrderRepository;
+import com.example.capshop.repository.PaymentRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AdminOrderSearchTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private OrderService orderService;
+    private Statistics statistics;
+    private final List<Order> orders = new ArrayList<>();
+    private User alice;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository, orderItemRepository, mock(CartItemRepository.class),
+                mock(PaymentRepository.class), mock(StockReservationService.class), mock(TossPaymentsClient.class));
+
+        alice = User.builder().email("alice@test.com").name("앨리스").build();
+        User bob = User.builder().email("bob@test.com").name("밥").build();
+        entityManager.persist(alice);
+        entityManager.persist(bob);
+        Cap cap = new Cap();
+        cap.setName("볼캡");
+        cap.setPrice(30000L);
+        capRepository.save(cap);
+
+        // 45건: 상태/회원 번갈아, 하루에 한 건씩, 주문마다 상품 2줄
+        base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < 45; i++) {
+            Order order = new Order(i % 3 == 0 ? alice : bob);
+            order.setOrderId(String.format("ORD202501%02d-%d", i % 28 + 1, i));
+            order.setStatus(i % 2 == 0 ? Status.DELIVERED : Status.ORDERED);
+            order.setOrderDate(base.plusDays(i));
+            order.addOrderItem(new OrderItem(cap, 1, 30000L, "M"));
+            order.addOrderItem(new OrderItem(cap, 2, 30000L, "L"));
+            order.calculateTotalPrice();
+            orders.add(orderRepository.save(order));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void pagesNewestFirstWithoutCountAndTwoQueriesPerPage() {
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            AdminOrderPageResponse page = orderService.searchAdminOrders(null, null, null, null, null, cursor, 20);
+            assertEquals(2, statistics.getPrepareStatementCount()); // 주문 행 1 + 상품/상품명 1
+            for (AdminOrderResponse row : page.getItems()) {
+                seen.add(row.getId());
+                assertEquals(2, row.getOrderItems().size());
+                assertEquals("볼캡", row.getOrderItems().get(0).getCapName());
+            }
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasNext(), cursor != null);
+        } while (cursor != null);
+
+        assertEquals(List.of(20, 20, 5), pageSizes);
+        List<Long> expected = orders.stream().map(Order::getId)
+                .sorted((a, b) -> Long.compare(b, a)).collect(Collectors.toList());
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void combinesFilters() {
+        LocalDateTime from = base.plusDays(10);
+        LocalDateTime to = base.plusDays(40);
+        AdminOrderPageResponse page = orderService.searchAdminOrders(
+                Status.DELIVERED, from, to, alice.getId(), "ORD202501", null, 100);
+
+        List<Long> expected = orders.stream()
+                .filter(o -> o.getStatus() == Status.DELIVERED)
+                .filter(o -> !o.getOrderDate().isBefore(from) && o.getOrderDate().isBefore(to))
+                .filter(o -> o.getUser().getId().equals(alice.getId()))
+                .map(Order::getId)
+                .sorted((a, b) -> Long.compare(b, a))
+                .collect(Collectors.toList());
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, page.getItems().stream().map(AdminOrderResponse::getId).collect(Collectors.toList()));
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        assertTrue(page.getItems().stream().allMatch(o -> "앨리스".equals(o.getUserName())));
+    }
+
+    @Test
+    void orderIdPrefixTreatsLikeWildcardsLiterally() {
+        AdminOrderPageResponse exact = orderService.searchAdminOrders(null, null, null, null, "ORD20250105-", null, 100);
+        assertTrue(exact.getItems().stream().allMatch(o -> o.getOrderId().startsWith("ORD20250105-")));
+        assertEquals(2, exact.getItems().size()); // i = 4, 32
+
+        assertTrue(orderService.searchAdminOrders(null, null, null, null, "ORD%", null, 100).getItems().isEmpty());
+        assertTrue(orderService.searchAdminOrders(null, null, null, null, "ORD_0", null, 100).getItems().isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.searchAdminOrders(null, null, null, null, null, "abc", 20));
+    }
+}
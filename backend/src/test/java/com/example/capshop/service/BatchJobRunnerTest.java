@@ -0,0 +1,124 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capshop.domain.BatchCheckpoint;
+import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.domain.order.CheckOutItem;
+import com.example.capshop.repository.BatchCheckpointRepository;
+import com.example.capshop.repository.CheckOutRepository;
+
+// 묶음마다 커밋되는지 보려면 테스트 트랜잭션 없이 실행해야 한다
+@DataJpaTest
+@Import({ BatchJobRunner.class, SchedulerLockService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchJobRunnerTest {
+
+    private static final String JOB = "cleanupOldCheckouts";
+
+    @Autowired
+    private BatchJobRunner batchJobRunner;
+    @Autowired
+    private CheckOutRepository checkOutRepository;
+    @Autowired
+    private BatchCheckpointRepository batchCheckpointRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    private LocalDateTime before;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM checkout_item");
+        jdbcTemplate.update("DELETE FROM checkout");
+        jdbcTemplate.update("DELETE FROM batch_checkpoint");
+
+        LocalDateTime now = LocalDateTime.now();
+        before = now.minusHours(24);
+        for (int i = 0; i < 25; i++) {
+            saveCheckout(now.minusDays(2));   // 정리 대상
+        }
+        for (int i = 0; i < 3; i++) {
+            saveCheckout(now);                // 최근 체크아웃
+        }
+    }
+
+    @Test
+    void deletesOldCheckoutsInChunks() {
+        long deleted = run(deleteChunk());
+
+        assertEquals(25, deleted);
+        assertEquals(3, checkOutRepository.count());
+        BatchCheckpoint checkpoint = batchCheckpointRepository.findById(JOB).orElseThrow();
+        assertFalse(checkpoint.isRunning());
+        assertEquals(3, checkpoint.getLastRunChunks());
+        assertEquals(25, checkpoint.getLastRunRows());
+    }
+
+    @Test
+    void resumesAfterCrashFromLastCommittedChunk() {
+        // 두 번째 묶음에서 죽는 실행
+        AtomicInteger calls = new AtomicInteger();
+        Function<List<Long>, Integer> delete = deleteChunk();
+        assertThrows(IllegalStateException.class, () -> run(ids -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalStateException("중간 실패");
+            }
+            return delete.apply(ids);
+        }));
+
+        // 첫 묶음은 커밋, 두 번째 묶음은 롤백
+        assertEquals(18, checkOutRepository.count());
+        BatchCheckpoint stopped = batchCheckpointRepository.findById(JOB).orElseThrow();
+        assertTrue(stopped.isRunning());
+        assertEquals(10, stopped.getRunProcessed());
+
+        // 다음 실행은 멈춘 위치에서 이어서 처리하고, 앞선 묶음까지 합산한다
+        long deleted = run(deleteChunk());
+
+        assertEquals(25, deleted);
+        assertEquals(3, checkOutRepository.count());
+        BatchCheckpoint finished = batchCheckpointRepository.findById(JOB).orElseThrow();
+        assertFalse(finished.isRunning());
+        assertEquals(3, finished.getLastRunChunks());
+    }
+
+    private long run(Function<List<Long>, Integer> chunk) {
+        return batchJobRunner.run(JOB, 10,
+                (afterId, page) -> checkOutRepository.findIdsCreatedBefore(before, afterId, page), chunk);
+    }
+
+    private Function<List<Long>, Integer> deleteChunk() {
+        return ids -> {
+            checkOutRepository.deleteItemsByCheckOutIds(ids);
+            return checkOutRepository.deleteByIds(ids);
+        };
+    }
+
+    private void saveCheckout(LocalDateTime createdAt) {
+        CheckOut checkOut = new CheckOut("홍길동", "서울", "010-0000-0000", null);
+        checkOut.setCreatedAt(createdAt);
+        checkOut.addItem(new CheckOutItem(1L, "M", 1));
+        checkOutRepository.save(checkOut);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.Review;
+import com.example.capshop.domain.User;
+import com.example.capshop.dto.ReviewStatistics;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.ReviewRepository;
+import com.example.capshop.repository.UserRepository;
+
+// 동시 쓰기가 각자 커밋되어야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest
+@Import({ CapReviewStatsService.class, BatchJobRunner.class, SchedulerLockService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CapReviewStatsServiceTest {
+
+    @Autowired
+    private CapReviewStatsService capReviewStatsService;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+    private List<Cap> caps;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM review_images");
+        jdbcTemplate.update("DELETE FROM review");
+        jdbcTemplate.update("DELETE FROM cap_review_stats");
+        jdbcTemplate.update("DELETE FROM batch_checkpoint");
+
+        user = userRepository.save(User.builder().email("stats-" + System.nanoTime() + "@test.com").name("리뷰어").build());
+        caps = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Cap cap = new Cap();
+            cap.setName("통계 " + i);
+            cap.setPrice(20000L);
+            caps.add(capRepository.save(cap));
+        }
+    }
+
+    @Test
+    void statsStayExactUnderConcurrentReviewWrites() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                writeRandomly(new Random(seed), 30);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (Cap cap : caps) {
+            ReviewStatistics incremental = capReviewStatsService.getStatistics(cap.getId()).orElseThrow();
+            ReviewStatistics expected = recount(cap);
+            assertTrue(expected.getTotalReviews() > 0);
+            assertStatisticsEqual(expected, incremental);
+        }
+
+        // 재계산해도 값이 그대로
+        capReviewStatsService.rebuildAll();
+        for (Cap cap : caps) {
+            assertStatisticsEqual(recount(cap), capReviewStatsService.getStatistics(cap.getId()).orElseThrow());
+        }
+    }
+
+    @Test
+    void rebuildBackfillsReviewsWrittenBeforeStatsExisted() {
+        // 통계 갱신 없이 들어간 기존 리뷰
+        transactionTemplate.executeWithoutResult(status -> {
+            reviewRepository.save(new Review(user, caps.get(0), null, 5, "좋아요", new ArrayList<>(List.of("a.jpg"))));
+            reviewRepository.save(new Review(user, caps.get(0), null, 3, "보통", null));
+            reviewRepository.save(new Review(user, caps.get(0), null, 4, "괜찮아요", new ArrayList<>()));
+        });
+        assertTrue(capReviewStatsService.needsBackfill());
+
+        capReviewStatsService.rebuildAll();
+
+        assertFalse(capReviewStatsService.needsBackfill());
+        ReviewStatistics statistics = capReviewStatsService.getStatistics(caps.get(0).getId()).orElseThrow();
+        assertEquals(3, statistics.getTotalReviews());
+        assertEquals(1, statistics.getPhotoReviews());
+        assertEquals(4.0, statistics.getAverageRating());
+        assertEquals(Map.of(1, 0L, 2, 0L, 3, 1L, 4, 1L, 5, 1L), statistics.getRatingDistribution());
+        // 리뷰가 없는 상품도 0 으로 채워진다
+        assertEquals(0, capReviewStatsService.getStatistics(caps.get(1).getId()).orElseThrow().getTotalReviews());
+    }
+
+    // ReviewService 와 같은 순서로 작성/수정/삭제 + 통계 증감을 한 트랜잭션에서
+    private void writeRandomly(Random random, int operations) {
+        List<Long> mine = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            int action = mine.isEmpty() ? 0 : random.nextInt(4);
+            if (action <= 1) {
+                Cap cap = caps.get(random.nextInt(caps.size()));
+                int rating = 1 + random.nextInt(5);
+                List<String> images = random.nextBoolean() ? new ArrayList<>(List.of("img-" + i + ".jpg")) : null;
+                Long id = transactionTemplate.execute(status -> {
+                    Review saved = reviewRepository.save(new Review(user, cap, null, rating, "리뷰", images));
+                    capReviewStatsService.reviewAdded(saved);
+                    return saved.getId();
+                });
+                mine.add(id);
+            } else if (action == 2) {
+                Long id = mine.get(random.nextInt(mine.size()));
+                int rating = 1 + random.nextInt(5);
+                List<String> images = random.nextBoolean() ? new ArrayList<>(List.of("edit-" + i + ".jpg")) : new ArrayList<>();
+                transactionTemplate.executeWithoutResult(status -> {
+                    Review review = reviewRepository.findById(id).orElseThrow();
+                    int oldRating = review.getRating();
+                    boolean oldPhoto = CapReviewStatsService.isPhoto(review.getImageUrls());
+                    review.updateReview(rating, "수정", images);
+                    reviewRepository.save(review);
+                    capReviewStatsService.reviewChanged(review.getCap().getId(), oldRating, oldPhoto,
+                            rating, CapReviewStatsService.isPhoto(images));
+                });
+            } else {
+                Long id = mine.remove(random.nextInt(mine.size()));
+                transactionTemplate.executeWithoutResult(status -> {
+                    Review review = reviewRepository.findById(id).orElseThrow();
+                    capReviewStatsService.reviewRemoved(review);
+                    reviewRepository.delete(review);
+                });
+            }
+        }
+    }
+
+    // 리뷰 테이블에서 직접 센 값
+    private ReviewStatistics recount(Cap cap) {
+        return transactionTemplate.execute(status -> {
+            List<Review> reviews = reviewRepository.findByCapOrderByCreatedAtDesc(cap);
+            double average = reviews.stream().mapToInt(Review::getRating).average().orElse(0.0);
+            long photos = reviews.stream().filter(r -> CapReviewStatsService.isPhoto(r.getImageUrls())).count();
+            ReviewStatistics statistics = new ReviewStatistics(average, reviews.size(), photos);
+            Map<Integer, Long> distribution = statistics.getRatingDistribution();
+            reviews.forEach(r -> distribution.merge(r.getRating(), 1L, Long::sum));
+            return statistics;
+        });
+    }
+
+    private void assertStatisticsEqual(ReviewStatistics expected, ReviewStatistics actual) {
+        assertEquals(expected.getTotalReviews(), actual.getTotalReviews());
+        assertEquals(expected.getPhotoReviews(), actual.getPhotoReviews());
+        assertEquals(expected.getAverageRating(), actual.getAverageRating(), 1e-9);
+        assertEquals(expected.getRatingDistribution(), actual.getRatingDistribution());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.capshop.domain.Cap;
+
+/**
+ * 10만 건 가상 카탈로그에서 기존 LIKE 검색과 인메모리 색인 검색 비교
+ * 오래 걸리므로 CAPSHOP_BENCHMARK=true 일 때만 실행
+ */
+@DataJpaTest
+@EnabledIfEnvironmentVariable(named = "CAPSHOP_BENCHMARK", matches = "true")
+class CapSearchBenchmarkTest {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int ROUNDS = 200;
+    private static final String[] BRANDS = { "뉴에라", "엠엘비", "나이키", "아디다스", "캉골", "커버낫" };
+    private static final String[] TYPES = { "볼캡", "스냅백", "버킷햇", "캠프캡", "비니", "트러커" };
+    private static final String[] COLORS = { "블랙", "화이트", "네이비", "베이지", "카키", "그레이" };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void indexAnswersFasterThanLikeScan() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        CapSearchIndex index = new CapSearchIndex();
+
+        List<Object[]> rows = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            String name = BRANDS[i % BRANDS.length] + " " + TYPES[(i / 7) % TYPES.length] + " " + i;
+            String color = COLORS[(i / 3) % COLORS.length];
+            long price = 19000L + (i % 50) * 2000L;
+            String description = color + " 컬러 " + TYPES[i % TYPES.length] + " 데일리 아이템";
+            rows.add(new Object[] { name, price, description, 10L, color, false });
+
+            Cap cap = new Cap();
+            cap.setId((long) i + 1);
+            cap.setName(name);
+            cap.setPrice(price);
+            cap.setDescription(description);
+            cap.setColor(color);
+            index.index(cap, List.of("M", "L"));
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO cap (name, price, description, stock, color, is_new) VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        String keyword = "캉골 버킷햇";
+
+        long likeNanos = time(() -> jdbcTemplate.queryForList(
+                "SELECT id FROM cap WHERE name LIKE ?", Long.class, "%" + keyword + "%"));
+        long indexNanos = time(() -> index.search(keyword, null, null, null, 20));
+
+        System.out.printf("LIKE 검색 평균 %.3fms, 색인 검색 평균 %.3fms (%d건)%n",
+                likeNanos / 1_000_000.0, indexNanos / 1_000_000.0, CATALOG_SIZE);
+        assertTrue(indexNanos < likeNanos);
+    }
+
+    // 워밍업 후 평균 실행 시간 (ns)
+    private long time(Runnable query) {
+        for (int i = 0; i < ROUNDS / 4; i++) {
+            query.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.dto.CapSearchResponse;
+
+class CapSearchIndexTest {
+
+    private CapSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CapSearchIndex();
+        index.index(cap(1L, "뉴에라 볼캡 블랙", "블랙", 39000L, "데일리로 쓰기 좋은 기본 볼캡"), List.of("M", "L"));
+        index.index(cap(2L, "캠프캡 베이지", "베이지", 45000L, "여름용 메쉬 캠프캡"), List.of("FREE"));
+        index.index(cap(3L, "울 비니", "블랙", 25000L, "겨울 볼캡 대신 쓰는 비니"), List.of("FREE"));
+    }
+
+    @Test
+    void matchesKoreanWithoutSpacesAndRanksNameAboveDescription() {
+        CapSearchResponse result = index.search("볼캡", null, null, null, 10);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(1L, result.getItems().get(0).getId()); // 이름 일치가 설명 일치보다 위
+        assertEquals(3L, result.getItems().get(1).getId());
+        assertEquals(1, index.search("뉴에라볼캡", null, null, null, 10).getTotal());
+    }
+
+    @Test
+    void facetsCountAllMatchesAndFiltersNarrowItems() {
+        CapSearchResponse result = index.search("캡", null, null, "~30000", 10);
+
+        assertEquals(1, result.getTotal());
+        assertEquals(3L, result.getItems().get(0).getId());
+        assertEquals(2, result.getFacets().get("color").get("블랙"));
+        assertEquals(2, result.getFacets().get("price").get("30000~50000"));
+        assertEquals(1, result.getFacets().get("price").get("~30000"));
+    }
+
+    @Test
+    void reindexAndRemoveAreIncremental() {
+        index.index(cap(2L, "캠프캡 카키", "카키", 45000L, null), List.of("FREE"));
+        assertEquals(0, index.search("베이지", null, null, null, 10).getTotal());
+        assertEquals(1, index.search("카키", null, null, null, 10).getTotal());
+
+        index.remove(1L);
+        assertEquals(1, index.search("볼캡", null, null, null, 10).getTotal());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void suggestsNamesByWordPrefix() {
+        List<String> suggestions = index.suggest("캠", 10);
+
+        assertEquals(List.of("캠프캡 베이지"), suggestions);
+        assertTrue(index.suggest("없는말", 10).isEmpty());
+    }
+
+    static Cap cap(Long id, String name, String color, Long price, String description) {
+        Cap cap = new Cap();
+        cap.setId(id);
+        cap.setName(name);
+        cap.setColor(color);
+        cap.setPrice(price);
+        cap.setDescription(description);
+        return cap;
+    }
+}
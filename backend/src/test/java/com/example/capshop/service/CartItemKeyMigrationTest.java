@@ -0,0 +1,96 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.User;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.UserRepository;
+
+// DDL 과 마이그레이션이 각자 커밋되어야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest
+@Import(CartItemKeyMigration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartItemKeyMigrationTest {
+
+    @Autowired
+    private CartItemKeyMigration migration;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private Long capId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM cart_item");
+        userId = userRepository.save(User.builder().email("cart-key-" + System.nanoTime() + "@test.com")
+                .name("장바구니 회원").build()).getId();
+        Cap cap = new Cap();
+        cap.setName("키 캡");
+        cap.setPrice(20000L);
+        capId = capRepository.save(cap).getId();
+    }
+
+    @Test
+    void mergesDuplicateLinesThenCreatesKey() {
+        // 키 없이 운영되던 DB: 같은 사이즈 줄 3개, 사이즈 없는 예전 줄 2개
+        assertTrue(migration.hasKey());
+        jdbcTemplate.execute("ALTER TABLE cart_item DROP CONSTRAINT " + CartItemKeyMigration.KEY_NAME);
+        assertFalse(migration.hasKey());
+        insert("M", 1);
+        insert("M", 2);
+        insert("M", 3);
+        insert("L", 1);
+        insert(null, 2);
+        insert(null, 1);
+
+        assertEquals(3, migration.migrate());
+
+        assertTrue(migration.hasKey());
+        List<Map<String, Object>> lines = jdbcTemplate.queryForList(
+                "SELECT size, quantity FROM cart_item WHERE user_id = ? ORDER BY id", userId);
+        assertEquals(3, lines.size());
+        assertEquals("M", lines.get(0).get("size"));
+        assertEquals(6, ((Number) lines.get(0).get("quantity")).intValue());
+        assertEquals("L", lines.get(1).get("size"));
+        assertEquals(1, ((Number) lines.get(1).get("quantity")).intValue());
+        assertNull(lines.get(2).get("size"));
+        assertEquals(3, ((Number) lines.get(2).get("quantity")).intValue());
+
+        // 이제 같은 줄은 들어가지 않는다
+        assertThrows(DataIntegrityViolationException.class, () -> insert("M", 1));
+        // 키가 있으면 다시 실행해도 아무것도 하지 않는다
+        assertEquals(0, migration.migrate());
+    }
+
+    private void insert(String size, int quantity) {
+        jdbcTemplate.update("INSERT INTO cart_item (user_id, cap_id, size, quantity) VALUES (?, ?, ?, ?)",
+                userId, capId, size, quantity);
+    }
+}
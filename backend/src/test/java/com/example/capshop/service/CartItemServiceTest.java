@@ -0,0 +1,181 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.CapStock;
+import com.example.capshop.domain.User;
+import com.example.capshop.dto.CartQuantityChange;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.CartItemRepository;
+import com.example.capshop.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 동시에 누른 요청이 각자 커밋되어야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartItemServiceTest {
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CartItemService cartItemService;
+    private Statistics statistics;
+    private Long userId;
+    private Long capId;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(dataSource).update("DELETE FROM cart_item");
+        cartItemService = new CartItemService(cartItemRepository, transactionTemplate);
+
+        userId = userRepository.save(User.builder().email("cart-" + System.nanoTime() + "@test.com").name("구매자").build()).getId();
+        Cap cap = new Cap();
+        cap.setName("장바구니 캡");
+        cap.setPrice(30000L);
+        cap.addStock(new CapStock(cap, "M", 1000L));
+        cap.addStock(new CapStock(cap, "S", 50L));
+        capId = capRepository.save(cap).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void parallelIncrementsAreExactWithOneStatementEach() throws Exception {
+        cartItemService.addToCart(userId, capId, 1, "M");
+
+        statistics.clear();
+        cartItemService.increaseQuantity(userId, capId, "M");
+        assertEquals(1, statistics.getPrepareStatementCount()); // 조건부 UPDATE 한 번
+
+        AtomicInteger succeeded = runInParallel(8, 25, () -> cartItemService.increaseQuantity(userId, capId, "M"));
+
+        assertEquals(200, succeeded.get());
+        assertEquals(202, quantity("M"));
+        assertEquals(1, cartItemRepository.count());
+    }
+
+    @Test
+    void stockBoundHoldsUnderParallelIncrements() throws Exception {
+        cartItemService.addToCart(userId, capId, 1, "S");
+
+        AtomicInteger succeeded = runInParallel(8, 10, () -> cartItemService.increaseQuantity(userId, capId, "S"));
+
+        assertEquals(49, succeeded.get()); // 재고 50개까지만
+        assertEquals(50, quantity("S"));
+    }
+
+    @Test
+    void addingAgainMergesIntoOneLine() {
+        cartItemService.addToCart(userId, capId, 2, "M");
+        cartItemService.addToCart(userId, capId, 3, " M ");
+
+        assertEquals(5, quantity("M"));
+        assertEquals(1, cartItemRepository.count());
+
+        // 재고를 넘는 첫 담기는 줄째 남지 않는다
+        assertThrows(IllegalStateException.class, () -> cartItemService.addToCart(userId, capId, 51, "S"));
+        assertTrue(cartItemRepository.findQuantity(userId, capId, "S").isEmpty());
+        assertThrows(IllegalStateException.class, () -> cartItemService.addToCart(userId, capId, 1, "XL"));
+        assertThrows(IllegalArgumentException.class, () -> cartItemService.addToCart(userId, capId, 1, " "));
+    }
+
+    @Test
+    void decreaseStopsAtOneAndDeleteRemovesLine() {
+        cartItemService.addToCart(userId, capId, 2, "M");
+
+        cartItemService.decreaseQuantity(userId, capId, "M");
+        cartItemService.decreaseQuantity(userId, capId, "M");
+        assertEquals(1, quantity("M"));
+        assertThrows(IllegalArgumentException.class, () -> cartItemService.decreaseQuantity(userId, capId, "S"));
+
+        cartItemService.deleteCartItem(userId, capId, "M");
+        assertEquals(0, cartItemRepository.count());
+        assertThrows(IllegalArgumentException.class, () -> cartItemService.deleteCartItem(userId, capId, "M"));
+    }
+
+    @Test
+    void batchAppliesAllOrNothing() {
+        cartItemService.addToCart(userId, capId, 5, "M");
+        cartItemService.addToCart(userId, capId, 5, "S");
+
+        statistics.clear();
+        cartItemService.applyChanges(userId, List.of(
+                new CartQuantityChange(capId, "S", -2), new CartQuantityChange(capId, "M", 3)));
+        assertEquals(2, statistics.getPrepareStatementCount()); // 줄마다 한 번
+        assertEquals(8, quantity("M"));
+        assertEquals(3, quantity("S"));
+
+        // S 가 재고를 넘으므로 M 증가도 취소
+        assertThrows(IllegalStateException.class, () -> cartItemService.applyChanges(userId, List.of(
+                new CartQuantityChange(capId, "M", 1), new CartQuantityChange(capId, "S", 100))));
+        assertEquals(8, quantity("M"));
+        assertEquals(3, quantity("S"));
+    }
+
+    // 스레드마다 times 번 호출하고 재고 초과(IllegalStateException)가 아닌 호출 수를 센다
+    private AtomicInteger runInParallel(int threads, int times, Runnable mutation) throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < times; i++) {
+                    try {
+                        mutation.run();
+                        succeeded.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // 재고 한도에 걸린 요청
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        return succeeded;
+    }
+
+    private int quantity(String size) {
+        return cartItemRepository.findQuantity(userId, capId, size).orElse(0);
+    }
+}
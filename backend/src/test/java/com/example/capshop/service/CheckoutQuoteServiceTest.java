@@ -0,0 +1,149 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.Coupon;
+import com.example.capshop.domain.CouponType;
+import com.example.capshop.domain.User;
+import com.example.capshop.domain.UserCoupon;
+import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.dto.CapDetailResponse;
+import com.example.capshop.dto.CheckoutQuote;
+import com.example.capshop.dto.CheckoutQuoteRequest;
+import com.example.capshop.dto.QuotableCoupon;
+import com.example.capshop.dto.StockLine;
+
+class CheckoutQuoteServiceTest {
+
+    private CheckOutService checkOutService;
+    private CapService capService;
+    private UserCouponService userCouponService;
+    private PointsService pointsService;
+    private CheckoutQuoteService service;
+
+    @BeforeEach
+    void setUp() {
+        checkOutService = mock(CheckOutService.class);
+        capService = mock(CapService.class);
+        userCouponService = mock(UserCouponService.class);
+        pointsService = mock(PointsService.class);
+        service = new CheckoutQuoteService(checkOutService, capService, userCouponService, pointsService,
+                "test-quote-secret", 600);
+
+        CheckOut checkOut = new CheckOut("홍길동", "서울", "010-0000-0000", null);
+        checkOut.setOrderId("ORD-1");
+        checkOut.setUserId(7L);
+        when(checkOutService.findByOrderId("ORD-1")).thenReturn(Optional.of(checkOut));
+        when(checkOutService.toStockLines(checkOut)).thenReturn(List.of(
+                new StockLine(10L, "M", 2), new StockLine(11L, null, 1)));
+
+        when(capService.getCapDetail(10L)).thenReturn(cap(10L, 15000L));
+        when(capService.getCapDetail(11L)).thenReturn(cap(11L, 20000L));
+
+        // 원가 50000원 기준: 10% (5000원) vs 3000원 고정 vs 최소 10만원 조건 20000원
+        when(userCouponService.getQuotableCoupons(7L)).thenReturn(List.of(
+                coupon(1L, CouponType.AMOUNT, 3000, null),
+                coupon(2L, CouponType.PERCENTAGE, 10, null),
+                coupon(3L, CouponType.AMOUNT, 20000, 100000L)));
+        when(pointsService.getPoints(7L)).thenReturn(2000L);
+    }
+
+    @Test
+    void appliesBestCouponAndCapsPointsAtBalance() {
+        CheckoutQuote quote = service.quote(7L, request(null, true, 99999L));
+
+        assertEquals(50000L, quote.getOriginalAmount());
+        assertEquals(2L, quote.getUserCouponId());
+        assertEquals(5000L, quote.getCouponDiscount());
+        assertEquals(2000L, quote.getPointsUsed());
+        assertEquals(43000L, quote.getFinalAmount());
+        assertEquals(2, quote.getLines().size());
+        assertEquals(30000L, quote.getLines().get(0).getLineTotal());
+    }
+
+    @Test
+    void selectedCouponMustMeetConditions() {
+        assertEquals(3000L, service.quote(7L, request(1L, false, null)).getCouponDiscount());
+        assertThrows(IllegalArgumentException.class, () -> service.quote(7L, request(3L, false, null)));
+        assertThrows(IllegalArgumentException.class, () -> service.quote(7L, request(99L, false, null)));
+    }
+
+    @Test
+    void confirmAcceptsSignedQuoteAndRejectsTampering() {
+        CheckoutQuote quote = service.quote(7L, request(2L, false, 1000L));
+        Map<String, Object> discountInfo = discountInfo(quote);
+
+        assertEquals(44000L, service.verify(7L, "ORD-1", 44000L, discountInfo).getFinalAmount());
+
+        // 금액 조작, 다른 사용자, 다른 결제 금액
+        Map<String, Object> tampered = new HashMap<>(discountInfo);
+        tampered.put("pointsUsed", 30000L);
+        assertThrows(IllegalArgumentException.class, () -> service.verify(7L, "ORD-1", 44000L, tampered));
+        assertThrows(IllegalArgumentException.class, () -> service.verify(8L, "ORD-1", 44000L, discountInfo));
+        assertThrows(IllegalArgumentException.class, () -> service.verify(7L, "ORD-1", 1000L, discountInfo));
+    }
+
+    @Test
+    void expiredQuoteIsRejected() {
+        CheckoutQuoteService expiring = new CheckoutQuoteService(checkOutService, capService,
+                userCouponService, pointsService, "test-quote-secret", -1);
+        CheckoutQuote quote = service.quote(7L, request(null, false, null));
+        Map<String, Object> discountInfo = discountInfo(quote);
+        discountInfo.put("expiresAt", System.currentTimeMillis() - 1000);
+
+        // 만료 시각도 서명에 포함되므로 바꾸면 서명 오류, 그대로면 만료 오류
+        assertThrows(IllegalArgumentException.class, () -> expiring.verify(7L, "ORD-1", 50000L, discountInfo));
+        CheckoutQuote stale = expiring.quote(7L, request(null, false, null));
+        assertThrows(IllegalStateException.class, () -> service.verify(7L, "ORD-1", 50000L, discountInfo(stale)));
+    }
+
+    private CheckoutQuoteRequest request(Long userCouponId, boolean bestCoupon, Long pointsToUse) {
+        CheckoutQuoteRequest request = new CheckoutQuoteRequest();
+        request.setOrderId("ORD-1");
+        request.setUserCouponId(userCouponId);
+        request.setBestCoupon(bestCoupon);
+        request.setPointsToUse(pointsToUse);
+        return request;
+    }
+
+    private Map<String, Object> discountInfo(CheckoutQuote quote) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("originalAmount", quote.getOriginalAmount());
+        info.put("userCouponId", quote.getUserCouponId());
+        info.put("couponDiscount", quote.getCouponDiscount());
+        info.put("pointsUsed", quote.getPointsUsed());
+        info.put("finalAmount", quote.getFinalAmount());
+        info.put("expiresAt", quote.getExpiresAt());
+        info.put("signature", quote.getSignature());
+        return info;
+    }
+
+    private CapDetailResponse cap(Long id, Long price) {
+        Cap cap = new Cap();
+        cap.setId(id);
+        cap.setName("cap " + id);
+        cap.setPrice(price);
+        return new CapDetailResponse(cap);
+    }
+
+    private QuotableCoupon coupon(Long id, CouponType type, int value, Long minOrderAmount) {
+        Coupon coupon = new Coupon("쿠폰 " + id, "C" + id, type, value, minOrderAmount, null, null);
+        UserCoupon userCoupon = new UserCoupon(User.builder().email("a@test.com").build(), coupon);
+        userCoupon.setId(id);
+        userCoupon.setValidFrom(LocalDateTime.now().minusDays(1));
+        return new QuotableCoupon(userCoupon);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.capshop.domain.Coupon;
+import com.example.capshop.domain.CouponType;
+import com.example.capshop.domain.User;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@Import({ UserCouponService.class, CouponService.class, SchedulerLockService.class })
+class CouponExpiryTest {
+
+    @Autowired
+    private UserCouponService userCouponService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private Long couponId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        User user = User.builder().email("expiry@test.com").name("만료").build();
+        entityManager.persist(user);
+        Coupon coupon = new Coupon("만료 테스트", "EXPIRY", CouponType.AMOUNT, 1000, null, null, null);
+        entityManager.persist(coupon);
+        entityManager.flush();
+        userId = user.getId();
+        couponId = coupon.getId();
+    }
+
+    @Test
+    void expiresOnlyPastDueAvailableCouponsInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        insertCoupons(2500, "AVAILABLE", now.minusDays(1));   // 만료 대상
+        insertCoupons(300, "AVAILABLE", now.plusDays(1));     // 아직 유효
+        insertCoupons(200, "USED", now.minusDays(1));         // 이미 사용
+
+        int expired = userCouponService.expireOldCoupons(now, 1000, Duration.ofMinutes(1));
+
+        assertEquals(2500, expired);
+        assertEquals(2500, count("EXPIRED"));
+        assertEquals(300, count("AVAILABLE"));
+        assertEquals(200, count("USED"));
+        Map<?, ?> lastRun = (Map<?, ?>) userCouponService.expiryStats().get("lastRun");
+        assertEquals(3, lastRun.get("chunks"));
+        assertEquals(true, lastRun.get("completed"));
+    }
+
+    @Test
+    void stopsAtTimeLimitAndResumesOnNextRun() {
+        LocalDateTime now = LocalDateTime.now();
+        insertCoupons(1500, "AVAILABLE", now.minusDays(1));
+
+        int first = userCouponService.expireOldCoupons(now, 500, Duration.ZERO);
+        int second = userCouponService.expireOldCoupons(now, 500, Duration.ofMinutes(1));
+
+        assertEquals(500, first);
+        assertEquals(1000, second);
+        assertEquals(1500, count("EXPIRED"));
+    }
+
+    /**
+     * 대량 만료 (기본 100만 건, CAPSHOP_COUPON_ROWS 로 1000만 건까지)
+     * 오래 걸리므로 CAPSHOP_BENCHMARK=true 일 때만 실행
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "CAPSHOP_BENCHMARK", matches = "true")
+    void expiresLargeBacklogWithinTimeLimit() {
+        int rows = Integer.parseInt(System.getenv().getOrDefault("CAPSHOP_COUPON_ROWS", "1000000"));
+        LocalDateTime now = LocalDateTime.now();
+        insertCoupons(rows / 2, "AVAILABLE", now.minusDays(1));
+        insertCoupons(rows - rows / 2, "AVAILABLE", now.plusDays(1));
+
+        long start = System.nanoTime();
+        int expired = userCouponService.expireOldCoupons(now, 1000, Duration.ofMinutes(10));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("쿠폰 %d건 중 %d건 만료: %dms%n", rows, expired, elapsedMs);
+        assertEquals(rows / 2, expired);
+        assertTrue(elapsedMs < Duration.ofMinutes(10).toMillis());
+    }
+
+    private void insertCoupons(int rows, String status, LocalDateTime validUntil) {
+        Timestamp obtainedAt = Timestamp.valueOf(validUntil.minusDays(30));
+        Timestamp until = Timestamp.valueOf(validUntil);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] { userId, couponId, status, obtainedAt, obtainedAt, until });
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO user_coupon "
+                        + "(user_id, coupon_id, status, obtained_at, valid_from, valid_until) VALUES (?, ?, ?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private int count(String status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_coupon WHERE status = ?", Integer.class, status);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+class MediaServingServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final MediaServingService service = new MediaServingService();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dir.resolve("1712345678901_clip.mp4"), "0123456789");
+        Files.writeString(dir.resolve("mainvideo.mov"), "abc");
+    }
+
+    @Test
+    void servesSingleRangeAsPartialContent() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.serve(dir, "1712345678901_clip.mp4", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("video/mp4", response.getContentType());
+        assertTrue(response.getHeader("Cache-Control").contains("immutable"));
+    }
+
+    @Test
+    void matchingEtagReturnsNotModified() throws IOException {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        service.serve(dir, "mainvideo.mov", get(), first);
+        assertEquals("video/quicktime", first.getContentType());
+        assertEquals("public, max-age=0, must-revalidate", first.getHeader("Cache-Control"));
+
+        MockHttpServletRequest request = get();
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        service.serve(dir, "mainvideo.mov", request, second);
+
+        assertEquals(304, second.getStatus());
+        assertEquals(0, second.getContentAsByteArray().length);
+    }
+
+    @Test
+    void unsatisfiableRangeAndTraversalAreRejected() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=50-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(dir, "1712345678901_clip.mp4", request, response);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+
+        MockHttpServletResponse traversal = new MockHttpServletResponse();
+        service.serve(dir.resolve("sub"), "../mainvideo.mov", get(), traversal);
+        assertEquals(404, traversal.getStatus());
+    }
+
+    /**
+     * 100MB 비디오를 여러 클라이언트가 동시에 받을 때 처리량과 힙 증가량 측정
+     * CAPSHOP_BENCHMARK=true 일 때만 실행
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "CAPSHOP_BENCHMARK", matches = "true")
+    void benchmarkConcurrentLargeVideo() throws Exception {
+        Path video = dir.resolve("1712345678901_big.mp4");
+        try (RandomAccessFile file = new RandomAccessFile(video.toFile(), "rw")) {
+            file.setLength(100L * 1024 * 1024);
+        }
+        int clients = 32;
+        AtomicLong bytes = new AtomicLong();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        AtomicLong heapPeak = new AtomicLong(heapBefore);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    MockHttpServletResponse response = new DiscardingResponse(bytes);
+                    service.serve(dir, video.getFileName().toString(), get(), response);
+                    heapPeak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("클라이언트 %d, 전송 %dMB, %.1fMB/s, 힙 증가 최대 %dMB%n",
+                clients, bytes.get() >> 20, (bytes.get() >> 20) / seconds, (heapPeak.get() - heapBefore) >> 20);
+        assertEquals(clients * 100L * 1024 * 1024, bytes.get());
+    }
+
+    private MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/videos/test");
+    }
+
+    // 받은 바이트 수만 세고 버리는 응답 (MockHttpServletResponse 는 본문을 메모리에 쌓기 때문)
+    private static class DiscardingResponse extends MockHttpServletResponse {
+        private final AtomicLong counter;
+
+        DiscardingResponse(AtomicLong counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    counter.incrementAndGet();
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    counter.addAndGet(len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+            };
+        }
+    }
+}
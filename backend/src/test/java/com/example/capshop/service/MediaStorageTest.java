@@ -0,0 +1,105 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.example.capshop.dto.StoredMedia;
+import com.sun.net.httpserver.HttpServer;
+
+class MediaStorageTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void localStorageDeduplicatesIdenticalUploadsIntoShardedPath() throws IOException {
+        LocalMediaStorage storage = new LocalMediaStorage(
+                dir.resolve("images").toString(), dir.resolve("reviews").toString(), "http://cdn.test");
+
+        StoredMedia first = storage.store(MediaStorage.IMAGES, file("a.JPG", "same bytes"));
+        StoredMedia second = storage.store(MediaStorage.IMAGES, file("other-name.jpg", "same bytes"));
+
+        assertEquals(first.getKey(), second.getKey());
+        assertFalse(first.isDeduplicated());
+        assertTrue(second.isDeduplicated());
+        assertTrue(first.getKey().endsWith(".jpg"));
+        assertEquals("http://cdn.test/images/" + first.getKey(), first.getUrl());
+
+        String relative = storage.localPath(MediaStorage.IMAGES, first.getKey());
+        assertEquals(first.getKey().substring(0, 2) + "/" + first.getKey().substring(2, 4) + "/" + first.getKey(), relative);
+        assertEquals("same bytes", Files.readString(dir.resolve("images").resolve(relative)));
+        try (var files = Files.list(dir.resolve("images").resolve(".tmp"))) {
+            assertEquals(0, files.count()); // 임시 파일이 남지 않음
+        }
+        assertEquals(null, storage.localPath(MediaStorage.IMAGES, "../reviews/x.jpg"));
+    }
+
+    @Test
+    void s3StorageSkipsUploadWhenObjectAlreadyExists() throws IOException {
+        // 로컬 S3 대역: PUT 은 저장, HEAD 는 존재 여부, DELETE 는 삭제 (서명은 검사하지 않음)
+        Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        AtomicInteger puts = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            assertNotNull(exchange.getRequestHeaders().getFirst("Authorization"));
+            int status;
+            switch (exchange.getRequestMethod()) {
+                case "PUT":
+                    objects.put(path, exchange.getRequestBody().readAllBytes());
+                    puts.incrementAndGet();
+                    status = 200;
+                    break;
+                case "HEAD":
+                    status = objects.containsKey(path) ? 200 : 404;
+                    break;
+                case "DELETE":
+                    objects.remove(path);
+                    status = 204;
+                    break;
+                default:
+                    status = 405;
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String endpoint = "http://127.0.0.1:" + server.getAddress().getPort();
+            S3MediaStorage storage = new S3MediaStorage(endpoint, "media", "us-east-1", "key", "secret", "");
+
+            StoredMedia first = storage.store(MediaStorage.REVIEW_IMAGES, file("r.png", "review bytes"));
+            StoredMedia second = storage.store(MediaStorage.REVIEW_IMAGES, file("r2.png", "review bytes"));
+
+            assertEquals(1, puts.get());
+            assertTrue(second.isDeduplicated());
+            String objectPath = "/media/review-images/" + first.getKey().substring(0, 2) + "/"
+                    + first.getKey().substring(2, 4) + "/" + first.getKey();
+            assertEquals("review bytes", new String(objects.get(objectPath)));
+            assertEquals(endpoint + objectPath, first.getUrl());
+
+            assertTrue(storage.delete(MediaStorage.REVIEW_IMAGES, first.getKey()));
+            assertTrue(objects.isEmpty());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "application/octet-stream", content.getBytes());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.CapStock;
+import com.example.capshop.domain.PaymentStatus;
+import com.example.capshop.domain.Status;
+import com.example.capshop.domain.User;
+import com.example.capshop.domain.order.Order;
+import com.example.capshop.domain.order.OrderItem;
+import com.example.capshop.domain.order.Payment;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.CapStockRepository;
+import com.example.capshop.repository.OrderRepository;
+import com.example.capshop.repository.PaymentRepository;
+import com.example.capshop.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// 취소가 각자 커밋/롤백되어야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest
+@Import({ OrderService.class, StockReservationService.class, OrderCancelTest.TossStub.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderCancelTest {
+
+    @TestConfiguration
+    static class TossStub {
+        @Bean
+        TossPaymentsClient tossPaymentsClient() {
+            return mock(TossPaymentsClient.class);
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private TossPaymentsClient tossPaymentsClient;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private CapStockRepository capStockRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Cap cap;
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        reset(tossPaymentsClient);
+        User user = userRepository.save(User.builder().email("cancel-" + System.nanoTime() + "@test.com")
+                .name("취소 회원").build());
+
+        cap = new Cap();
+        cap.setName("취소 캡");
+        cap.setPrice(30000L);
+        cap.setStock(0L);
+        capRepository.save(cap);
+        capStockRepository.save(new CapStock(cap, "M", 5L));
+
+        // 재고 5개 중 2개가 이미 팔린 결제 완료 주문
+        orderId = new TransactionTemplate(transactionManager).execute(status -> {
+            Order order = new Order(user);
+            order.setOrderId("ORD-CANCEL-" + System.nanoTime());
+            order.addOrderItem(new OrderItem(cap, 2, 30000L, "M"));
+            orderRepository.save(order);
+            Payment payment = new Payment(order, "pk-cancel", "CARD", 60000L);
+            payment.approve();
+            paymentRepository.save(payment);
+            return order.getId();
+        });
+    }
+
+    @Test
+    void failedTossCancelLeavesStockAndOrderUntouched() {
+        when(tossPaymentsClient.cancel(anyString(), anyString()))
+                .thenThrow(new TossPaymentsClient.TossPaymentException(500, "PROVIDER_ERROR", "일시적인 오류", false));
+
+        assertThrows(RuntimeException.class, () -> orderService.cancelOrder(orderId));
+
+        assertEquals(5L, stock());
+        assertEquals(Status.ORDERED, orderRepository.findById(orderId).orElseThrow().getStatus());
+        assertEquals(PaymentStatus.APPROVED, payment().getStatus());
+
+        // 다시 시도하면 한 번만 복구된다
+        reset(tossPaymentsClient);
+        when(tossPaymentsClient.cancel(anyString(), anyString())).thenReturn(new ObjectMapper().createObjectNode());
+        orderService.cancelOrder(orderId);
+
+        assertEquals(7L, stock());
+        assertEquals(Status.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+        assertEquals(PaymentStatus.CANCELED, payment().getStatus());
+    }
+
+    @Test
+    void secondCancelIsRejectedWithoutRestock() {
+        when(tossPaymentsClient.cancel(anyString(), anyString())).thenReturn(new ObjectMapper().createObjectNode());
+
+        orderService.cancelOrder(orderId);
+        assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(orderId));
+
+        assertEquals(7L, stock());
+        verify(tossPaymentsClient, times(1)).cancel(anyString(), anyString());
+    }
+
+    private long stock() {
+        return capStockRepository.findByCapAndSize(cap, "M").orElseThrow().getStock();
+    }
+
+    private Payment payment() {
+        return paymentRepository.findAll().stream()
+                .filter(p -> p.getOrder().getId().equals(orderId))
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.OutboxEvent;
+import com.example.capshop.domain.OutboxEventType;
+import com.example.capshop.domain.OutboxStatus;
+import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.dto.StockLine;
+import com.example.capshop.repository.CartItemRepository;
+import com.example.capshop.repository.OutboxEventRepository;
+
+class OutboxDispatcherTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private PointsService pointsService;
+    private CheckOutService checkOutService;
+    private CartItemRepository cartItemRepository;
+    private OutboxDispatcher dispatcher;
+    private OutboxEvent event;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        pointsService = mock(PointsService.class);
+        checkOutService = mock(CheckOutService.class);
+        cartItemRepository = mock(CartItemRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        dispatcher = new OutboxDispatcher(outboxEventRepository, pointsService, checkOutService,
+                cartItemRepository, mock(OrderService.class),
+                new TransactionTemplate(transactionManager), 100, 4);
+
+        event = new OutboxEvent("order-points:1", OutboxEventType.ORDER_POINTS, "{\"userId\":7,\"amount\":20000}");
+        ReflectionTestUtils.setField(event, "id", 1L);
+        when(outboxEventRepository.findDueIds(any(), any(), any())).thenReturn(List.of(1L));
+        when(outboxEventRepository.findForUpdateSkipLocked(1L)).thenReturn(Optional.of(event));
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(event));
+    }
+
+    @Test
+    void processesEventOnceAndMarksDone() {
+        assertEquals(1, dispatcher.dispatch());
+        dispatcher.dispatch(); // 이미 DONE 이므로 다시 반영하지 않음
+
+        assertEquals(OutboxStatus.DONE, event.getStatus());
+        verify(pointsService, times(1)).addOrderPoints(7L, 20000L);
+        assertEquals(1L, dispatcher.stats().get("processed"));
+    }
+
+    @Test
+    void transientFailureIsRetriedLater() {
+        doThrow(new RuntimeException("DB 연결 오류")).when(pointsService).addOrderPoints(7L, 20000L);
+
+        dispatcher.dispatch();
+
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertEquals("DB 연결 오류", event.getLastError());
+    }
+
+    @Test
+    void businessRuleViolationGoesStraightToDead() {
+        doThrow(new IllegalArgumentException("사용자를 찾을 수 없습니다.")).when(pointsService).addOrderPoints(7L, 20000L);
+
+        dispatcher.dispatch();
+
+        assertEquals(OutboxStatus.DEAD, event.getStatus());
+        assertEquals(1L, dispatcher.stats().get("deadLettered"));
+    }
+
+    @Test
+    void checkoutCleanupRemovesOnlyPaidCartLines() {
+        OutboxEvent cleanup = new OutboxEvent("checkout-cleanup:500", OutboxEventType.CHECKOUT_CLEANUP,
+                "{\"userId\":7,\"checkOutId\":3}");
+        ReflectionTestUtils.setField(cleanup, "id", 2L);
+        when(outboxEventRepository.findDueIds(any(), any(), any())).thenReturn(List.of(2L));
+        when(outboxEventRepository.findForUpdateSkipLocked(2L)).thenReturn(Optional.of(cleanup));
+        CheckOut checkOut = new CheckOut("홍길동", "서울", "010-0000-0000", "[]");
+        when(checkOutService.findById(3L)).thenReturn(Optional.of(checkOut));
+        when(checkOutService.toStockLines(checkOut))
+                .thenReturn(List.of(new StockLine(10L, "M", 2), new StockLine(11L, null, 1)));
+
+        dispatcher.dispatch();
+
+        assertEquals(OutboxStatus.DONE, cleanup.getStatus());
+        verify(cartItemRepository).deleteLine(7L, 10L, "M");
+        verify(cartItemRepository).deleteUnsizedLine(7L, 11L);
+        verify(cartItemRepository, never()).deleteByUser(any());
+        verify(checkOutService).deleteById(3L);
+    }
+}
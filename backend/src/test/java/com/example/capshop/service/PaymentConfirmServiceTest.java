@@ -0,0 +1,313 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.OutboxEventType;
+import com.example.capshop.domain.PaymentAttemptStatus;
+import com.example.capshop.domain.User;
+import com.example.capshop.domain.order.CheckOut;
+import com.example.capshop.domain.order.Order;
+import com.example.capshop.domain.order.PaymentAttempt;
+import com.example.capshop.dto.CheckoutQuote;
+import com.example.capshop.dto.StockLine;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.OrderRepository;
+import com.example.capshop.repository.PaymentAttemptRepository;
+import com.example.capshop.repository.PaymentRepository;
+import com.example.capshop.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PaymentConfirmServiceTest {
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private final AtomicReference<PaymentAttempt> stored = new AtomicReference<>();
+
+    private PaymentAttemptRepository paymentAttemptRepository;
+    private CheckOutService checkOutService;
+    private OrderRepository orderRepository;
+    private PointsService pointsService;
+    private StockReservationService stockReservationService;
+    private TossPaymentsClient tossPaymentsClient;
+    private OutboxService outboxService;
+    private UserCouponService userCouponService;
+    private PaymentConfirmService service;
+    private User user;
+    private List<StockLine> lines;
+
+    @BeforeEach
+    void setUp() {
+        paymentAttemptRepository = mock(PaymentAttemptRepository.class);
+        checkOutService = mock(CheckOutService.class);
+        CapRepository capRepository = mock(CapRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        pointsService = mock(PointsService.class);
+        stockReservationService = mock(StockReservationService.class);
+        tossPaymentsClient = mock(TossPaymentsClient.class);
+
+        // 트랜잭션 안/밖을 기록하는 가짜 트랜잭션 매니저
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> {
+            inTransaction.set(true);
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(inv -> {
+            inTransaction.set(false);
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(inv -> {
+            inTransaction.set(false);
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        outboxService = mock(OutboxService.class);
+        userCouponService = mock(UserCouponService.class);
+        // 서명 확인은 CheckoutQuoteService 몫이므로 여기서는 실려 온 값을 그대로 견적으로 돌려준다
+        CheckoutQuoteService checkoutQuoteService = mock(CheckoutQuoteService.class);
+        when(checkoutQuoteService.verify(anyLong(), anyString(), any(), any())).thenAnswer(inv -> {
+            Map<String, Object> info = inv.getArgument(3);
+            return CheckoutQuote.builder()
+                    .originalAmount((Long) info.get("originalAmount"))
+                    .userCouponId((Long) info.get("userCouponId"))
+                    .couponDiscount((Long) info.get("couponDiscount"))
+                    .pointsUsed((Long) info.get("pointsUsed"))
+                    .finalAmount((Long) info.get("finalAmount"))
+                    .build();
+        });
+        service = new PaymentConfirmService(paymentAttemptRepository, checkOutService,
+                checkoutQuoteService, capRepository,
+                orderRepository, mock(PaymentRepository.class), userRepository,
+                pointsService, userCouponService, stockReservationService, tossPaymentsClient,
+                outboxService, new TransactionTemplate(transactionManager));
+
+        user = User.builder().email("a@test.com").name("홍길동").build();
+        user.setId(7L);
+        when(userRepository.getReferenceById(7L)).thenReturn(user);
+
+        CheckOut checkOut = new CheckOut("홍길동", "서울", "010-0000-0000", "[]");
+        checkOut.setId(1L);
+        checkOut.setOrderId("ORD-1");
+        checkOut.setUserId(7L);
+        lines = List.of(new StockLine(10L, "M", 2));
+        when(checkOutService.findByOrderId("ORD-1")).thenReturn(Optional.of(checkOut));
+        when(checkOutService.findById(1L)).thenReturn(Optional.of(checkOut));
+        when(checkOutService.toStockLines(checkOut)).thenReturn(lines);
+
+        Cap cap = new Cap();
+        cap.setId(10L);
+        cap.setName("볼캡");
+        cap.setPrice(10000L);
+        when(capRepository.findByIdIn(any())).thenReturn(List.of(cap));
+
+        // PaymentAttempt 저장소 흉내 (한 건)
+        when(paymentAttemptRepository.findForUpdateByOrderId("ORD-1")).thenAnswer(inv -> Optional.ofNullable(stored.get()));
+        when(paymentAttemptRepository.save(any(PaymentAttempt.class))).thenAnswer(inv -> {
+            PaymentAttempt attempt = inv.getArgument(0);
+            ReflectionTestUtils.setField(attempt, "id", 100L);
+            stored.set(attempt);
+            return attempt;
+        });
+        when(paymentAttemptRepository.findByOrderId("ORD-1")).thenAnswer(inv -> Optional.ofNullable(stored.get()));
+        when(paymentAttemptRepository.findById(100L)).thenAnswer(inv -> Optional.ofNullable(stored.get()));
+        when(paymentAttemptRepository.findForUpdateById(100L)).thenAnswer(inv -> Optional.ofNullable(stored.get()));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
+            Order order = inv.getArgument(0);
+            order.setId(500L);
+            return order;
+        });
+    }
+
+    @Test
+    void tossIsCalledWithNoTransactionOpenAndOrderIsCreated() throws Exception {
+        when(tossPaymentsClient.confirm("pay_1", "ORD-1", 20000L)).thenAnswer(inv -> {
+            assertFalse(inTransaction.get(), "토스 호출 중에는 트랜잭션이 열려 있으면 안 된다");
+            return done();
+        });
+
+        Order order = service.confirm(user, "pay_1", "ORD-1", 20000L, quote(20000L, null, 0L, 0L));
+
+        assertEquals(500L, order.getId());
+        assertEquals(20000L, order.getFinal_price());
+        assertEquals(PaymentAttemptStatus.COMPLETED, stored.get().getStatus());
+        assertEquals("카드", stored.get().getPaymentMethod());
+        verify(stockReservationService).commitCheckout(1L, lines);
+        // 적립/정리는 같은 트랜잭션에서 아웃박스에 적재만 한다
+        verify(outboxService).enqueue(eq(OutboxEventType.ORDER_POINTS), eq("order-points:500"), any());
+        verify(outboxService).enqueue(eq(OutboxEventType.CHECKOUT_CLEANUP), eq("checkout-cleanup:500"), any());
+        verify(checkOutService, never()).deleteById(any());
+    }
+
+    @Test
+    void orderFailureAfterApprovalCancelsPaymentAndRestoresStockAndPoints() throws Exception {
+        when(tossPaymentsClient.confirm(anyString(), anyString(), anyLong())).thenReturn(done());
+        doThrow(new RuntimeException("DB 오류")).when(orderRepository).save(any(Order.class));
+
+        assertThrows(RuntimeException.class,
+                () -> service.confirm(user, "pay_1", "ORD-1", 19000L, quote(20000L, null, 0L, 1000L)));
+
+        assertEquals(PaymentAttemptStatus.FAILED, stored.get().getStatus());
+        verify(tossPaymentsClient).cancel(eq("pay_1"), anyString());
+        verify(stockReservationService).release(lines);
+        verify(pointsService).usePoints(argThat(req -> req.getAmount() == 1000L));
+        verify(pointsService).addPoints(argThat(req -> req.getAmount() == 1000L));
+    }
+
+    @Test
+    void rejectedPaymentIsCompensatedWithoutCancelCall() {
+        when(tossPaymentsClient.confirm(anyString(), anyString(), anyLong())).thenThrow(
+                new TossPaymentsClient.TossPaymentException(400, "REJECT_CARD_PAYMENT", "한도 초과", false));
+
+        assertThrows(RuntimeException.class, () -> service.confirm(user, "pay_1", "ORD-1", 20000L, quote(20000L, null, 0L, 0L)));
+
+        assertEquals(PaymentAttemptStatus.FAILED, stored.get().getStatus());
+        verify(tossPaymentsClient, never()).cancel(anyString(), anyString());
+        verify(stockReservationService).release(lines);
+    }
+
+    @Test
+    void unknownOutcomeIsLeftForRecoveryAndFinishedLater() throws Exception {
+        when(tossPaymentsClient.confirm(anyString(), anyString(), anyLong()))
+                .thenThrow(new TossPaymentsClient.TossPaymentException(-1, "TIMEOUT", "시간 초과", true))
+                .thenReturn(done());
+
+        assertThrows(IllegalStateException.class, () -> service.confirm(user, "pay_1", "ORD-1", 20000L, quote(20000L, null, 0L, 0L)));
+        assertEquals(PaymentAttemptStatus.CONFIRMING, stored.get().getStatus());
+        verify(stockReservationService, never()).release(any());
+
+        // 서버 재시작 후 복구 작업이 같은 결제를 이어서 승인/주문 생성
+        when(paymentAttemptRepository.findStaleIds(any(), any(), any())).thenReturn(List.of(100L));
+        assertEquals(1, service.recoverStale(LocalDateTime.now()));
+
+        assertEquals(PaymentAttemptStatus.COMPLETED, stored.get().getStatus());
+        assertEquals(500L, stored.get().getCreatedOrderId());
+        verify(tossPaymentsClient, times(2)).confirm("pay_1", "ORD-1", 20000L);
+    }
+
+    @Test
+    void repeatedConfirmReturnsSameOrderWithoutCallingTossAgain() throws Exception {
+        when(tossPaymentsClient.confirm(anyString(), anyString(), anyLong())).thenReturn(done());
+        Order first = service.confirm(user, "pay_1", "ORD-1", 20000L, quote(20000L, null, 0L, 0L));
+        when(orderRepository.findById(500L)).thenReturn(Optional.of(first));
+
+        Order second = service.confirm(user, "pay_1", "ORD-1", 20000L, quote(20000L, null, 0L, 0L));
+
+        assertEquals(first.getId(), second.getId());
+        verify(tossPaymentsClient, times(1)).confirm(anyString(), anyString(), anyLong());
+        verify(orderRepository, times(1)).save(any(Order.class));
+        // 같은 주문번호에 다른 결제키는 거절
+        assertThrows(IllegalStateException.class, () -> service.confirm(user, "pay_2", "ORD-1", 20000L, quote(20000L, null, 0L, 0L)));
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForFirstRequest() throws Exception {
+        CountDownLatch tossCalled = new CountDownLatch(1);
+        CountDownLatch releaseToss = new CountDownLatch(1);
+        when(tossPaymentsClient.confirm(anyString(), anyString(), anyLong())).thenAnswer(inv -> {
+            tossCalled.countDown();
+            releaseToss.await(5, TimeUnit.SECONDS);
+            return done();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Order> first = executor.submit(() -> service.confirm(user, "pay_1", "ORD-1", 20000L, quote(20000L, null, 0L, 0L)));
+            assertTrue(tossCalled.await(5, TimeUnit.SECONDS));
+            Future<Order> duplicate = executor.submit(() -> service.confirm(user, "pay_1", "ORD-1", 20000L, quote(20000L, null, 0L, 0L)));
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone(), "중복 요청은 첫 요청이 끝날 때까지 기다려야 한다");
+            releaseToss.countDown();
+
+            assertEquals(500L, first.get(5, TimeUnit.SECONDS).getId());
+            assertEquals(500L, duplicate.get(5, TimeUnit.SECONDS).getId());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(tossPaymentsClient, times(1)).confirm(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void confirmWithoutVerifiedQuoteIsRejectedBeforeToss() {
+        // 서명 없이 프론트 계산값만 보낸 요청
+        Map<String, Object> unsigned = new HashMap<>(quote(20000L, null, 0L, 19000L));
+        unsigned.remove("signature");
+        assertThrows(IllegalArgumentException.class, () -> service.confirm(user, "pay_1", "ORD-1", 1000L, unsigned));
+        assertThrows(IllegalArgumentException.class, () -> service.confirm(user, "pay_1", "ORD-1", 1000L, null));
+
+        // 금액 식(원가 - 쿠폰 - 포인트 = 결제액)이 맞지 않는 견적
+        Map<String, Object> inflated = new HashMap<>(quote(20000L, null, 0L, 0L));
+        inflated.put("finalAmount", 1000L);
+        assertThrows(IllegalArgumentException.class, () -> service.confirm(user, "pay_1", "ORD-1", 1000L, inflated));
+
+        verify(tossPaymentsClient, never()).confirm(anyString(), anyString(), anyLong());
+        verify(pointsService, never()).usePoints(any());
+        verify(stockReservationService, never()).commitCheckout(any(), any());
+    }
+
+    @Test
+    void couponDiscountDifferentFromQuoteIsCompensated() throws Exception {
+        when(tossPaymentsClient.confirm(anyString(), anyString(), anyLong())).thenReturn(done());
+        when(userCouponService.markCouponUsedOnSuccess(eq(7L), eq(55L), any(Order.class))).thenReturn(1000L);
+
+        assertThrows(RuntimeException.class,
+                () -> service.confirm(user, "pay_1", "ORD-1", 17000L, quote(20000L, 55L, 3000L, 0L)));
+
+        assertEquals(PaymentAttemptStatus.FAILED, stored.get().getStatus());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(tossPaymentsClient).cancel(eq("pay_1"), anyString());
+        verify(stockReservationService).release(lines);
+    }
+
+    // 서명된 견적 (CheckoutQuoteService.verify 를 통과한 값으로 취급)
+    private Map<String, Object> quote(Long originalAmount, Long userCouponId, Long couponDiscount, Long pointsUsed) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("originalAmount", originalAmount);
+        info.put("userCouponId", userCouponId);
+        info.put("couponDiscount", couponDiscount);
+        info.put("pointsUsed", pointsUsed);
+        info.put("finalAmount", originalAmount - couponDiscount - pointsUsed);
+        info.put("expiresAt", System.currentTimeMillis() + 60_000);
+        info.put("signature", "signed");
+        return info;
+    }
+
+    private JsonNode done() throws Exception {
+        return new ObjectMapper().readTree("{\"status\":\"DONE\",\"method\":\"카드\"}");
+    }
+}
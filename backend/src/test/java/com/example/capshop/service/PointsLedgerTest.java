@@ -0,0 +1,213 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capshop.domain.PointsLedgerEntry;
+import com.example.capshop.domain.User;
+import com.example.capshop.dto.PointsHistoryPageResponse;
+import com.example.capshop.dto.PointsHistoryResponse;
+import com.example.capshop.dto.PointsRequest;
+import com.example.capshop.repository.PointsLedgerRepository;
+import com.example.capshop.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 동시 사용이 각자 커밋되어야 하므로 테스트 트랜잭션 없이 실행
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ PointsService.class, BatchJobRunner.class, SchedulerLockService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PointsLedgerTest {
+
+    @Autowired
+    private PointsService pointsService;
+    @Autowired
+    private PointsLedgerRepository pointsLedgerRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM points_ledger");
+        jdbcTemplate.update("DELETE FROM points_snapshot");
+        jdbcTemplate.update("DELETE FROM batch_checkpoint");
+
+        userId = newUser(0L);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void concurrentSpendsNeverOverdraw() throws Exception {
+        pointsService.addPoints(request(1000L, "테스트 적립"));
+
+        statistics.clear();
+        pointsService.usePoints(request(10L, "주문 결제"));
+        assertEquals(2, statistics.getPrepareStatementCount()); // 조건부 UPDATE + 원장 INSERT, 사용자 SELECT 없음
+
+        // 남은 990 을 8 스레드가 10씩 30번 (240번 시도)
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 30; i++) {
+                    try {
+                        pointsService.usePoints(request(10L, "주문 결제"));
+                        succeeded.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(99, succeeded.get());
+        assertEquals(141, rejected.get());
+        assertEquals(0L, pointsService.getPoints(userId));
+        // 거절된 사용은 원장에 남지 않는다: 원장 합계 = 캐시 잔액
+        assertEquals(0L, pointsLedgerRepository.sumBetween(userId, null, LocalDateTime.now().plusDays(1)));
+        assertEquals(101, pointsLedgerRepository.count());
+
+        statistics.clear();
+        assertThrows(IllegalArgumentException.class, () -> pointsService.usePoints(request(1L, "주문 결제")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void monthEndSnapshotsReconstructBalance() {
+        Long other = newUser(0L);
+        record(userId, 1000L, LocalDateTime.of(2024, 7, 10, 9, 0));
+        record(userId, -300L, LocalDateTime.of(2024, 8, 5, 9, 0));
+        record(userId, 200L, LocalDateTime.of(2024, 8, 20, 9, 0));
+        record(userId, 50L, LocalDateTime.of(2024, 9, 3, 9, 0));
+        record(other, 700L, LocalDateTime.of(2024, 8, 31, 23, 59));
+
+        pointsService.snapshotMonth(YearMonth.of(2024, 7));
+        pointsService.snapshotMonth(YearMonth.of(2024, 8));
+        assertTrue(pointsService.hasSnapshot(YearMonth.of(2024, 8)));
+        // 같은 달을 다시 만들어도 결과가 같다
+        pointsService.snapshotMonth(YearMonth.of(2024, 8));
+
+        // 스냅샷 1건 조회 + 한 달 치 원장 합계
+        statistics.clear();
+        assertEquals(950L, pointsService.getLedgerBalance(userId, LocalDateTime.of(2024, 9, 10, 0, 0)));
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        assertEquals(700L, pointsService.getLedgerBalance(userId, LocalDateTime.of(2024, 8, 10, 0, 0)));
+        assertEquals(1000L, pointsService.getLedgerBalance(userId, LocalDateTime.of(2024, 8, 1, 0, 0)));
+        assertEquals(0L, pointsService.getLedgerBalance(userId, LocalDateTime.of(2024, 7, 1, 0, 0)));
+        assertEquals(700L, pointsService.getLedgerBalance(other, LocalDateTime.of(2024, 9, 1, 0, 0)));
+
+        // 원장 전체를 더한 값과 같다
+        for (LocalDateTime at : List.of(LocalDateTime.of(2024, 8, 21, 0, 0), LocalDateTime.of(2024, 12, 1, 0, 0))) {
+            assertEquals(pointsLedgerRepository.sumBetween(userId, null, at), pointsService.getLedgerBalance(userId, at));
+        }
+    }
+
+    @Test
+    void openingCarriesBalanceFromBeforeTheLedger() {
+        Long legacy = newUser(5000L);
+        assertTrue(pointsService.needsOpening());
+
+        pointsService.openLedger();
+
+        assertFalse(pointsService.needsOpening());
+        List<PointsHistoryResponse> history = pointsService.getHistory(legacy, null, 20).getItems();
+        assertEquals(1, history.size());
+        assertEquals(5000L, history.get(0).getAmount());
+        assertEquals(PointsService.OPENING_REASON, history.get(0).getReason());
+
+        // 다시 실행해도 원장 합계가 이미 잔액과 같으므로 추가 행 없음
+        assertEquals(0, pointsService.openLedger());
+        assertEquals(1, pointsService.getHistory(legacy, null, 20).getItems().size());
+    }
+
+    @Test
+    void historyPagesNewestFirst() {
+        for (int i = 0; i < 45; i++) {
+            pointsService.addPoints(request(10L + i, "적립 " + i));
+        }
+
+        List<Long> amounts = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            PointsHistoryPageResponse page = pointsService.getHistory(userId, cursor, 20);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            page.getItems().forEach(item -> amounts.add(item.getAmount()));
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasNext(), cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(45, amounts.size());
+        assertEquals(54L, amounts.get(0));
+        assertEquals(10L, amounts.get(44));
+
+        assertThrows(IllegalArgumentException.class, () -> pointsService.getHistory(userId, "abc", 20));
+        assertThrows(IllegalArgumentException.class, () -> pointsService.getHistory(userId + 1000, null, 20));
+    }
+
+    private Long newUser(Long points) {
+        return userRepository.save(User.builder().email("points-" + System.nanoTime() + "@test.com")
+                .name("적립 회원").points(points).build()).getId();
+    }
+
+    // 지난 달 원장 행을 직접 넣는다 (잔액 캐시와는 별개로 스냅샷 계산만 확인)
+    private void record(Long owner, Long amount, LocalDateTime createdAt) {
+        pointsLedgerRepository.save(new PointsLedgerEntry(owner, amount, "테스트", createdAt));
+    }
+
+    private PointsRequest request(Long amount, String reason) {
+        PointsRequest request = new PointsRequest();
+        request.setUserId(userId);
+        request.setAmount(amount);
+        request.setReason(reason);
+        return request;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.Review;
+import com.example.capshop.domain.Status;
+import com.example.capshop.domain.User;
+import com.example.capshop.domain.order.Order;
+import com.example.capshop.domain.order.OrderItem;
+import com.example.capshop.dto.ReviewPageResponse;
+import com.example.capshop.dto.ReviewResponse;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.OrderItemRepository;
+import com.example.capshop.repository.OrderRepository;
+import com.example.capshop.repository.ReviewRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReviewFeedTest {
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ReviewService reviewService;
+    private Statistics statistics;
+    private final List<Review> reviews = new ArrayList<>();
+    private Cap cap;
+    private User writer;
+
+    @BeforeEach
+    void setUp() {
+        reviewService = new ReviewService(reviewRepository, mock(UserService.class), mock(CapService.class),
+                mock(OrderService.class), mock(OutboxService.class), mock(CapReviewStatsService.class),
+                orderItemRepository);
+
+        writer = User.builder().email("feed-writer@test.com").name("작성자").build();
+        User other = User.builder().email("feed-other@test.com").name("다른 작성자").build();
+        entityManager.persist(writer);
+        entityManager.persist(other);
+        cap = new Cap();
+        cap.setName("피드 캡");
+        cap.setPrice(25000L);
+        capRepository.save(cap);
+
+        // 12건: 두 건씩 같은 작성 시각(키셋 동점), 별점 골고루, 세 건 중 하나는 포토 리뷰
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        for (int i = 0; i < 12; i++) {
+            User author = i % 2 == 0 ? writer : other;
+            List<String> images = i % 3 == 0 ? new ArrayList<>(List.of("r" + i + ".jpg")) : null;
+            Review review = new Review(author, cap, purchase(author, i, i % 2 == 0 ? "M" : "L"), 1 + i % 5, "리뷰 " + i, images);
+            review.setCreatedAt(base.plusMinutes(i / 2));
+            reviews.add(reviewRepository.save(review));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void pagesRecentFirstWithFixedQueriesPerPage() {
+        List<ReviewResponse> seen = collect(cursor -> reviewService.getReviewsByCap(cap.getId(), "recent", cursor, 5));
+
+        Comparator<Review> recent = Comparator.comparing(Review::getCreatedAt).thenComparing(Review::getId).reversed();
+        assertEquals(ids(reviews.stream().sorted(recent)), seen.stream().map(ReviewResponse::getId).collect(Collectors.toList()));
+        for (ReviewResponse row : seen) {
+            int i = Integer.parseInt(row.getContent().substring(3));
+            assertEquals(i % 2 == 0 ? "작성자" : "다른 작성자", row.getUserName());
+            assertEquals(i % 2 == 0 ? "M" : "L", row.getSelectedSize());
+            assertEquals(i % 3 == 0 ? 1 : 0, row.getImageUrls().size());
+        }
+    }
+
+    @Test
+    void pagesByRatingThenRecent() {
+        List<ReviewResponse> seen = collect(cursor -> reviewService.getReviewsByCap(cap.getId(), "rating", cursor, 5));
+
+        Comparator<Review> byRating = Comparator.comparing(Review::getRating)
+                .thenComparing(Review::getCreatedAt).thenComparing(Review::getId).reversed();
+        assertEquals(ids(reviews.stream().sorted(byRating)), seen.stream().map(ReviewResponse::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void photoAndUserFeedsFilterInSql() {
+        List<ReviewResponse> photos = collect(cursor -> reviewService.getPhotoReviewsByCap(cap.getId(), cursor, 3));
+        assertEquals(4, photos.size());
+        assertTrue(photos.stream().allMatch(r -> r.getImageUrls().size() == 1));
+
+        List<ReviewResponse> mine = collect(cursor -> reviewService.getReviewsByUser(writer.getId(), cursor, 4));
+        assertEquals(6, mine.size());
+        assertTrue(mine.stream().allMatch(r -> writer.getId().equals(r.getUserId())));
+
+        assertEquals(12, collect(cursor -> reviewService.getAllReviews(cursor, 5)).size());
+    }
+
+    @Test
+    void rejectsBadCursorAndUnknownCap() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reviewService.getReviewsByCap(cap.getId(), "recent", "abc", 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> reviewService.getReviewsByCap(cap.getId(), "rating", "2025-03-01T09:00_1", 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> reviewService.getReviewsByCap(cap.getId() + 1000, "recent", null, 5));
+    }
+
+    // 리뷰마다 구매 주문 한 건 (피드의 구매 사이즈 조회 대상)
+    private Order purchase(User buyer, int i, String size) {
+        Order order = new Order(buyer);
+        order.setOrderId("ORD-FEED-" + i);
+        order.setStatus(Status.DELIVERED);
+        order.addOrderItem(new OrderItem(cap, 1, cap.getPrice(), size));
+        order.calculateTotalPrice();
+        return orderRepository.save(order);
+    }
+
+    // 마지막 페이지까지 따라가며 페이지마다 쿼리 수 확인 (리뷰 행 1 + 이미지 1 + 구매 사이즈 1)
+    private List<ReviewResponse> collect(Function<String, ReviewPageResponse> fetch) {
+        List<ReviewResponse> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            ReviewPageResponse page = fetch.apply(cursor);
+            assertFalse(page.getItems().isEmpty());
+            assertEquals(3, statistics.getPrepareStatementCount());
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasNext(), cursor != null);
+        } while (cursor != null);
+        return seen;
+    }
+
+    private List<Long> ids(Stream<Review> sorted) {
+        return sorted.map(Review::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.repository.SchedulerLockRepository;
+
+// 서버 두 대를 instance id 가 다른 서비스 두 개로 흉내 낸다 (잠금은 커밋되어야 서로 보이므로 테스트 트랜잭션 없이)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchedulerLockServiceTest {
+
+    private static final String JOB = "autoConfirmPurchase";
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private SchedulerLockService nodeA;
+    private SchedulerLockService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM scheduler_lock");
+        nodeA = new SchedulerLockService(schedulerLockRepository, transactionTemplate, "node-a");
+        nodeB = new SchedulerLockService(schedulerLockRepository, transactionTemplate, "node-b");
+    }
+
+    @Test
+    void otherNodeSkipsWhileLockIsHeld() {
+        AtomicInteger runs = new AtomicInteger();
+        boolean ranOnA = nodeA.runExclusively(JOB, LEASE, Duration.ZERO, () -> {
+            runs.incrementAndGet();
+            assertFalse(onOtherThread(() -> nodeB.runExclusively(JOB, LEASE, Duration.ZERO, runs::incrementAndGet)));
+        });
+
+        assertTrue(ranOnA);
+        assertEquals(1, runs.get());
+        // 해제 후에는 다른 서버가 가져가고 토큰이 오른다
+        assertTrue(nodeB.runExclusively(JOB, LEASE, Duration.ZERO, runs::incrementAndGet));
+        assertEquals(2, runs.get());
+        assertEquals(2L, schedulerLockRepository.findFencingToken(JOB));
+        assertEquals("node-b", schedulerLockRepository.findById(JOB).orElseThrow().getOwner());
+    }
+
+    @Test
+    void lockAtLeastKeepsLockAfterQuickRun() {
+        assertTrue(nodeA.runExclusively(JOB, LEASE, Duration.ofMinutes(1), () -> { }));
+
+        // 시계가 조금 늦은 서버가 같은 주기에 다시 실행하지 않는다
+        assertFalse(nodeB.runExclusively(JOB, LEASE, Duration.ZERO, () -> { }));
+    }
+
+    @Test
+    void staleHolderIsFencedAfterLeaseIsTakenOver() {
+        AtomicInteger fencedWrites = new AtomicInteger();
+        assertTrue(nodeA.runExclusively(JOB, LEASE, Duration.ZERO, () -> {
+            nodeA.checkFence();
+            fencedWrites.incrementAndGet();
+
+            // A 가 멈춘 사이 lease 가 지나 B 가 가져감
+            jdbcTemplate.update("UPDATE scheduler_lock SET locked_until = ? WHERE name = ?",
+                    Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), JOB);
+            assertTrue(onOtherThread(() -> nodeB.runExclusively(JOB, LEASE, Duration.ofMinutes(1), () -> { })));
+
+            // 깨어난 A 의 다음 쓰기는 토큰이 맞지 않아 거부
+            assertThrows(IllegalStateException.class, nodeA::checkFence);
+        }));
+
+        assertEquals(1, fencedWrites.get());
+        assertEquals("node-b", schedulerLockRepository.findById(JOB).orElseThrow().getOwner());
+        assertEquals(2L, schedulerLockRepository.findFencingToken(JOB));
+    }
+
+    @Test
+    void concurrentNodesRunJobOnce() throws Exception {
+        int nodes = 8;
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(nodes);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            SchedulerLockService node = new SchedulerLockService(schedulerLockRepository, transactionTemplate, "node-" + i);
+            results.add(executor.submit(() -> {
+                start.await();
+                return node.runExclusively(JOB, LEASE, Duration.ofMinutes(1), runs::incrementAndGet);
+            }));
+        }
+        start.countDown();
+
+        int ran = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(10, TimeUnit.SECONDS)) {
+                ran++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, ran);
+        assertEquals(1, runs.get());
+        assertEquals(1L, schedulerLockRepository.findFencingToken(JOB));
+    }
+
+    // 잠금은 스레드별로 잡으므로 다른 서버 흉내는 다른 스레드에서
+    private boolean onOtherThread(Callable<Boolean> task) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(task).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
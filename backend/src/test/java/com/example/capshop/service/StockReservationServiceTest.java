@@ -0,0 +1,152 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capshop.domain.Cap;
+import com.example.capshop.domain.CapStock;
+import com.example.capshop.dto.StockLine;
+import com.example.capshop.dto.StockReservationResult;
+import com.example.capshop.repository.CapRepository;
+import com.example.capshop.repository.CapStockRepository;
+import com.example.capshop.repository.StockHoldRepository;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceTest {
+
+    private static final long INITIAL_STOCK = 100L;
+    private static final int BUYERS = 2000;
+    private static final int CONNECTIONS = 16; // Hikari 풀 크기 정도로 동시 접속 제한
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CapRepository capRepository;
+    @Autowired
+    private CapStockRepository capStockRepository;
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    private StockReservationService stockReservationService;
+    private TransactionTemplate tx;
+    private Long capId;
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationService(
+                new JdbcTemplate(dataSource), stockHoldRepository, event -> { }, 15);
+        tx = new TransactionTemplate(transactionManager);
+
+        capId = tx.execute(status -> {
+            Cap cap = new Cap();
+            cap.setName("drop cap");
+            cap.setPrice(39000L);
+            cap.setStock(0L);
+            Cap saved = capRepository.save(cap);
+            capStockRepository.save(new CapStock(saved, "M", INITIAL_STOCK));
+            capStockRepository.save(new CapStock(saved, "L", 1L));
+            return saved.getId();
+        });
+    }
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        Semaphore connections = new Semaphore(CONNECTIONS);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < BUYERS; i++) {
+                executor.submit(() -> {
+                    connections.acquireUninterruptibly();
+                    try {
+                        StockReservationResult result = tx.execute(status ->
+                                stockReservationService.reserve(List.of(new StockLine(capId, "M", 1))));
+                        if (result.isAllReserved()) {
+                            sold.incrementAndGet();
+                        }
+                    } finally {
+                        connections.release();
+                    }
+                });
+            }
+        }
+
+        assertEquals(INITIAL_STOCK, sold.get());
+        assertEquals(0L, currentStock("M"));
+    }
+
+    @Test
+    void multiLineCheckoutReportsPerLineResultAndRollsBack() {
+        List<StockLine> lines = new ArrayList<>();
+        lines.add(new StockLine(capId, "M", 2));
+        lines.add(new StockLine(capId, "L", 5)); // 재고 1개 → 실패
+
+        StockReservationResult result = tx.execute(status -> {
+            StockReservationResult r = stockReservationService.reserve(lines);
+            if (!r.isAllReserved()) {
+                status.setRollbackOnly();
+            }
+            return r;
+        });
+
+        assertTrue(result.getLines().get(0).isReserved());
+        assertFalse(result.getLines().get(1).isReserved());
+        assertEquals(1, result.getFailedLines().size());
+        // 실패 라인 때문에 롤백되었으므로 성공 라인의 차감도 남지 않는다
+        assertEquals(INITIAL_STOCK, currentStock("M"));
+        assertEquals(1L, currentStock("L"));
+    }
+
+    @Test
+    void expiredHoldsAreReleasedInBulk() {
+        tx.executeWithoutResult(status ->
+                stockReservationService.hold(1L, List.of(new StockLine(capId, "M", 3))));
+        assertEquals(INITIAL_STOCK - 3, availableStock("M"));
+
+        int released = tx.execute(status ->
+                stockReservationService.releaseExpiredHolds(java.time.LocalDateTime.now().plusHours(1)));
+
+        assertEquals(1, released);
+        assertEquals(INITIAL_STOCK, availableStock("M"));
+        assertEquals(INITIAL_STOCK, currentStock("M"));
+    }
+
+    private long availableStock(String size) {
+        return tx.execute(status -> capStockRepository.findAll().stream()
+                .filter(s -> s.getCap().getId().equals(capId) && s.getSize().equals(size))
+                .findFirst()
+                .map(CapStock::getAvailableStock)
+                .orElseThrow());
+    }
+
+    private long currentStock(String size) {
+        return tx.execute(status -> capStockRepository.findAll().stream()
+                .filter(s -> s.getCap().getId().equals(capId) && s.getSize().equals(size))
+                .findFirst()
+                .map(CapStock::getStock)
+                .orElseThrow());
+    }
+}
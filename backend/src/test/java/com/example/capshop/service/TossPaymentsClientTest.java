@@ -0,0 +1,146 @@
+package com.example.capshop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+
+class TossPaymentsClientTest {
+
+    // 로컬 토스 대역: 앞의 failures 번은 failStatus 로 실패하고, 매 요청 delayMillis 만큼 늦게 응답
+    private HttpServer server;
+    private ExecutorService executor;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+    private volatile int failures;
+    private volatile int failStatus = 500;
+    private volatile long delayMillis;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/payments", exchange -> {
+            int n = requests.incrementAndGet();
+            idempotencyKeys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            exchange.getRequestBody().readAllBytes();
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String body;
+            int status;
+            if (n <= failures) {
+                status = failStatus;
+                body = "{\"code\":\"FAILED_INTERNAL_SYSTEM_PROCESSING\",\"message\":\"내부 오류\"}";
+            } else {
+                status = 200;
+                body = "{\"status\":\"DONE\",\"method\":\"카드\",\"totalAmount\":15000}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            } catch (IOException ignored) {
+                // 클라이언트가 타임아웃으로 먼저 끊은 경우
+            }
+        });
+        // 기본 실행기는 요청을 하나씩 처리해서, 늦은 첫 요청 뒤에 재시도가 줄을 서 버린다
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void retriesServerErrorsWithSameIdempotencyKey() {
+        failures = 2;
+        TossPaymentsClient client = client(1000, 3, 5);
+
+        JsonNode response = client.confirm("pay_1", "ORDER-1", 15000);
+
+        assertEquals("DONE", response.get("status").asText());
+        assertEquals(3, requests.get());
+        assertEquals(List.of("confirm-pay_1", "confirm-pay_1", "confirm-pay_1"), idempotencyKeys);
+        assertEquals("CLOSED", client.stats().get("circuit"));
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        failures = 10;
+        failStatus = 400;
+        TossPaymentsClient client = client(1000, 3, 5);
+
+        TossPaymentsClient.TossPaymentException e = assertThrows(TossPaymentsClient.TossPaymentException.class,
+                () -> client.cancel("pay_1", "고객 주문 취소"));
+
+        assertEquals(1, requests.get());
+        assertEquals(400, e.getStatus());
+        assertEquals("FAILED_INTERNAL_SYSTEM_PROCESSING", e.getCode());
+        assertFalse(e.isOutcomeUnknown());
+    }
+
+    @Test
+    void slowResponseTimesOutAsUnknownOutcome() {
+        delayMillis = 500;
+        TossPaymentsClient client = client(100, 2, 5);
+
+        TossPaymentsClient.TossPaymentException e = assertThrows(TossPaymentsClient.TossPaymentException.class,
+                () -> client.confirm("pay_1", "ORDER-1", 15000));
+
+        assertEquals("TIMEOUT", e.getCode());
+        assertTrue(e.isOutcomeUnknown());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void circuitOpensAfterConsecutiveFailures() {
+        failures = 100;
+        TossPaymentsClient client = client(1000, 1, 2);
+
+        assertThrows(TossPaymentsClient.TossPaymentException.class, () -> client.confirm("p", "O-1", 1000));
+        assertThrows(TossPaymentsClient.TossPaymentException.class, () -> client.confirm("p", "O-2", 1000));
+        TossPaymentsClient.TossPaymentException e = assertThrows(TossPaymentsClient.TossPaymentException.class,
+                () -> client.confirm("p", "O-3", 1000));
+
+        assertEquals("CIRCUIT_OPEN", e.getCode());
+        assertFalse(e.isOutcomeUnknown()); // 요청을 보내지 않았으므로 결과가 확정됨
+        assertEquals(2, requests.get());
+        assertEquals("OPEN", client.stats().get("circuit"));
+        Map<String, Object> confirm = (Map<String, Object>) client.stats().get("confirm");
+        assertEquals(2L, confirm.get("calls"));
+        assertEquals(2L, confirm.get("failures"));
+    }
+
+    private TossPaymentsClient client(long readTimeoutMs, int maxAttempts, int circuitThreshold) {
+        return new TossPaymentsClient("http://127.0.0.1:" + server.getAddress().getPort(), "test_sk",
+                1000, readTimeoutMs, maxAttempts, 10, circuitThreshold, 60);
+    }
+}
@@ -14,6 +14,8 @@ type CartItem = {
   price: number;
   mainImageUrl: string;
   size: string;
+  availableStock: number | null; // 선택한 사이즈의 구매 가능 재고
+  subTotal: number;
 };
 
 export default function CartPage() {
@@ -51,7 +53,8 @@ export default function CartPage() {
       .then(() => {
         fetchCart();
         refreshCartCount();
-      });
+      })
+      .catch((err) => alert(err.response?.data?.error || "수량을 늘리지 못했습니다."));
   };
 
   // 수량 감소
@@ -79,8 +82,12 @@ export default function CartPage() {
       .then(() => fetchCart());
   };
 
+  // 목록 응답에 사이즈별 재고가 같이 오므로 상품별 재고 조회 없이 + 버튼을 막는다
+  const isAtStockLimit = (item: CartItem) =>
+    item.availableStock !== null && item.quantity >= item.availableStock;
+
   // 총 가격과 총 개수 계산
-  const totalPrice = items.reduce((sum, item) => sum + item.price * item.quantity, 0);
+  const totalPrice = items.reduce((sum, item) => sum + item.subTotal, 0);
   const totalCount = items.reduce((sum, item) => sum + item.quantity, 0);
 
   if (!user) {
@@ -188,7 +195,7 @@ export default function CartPage() {
                                   가격: {item.price.toLocaleString()} x{" "}
                                   {item.quantity} ={" "}
                                   <span className="font-bold">
-                                    {(item.price * item.quantity).toLocaleString()}
+                                    {item.subTotal.toLocaleString()}
                                   </span>
                                   원
                                 </div>
@@ -204,7 +211,8 @@ export default function CartPage() {
                               <span>{item.quantity}</span>
                               <button
                                 onClick={() => handleIncrease(item.capId, item.size)}
-                                className="px-2 py-1 rounded bg-slate-200 hover:bg-slate-300"
+                                disabled={isAtStockLimit(item)}
+                                className="px-2 py-1 rounded bg-slate-200 hover:bg-slate-300 disabled:opacity-40"
                               >
                                 +
                               </button>
@@ -302,7 +310,7 @@ export default function CartPage() {
                     <div className="text-xs text-white/80 mt-1">
                       {item.price.toLocaleString()}원 × {item.quantity} ={" "}
                       <span className="font-bold">
-                        {(item.price * item.quantity).toLocaleString()}원
+                        {item.subTotal.toLocaleString()}원
                       </span>
                     </div>
                   </div>
@@ -317,7 +325,8 @@ export default function CartPage() {
                       <span className="text-sm">{item.quantity}</span>
                       <button
                         onClick={() => handleIncrease(item.capId, item.size)}
-                        className="w-7 h-7 flex items-center justify-center rounded bg-white/20 text-white text-sm"
+                        disabled={isAtStockLimit(item)}
+                        className="w-7 h-7 flex items-center justify-center rounded bg-white/20 text-white text-sm disabled:opacity-40"
                       >
                         +
                       </button>
@@ -2,22 +2,31 @@ import { useEffect, useMemo, useState } from "react";
 
 const SERVER = "http://localhost:8080";
 
+type OrderItem = {
+  id: number;
+  capId: number;
+  capName: string;
+  quantity: number;
+  selectedSize?: string | null;
+};
+
 type Order = {
   id: number;
   orderId: string;
   status: string;
   totalPrice: number;
-  createdAt: string;
-  orderDate?: string;
-  itemsJson?: string;
+  orderDate: string;
   trackingNumber?: string | null;
   returnTrackingNumber?: string | null;
+  userName?: string | null;
+  userEmail?: string | null;
+  orderItems: OrderItem[];
 };
 
-type OrderItem = {
-  capId: number;
-  quantity: number;
-  size?: string | null;
+type OrderPage = {
+  items: Order[];
+  nextCursor: string | null;
+  hasNext: boolean;
 };
 
 interface OrderManagementProps {
@@ -31,9 +40,14 @@ export default function OrderManagement({ isOpen, onToggle }: OrderManagementPro
   const [actionLoading, setActionLoading] = useState<number | null>(null);
   const [statusFilter, setStatusFilter] = useState<string>("ALL");
   const [sortMode, setSortMode] = useState<"asc" | "desc">("asc");
+  const [orderIdQuery, setOrderIdQuery] = useState("");
+  const [fromDate, setFromDate] = useState("");
+  const [toDate, setToDate] = useState("");
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [hasNext, setHasNext] = useState(false);
 
   const getOrderTime = (o: Order) => {
-    const t = new Date((o.orderDate ?? o.createdAt) as string).getTime();
+    const t = new Date(o.orderDate).getTime();
     return Number.isFinite(t) ? t : 0;
   };
 
@@ -48,17 +62,25 @@ export default function OrderManagement({ isOpen, onToggle }: OrderManagementPro
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [statusFilter]);
 
-  const fetchOrders = async () => {
+  // 첫 페이지부터 다시 조회 (cursor 를 주면 다음 페이지를 이어 붙임)
+  const fetchOrders = async (cursor?: string | null) => {
     setLoading(true);
     try {
       const token = localStorage.getItem("access_token");
-      const query = statusFilter !== "ALL" ? `?status=${statusFilter}` : "";
-      const res = await fetch(`${SERVER}/api/admin/orders${query}`, {
+      const params = new URLSearchParams();
+      if (statusFilter !== "ALL") params.set("status", statusFilter);
+      if (orderIdQuery.trim()) params.set("orderId", orderIdQuery.trim());
+      if (fromDate) params.set("from", fromDate);
+      if (toDate) params.set("to", toDate);
+      if (cursor) params.set("cursor", cursor);
+      const res = await fetch(`${SERVER}/api/admin/orders?${params.toString()}`, {
         headers: token ? { Authorization: `Bearer ${token}` } : {},
       });
       if (res.ok) {
-        const data = await res.json();
-        setOrders(data);
+        const data: OrderPage = await res.json();
+        setOrders((prev) => (cursor ? [...prev, ...data.items] : data.items));
+        setNextCursor(data.nextCursor);
+        setHasNext(data.hasNext);
       }
     } catch (e) {
       console.error("관리자 주문 조회 실패:", e);
@@ -67,15 +89,6 @@ export default function OrderManagement({ isOpen, onToggle }: OrderManagementPro
     }
   };
 
-  const parseItems = (itemsJson?: string): OrderItem[] => {
-    if (!itemsJson) return [];
-    try {
-      return JSON.parse(itemsJson);
-    } catch {
-      return [];
-    }
-  };
-
   const getStatusText = (status: string) => {
     const statusMap: { [key: string]: string } = {
       ORDERED: "상품 준비중",
@@ -299,22 +312,51 @@ export default function OrderManagement({ isOpen, onToggle }: OrderManagementPro
               {sortMode === "asc" ? "최신순" : "시간순"}
             </button>
             <button
-              onClick={fetchOrders}
+              onClick={() => fetchOrders()}
               className="px-3 py-1 border rounded text-sm bg-blue-300 hover:bg-blue-200"
             >
               새로고침
             </button>
           </div>
 
+          <div className="flex items-center justify-end gap-2 mt-2">
+            <input
+              className="border rounded px-2 py-1 text-sm"
+              placeholder="주문번호 앞부분"
+              value={orderIdQuery}
+              onChange={(e) => setOrderIdQuery(e.target.value)}
+              onKeyDown={(e) => e.key === "Enter" && fetchOrders()}
+            />
+            <input
+              type="date"
+              className="border rounded px-2 py-1 text-sm"
+              value={fromDate}
+              onChange={(e) => setFromDate(e.target.value)}
+            />
+            <span className="text-sm text-gray-600">~</span>
+            <input
+              type="date"
+              className="border rounded px-2 py-1 text-sm"
+              value={toDate}
+              onChange={(e) => setToDate(e.target.value)}
+            />
+            <button
+              onClick={() => fetchOrders()}
+              className="px-3 py-1 border rounded text-sm bg-blue-300 hover:bg-blue-200"
+            >
+              검색
+            </button>
+          </div>
+
           <div className="mt-4">
-            {loading ? (
+            {loading && orders.length === 0 ? (
               <p className="text-black">로딩 중...</p>
             ) : orders.length === 0 ? (
               <p className="text-black">주문이 없습니다.</p>
             ) : (
               <div className="space-y-3">
                 {displayedOrders.map((order) => {
-                  const items = parseItems(order.itemsJson);
+                  const items = order.orderItems ?? [];
                   return (
                     <div key={order.id} className="border rounded p-4">
                       <div className="flex items-start justify-between mb-2">
@@ -323,8 +365,14 @@ export default function OrderManagement({ isOpen, onToggle }: OrderManagementPro
                             주문번호: <span className="font-mono">{order.orderId}</span>
                           </p>
                           <p className="text-xs text-black">
-                            주문일: {new Date(order.orderDate ?? order.createdAt).toLocaleString("ko-KR")}
+                            주문일: {new Date(order.orderDate).toLocaleString("ko-KR")}
                           </p>
+                          {order.userName && (
+                            <p className="text-xs text-black">
+                              주문자: {order.userName}
+                              {order.userEmail ? ` (${order.userEmail})` : ""}
+                            </p>
+                          )}
                         </div>
                         <span className={`text-sm font-bold ${getStatusColor(order.status)}`}>
                           {getStatusText(order.status)}
@@ -333,10 +381,10 @@ export default function OrderManagement({ isOpen, onToggle }: OrderManagementPro
 
                       {items.length > 0 && (
                         <div className="mb-3 space-y-1">
-                          {items.map((item, idx) => (
-                            <p key={idx} className="text-sm text-gray-800">
-                              상품 ID: {item.capId} × {item.quantity}개
-                              {item.size ? ` / 사이즈: ${item.size}` : ""}
+                          {items.map((item) => (
+                            <p key={item.id} className="text-sm text-gray-800">
+                              {item.capName} × {item.quantity}개
+                              {item.selectedSize ? ` / 사이즈: ${item.selectedSize}` : ""}
                             </p>
                           ))}
                         </div>
@@ -402,6 +450,17 @@ export default function OrderManagement({ isOpen, onToggle }: OrderManagementPro
                     </div>
                   );
                 })}
+                {hasNext && (
+                  <div className="flex justify-center">
+                    <button
+                      onClick={() => fetchOrders(nextCursor)}
+                      disabled={loading}
+                      className="px-4 py-1.5 border rounded text-sm bg-blue-300 hover:bg-blue-200 disabled:opacity-50"
+                    >
+                      {loading ? "불러오는 중..." : "더 보기"}
+                    </button>
+                  </div>
+                )}
               </div>
             )}
           </div>
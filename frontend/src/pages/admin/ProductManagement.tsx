@@ -127,7 +127,9 @@ export default function ProductManagement({
       const token = localStorage.getItem("access_token");
       
       // 먼저 상품의 사이즈별 재고 정보를 가져옴
-      const stocksResponse = await fetch(`${SERVER}/cap/stocks/${capId}`);
+      const stocksResponse = await fetch(`${SERVER}/api/admin/caps/${capId}/stocks/physical`, {
+        headers: token ? { Authorization: `Bearer ${token}` } : {},
+      });
       if (stocksResponse.ok) {
         const stocksData = await stocksResponse.json();
         
@@ -340,16 +340,38 @@ export default function PaymentPage() {
     
     console.log('결제 진행 - 할인 적용 내역:', paymentInfo);
     
+    // 서버 견적으로 최종 금액 확정 (서명된 견적을 결제 승인 때 그대로 전달)
+    let quote: any;
+    try {
+      const res = await api.post(
+        `${import.meta.env.DEV ? 'http://localhost:8080' : ''}/api/checkout/quote`,
+        {
+          orderId: checkout.orderId,
+          userCouponId: selectedCoupon?.id ?? null,
+          pointsToUse: usePoints,
+        },
+        { validateStatus: (s) => s >= 200 && s < 300 }
+      );
+      quote = res.data;
+    } catch (e: any) {
+      console.error('결제 금액 견적 실패:', e);
+      return alert(e?.response?.data?.error || '결제 금액을 확인하지 못했습니다. 잠시 후 다시 시도해주세요.');
+    }
+    paymentInfo.finalAmount = quote.finalAmount;
+    await tossWidgetsRef.current.setAmount({ currency: 'KRW', value: quote.finalAmount });
+
     // 결제 정보를 sessionStorage에 저장 (결제 완료 후 추적 가능)
     sessionStorage.setItem(`payment:${checkout.orderId}`, JSON.stringify(paymentInfo));
     
-    // SuccessPage에서 백엔드로 전송할 할인 정보도 저장
+    // SuccessPage에서 백엔드로 전송할 할인 정보 (서버 견적 + 서명)
     const discountInfo = {
-      userCouponId: selectedCoupon?.id ?? null,  // ✅ userCouponId로 변경
-      couponDiscount: paymentInfo.couponDiscount,
-      pointsUsed: paymentInfo.pointsUsed,
-      originalAmount: paymentInfo.originalAmount,
-      finalAmount: paymentInfo.finalAmount,
+      userCouponId: quote.userCouponId,
+      couponDiscount: quote.couponDiscount,
+      pointsUsed: quote.pointsUsed,
+      originalAmount: quote.originalAmount,
+      finalAmount: quote.finalAmount,
+      expiresAt: quote.expiresAt,
+      signature: quote.signature,
     };
     sessionStorage.setItem(`discount:${checkout.orderId}`, JSON.stringify(discountInfo));
 
@@ -85,10 +85,11 @@ export default function CapDetailPage() {
   const fetchReviews = async () => {
     if (!id) return;
     try {
-      const reviewsResponse = await fetch(`${SERVER}/reviews/cap/${id}`);
+      // 상세 화면에는 최신 5개만 (전체 개수는 통계에서)
+      const reviewsResponse = await fetch(`${SERVER}/reviews/cap/${id}?size=5`);
       if (reviewsResponse.ok) {
         const reviewsData = await reviewsResponse.json();
-        setReviews(reviewsData);
+        setReviews(reviewsData.items);
       }
 
       const statsResponse = await fetch(
@@ -213,9 +214,13 @@ export default function CapDetailPage() {
         }),
       });
 
-      saveRes.ok
-        ? toast("장바구니에 추가되었습니다!")
-        : toast("장바구니 추가에 실패했습니다.");
+      if (saveRes.ok) {
+        toast("장바구니에 추가되었습니다!");
+      } else {
+        // 동시에 담은 수량까지 합쳐 서버가 재고 한도를 다시 확인한다 (초과면 409)
+        const data = await saveRes.json().catch(() => null);
+        toast(data?.error || "장바구니 추가에 실패했습니다.");
+      }
     } catch (e) {
       console.error(e);
       toast("오류가 발생했습니다.");
@@ -604,7 +609,7 @@ export default function CapDetailPage() {
               </div>
             ))}
 
-            {reviews.length > 5 && (
+            {reviewStats.totalReviews > 5 && (
               <div className="text-center mt-4">
                 <button
                   onClick={() => {
@@ -612,7 +617,7 @@ export default function CapDetailPage() {
                   }}
                   className="text-blue-600 hover:text-blue-800 font-medium"
                 >
-                  리뷰 {reviews.length}개 모두 보기 →
+                  리뷰 {reviewStats.totalReviews}개 모두 보기 →
                 </button>
               </div>
             )}
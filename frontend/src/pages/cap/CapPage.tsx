@@ -6,7 +6,7 @@ const SERVER = "http://localhost:8080";
 
 export default function CapPage() {
   const [caps, setCaps] = useState<
-    Array<{ id: number; name: string; price: number; mainImageUrl: string; color: string; stock?: number }>
+    Array<{ id: number; name: string; price: number; mainImageUrl: string; mainImageSrcset?: string; color: string; stock?: number }>
   >([]);
   const navigate = useNavigate();
   const [isMobile, setIsMobile] = useState(false);
@@ -45,6 +45,9 @@ export default function CapPage() {
             <div key={cap.id} className="flex flex-col items-center mb-16">
               <img
                 src={cap.mainImageUrl}
+                srcSet={cap.mainImageSrcset ?? undefined}
+                sizes="(max-width: 768px) 100vw, 700px"
+                loading="lazy"
                 alt={cap.name}
                 className={
                   isMobile
@@ -6,13 +6,13 @@ const SERVER = "http://localhost:8080";
 
 type PointsHistory = {
   id: number;
-  userId: number;
-  pointsChange: number; // + 또는 - 값
+  amount: number; // + 또는 - 값
   reason: string;
   createdAt: string;
-  remainingPoints: number;
 };
 
+const HISTORY_PAGE_SIZE = 20;
+
 type UserCoupon = {
   id: number; // userCoupon id
   available?: boolean;
@@ -38,7 +38,9 @@ export default function PointsPage() {
   const navigate = useNavigate();
   const { user } = useAuth();
   const [currentPoints, setCurrentPoints] = useState<number>(0);
-  const [pointsHistory, _setPointsHistory] = useState<PointsHistory[]>([]);
+  const [pointsHistory, setPointsHistory] = useState<PointsHistory[]>([]);
+  const [historyCursor, setHistoryCursor] = useState<string | null>(null);
+  const [historyLoading, setHistoryLoading] = useState(false);
   const [loading, setLoading] = useState(true);
   const [userCoupons, setUserCoupons] = useState<UserCoupon[]>([]);
   const [couponsLoading, setCouponsLoading] = useState(false);
@@ -53,6 +55,7 @@ export default function PointsPage() {
     }
     
     fetchUserPoints();
+    fetchPointsHistory(null);
     fetchUserCoupons();
   }, [user, navigate]);
 
@@ -80,6 +83,32 @@ export default function PointsPage() {
     }
   };
 
+  // 적립금 내역 (cursor 가 null 이면 첫 페이지부터 다시)
+  const fetchPointsHistory = async (cursor: string | null) => {
+    if (!user?.id) return;
+    setHistoryLoading(true);
+    try {
+      const token = localStorage.getItem("access_token");
+      const params = new URLSearchParams({ size: String(HISTORY_PAGE_SIZE) });
+      if (cursor) params.set("cursor", cursor);
+      const response = await fetch(`${SERVER}/api/points/user/${user.id}/history?${params}`, {
+        headers: token ? { Authorization: `Bearer ${token}` } : {},
+      });
+      if (!response.ok) {
+        console.error("적립금 내역 조회 실패");
+        return;
+      }
+      const data = await response.json();
+      const items: PointsHistory[] = Array.isArray(data.items) ? data.items : [];
+      setPointsHistory((prev) => (cursor ? [...prev, ...items] : items));
+      setHistoryCursor(data.nextCursor ?? null);
+    } catch (error) {
+      console.error("적립금 내역 조회 중 오류:", error);
+    } finally {
+      setHistoryLoading(false);
+    }
+  };
+
   const fetchUserCoupons = async () => {
     if (!user?.id) return;
     setCouponsLoading(true);
@@ -304,16 +333,24 @@ export default function PointsPage() {
                                 </p>
                               </div>
                               <div className="text-right">
-                                <p className={`text-sm font-bold ${history.pointsChange > 0 ? 'text-blue-600' : 'text-red-600'}`}>
-                                  {history.pointsChange > 0 ? '+' : ''}{history.pointsChange.toLocaleString()}P
-                                </p>
-                                <p className="text-xs text-black/60">
-                                  잔액: {history.remainingPoints.toLocaleString()}P
+                                <p className={`text-sm font-bold ${history.amount > 0 ? 'text-blue-600' : 'text-red-600'}`}>
+                                  {history.amount > 0 ? '+' : ''}{history.amount.toLocaleString()}P
                                 </p>
                               </div>
                             </div>
                           ))}
                         </div>
+                        {historyCursor && (
+                          <div className="text-center mt-3">
+                            <button
+                              onClick={() => fetchPointsHistory(historyCursor)}
+                              disabled={historyLoading}
+                              className="px-4 py-1 text-sm text-black rounded border border-black/30 hover:bg-white/30"
+                            >
+                              {historyLoading ? '불러오는 중...' : '더 보기'}
+                            </button>
+                          </div>
+                        )}
                       </div>
                     )}
                   </div>
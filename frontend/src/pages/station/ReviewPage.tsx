@@ -15,31 +15,45 @@ type Review = {
 export default function ReviewPage() {
   const [reviews, setReviews] = useState<Review[]>([]);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [currentPage, setCurrentPage] = useState(1);
   const itemsPerPage = 5;
 
-  useEffect(() => {
-    const fetchReviews = async () => {
-      try {
-        const response = await fetch(`${SERVER}/reviews`);
-        if (!response.ok) {
-          throw new Error("Failed to fetch reviews");
-        }
-        const data: Review[] = await response.json();
-        // Sort latest first
-        data.sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime());
-        setReviews(data);
-        setCurrentPage(1);
-      } catch (error) {
-        console.error("Error fetching reviews:", error);
-      } finally {
-        setLoading(false);
-      }
-    };
+  // 서버가 최신순으로 20개씩 내려준다 (cursor: 이전 응답의 nextCursor)
+  const fetchReviews = async (cursor: string | null) => {
+    const params = new URLSearchParams({ size: "20" });
+    if (cursor) params.set("cursor", cursor);
+    const response = await fetch(`${SERVER}/reviews?${params.toString()}`);
+    if (!response.ok) {
+      throw new Error("Failed to fetch reviews");
+    }
+    const data: { items: Review[]; nextCursor: string | null } = await response.json();
+    setReviews((prev) => (cursor ? [...prev, ...data.items] : data.items));
+    setNextCursor(data.nextCursor);
+  };
 
-    fetchReviews();
+  useEffect(() => {
+    fetchReviews(null)
+      .catch((error) => console.error("Error fetching reviews:", error))
+      .finally(() => setLoading(false));
+    // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []);
 
+  // 불러온 마지막 쪽 다음으로 넘어갈 때 다음 묶음을 받아온다
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      await fetchReviews(nextCursor);
+      setCurrentPage(totalPages + 1);
+    } catch (error) {
+      console.error("Error fetching reviews:", error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const totalPages = Math.max(1, Math.ceil(reviews.length / itemsPerPage));
   useEffect(() => {
     if (currentPage > totalPages) setCurrentPage(totalPages);
@@ -118,6 +132,15 @@ export default function ReviewPage() {
                           {page}
                         </button>
                       ))}
+                      {nextCursor && (
+                        <button
+                          onClick={loadMore}
+                          disabled={loadingMore}
+                          className="px-3 py-1 bg-gray-200 rounded focus:outline-none"
+                        >
+                          {loadingMore ? "..." : "더 보기"}
+                        </button>
+                      )}
                     </div>
                   </div>
                 </>
@@ -165,6 +188,11 @@ export default function ReviewPage() {
                       {page}
                     </button>
                   ))}
+                  {nextCursor && (
+                    <button onClick={loadMore} disabled={loadingMore} className="px-3 py-1 bg-white/20 text-white rounded focus:outline-none">
+                      {loadingMore ? '...' : '더 보기'}
+                    </button>
+                  )}
                 </div>
               </div>
             )}